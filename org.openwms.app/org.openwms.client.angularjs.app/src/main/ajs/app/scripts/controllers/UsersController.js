@@ -171,18 +171,17 @@ define([
 
     $scope.loadUsers = function () {
       $scope.selectedUsers = [];
-      CoreService.getAll("/users", $scope).then(
-        function (users) {
-          $scope.userEntities = users;
-        }, function (e) {
-          onError(e);
-        }
-      );
+      // GET /users returns a page of users, not the Response envelope
+      $http.get($scope.rootUrl + '/users', {params: {size: 500}}).success(function (page) {
+        $scope.userEntities = page.content;
+      }).error(function (data, status) {
+        onError(new Error(status));
+      });
     };
 
     $scope.changePassword = function () {
-      $http.get($scope.rootUrl + '/users').success(function (data, status, headers, config) {
-        $scope.userEntities = data;
+      $http.get($scope.rootUrl + '/users', {params: {size: 500}}).success(function (page, status, headers, config) {
+        $scope.userEntities = page.content;
       });
     };
 
@@ -0,0 +1,92 @@
+/*
+ * openwms.org, the Open Warehouse Management System.
+ * Copyright (C) 2014 Heiko Scherrer
+ *
+ * This file is part of openwms.org.
+ *
+ * openwms.org is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as 
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * openwms.org is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this software. If not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.openwms.client.security;
+
+/**
+ * An AuthToken is the validated content of an authentication token.
+ * 
+ * @author <a href="mailto:scherrer@openwms.org">Heiko Scherrer</a>
+ * @version $Revision: $
+ * @since 1.1
+ */
+public final class AuthToken {
+
+    private final String username;
+    private final long issued;
+    private final long expires;
+    private final long stamp;
+
+    /**
+     * Create a new AuthToken.
+     * 
+     * @param username
+     *            The username the token has been issued for
+     * @param issued
+     *            The issue time in milliseconds
+     * @param expires
+     *            The expiration time in milliseconds
+     * @param stamp
+     *            The credential stamp of the user at issue time
+     */
+    AuthToken(String username, long issued, long expires, long stamp) {
+        this.username = username;
+        this.issued = issued;
+        this.expires = expires;
+        this.stamp = stamp;
+    }
+
+    /**
+     * Get the username.
+     * 
+     * @return the username.
+     */
+    public String getUsername() {
+        return username;
+    }
+
+    /**
+     * Get the issue time.
+     * 
+     * @return the issue time in milliseconds.
+     */
+    public long getIssued() {
+        return issued;
+    }
+
+    /**
+     * Get the expiration time.
+     * 
+     * @return the expiration time in milliseconds.
+     */
+    public long getExpires() {
+        return expires;
+    }
+
+    /**
+     * Get the credential stamp.
+     * 
+     * @return the credential stamp of the user at issue time.
+     */
+    public long getStamp() {
+        return stamp;
+    }
+}
@@ -70,6 +70,10 @@ public class AuthenticationController {
     @Autowired
     @Qualifier("authenticationManager")
     private AuthenticationManager authenticationManager;
+    @Autowired
+    private TokenUtils tokenUtils;
+    @Autowired
+    private TokenRegistry tokenRegistry;
 
     /**
      * Check whether authentication was successful and a security context could
@@ -116,7 +120,8 @@ public class AuthenticationController {
         }
         authResource.setGrants(roles);
         authResource.resetPassword();
-        authResource.setToken(TokenUtils.createToken(userDetails));
+        tokenRegistry.register(userDetails);
+        authResource.setToken(tokenUtils.createToken(userDetails));
         return authResource;
     }
 }
@@ -22,6 +22,7 @@
 package org.openwms.client.security;
 
 import java.io.IOException;
+import java.util.Collection;
 
 import javax.servlet.FilterChain;
 import javax.servlet.ServletException;
@@ -29,17 +30,26 @@ import javax.servlet.ServletRequest;
 import javax.servlet.ServletResponse;
 import javax.servlet.http.HttpServletRequest;
 
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+import org.springframework.security.web.authentication.preauth.PreAuthenticatedAuthenticationToken;
 import org.springframework.web.filter.GenericFilterBean;
 
 /**
  * 
- * A AuthenticationTokenProcessingFilter.
+ * A AuthenticationTokenProcessingFilter authenticates requests that carry a
+ * valid authentication token in the {@value #AUTH_TOKEN} header. The token is
+ * validated by its signature, a user lookup is only necessary if the user is
+ * not known to the {@link TokenRegistry}, e.g. after a restart.
+ * <p>
+ * A validated token is trusted: the Authentication is created as
+ * pre-authenticated from the registered authorities, the credentials are not
+ * checked again per request.
+ * </p>
  * 
  * @author <a href="mailto:scherrer@openwms.org">Heiko Scherrer</a>
  * @version $Revision: $
@@ -51,19 +61,22 @@ public class AuthenticationTokenProcessingFilter extends GenericFilterBean {
      * The AUTH_TOKEN
      */
     public static final String AUTH_TOKEN = "Auth-Token";
-    private final AuthenticationManager authenticationManager;
     private final UserDetailsService userService;
+    private final TokenUtils tokenUtils;
+    private final TokenRegistry tokenRegistry;
 
     /**
      * Create a new AuthenticationTokenProcessingFilter.
      * 
-     * @param authenticationManager
      * @param userService
+     * @param tokenUtils
+     * @param tokenRegistry
      */
-    public AuthenticationTokenProcessingFilter(AuthenticationManager authenticationManager,
-            UserDetailsService userService) {
-        this.authenticationManager = authenticationManager;
+    public AuthenticationTokenProcessingFilter(UserDetailsService userService, TokenUtils tokenUtils,
+            TokenRegistry tokenRegistry) {
         this.userService = userService;
+        this.tokenUtils = tokenUtils;
+        this.tokenRegistry = tokenRegistry;
     }
 
     /**
@@ -83,23 +96,43 @@ public class AuthenticationTokenProcessingFilter extends GenericFilterBean {
         HttpServletRequest httpRequest = (HttpServletRequest) request;
         String authToken = httpRequest.getHeader(AUTH_TOKEN);
 
-        String userName = TokenUtils.getUserNameFromToken(authToken);
-        if (userName != null) {
-
-            // The returned UserDetails object has credentials encoded, we rely
-            // on two AuthenticationProviders here to
-            // come around this issue, one with PasswordEncoder and one without
-            UserDetails userDetails = this.userService.loadUserByUsername(userName);
-            if (TokenUtils.validateToken(authToken, userDetails)) {
-                UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                        userDetails.getUsername(), userDetails.getPassword());
-                authentication.setDetails(new WebAuthenticationDetailsSource()
-                        .buildDetails((HttpServletRequest) request));
-                SecurityContextHolder.getContext().setAuthentication(
-                        this.authenticationManager.authenticate(authentication));
+        AuthToken token = tokenUtils.validateToken(authToken);
+        Collection<GrantedAuthority> authorities = null;
+        if (token != null && !tokenRegistry.isRevoked(token)) {
+            authorities = tokenRegistry.lookup(token);
+            if (authorities == null) {
+                authorities = loadAuthorities(token);
             }
         }
+        if (authorities != null) {
+            PreAuthenticatedAuthenticationToken authentication = new PreAuthenticatedAuthenticationToken(
+                    token.getUsername(), token, authorities);
+            authentication.setDetails(new WebAuthenticationDetailsSource()
+                    .buildDetails((HttpServletRequest) request));
+            SecurityContextHolder.getContext().setAuthentication(authentication);
+        }
         chain.doFilter(request, response);
         SecurityContextHolder.clearContext();
     }
-}
\ No newline at end of file
+
+    /**
+     * Load the user that is not registered yet, the same account checks apply
+     * as on login. The token must have been issued for the current credentials
+     * of the user.
+     */
+    private Collection<GrantedAuthority> loadAuthorities(AuthToken token) {
+        UserDetails userDetails;
+        try {
+            userDetails = this.userService.loadUserByUsername(token.getUsername());
+        } catch (UsernameNotFoundException unfe) {
+            return null;
+        }
+        if (!userDetails.isEnabled() || !userDetails.isAccountNonLocked() || !userDetails.isAccountNonExpired()) {
+            return null;
+        }
+        if (TokenUtils.credentialStamp(userDetails) != token.getStamp()) {
+            return null;
+        }
+        return tokenRegistry.register(userDetails);
+    }
+}
@@ -0,0 +1,224 @@
+/*
+ * openwms.org, the Open Warehouse Management System.
+ * Copyright (C) 2014 Heiko Scherrer
+ *
+ * This file is part of openwms.org.
+ *
+ * openwms.org is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as 
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * openwms.org is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this software. If not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.openwms.client.security;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.openwms.core.event.GrantChangedEvent;
+import org.openwms.core.event.RoleChangedEvent;
+import org.openwms.core.event.RootApplicationEvent;
+import org.openwms.core.event.UserChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationListener;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+/**
+ * A TokenRegistry remembers the authorities of users that have been logged in
+ * with a token and keeps track of revoked tokens. Credentials are not kept,
+ * only the credential stamp of each user, which must match the stamp of the
+ * token.
+ * <p>
+ * An {@link UserChangedEvent} evicts the affected users. Only if their
+ * credentials have changed, all tokens of the affected users that have been
+ * issued so far are revoked as well, an event without usernames then revokes
+ * all tokens issued so far. Saving a {@code Role} or the profile of a user
+ * does not revoke any tokens. Revocations are only kept as long as a revoked
+ * token could still be valid, so the set stays small.
+ * </p>
+ * <p>
+ * Authorities are resolved through {@code Role}s and {@code Grant}s, so each
+ * {@link RoleChangedEvent} and {@link GrantChangedEvent} evicts all users. The
+ * tokens stay valid, the authorities are loaded again with the next request.
+ * A user is kept at most {@code openwms.client.token.registry.time-to-live}
+ * seconds, which also bounds how long changes made on another node are not
+ * seen. At most {@code openwms.client.token.registry.maximum-size} users are
+ * kept.
+ * </p>
+ * 
+ * @author <a href="mailto:scherrer@openwms.org">Heiko Scherrer</a>
+ * @version $Revision: $
+ * @since 1.1
+ */
+@Component
+public class TokenRegistry implements ApplicationListener<RootApplicationEvent> {
+
+    private final Map<String, Registration> users = new ConcurrentHashMap<>();
+    private final Map<String, Long> revocations = new ConcurrentHashMap<>();
+    private volatile long notBefore = 0;
+    @Value("${openwms.client.token.validity:3600}")
+    private long validitySeconds = 3600;
+    @Value("${openwms.client.token.registry.time-to-live:300}")
+    private long timeToLiveSeconds = 300;
+    @Value("${openwms.client.token.registry.maximum-size:10000}")
+    private int maximumSize = 10000;
+
+    /**
+     * Remember the authorities and the credential stamp of an authenticated
+     * user.
+     * 
+     * @param userDetails
+     *            The user a token has been issued for
+     * @return The remembered authorities
+     */
+    public Collection<GrantedAuthority> register(UserDetails userDetails) {
+        Collection<GrantedAuthority> authorities = Collections.unmodifiableList(new ArrayList<GrantedAuthority>(
+                userDetails.getAuthorities()));
+        long now = System.currentTimeMillis();
+        if (users.size() >= maximumSize) {
+            shrink(now);
+        }
+        users.put(userDetails.getUsername(), new Registration(authorities, TokenUtils.credentialStamp(userDetails), now
+                + timeToLiveSeconds * 1000L));
+        return authorities;
+    }
+
+    /**
+     * Remove all expired users and, if still too many, arbitrary ones. They
+     * are loaded again on their next request.
+     */
+    private void shrink(long now) {
+        users.values().removeIf(registration -> registration.expires < now);
+        for (Iterator<String> it = users.keySet().iterator(); it.hasNext() && users.size() >= maximumSize;) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    /**
+     * Find the authorities of the user of a token that has been registered
+     * before.
+     * 
+     * @param token
+     *            The validated token
+     * @return The authorities or <code>null</code> if not registered, evicted,
+     *         expired or the token has been issued for other credentials
+     */
+    public Collection<GrantedAuthority> lookup(AuthToken token) {
+        Registration registration = users.get(token.getUsername());
+        if (registration == null || registration.stamp != token.getStamp()) {
+            return null;
+        }
+        if (registration.expires < System.currentTimeMillis()) {
+            users.remove(token.getUsername(), registration);
+            return null;
+        }
+        return registration.authorities;
+    }
+
+    /**
+     * Check whether the token has been revoked after it was issued.
+     * 
+     * @param token
+     *            The validated token
+     * @return <code>true</code> if revoked, otherwise <code>false</code>
+     */
+    public boolean isRevoked(AuthToken token) {
+        if (token.getIssued() <= notBefore) {
+            return true;
+        }
+        Long revokedAt = revocations.get(token.getUsername());
+        return revokedAt != null && token.getIssued() <= revokedAt;
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * Evict the affected users and revoke their tokens if the credentials
+     * have changed, evict all users if a <code>Role</code> or a
+     * <code>Grant</code> has changed.
+     */
+    @Override
+    public void onApplicationEvent(RootApplicationEvent event) {
+        if (event instanceof RoleChangedEvent || event instanceof GrantChangedEvent) {
+            users.clear();
+        } else if (event instanceof UserChangedEvent) {
+            UserChangedEvent uce = (UserChangedEvent) event;
+            if (!uce.isCredentialsChanged()) {
+                if (uce.isUnspecified()) {
+                    users.clear();
+                } else {
+                    users.keySet().removeAll(uce.getUsernames());
+                }
+                return;
+            }
+            long now = System.currentTimeMillis();
+            if (uce.isUnspecified()) {
+                notBefore = now;
+                users.clear();
+                revocations.clear();
+                return;
+            }
+            for (String username : uce.getUsernames()) {
+                revocations.put(username, now);
+                users.remove(username);
+            }
+            purge(now);
+        }
+    }
+
+    private void purge(long now) {
+        long oldest = now - validitySeconds * 1000L;
+        for (Iterator<Long> it = revocations.values().iterator(); it.hasNext();) {
+            if (it.next() < oldest) {
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * Get the number of users that are kept.
+     * 
+     * @return The number of users
+     */
+    public int getUserCount() {
+        return users.size();
+    }
+
+    /**
+     * Get the number of revocations that are kept.
+     * 
+     * @return The number of revocations
+     */
+    public int getRevocationCount() {
+        return revocations.size();
+    }
+
+    private static final class Registration {
+
+        private final Collection<GrantedAuthority> authorities;
+        private final long stamp;
+        private final long expires;
+
+        private Registration(Collection<GrantedAuthority> authorities, long stamp, long expires) {
+            this.authorities = authorities;
+            this.stamp = stamp;
+            this.expires = expires;
+        }
+    }
+}
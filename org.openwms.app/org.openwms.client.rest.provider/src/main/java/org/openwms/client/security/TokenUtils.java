@@ -21,100 +21,200 @@
  */
 package org.openwms.client.security;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
 import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
 
-import org.springframework.security.core.token.Sha512DigestUtils;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
 
 /**
- * A TokenUtils is an utility class that creates and validates authentication
- * tokens from UserDetails.
+ * A TokenUtils creates and validates authentication tokens from UserDetails.
+ * <p>
+ * A token is a compact binary payload, signed with HMAC-SHA256 and encoded
+ * URL-safe Base64. The payload carries the format version, the version of the
+ * signing key, the issue and expiration time, a credential stamp and the
+ * username. Validation needs no access to the user itself, the signature
+ * proves that the token has been issued by this server. The credential stamp
+ * is derived from the encoded password, so a token does not match the user
+ * anymore once the password has been changed, even on a server that has not
+ * seen the change. Each thread keeps its own initialized
+ * {@link Mac} per signing key, so no key setup is done per request.
+ * </p>
+ * <p>
+ * The signing key is configured with {@code openwms.client.token.secret} and
+ * its version with {@code openwms.client.token.key-version}. A key can be
+ * rotated by moving the former secret to
+ * {@code openwms.client.token.previous-secret}, tokens signed with the
+ * previous key version are accepted until they expire. Without a configured
+ * secret a random key is generated, then all tokens become invalid with a
+ * restart.
+ * </p>
  * 
  * @author <a href="mailto:scherrer@openwms.org">Heiko Scherrer</a>
  * @version $Revision: $
  * @since 0.1
  */
+@Component
 public class TokenUtils {
 
-    private static final String MAGIC_KEY = "spicy";
+    private static final Logger LOGGER = LoggerFactory.getLogger(TokenUtils.class);
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final byte FORMAT_VERSION = 2;
+    /** Format version, key version, issued, expires, credential stamp. */
+    private static final int HEADER_LENGTH = 1 + 1 + 8 + 8 + 8;
+    private static final int SIGNATURE_LENGTH = 32;
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+    private final Map<Integer, ThreadLocal<Mac>> macs = new HashMap<>();
+    private final int keyVersion;
+    private final long validity;
 
     /**
-     * Create a new authentication token from the given username with an
-     * expiration period of one hour.
+     * Create a new TokenUtils.
      * 
-     * @param userDetails
-     *            From where the username is taken
-     * @return Token as colon concatenated String
+     * @param secret
+     *            The secret to sign tokens with, a random one if empty
+     * @param keyVersion
+     *            The version of the secret, between 0 and 255
+     * @param previousSecret
+     *            The secret of the former key version, may be empty
+     * @param validitySeconds
+     *            The lifetime of a token in seconds
      */
-    public static String createToken(UserDetails userDetails) {
-        long expires = System.currentTimeMillis() + 1000L * 60 * 60;
-        StringBuilder tokenBuilder = new StringBuilder();
-        tokenBuilder.append(userDetails.getUsername()).append(":");
-        tokenBuilder.append(expires).append(":");
-        tokenBuilder.append(TokenUtils.computeSignature(userDetails, expires));
-        return tokenBuilder.toString();
+    @Autowired
+    public TokenUtils(@Value("${openwms.client.token.secret:}") String secret,
+            @Value("${openwms.client.token.key-version:1}") int keyVersion,
+            @Value("${openwms.client.token.previous-secret:}") String previousSecret,
+            @Value("${openwms.client.token.validity:3600}") long validitySeconds) {
+        if (keyVersion < 0 || keyVersion > 255) {
+            throw new IllegalArgumentException("Key version must be between 0 and 255 but is " + keyVersion);
+        }
+        this.keyVersion = keyVersion;
+        this.validity = validitySeconds * 1000L;
+        if (StringUtils.hasText(secret)) {
+            macs.put(keyVersion, macFor(secret.getBytes(StandardCharsets.UTF_8)));
+        } else {
+            LOGGER.warn("No token secret configured, a random one is used and tokens do not survive a restart");
+            byte[] random = new byte[SIGNATURE_LENGTH];
+            new SecureRandom().nextBytes(random);
+            macs.put(keyVersion, macFor(random));
+        }
+        if (StringUtils.hasText(previousSecret) && keyVersion > 0) {
+            macs.put(keyVersion - 1, macFor(previousSecret.getBytes(StandardCharsets.UTF_8)));
+        }
+    }
+
+    private static ThreadLocal<Mac> macFor(byte[] secret) {
+        SecretKeySpec key = new SecretKeySpec(secret, ALGORITHM);
+        return ThreadLocal.withInitial(() -> {
+            try {
+                Mac mac = Mac.getInstance(ALGORITHM);
+                mac.init(key);
+                return mac;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("No " + ALGORITHM + " algorithm found on platform!", e);
+            }
+        });
     }
 
     /**
-     * Concatenate credentials with <code>expires</code>, add a salt and hash
-     * this String.
+     * Create a new authentication token for the given user, signed with the
+     * current key.
      * 
      * @param userDetails
-     *            Where to take the credentials from
-     * @param expires
-     *            Expiration lease
-     * @return The hashed String
+     *            From where the username is taken
+     * @return Token as URL-safe Base64 String
      */
-    public static String computeSignature(UserDetails userDetails, long expires) {
-        StringBuilder signatureBuilder = new StringBuilder();
-        signatureBuilder.append(userDetails.getUsername());
-        signatureBuilder.append(":");
-        signatureBuilder.append(expires);
-        signatureBuilder.append(":");
-        signatureBuilder.append(userDetails.getPassword());
-        signatureBuilder.append(":");
-        signatureBuilder.append(TokenUtils.MAGIC_KEY);
-        MessageDigest digest;
-        try {
-            digest = MessageDigest.getInstance("MD5");
-        } catch (NoSuchAlgorithmException e) {
-            throw new IllegalStateException("No MD5 algorithm found on platform!");
-        }
-        return new String(Sha512DigestUtils.shaHex(digest.digest(signatureBuilder.toString().getBytes())));
+    public String createToken(UserDetails userDetails) {
+        long issued = System.currentTimeMillis();
+        byte[] username = userDetails.getUsername().getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_LENGTH + username.length + SIGNATURE_LENGTH);
+        buffer.put(FORMAT_VERSION).put((byte) keyVersion).putLong(issued).putLong(issued + validity)
+                .putLong(credentialStamp(userDetails)).put(username);
+        Mac mac = macs.get(keyVersion).get();
+        mac.update(buffer.array(), 0, buffer.position());
+        buffer.put(mac.doFinal());
+        return ENCODER.encodeToString(buffer.array());
     }
 
     /**
-     * Split token at colons and return the first part as username.
+     * Validate the signature and the expiration time of the
+     * <code>authenticationToken</code> and extract its content.
      * 
      * @param authenticationToken
      *            The token
-     * @return The username or <code>null</code>
+     * @return The content of the token or <code>null</code> if the token is
+     *         malformed, not signed with a known key or expired
      */
-    public static String getUserNameFromToken(String authenticationToken) {
-        if (null == authenticationToken) {
+    public AuthToken validateToken(String authenticationToken) {
+        if (null == authenticationToken || authenticationToken.isEmpty()) {
+            return null;
+        }
+        byte[] raw;
+        try {
+            raw = DECODER.decode(authenticationToken);
+        } catch (IllegalArgumentException iae) {
             return null;
         }
-        String[] parts = authenticationToken.split(":");
-        return parts[0];
+        int payloadLength = raw.length - SIGNATURE_LENGTH;
+        if (payloadLength <= HEADER_LENGTH || raw[0] != FORMAT_VERSION) {
+            return null;
+        }
+        ThreadLocal<Mac> mac = macs.get(raw[1] & 0xFF);
+        if (mac == null) {
+            return null;
+        }
+        Mac m = mac.get();
+        m.update(raw, 0, payloadLength);
+        byte[] expected = m.doFinal();
+        byte[] signature = new byte[SIGNATURE_LENGTH];
+        System.arraycopy(raw, payloadLength, signature, 0, SIGNATURE_LENGTH);
+        if (!MessageDigest.isEqual(expected, signature)) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(raw, 2, payloadLength - 2);
+        long issued = buffer.getLong();
+        long expires = buffer.getLong();
+        if (expires < System.currentTimeMillis()) {
+            return null;
+        }
+        long stamp = buffer.getLong();
+        String username = new String(raw, HEADER_LENGTH, payloadLength - HEADER_LENGTH, StandardCharsets.UTF_8);
+        return new AuthToken(username, issued, expires, stamp);
     }
 
     /**
-     * Validate <code>authenticationToken</code> if expired and its content.
+     * Calculate the credential stamp of a user, the first 8 bytes of the
+     * SHA-256 digest of the encoded password.
      * 
-     * @param authenticationToken
-     *            The token
      * @param userDetails
-     *            To be used for content comparison
-     * @return <code>true</code> is valid, otherwise <code>false</code>
+     *            The user
+     * @return The stamp, <code>0</code> if the user has no password
      */
-    public static boolean validateToken(String authenticationToken, UserDetails userDetails) {
-        String[] parts = authenticationToken.split(":");
-        long expires = Long.parseLong(parts[1]);
-        String signature = parts[2];
-        if (expires < System.currentTimeMillis()) {
-            return false;
+    public static long credentialStamp(UserDetails userDetails) {
+        String password = userDetails.getPassword();
+        if (password == null) {
+            return 0;
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(password.getBytes(StandardCharsets.UTF_8));
+            return ByteBuffer.wrap(digest).getLong();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("No SHA-256 algorithm found on platform!", e);
         }
-        return signature.equals(TokenUtils.computeSignature(userDetails, expires));
     }
 }
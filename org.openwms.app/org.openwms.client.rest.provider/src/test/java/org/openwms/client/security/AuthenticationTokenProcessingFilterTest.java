@@ -0,0 +1,144 @@
+/*
+ * openwms.org, the Open Warehouse Management System.
+ * Copyright (C) 2014 Heiko Scherrer
+ *
+ * This file is part of openwms.org.
+ *
+ * openwms.org is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as 
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * openwms.org is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this software. If not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.openwms.client.security;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+/**
+ * A AuthenticationTokenProcessingFilterTest.
+ * 
+ * @author <a href="mailto:scherrer@openwms.org">Heiko Scherrer</a>
+ * @version $Revision: $
+ * @since 1.1
+ */
+public class AuthenticationTokenProcessingFilterTest {
+
+    private final TokenUtils tokenUtils = new TokenUtils("secret", 1, "", 3600);
+    private UserDetailsService userService;
+    private TokenRegistry tokenRegistry;
+    private AuthenticationTokenProcessingFilter filter;
+    private HttpServletRequest request;
+    private FilterChain chain;
+    private String authenticatedAs;
+
+    /**
+     * Setting up mocks.
+     */
+    @Before
+    public void onBefore() throws Exception {
+        userService = mock(UserDetailsService.class);
+        tokenRegistry = new TokenRegistry();
+        filter = new AuthenticationTokenProcessingFilter(userService, tokenUtils, tokenRegistry);
+        request = mock(HttpServletRequest.class);
+        chain = new FilterChain() {
+
+            @Override
+            public void doFilter(ServletRequest request, ServletResponse response) {
+                authenticatedAs = SecurityContextHolder.getContext().getAuthentication() == null ? null
+                        : SecurityContextHolder.getContext().getAuthentication().getName();
+            }
+        };
+        authenticatedAs = null;
+    }
+
+    private void doFilter(String token) throws Exception {
+        when(request.getHeader(AuthenticationTokenProcessingFilter.AUTH_TOKEN)).thenReturn(token);
+        filter.doFilter(request, mock(HttpServletResponse.class), chain);
+    }
+
+    /**
+     * Test that a token of a registered user is accepted without loading the user.
+     */
+    @Test
+    public final void testRegisteredUser() throws Exception {
+        UserDetails user = TokenUtilsTest.user("encoded");
+        tokenRegistry.register(user);
+
+        doFilter(tokenUtils.createToken(user));
+
+        assertEquals("tester", authenticatedAs);
+        verify(userService, never()).loadUserByUsername(any(String.class));
+    }
+
+    /**
+     * Test that on a registry miss the user is loaded and registered once.
+     */
+    @Test
+    public final void testUnregisteredUser() throws Exception {
+        UserDetails user = TokenUtilsTest.user("encoded");
+        when(userService.loadUserByUsername("tester")).thenReturn(user);
+        String token = tokenUtils.createToken(user);
+
+        doFilter(token);
+        doFilter(token);
+
+        assertEquals("tester", authenticatedAs);
+        verify(userService, times(1)).loadUserByUsername("tester");
+    }
+
+    /**
+     * Test that a token issued before the password has been changed is rejected on a registry miss, like on a node that has not seen the
+     * change.
+     */
+    @Test
+    public final void testTokenOfChangedPassword() throws Exception {
+        String token = tokenUtils.createToken(TokenUtilsTest.user("encoded"));
+        when(userService.loadUserByUsername("tester")).thenReturn(TokenUtilsTest.user("changed"));
+
+        doFilter(token);
+
+        assertNull(authenticatedAs);
+    }
+
+    /**
+     * Test that a token issued before the password has been changed is rejected, even if the user is registered with the new credentials.
+     */
+    @Test
+    public final void testTokenOfChangedPasswordRegistered() throws Exception {
+        String token = tokenUtils.createToken(TokenUtilsTest.user("encoded"));
+        tokenRegistry.register(TokenUtilsTest.user("changed"));
+        when(userService.loadUserByUsername("tester")).thenReturn(TokenUtilsTest.user("changed"));
+
+        doFilter(token);
+
+        assertNull(authenticatedAs);
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * openwms.org, the Open Warehouse Management System.
+ * Copyright (C) 2014 Heiko Scherrer
+ *
+ * This file is part of openwms.org.
+ *
+ * openwms.org is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as 
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * openwms.org is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this software. If not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.openwms.client.security;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Field;
+import java.util.Collections;
+
+import org.junit.Test;
+import org.openwms.core.event.GrantChangedEvent;
+import org.openwms.core.event.RoleChangedEvent;
+import org.openwms.core.event.UserChangedEvent;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+/**
+ * A TokenRegistryTest.
+ * 
+ * @author <a href="mailto:scherrer@openwms.org">Heiko Scherrer</a>
+ * @version $Revision: $
+ * @since 1.1
+ */
+public class TokenRegistryTest {
+
+    private final TokenUtils tokenUtils = new TokenUtils("secret", 1, "", 3600);
+    private final TokenRegistry registry = new TokenRegistry();
+
+    private static UserDetails user(String username) {
+        return new User(username, "encoded", Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER")));
+    }
+
+    private void set(String field, Object value) throws Exception {
+        Field f = TokenRegistry.class.getDeclaredField(field);
+        f.setAccessible(true);
+        f.set(registry, value);
+    }
+
+    /**
+     * Test that a changed Role or Grant evicts the users but does not revoke their tokens.
+     */
+    @Test
+    public final void testRoleAndGrantChangeEvicts() {
+        AuthToken token = tokenUtils.validateToken(tokenUtils.createToken(user("tester")));
+        registry.register(user("tester"));
+        assertNotNull(registry.lookup(token));
+
+        registry.onApplicationEvent(new RoleChangedEvent(this, Collections.singleton("ROLE_USER")));
+        assertNull(registry.lookup(token));
+        assertFalse(registry.isRevoked(token));
+
+        registry.register(user("tester"));
+        registry.onApplicationEvent(new GrantChangedEvent(this, "TMS"));
+        assertNull(registry.lookup(token));
+        assertFalse(registry.isRevoked(token));
+    }
+
+    /**
+     * Test that a changed User evicts the user but does not revoke the tokens as long as the credentials are unchanged.
+     */
+    @Test
+    public final void testUserChangeEvicts() {
+        AuthToken token = tokenUtils.validateToken(tokenUtils.createToken(user("tester")));
+        registry.register(user("tester"));
+        registry.register(user("other"));
+
+        registry.onApplicationEvent(new UserChangedEvent(this, Collections.singleton("tester")));
+
+        assertNull(registry.lookup(token));
+        assertFalse(registry.isRevoked(token));
+        assertEquals(1, registry.getUserCount());
+        assertEquals(0, registry.getRevocationCount());
+    }
+
+    /**
+     * Test that changed credentials of an User evict the user and revoke the tokens.
+     */
+    @Test
+    public final void testCredentialsChangeRevokes() {
+        AuthToken token = tokenUtils.validateToken(tokenUtils.createToken(user("tester")));
+        AuthToken other = tokenUtils.validateToken(tokenUtils.createToken(user("other")));
+        registry.register(user("tester"));
+
+        registry.onApplicationEvent(UserChangedEvent.credentialsOf(this, "tester"));
+
+        assertNull(registry.lookup(token));
+        assertTrue(registry.isRevoked(token));
+        assertFalse(registry.isRevoked(other));
+    }
+
+    /**
+     * Test that expired users are not returned and the number of users is bounded.
+     */
+    @Test
+    public final void testBounded() throws Exception {
+        AuthToken token = tokenUtils.validateToken(tokenUtils.createToken(user("tester")));
+        set("timeToLiveSeconds", -1L);
+        registry.register(user("tester"));
+        assertNull(registry.lookup(token));
+
+        set("timeToLiveSeconds", 300L);
+        set("maximumSize", 2);
+        registry.register(user("a"));
+        registry.register(user("b"));
+        registry.register(user("c"));
+        assertEquals(2, registry.getUserCount());
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * openwms.org, the Open Warehouse Management System.
+ * Copyright (C) 2014 Heiko Scherrer
+ *
+ * This file is part of openwms.org.
+ *
+ * openwms.org is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as 
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * openwms.org is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this software. If not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.openwms.client.security;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.util.Collections;
+
+import org.junit.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+/**
+ * A TokenUtilsTest.
+ * 
+ * @author <a href="mailto:scherrer@openwms.org">Heiko Scherrer</a>
+ * @version $Revision: $
+ * @since 1.1
+ */
+public class TokenUtilsTest {
+
+    private final TokenUtils tokenUtils = new TokenUtils("secret", 1, "", 3600);
+
+    static UserDetails user(String password) {
+        return new User("tester", password, Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER")));
+    }
+
+    /**
+     * Test that a created token is valid and carries the credential stamp.
+     */
+    @Test
+    public final void testCreateAndValidate() {
+        UserDetails user = user("encoded");
+        AuthToken token = tokenUtils.validateToken(tokenUtils.createToken(user));
+
+        assertNotNull(token);
+        assertEquals("tester", token.getUsername());
+        assertEquals(TokenUtils.credentialStamp(user), token.getStamp());
+    }
+
+    /**
+     * Test that a token signed with another secret or modified is rejected.
+     */
+    @Test
+    public final void testValidateTampered() {
+        String token = new TokenUtils("other", 1, "", 3600).createToken(user("encoded"));
+        assertNull(tokenUtils.validateToken(token));
+
+        token = tokenUtils.createToken(user("encoded"));
+        char c = token.charAt(10);
+        assertNull(tokenUtils.validateToken(token.substring(0, 10) + (c == 'A' ? 'B' : 'A') + token.substring(11)));
+        assertNull(tokenUtils.validateToken("garbage"));
+        assertNull(tokenUtils.validateToken(null));
+    }
+
+    /**
+     * Test that the credential stamp changes with the password.
+     */
+    @Test
+    public final void testCredentialStamp() {
+        assertEquals(TokenUtils.credentialStamp(user("encoded")), TokenUtils.credentialStamp(user("encoded")));
+        assertNotEquals(TokenUtils.credentialStamp(user("encoded")), TokenUtils.credentialStamp(user("changed")));
+    }
+}
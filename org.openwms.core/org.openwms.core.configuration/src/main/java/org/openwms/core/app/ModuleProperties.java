@@ -32,6 +32,16 @@ public class ModuleProperties {
      */
     private String initialProperties = "classpath:initial-preferences.xml";
 
+    /**
+     * Whether the initial preferences file is watched for modifications, only if it is located in the file system.
+     */
+    private boolean watchInitialProperties = false;
+
+    /**
+     * Whether persisted preferences are migrated to the typed columns and the compact binary format at startup.
+     */
+    private boolean migrateValues = false;
+
     public String getInitialProperties() {
         return initialProperties;
     }
@@ -39,4 +49,20 @@ public class ModuleProperties {
     public void setInitialProperties(String initialProperties) {
         this.initialProperties = initialProperties;
     }
+
+    public boolean isWatchInitialProperties() {
+        return watchInitialProperties;
+    }
+
+    public void setWatchInitialProperties(boolean watchInitialProperties) {
+        this.watchInitialProperties = watchInitialProperties;
+    }
+
+    public boolean isMigrateValues() {
+        return migrateValues;
+    }
+
+    public void setMigrateValues(boolean migrateValues) {
+        this.migrateValues = migrateValues;
+    }
 }
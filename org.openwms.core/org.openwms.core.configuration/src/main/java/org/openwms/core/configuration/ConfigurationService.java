@@ -23,6 +23,7 @@ package org.openwms.core.configuration;
 
 import javax.validation.constraints.NotNull;
 import java.util.Collection;
+import java.util.function.Consumer;
 
 import org.openwms.core.configuration.file.AbstractPreference;
 
@@ -56,6 +57,17 @@ public interface ConfigurationService {
      */
     <T extends AbstractPreference> Collection<T> findByType(Class<T> clazz, String owner);
 
+    /**
+     * Read all preferences that match the filter criteria one by one and pass each of them to the {@code consumer}. The preferences are not
+     * loaded into memory at once, so this method suits large result sets that are streamed to a client.
+     *
+     * @param scope The scope of preferences, or {@literal null} to search in all scopes
+     * @param owner The owner of preferences, or {@literal null} to not filter by owner
+     * @param keyPrefix The prefix of the preference key, or {@literal null} to not filter by key
+     * @param consumer Called for each matching preference
+     */
+    void forEach(PropertyScope scope, String owner, String keyPrefix, @NotNull Consumer<? super AbstractPreference> consumer);
+
     /**
      * Save the given {@link AbstractPreference} or persist it when it is a transient instance.
      *
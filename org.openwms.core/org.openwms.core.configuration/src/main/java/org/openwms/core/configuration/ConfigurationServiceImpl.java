@@ -21,18 +21,31 @@
  */
 package org.openwms.core.configuration;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import org.ameba.annotation.TxService;
-import org.openwms.core.annotation.FireAfterTransaction;
 import org.openwms.core.configuration.file.AbstractPreference;
+import org.openwms.core.configuration.file.FilePreferencesChangedEvent;
 import org.openwms.core.configuration.file.PreferenceDao;
+import org.openwms.core.configuration.file.PreferenceKey;
+import org.openwms.core.event.AfterCommitEventPublisherImpl;
 import org.openwms.core.event.ConfigurationChangedEvent;
+import org.openwms.core.event.EventPublisher;
 import org.openwms.core.event.MergePropertiesEvent;
+import org.openwms.core.event.RootApplicationEvent;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.ApplicationListener;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.Assert;
 import org.springframework.validation.annotation.Validated;
 
@@ -47,20 +60,31 @@ import org.springframework.validation.annotation.Validated;
 @TxService
 class ConfigurationServiceImpl implements ConfigurationService, ApplicationListener<MergePropertiesEvent> {
 
+    /** Number of preferences written and flushed at once, should match the JDBC batch size. */
+    static final int BATCH_SIZE = 50;
+
     @Autowired
     private PreferenceDao fileDao;
     @Autowired
     private PreferenceRepository preferenceRepository;
+    @Autowired
+    @Qualifier(AfterCommitEventPublisherImpl.COMPONENT_NAME)
+    private EventPublisher<RootApplicationEvent> publisher;
 
     /**
      * {@inheritDoc}
      * <p>
-     * When an event arrives all <i>new</i> preferences received from the file provider are persisted. Already persisted preferences are
-     * ignored.
+     * When an event arrives all <i>new</i> preferences received from the file provider are persisted, already persisted preferences are
+     * never changed. A {@link FilePreferencesChangedEvent} carries the modified preferences already, so only these are merged. A {@link
+     * ConfigurationChangedEvent} is triggered after completion if any preference has been inserted.
      */
     @Override
     public void onApplicationEvent(MergePropertiesEvent event) {
-        mergeApplicationProperties();
+        if (event instanceof FilePreferencesChangedEvent) {
+            mergeApplicationProperties(((FilePreferencesChangedEvent) event).getChangedPreferences());
+        } else {
+            mergeApplicationProperties(fileDao.findAll());
+        }
     }
 
     /**
@@ -87,22 +111,40 @@ class ConfigurationServiceImpl implements ConfigurationService, ApplicationListe
         return result == null ? Collections.<T>emptyList() : result;
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException when {@code consumer} is {@literal null}
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void forEach(PropertyScope scope, String owner, String keyPrefix, Consumer<? super AbstractPreference> consumer) {
+        Assert.notNull(consumer, "Not allowed to call forEach with a NULL consumer");
+        try (Stream<AbstractPreference> stream = preferenceRepository.streamByFilter(scope, owner, keyPrefix)) {
+            stream.forEach(consumer);
+        }
+    }
+
     /**
      * {@inheritDoc}
      * <p>
-     * Not allowed to call this implementation with a {@literal null} argument.
+     * Not allowed to call this implementation with a {@literal null} argument. Triggers a {@link ConfigurationChangedEvent} after
+     * completion.
      *
      * @throws IllegalArgumentException when {@code preference} is {@literal null}
      */
     @Override
-    @FireAfterTransaction(events = {ConfigurationChangedEvent.class})
     public <T extends AbstractPreference> T save(T preference) {
         Assert.notNull(preference, "Not allowed to call save with a NULL argument");
-        return preferenceRepository.save(preference);
+        T saved = preferenceRepository.save(preference);
+        publisher.publish(new ConfigurationChangedEvent(preference));
+        return saved;
     }
 
     /**
      * {@inheritDoc}
+     * <p>
+     * Triggers a {@link ConfigurationChangedEvent} after completion.
      *
      * @throws IllegalArgumentException when {@code preference} is {@literal null}
      */
@@ -110,15 +152,32 @@ class ConfigurationServiceImpl implements ConfigurationService, ApplicationListe
     public void delete(AbstractPreference preference) {
         Assert.notNull(preference, "Not allowed to call remove with a NULL argument");
         preferenceRepository.delete(preference);
+        publisher.publish(new ConfigurationChangedEvent(preference));
     }
 
-    private void mergeApplicationProperties() {
-        List<AbstractPreference> fromFile = fileDao.findAll();
+    private void mergeApplicationProperties(List<AbstractPreference> fromFile) {
         List<AbstractPreference> persistedPrefs = preferenceRepository.findAll();
+        Map<PreferenceKey, AbstractPreference> persisted = new HashMap<>(persistedPrefs.size() * 2);
+        for (AbstractPreference pref : persistedPrefs) {
+            persisted.put(pref.getPrefKey(), pref);
+        }
+        List<AbstractPreference> inserts = new ArrayList<>();
+        Set<PreferenceKey> merged = new HashSet<>(fromFile.size() * 2);
         for (AbstractPreference pref : fromFile) {
-            if (!persistedPrefs.contains(pref)) {
-                preferenceRepository.save(pref);
+            if (merged.add(pref.getPrefKey()) && !persisted.containsKey(pref.getPrefKey())) {
+                inserts.add(pref);
             }
         }
+        saveInBatches(inserts);
+        if (!inserts.isEmpty()) {
+            publisher.publish(new ConfigurationChangedEvent(this));
+        }
+    }
+
+    private void saveInBatches(List<AbstractPreference> preferences) {
+        for (int i = 0; i < preferences.size(); i += BATCH_SIZE) {
+            preferenceRepository.save(preferences.subList(i, Math.min(i + BATCH_SIZE, preferences.size())));
+            preferenceRepository.flush();
+        }
     }
-}
\ No newline at end of file
+}
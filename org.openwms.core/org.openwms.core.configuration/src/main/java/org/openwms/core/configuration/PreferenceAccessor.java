@@ -0,0 +1,97 @@
+/*
+ * openwms.org, the Open Warehouse Management System.
+ * Copyright (C) 2014 Heiko Scherrer
+ *
+ * This file is part of openwms.org.
+ *
+ * openwms.org is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as 
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * openwms.org is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this software. If not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.openwms.core.configuration;
+
+import java.io.Serializable;
+import java.util.Optional;
+
+import org.openwms.core.configuration.file.PreferenceKey;
+
+/**
+ * A PreferenceAccessor offers typed, read-only access to the values of persisted preferences. It is meant for application code that needs
+ * a setting on a hot path. Implementations serve the values from a local cache instead of querying the database on each call.
+ *
+ * @author <a href="mailto:scherrer@openwms.org">Heiko Scherrer</a>
+ * @version 1.0
+ * @see PreferenceKey
+ * @since 1.1
+ */
+public interface PreferenceAccessor {
+
+    /**
+     * Return the String value of a preference.
+     *
+     * @param key The unique key of the preference
+     * @return The value, if the preference exists and has a String value
+     */
+    Optional<String> getString(PreferenceKey key);
+
+    /**
+     * Return the String value of a preference or a default value.
+     *
+     * @param key The unique key of the preference
+     * @param defaultValue Returned if the preference does not exist or has no String value
+     * @return The value
+     */
+    String getString(PreferenceKey key, String defaultValue);
+
+    /**
+     * Return the value of a preference as an int.
+     *
+     * @param key The unique key of the preference
+     * @param defaultValue Returned if the preference does not exist or has no value
+     * @return The value
+     * @throws org.openwms.core.exception.IllegalConfigurationValueException if the value is not an integer
+     */
+    int getInt(PreferenceKey key, int defaultValue);
+
+    /**
+     * Return the value of a preference as a boolean.
+     *
+     * @param key The unique key of the preference
+     * @param defaultValue Returned if the preference does not exist or has no value
+     * @return The value
+     * @throws org.openwms.core.exception.IllegalConfigurationValueException if the value is not a boolean
+     */
+    boolean getBoolean(PreferenceKey key, boolean defaultValue);
+
+    /**
+     * Return the value of a preference as a float. The float value of the preference is returned if set, otherwise the String value is
+     * parsed.
+     *
+     * @param key The unique key of the preference
+     * @param defaultValue Returned if the preference does not exist or has no value
+     * @return The value
+     * @throws org.openwms.core.exception.IllegalConfigurationValueException if the value is not a number
+     */
+    float getFloat(PreferenceKey key, float defaultValue);
+
+    /**
+     * Return the binary value of a preference.
+     *
+     * @param <T> The expected type of the value
+     * @param key The unique key of the preference
+     * @param type The expected type of the value
+     * @return The value, if the preference exists and carries a binary value of type {@code type}
+     */
+    <T extends Serializable> Optional<T> getObject(PreferenceKey key, Class<T> type);
+}
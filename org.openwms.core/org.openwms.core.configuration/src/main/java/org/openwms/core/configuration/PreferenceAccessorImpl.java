@@ -0,0 +1,230 @@
+/*
+ * openwms.org, the Open Warehouse Management System.
+ * Copyright (C) 2014 Heiko Scherrer
+ *
+ * This file is part of openwms.org.
+ *
+ * openwms.org is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as 
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * openwms.org is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this software. If not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.openwms.core.configuration;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import org.openwms.core.configuration.file.AbstractPreference;
+import org.openwms.core.configuration.file.PreferenceKey;
+import org.openwms.core.event.ConfigurationChangedEvent;
+import org.openwms.core.event.MergePropertiesEvent;
+import org.openwms.core.event.RootApplicationEvent;
+import org.openwms.core.exception.IllegalConfigurationValueException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * A PreferenceAccessorImpl loads all persisted preferences once into an immutable map and serves all reads from there. Numeric and
+ * boolean values are taken from the typed columns when the map is built, so a read is a single hash lookup.
+ * <p>
+ * The map is dropped on a {@link ConfigurationChangedEvent} or a {@link MergePropertiesEvent} and lazily rebuilt on the next read.
+ * </p>
+ *
+ * @author <a href="mailto:scherrer@openwms.org">Heiko Scherrer</a>
+ * @version 1.0
+ * @since 1.1
+ */
+@Component
+class PreferenceAccessorImpl implements PreferenceAccessor, ApplicationListener<RootApplicationEvent> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PreferenceAccessorImpl.class);
+    @Autowired
+    private PreferenceRepository preferenceRepository;
+    private volatile Map<PreferenceKey, CachedValue> values;
+    private long generation;
+    private final Object lock = new Object();
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<String> getString(PreferenceKey key) {
+        CachedValue value = lookup(key);
+        return value == null ? Optional.empty() : Optional.ofNullable(value.string);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getString(PreferenceKey key, String defaultValue) {
+        CachedValue value = lookup(key);
+        return value == null || value.string == null ? defaultValue : value.string;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getInt(PreferenceKey key, int defaultValue) {
+        CachedValue value = lookup(key);
+        if (value == null || value.string == null) {
+            return defaultValue;
+        }
+        if (value.intValue == null) {
+            throw new IllegalConfigurationValueException("Value of preference " + key + " is not an integer: " + value.string);
+        }
+        return value.intValue;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean getBoolean(PreferenceKey key, boolean defaultValue) {
+        CachedValue value = lookup(key);
+        if (value == null || value.string == null) {
+            return defaultValue;
+        }
+        if (value.booleanValue == null) {
+            throw new IllegalConfigurationValueException("Value of preference " + key + " is not a boolean: " + value.string);
+        }
+        return value.booleanValue;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public float getFloat(PreferenceKey key, float defaultValue) {
+        CachedValue value = lookup(key);
+        if (value == null || (value.floatValue == null && value.string == null)) {
+            return defaultValue;
+        }
+        if (value.floatValue == null) {
+            throw new IllegalConfigurationValueException("Value of preference " + key + " is not a number: " + value.string);
+        }
+        return value.floatValue;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public <T extends Serializable> Optional<T> getObject(PreferenceKey key, Class<T> type) {
+        CachedValue value = lookup(key);
+        return value == null ? Optional.empty() : Optional.ofNullable(value.binValue).filter(type::isInstance).map(type::cast);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Drop the cached values whenever preferences have been changed or merged.
+     */
+    @Override
+    public void onApplicationEvent(RootApplicationEvent event) {
+        if (event instanceof ConfigurationChangedEvent || event instanceof MergePropertiesEvent) {
+            synchronized (lock) {
+                generation++;
+                values = null;
+            }
+        }
+    }
+
+    private CachedValue lookup(PreferenceKey key) {
+        Map<PreferenceKey, CachedValue> current = values;
+        if (current == null) {
+            long loading;
+            synchronized (lock) {
+                current = values;
+                loading = generation;
+            }
+            if (current == null) {
+                current = load();
+                synchronized (lock) {
+                    // Only publish if no invalidation has happened while loading
+                    if (generation == loading) {
+                        values = current;
+                    }
+                }
+            }
+        }
+        return current.get(key);
+    }
+
+    private Map<PreferenceKey, CachedValue> load() {
+        Map<PreferenceKey, CachedValue> result = new HashMap<>();
+        for (AbstractPreference pref : preferenceRepository.findAll()) {
+            result.put(pref.getPrefKey(), new CachedValue(pref));
+        }
+        LOGGER.debug("Loaded {} preferences into the accessor cache", result.size());
+        return Collections.unmodifiableMap(result);
+    }
+
+    /**
+     * A CachedValue holds the values of one preference, numeric values are already parsed. Rows that have not been migrated yet have no
+     * typed values, for those the String value is parsed.
+     */
+    private static final class CachedValue {
+
+        private final String string;
+        private final Integer intValue;
+        private final Boolean booleanValue;
+        private final Float floatValue;
+        private final Serializable binValue;
+
+        CachedValue(AbstractPreference pref) {
+            this.string = pref.getValue();
+            this.intValue = toInt(pref.getLongValue(), string);
+            this.booleanValue = pref.getBooleanValue() != null ? pref.getBooleanValue() : parseBoolean(string);
+            this.floatValue = pref.getFloatValue() != null ? pref.getFloatValue() : parseFloat(string);
+            this.binValue = pref.getBinValue();
+        }
+
+        private static Integer toInt(Long l, String s) {
+            if (l != null) {
+                return l >= Integer.MIN_VALUE && l <= Integer.MAX_VALUE ? l.intValue() : null;
+            }
+            try {
+                return s == null ? null : Integer.valueOf(s.trim());
+            } catch (NumberFormatException nfe) {
+                return null;
+            }
+        }
+
+        private static Boolean parseBoolean(String s) {
+            if (s == null) {
+                return null;
+            }
+            String trimmed = s.trim();
+            if ("true".equalsIgnoreCase(trimmed)) {
+                return Boolean.TRUE;
+            }
+            return "false".equalsIgnoreCase(trimmed) ? Boolean.FALSE : null;
+        }
+
+        private static Float parseFloat(String s) {
+            try {
+                return s == null ? null : Float.valueOf(s.trim());
+            } catch (NumberFormatException nfe) {
+                return null;
+            }
+        }
+    }
+}
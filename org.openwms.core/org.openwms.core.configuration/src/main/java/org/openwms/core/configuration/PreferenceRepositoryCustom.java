@@ -22,6 +22,7 @@
 package org.openwms.core.configuration;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 import org.openwms.core.configuration.file.AbstractPreference;
 
@@ -52,4 +53,15 @@ interface PreferenceRepositoryCustom {
      * @return A list of all preferences or an empty list, never {@literal null}
      */
     <T extends AbstractPreference> List<T> findByType(Class<T> clazz);
+
+    /**
+     * Stream all preferences that match the given filter criteria. The preferences are fetched with a forward-only cursor and are detached
+     * after they have been read. The returned stream must be consumed within the active transaction and must be closed afterwards.
+     *
+     * @param scope The scope of preferences, or {@literal null} to search in all scopes
+     * @param owner The owner of preferences, or {@literal null} to not filter by owner
+     * @param keyPrefix The prefix of the preference key, or {@literal null} to not filter by key
+     * @return A stream of preferences, never {@literal null}
+     */
+    Stream<AbstractPreference> streamByFilter(PropertyScope scope, String owner, String keyPrefix);
 }
@@ -23,11 +23,29 @@ package org.openwms.core.configuration;
 
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.hibernate.Query;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
 
 import org.openwms.core.AbstractEntity;
 import org.openwms.core.configuration.file.AbstractPreference;
+import org.openwms.core.configuration.file.ApplicationPreference;
+import org.openwms.core.configuration.file.ModulePreference;
 import org.openwms.core.configuration.file.Preferences;
+import org.openwms.core.configuration.file.RolePreference;
+import org.openwms.core.configuration.file.UserPreference;
 import org.openwms.core.exception.WrongClassTypeException;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Propagation;
@@ -47,6 +65,23 @@ import org.springframework.transaction.annotation.Transactional;
 @Repository
 class PreferenceRepositoryImpl implements PreferenceRepositoryCustom {
 
+    /** Number of rows fetched per round-trip when preferences are streamed. */
+    static final int STREAM_FETCH_SIZE = 100;
+    /** Escape character of LIKE patterns, a backslash is not handled alike by all supported databases. */
+    static final char LIKE_ESCAPE = '!';
+    private static final Map<PropertyScope, Class<? extends AbstractPreference>> SCOPE_TYPES = new EnumMap<>(PropertyScope.class);
+    private static final Map<Class<?>, String> QUERY_NAMES = new HashMap<>();
+
+    static {
+        for (Class<?> type : Preferences.TYPES) {
+            QUERY_NAMES.put(type, type.getSimpleName());
+        }
+        SCOPE_TYPES.put(PropertyScope.APPLICATION, ApplicationPreference.class);
+        SCOPE_TYPES.put(PropertyScope.MODULE, ModulePreference.class);
+        SCOPE_TYPES.put(PropertyScope.ROLE, RolePreference.class);
+        SCOPE_TYPES.put(PropertyScope.USER, UserPreference.class);
+    }
+
     @PersistenceContext
     private EntityManager em;
 
@@ -69,12 +104,78 @@ class PreferenceRepositoryImpl implements PreferenceRepositoryCustom {
                 .setParameter("owner", owner).getResultList();
     }
 
-    private <T extends AbstractPreference> String getQueryName(Class<T> clazz) {
-        for (int i = 0; i < Preferences.TYPES.length; i++) {
-            if (Preferences.TYPES[i].equals(clazz)) {
-                return clazz.getSimpleName();
+    /**
+     * {@inheritDoc}
+     * <p>
+     * {@code ApplicationPreference}s don't have an owner and are skipped when an {@code owner} is given.
+     */
+    @Override
+    public Stream<AbstractPreference> streamByFilter(PropertyScope scope, String owner, String keyPrefix) {
+        List<PropertyScope> scopes = scope == null ? Arrays.asList(PropertyScope.values()) : Arrays.asList(scope);
+        return scopes.stream()
+                .filter(s -> owner == null || s != PropertyScope.APPLICATION)
+                .flatMap(s -> scroll(SCOPE_TYPES.get(s), owner, keyPrefix));
+    }
+
+    private static String escapeLike(String value) {
+        StringBuilder sb = new StringBuilder(value.length() + 8);
+        for (char c : value.toCharArray()) {
+            if (c == LIKE_ESCAPE || c == '%' || c == '_') {
+                sb.append(LIKE_ESCAPE);
             }
+            sb.append(c);
+        }
+        return sb.toString();
+    }
+
+    private Stream<AbstractPreference> scroll(Class<? extends AbstractPreference> clazz, String owner, String keyPrefix) {
+        StringBuilder jpql = new StringBuilder("select p from ").append(clazz.getSimpleName()).append(" p where 1 = 1");
+        if (owner != null) {
+            jpql.append(" and p.owner = :owner");
+        }
+        if (keyPrefix != null && !keyPrefix.isEmpty()) {
+            jpql.append(" and p.key like :keyPrefix escape '").append(LIKE_ESCAPE).append("'");
+        }
+        Query query = em.createQuery(jpql.toString()).unwrap(Query.class);
+        if (owner != null) {
+            query.setParameter("owner", owner);
+        }
+        if (keyPrefix != null && !keyPrefix.isEmpty()) {
+            query.setParameter("keyPrefix", escapeLike(keyPrefix) + "%");
+        }
+        ScrollableResults results = query.setReadOnly(true).setFetchSize(STREAM_FETCH_SIZE).scroll(ScrollMode.FORWARD_ONLY);
+        Iterator<AbstractPreference> iterator = new Iterator<AbstractPreference>() {
+
+            private Boolean hasNext;
+
+            @Override
+            public boolean hasNext() {
+                if (hasNext == null) {
+                    hasNext = results.next();
+                }
+                return hasNext;
+            }
+
+            @Override
+            public AbstractPreference next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                hasNext = null;
+                AbstractPreference pref = (AbstractPreference) results.get(0);
+                em.detach(pref);
+                return pref;
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(results::close);
+    }
+
+    private <T extends AbstractPreference> String getQueryName(Class<T> clazz) {
+        String queryName = QUERY_NAMES.get(clazz);
+        if (queryName == null) {
+            throw new WrongClassTypeException("Type " + clazz + " not a valid Preferences type");
         }
-        throw new WrongClassTypeException("Type " + clazz + " not a valid Preferences type");
+        return queryName;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,65 @@
+/*
+ * openwms.org, the Open Warehouse Management System.
+ * Copyright (C) 2014 Heiko Scherrer
+ *
+ * This file is part of openwms.org.
+ *
+ * openwms.org is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as 
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * openwms.org is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this software. If not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.openwms.core.configuration;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.openwms.core.configuration.file.AbstractPreference;
+
+/**
+ * A PreferenceResolver resolves the effective preferences of an {@code User}. Preferences of a narrower scope override those of a wider
+ * scope with the same key: a {@code UserPreference} overrides a {@code RolePreference}, that overrides a {@code ModulePreference}, that
+ * overrides an {@code ApplicationPreference}.
+ * <p>
+ * Implementations may cache the resolved view, the returned preferences must not be modified.
+ * </p>
+ *
+ * @author <a href="mailto:scherrer@openwms.org">Heiko Scherrer</a>
+ * @version 1.0
+ * @see PropertyScope
+ * @since 1.1
+ */
+public interface PreferenceResolver {
+
+    /**
+     * Resolve all effective preferences of an {@code User}.
+     *
+     * @param username The name of the {@code User}
+     * @param moduleName The name of the {@code Module} the preferences are resolved for, or {@literal null} to skip module preferences
+     * @param roleNames The names of the {@code Role}s assigned to the {@code User}, if two roles define the same key the first one wins
+     * @return An unmodifiable Map of all effective preferences, keyed by the preference key
+     */
+    Map<String, AbstractPreference> resolve(String username, String moduleName, List<String> roleNames);
+
+    /**
+     * Resolve a single effective preference of an {@code User}.
+     *
+     * @param username The name of the {@code User}
+     * @param moduleName The name of the {@code Module} the preferences are resolved for, or {@literal null} to skip module preferences
+     * @param roleNames The names of the {@code Role}s assigned to the {@code User}, if two roles define the same key the first one wins
+     * @param key The key of the preference
+     * @return The effective preference, if defined in any scope
+     */
+    Optional<AbstractPreference> resolve(String username, String moduleName, List<String> roleNames, String key);
+}
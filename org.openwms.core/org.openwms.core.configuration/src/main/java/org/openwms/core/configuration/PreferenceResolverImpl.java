@@ -0,0 +1,202 @@
+/*
+ * openwms.org, the Open Warehouse Management System.
+ * Copyright (C) 2014 Heiko Scherrer
+ *
+ * This file is part of openwms.org.
+ *
+ * openwms.org is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as 
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * openwms.org is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this software. If not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.openwms.core.configuration;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+import org.ameba.annotation.TxService;
+import org.openwms.core.configuration.file.AbstractPreference;
+import org.openwms.core.configuration.file.ApplicationPreference;
+import org.openwms.core.configuration.file.ModulePreference;
+import org.openwms.core.configuration.file.RolePreference;
+import org.openwms.core.configuration.file.UserPreference;
+import org.openwms.core.event.ConfigurationChangedEvent;
+import org.openwms.core.event.MergePropertiesEvent;
+import org.openwms.core.event.RoleChangedEvent;
+import org.openwms.core.event.RootApplicationEvent;
+import org.openwms.core.event.UserChangedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationListener;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.Assert;
+
+/**
+ * A PreferenceResolverImpl merges the preferences of all scopes into one view per {@code User}, {@code Module} and list of {@code Role}s.
+ * The merged views are kept in a LRU cache, the maximum number of entries is configured with
+ * {@code openwms.core.config.resolver-cache-size}.
+ * <p>
+ * The cache is dropped on a {@link ConfigurationChangedEvent} and a {@link MergePropertiesEvent}. An {@link UserChangedEvent} and a
+ * {@link RoleChangedEvent} only evict the views of the named {@code User}s and {@code Role}s, the cache is dropped if no names are given.
+ * </p>
+ *
+ * @author <a href="mailto:scherrer@openwms.org">Heiko Scherrer</a>
+ * @version 1.0
+ * @since 1.1
+ */
+@TxService
+class PreferenceResolverImpl implements PreferenceResolver, ApplicationListener<RootApplicationEvent> {
+
+    @Autowired
+    private PreferenceRepository preferenceRepository;
+    @Value("${openwms.core.config.resolver-cache-size:500}")
+    private int cacheSize = 500;
+    private final Map<ResolverKey, Map<String, AbstractPreference>> cache =
+            new LinkedHashMap<ResolverKey, Map<String, AbstractPreference>>(16, 0.75f, true) {
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<ResolverKey, Map<String, AbstractPreference>> eldest) {
+            return size() > cacheSize;
+        }
+    };
+    private long generation;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, AbstractPreference> resolve(String username, String moduleName, List<String> roleNames) {
+        Assert.hasText(username, "Not allowed to resolve preferences without an username");
+        ResolverKey key = new ResolverKey(username, moduleName, roleNames);
+        long loading;
+        synchronized (cache) {
+            Map<String, AbstractPreference> view = cache.get(key);
+            if (view != null) {
+                return view;
+            }
+            loading = generation;
+        }
+        Map<String, AbstractPreference> view = load(key);
+        synchronized (cache) {
+            // Only publish if no invalidation has happened while loading
+            if (generation == loading) {
+                cache.put(key, view);
+            }
+        }
+        return view;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<AbstractPreference> resolve(String username, String moduleName, List<String> roleNames, String key) {
+        return Optional.ofNullable(resolve(username, moduleName, roleNames).get(key));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Evict resolved views whenever preferences, roles or users have been changed.
+     */
+    @Override
+    public void onApplicationEvent(RootApplicationEvent event) {
+        if (event instanceof ConfigurationChangedEvent || event instanceof MergePropertiesEvent) {
+            evict(key -> true);
+        } else if (event instanceof UserChangedEvent) {
+            UserChangedEvent uce = (UserChangedEvent) event;
+            evict(key -> uce.isUnspecified() || uce.getUsernames().contains(key.username));
+        } else if (event instanceof RoleChangedEvent) {
+            RoleChangedEvent rce = (RoleChangedEvent) event;
+            evict(key -> rce.isUnspecified() || key.roleNames.stream().anyMatch(rce.getRoleNames()::contains));
+        }
+    }
+
+    private void evict(Predicate<ResolverKey> affected) {
+        synchronized (cache) {
+            generation++;
+            cache.keySet().removeIf(affected);
+        }
+    }
+
+    /**
+     * Return the number of cached views.
+     *
+     * @return The cache size
+     */
+    int getCachedViews() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    private Map<String, AbstractPreference> load(ResolverKey key) {
+        Map<String, AbstractPreference> view = new HashMap<>();
+        // Wider scopes first, each narrower scope overrides the previous ones
+        putAll(view, preferenceRepository.findByType(ApplicationPreference.class));
+        if (key.moduleName != null) {
+            putAll(view, preferenceRepository.findByType(ModulePreference.class, key.moduleName));
+        }
+        for (int i = key.roleNames.size() - 1; i >= 0; i--) {
+            putAll(view, preferenceRepository.findByType(RolePreference.class, key.roleNames.get(i)));
+        }
+        putAll(view, preferenceRepository.findByType(UserPreference.class, key.username));
+        return Collections.unmodifiableMap(view);
+    }
+
+    private static void putAll(Map<String, AbstractPreference> view, List<? extends AbstractPreference> preferences) {
+        for (AbstractPreference preference : preferences) {
+            view.put(preference.getPrefKey().getKey(), preference);
+        }
+    }
+
+    /**
+     * A ResolverKey identifies one resolved view.
+     */
+    private static final class ResolverKey {
+
+        private final String username;
+        private final String moduleName;
+        private final List<String> roleNames;
+
+        ResolverKey(String username, String moduleName, List<String> roleNames) {
+            this.username = username;
+            this.moduleName = moduleName;
+            this.roleNames = roleNames == null ? Collections.emptyList() : Collections.unmodifiableList(new ArrayList<>(roleNames));
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            ResolverKey that = (ResolverKey) o;
+            return Objects.equals(username, that.username) &&
+                    Objects.equals(moduleName, that.moduleName) &&
+                    Objects.equals(roleNames, that.roleNames);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(username, moduleName, roleNames);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * openwms.org, the Open Warehouse Management System.
+ * Copyright (C) 2014 Heiko Scherrer
+ *
+ * This file is part of openwms.org.
+ *
+ * openwms.org is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as 
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * openwms.org is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this software. If not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.openwms.core.configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openwms.core.configuration.file.AbstractPreference;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * A PreferenceValueMigration brings all persisted preferences into the current storage format once the application is ready. Binary values
+ * of the former Java serialization format are re-encoded and the typed columns are filled from the String value.
+ * <p>
+ * The migration is activated with the property {@code openwms.core.config.migrate-values}. Preferences are processed page by page, each
+ * page in its own transaction, so the persistence context does not grow with the number of rows. Rows that are already migrated are not
+ * written again, hence it is safe to run the migration on each startup.
+ * </p>
+ *
+ * @author <a href="mailto:scherrer@openwms.org">Heiko Scherrer</a>
+ * @version 1.0
+ * @since 1.1
+ */
+@Component
+@ConditionalOnProperty(name = "openwms.core.config.migrate-values", havingValue = "true")
+class PreferenceValueMigration implements ApplicationListener<ApplicationReadyEvent> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PreferenceValueMigration.class);
+    @Autowired
+    private PreferenceRepository preferenceRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Migrate all persisted preferences.
+     */
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        LOGGER.info("Migrated [{}] preferences to the current storage format", migrate());
+    }
+
+    /**
+     * Migrate all persisted preferences.
+     *
+     * @return The number of migrated preferences
+     */
+    int migrate() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        int migrated = 0;
+        int pageNumber = 0;
+        boolean hasNext = true;
+        while (hasNext) {
+            PageRequest request = new PageRequest(pageNumber++, ConfigurationServiceImpl.BATCH_SIZE, Sort.Direction.ASC, "id");
+            MigrationResult result = tx.execute(status -> migratePage(request));
+            migrated += result.migrated;
+            hasNext = result.hasNext;
+        }
+        return migrated;
+    }
+
+    private MigrationResult migratePage(PageRequest request) {
+        Page<AbstractPreference> page = preferenceRepository.findAll(request);
+        List<AbstractPreference> changed = new ArrayList<>();
+        for (AbstractPreference preference : page) {
+            if (preference.migrateValues()) {
+                changed.add(preference);
+            }
+        }
+        if (!changed.isEmpty()) {
+            preferenceRepository.save(changed);
+            preferenceRepository.flush();
+        }
+        return new MigrationResult(changed.size(), page.hasNext());
+    }
+
+    private static final class MigrationResult {
+
+        private final int migrated;
+        private final boolean hasNext;
+
+        MigrationResult(int migrated, boolean hasNext) {
+            this.migrated = migrated;
+            this.hasNext = hasNext;
+        }
+    }
+}
@@ -15,13 +15,24 @@
  */
 package org.openwms.core.configuration.api;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.openwms.core.configuration.ConfigurationService;
-import org.openwms.core.configuration.file.AbstractPreference;
+import org.openwms.core.configuration.PropertyScope;
+import org.openwms.core.http.ConditionalResponses;
+import org.openwms.core.http.ResourceVersions;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
-import reactor.core.publisher.Flux;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 /**
  * A ConfigurationController.
@@ -32,16 +43,63 @@ import reactor.core.publisher.Flux;
 @RestController("/v1/preferences")
 class ConfigurationController {
 
+    /** Media type of newline delimited JSON. */
+    static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+    private static final byte[] NEWLINE = {'\n'};
+
     @Autowired
     private ConfigurationService configurationService;
+    @Autowired
+    private PreferenceChangeNotifier changeNotifier;
+    @Autowired
+    private ObjectMapper mapper;
+    @Autowired
+    private ConditionalResponses responses;
+
+    /**
+     * Stream all preferences that match the filter criteria as newline delimited JSON. The preferences are read with a database cursor and
+     * written to the client one by one, they are never held in memory all at once.
+     *
+     * @param scope The scope of preferences, optional
+     * @param owner The owner of preferences, optional
+     * @param keyPrefix The prefix of the preference key, optional
+     * @return One JSON document per line
+     */
+    @GetMapping(produces = APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> findAllStreamed(@RequestParam(value = "scope", required = false) PropertyScope scope,
+            @RequestParam(value = "owner", required = false) String owner,
+            @RequestParam(value = "keyPrefix", required = false) String keyPrefix) {
+        StreamingResponseBody body = out -> configurationService.forEach(scope, owner, keyPrefix, pref -> {
+            try {
+                out.write(mapper.writeValueAsBytes(pref));
+                out.write(NEWLINE);
+            } catch (IOException ioe) {
+                throw new UncheckedIOException(ioe);
+            }
+        });
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(APPLICATION_NDJSON_VALUE)).body(body);
+    }
 
-    @GetMapping(produces= MediaType.APPLICATION_OCTET_STREAM_VALUE)
-    public Flux<AbstractPreference> findAllReactive() {
-        return Flux.fromIterable(configurationService.findAll()).log();
+    /**
+     * Subscribe to change notifications. A server-sent event is pushed whenever a preference has been changed.
+     *
+     * @param timeout The subscription timeout in milliseconds, optional and bounded by the configured maximum
+     * @return The event stream
+     */
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribe(@RequestParam(value = "timeout", required = false) Long timeout) {
+        return changeNotifier.subscribe(timeout);
     }
 
+    /**
+     * Find all preferences. The response carries an ETag, if the client sends it back with {@code If-None-Match} and no preference has
+     * been changed in the meantime, {@code 304 Not Modified} is returned without reading the preferences.
+     *
+     * @param ifNoneMatch The ETag of the representation the client has, optional
+     * @return All preferences or {@code 304 Not Modified}
+     */
     @GetMapping
-    public Iterable<AbstractPreference> findAll() {
-        return configurationService.findAll();
+    public ResponseEntity<?> findAll(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return responses.respond(ResourceVersions.PREFERENCES, null, ifNoneMatch, configurationService::findAll);
     }
 }
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2014-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.configuration.api;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.openwms.core.configuration.file.AbstractPreference;
+import org.openwms.core.event.ConfigurationChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * A PreferenceChangeNotifier keeps track of all subscribed clients and pushes a server-sent event to each of them whenever a {@link
+ * ConfigurationChangedEvent} occurs. Clients that have gone away are dropped on the next notification.
+ * <p>
+ * A subscription lasts {@code openwms.core.configuration.changes.max-timeout} milliseconds at most, clients may ask for a shorter one.
+ * The events are sent by a single background thread in the order of their occurrence, so a slow client never stalls the publishing
+ * transaction. At most {@code openwms.core.configuration.changes.queue-size} notifications wait to be sent, when the queue is full the
+ * subscription of the client is completed and the client is expected to subscribe again.
+ * </p>
+ *
+ * @author <a href="mailto:scherrer@openwms.org">Heiko Scherrer</a>
+ * @version 1.0
+ * @since 1.1
+ */
+@Component
+class PreferenceChangeNotifier implements ApplicationListener<ConfigurationChangedEvent> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PreferenceChangeNotifier.class);
+    /** Name of the server-sent event. */
+    static final String EVENT_NAME = "preferenceChanged";
+    private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+    private final long maxTimeout;
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * Create a new PreferenceChangeNotifier.
+     *
+     * @param maxTimeout The maximum subscription timeout in milliseconds
+     * @param queueSize The maximum number of notifications waiting to be sent
+     */
+    @Autowired
+    PreferenceChangeNotifier(@Value("${openwms.core.configuration.changes.max-timeout:1800000}") long maxTimeout,
+            @Value("${openwms.core.configuration.changes.queue-size:1000}") int queueSize) {
+        this.maxTimeout = maxTimeout;
+        this.executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueSize),
+                new CustomizableThreadFactory("preference-notifier-"), new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Create and register a new emitter for a subscribing client.
+     *
+     * @param timeout The timeout in milliseconds, or {@literal null} to use the maximum. Values above the maximum or less than 1 are
+     * replaced by the maximum
+     * @return The emitter
+     */
+    SseEmitter subscribe(Long timeout) {
+        SseEmitter emitter = new SseEmitter(timeout == null || timeout < 1 || timeout > maxTimeout ? maxTimeout : timeout);
+        emitters.add(emitter);
+        emitter.onCompletion(() -> emitters.remove(emitter));
+        emitter.onTimeout(() -> emitters.remove(emitter));
+        return emitter;
+    }
+
+    /**
+     * Get the number of subscribed clients.
+     *
+     * @return The number of clients
+     */
+    int getSubscriberCount() {
+        return emitters.size();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Send the changed preference, or only the time of change if the source of the event is not a preference. The events are only queued
+     * here and sent in the background.
+     */
+    @Override
+    public void onApplicationEvent(ConfigurationChangedEvent event) {
+        if (emitters.isEmpty()) {
+            return;
+        }
+        Object data = event.getSource() instanceof AbstractPreference
+                ? event.getSource()
+                : Collections.singletonMap("timestamp", event.getTimestamp());
+        for (SseEmitter emitter : emitters) {
+            try {
+                executor.execute(() -> send(emitter, data));
+            } catch (RejectedExecutionException ree) {
+                LOGGER.debug("Dropping subscriber, too many notifications are pending");
+                drop(emitter, ree);
+            }
+        }
+    }
+
+    private void send(SseEmitter emitter, Object data) {
+        if (!emitters.contains(emitter)) {
+            return;
+        }
+        try {
+            emitter.send(SseEmitter.event().name(EVENT_NAME).data(data));
+        } catch (IOException | IllegalStateException e) {
+            LOGGER.debug("Dropping subscriber after failed notification: {}", e.getMessage());
+            drop(emitter, e);
+        }
+    }
+
+    private void drop(SseEmitter emitter, Exception cause) {
+        if (emitters.remove(emitter)) {
+            emitter.completeWithError(cause);
+        }
+    }
+
+    /**
+     * Stop sending, pending notifications are discarded.
+     */
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
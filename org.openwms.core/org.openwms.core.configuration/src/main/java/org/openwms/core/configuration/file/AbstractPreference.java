@@ -29,11 +29,13 @@ import javax.persistence.Inheritance;
 import javax.persistence.InheritanceType;
 import javax.persistence.Lob;
 import javax.persistence.Table;
+import javax.persistence.Transient;
 import javax.xml.bind.annotation.XmlAttribute;
 import javax.xml.bind.annotation.XmlTransient;
 import javax.xml.bind.annotation.XmlType;
 import javax.xml.bind.annotation.XmlValue;
 import java.io.Serializable;
+import java.util.Arrays;
 import java.util.Objects;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
@@ -42,6 +44,10 @@ import org.openwms.core.configuration.PropertyScope;
 /**
  * An AbstractPreference is a superclass for all other preference classes within the application. <p> It encapsulates some common behavior
  * of preference types. </p>
+ * <p>
+ * Numeric and boolean values are additionally stored in typed columns, so they can be read without parsing the String value. The binary
+ * value is stored in the compact format of the {@link PreferenceValueCodec} and only decoded on first access.
+ * </p>
  *
  * @author <a href="mailto:scherrer@openwms.org">Heiko Scherrer</a>
  * @version 0.2
@@ -63,11 +69,26 @@ public abstract class AbstractPreference implements Serializable {
     @Column(name = "C_VALUE")
     protected String value;
 
-    /** A binary value for this {@link AbstractPreference}. */
+    /** The encoded binary value for this {@link AbstractPreference}. */
     @XmlTransient
     @Lob
     @Column(name = "C_BINVALUE")
-    protected Serializable binValue;
+    private byte[] binData;
+
+    /** The decoded binary value, resolved lazily from {@link #binData}. */
+    @XmlTransient
+    @Transient
+    private transient Serializable binValue;
+
+    /** The value as number, if the String value is an integral number. */
+    @XmlTransient
+    @Column(name = "C_LONG_VALUE")
+    private Long longValue;
+
+    /** The value as boolean, if the String value is {@literal true} or {@literal false}. */
+    @XmlTransient
+    @Column(name = "C_BOOL_VALUE")
+    private Boolean booleanValue;
 
     /** A float value of the {@link AbstractPreference}. */
     @XmlAttribute(name = "floatValue")
@@ -106,25 +127,84 @@ public abstract class AbstractPreference implements Serializable {
     }
 
     /**
-     * Set the <code>value</code> of the {@link AbstractPreference}.
+     * Set the <code>value</code> of the {@link AbstractPreference}. The typed values are derived from it.
      *
      * @param value The value to set
      */
     public void setValue(String value) {
         this.value = value;
+        this.longValue = toLong(value);
+        this.booleanValue = toBoolean(value);
     }
 
     /**
-     * Get the binValue.
+     * Get the binValue. The value is decoded on first access and kept afterwards.
      *
      * @return the binValue.
      */
     @XmlTransient
     @JsonIgnore
     public Serializable getBinValue() {
+        if (binValue == null && binData != null) {
+            binValue = PreferenceValueCodec.decode(binData);
+        }
         return binValue;
     }
 
+    /**
+     * Set the binValue, it is encoded immediately.
+     *
+     * @param binValue The value to set
+     */
+    protected void setBinValue(Serializable binValue) {
+        this.binValue = binValue;
+        this.binData = PreferenceValueCodec.encode(binValue);
+    }
+
+    /**
+     * Get the <code>longValue</code> of the {@link AbstractPreference}.
+     *
+     * @return The value as number or {@literal null} if the value is not an integral number
+     */
+    @XmlTransient
+    @JsonIgnore
+    public Long getLongValue() {
+        return longValue;
+    }
+
+    /**
+     * Get the <code>booleanValue</code> of the {@link AbstractPreference}.
+     *
+     * @return The value as boolean or {@literal null} if the value is not a boolean
+     */
+    @XmlTransient
+    @JsonIgnore
+    public Boolean getBooleanValue() {
+        return booleanValue;
+    }
+
+    /**
+     * Bring the stored values into the current format: a binary value of the former Java serialization format is re-encoded and the typed
+     * values are derived from the String value.
+     *
+     * @return {@literal true} if anything has been changed and the preference needs to be saved
+     */
+    public boolean migrateValues() {
+        boolean changed = false;
+        if (PreferenceValueCodec.isLegacy(binData)) {
+            setBinValue(getBinValue());
+            changed = true;
+        }
+        Long l = toLong(value);
+        Boolean b = toBoolean(value);
+        if (!Objects.equals(longValue, l) || !Objects.equals(booleanValue, b)) {
+            longValue = l;
+            booleanValue = b;
+            changed = true;
+        }
+        return changed;
+    }
+
     /**
      * Get the <code>floatValue</code> of the {@link AbstractPreference}.
      *
@@ -186,7 +266,7 @@ public abstract class AbstractPreference implements Serializable {
     public String toString() {
         return "AbstractPreference{" +
                 "value='" + value + '\'' +
-                ", binValue=" + binValue +
+                ", binValue=" + (binData == null ? null : binData.length + " bytes") +
                 ", floatValue=" + floatValue +
                 ", description='" + description + '\'' +
                 ", minimum=" + minimum +
@@ -196,6 +276,8 @@ public abstract class AbstractPreference implements Serializable {
 
     /**
      * {@inheritDoc}
+     * <p>
+     * The binary value is compared in its encoded form, it is never decoded.
      */
     @Override
     public boolean equals(Object o) {
@@ -205,7 +287,7 @@ public abstract class AbstractPreference implements Serializable {
         return minimum == that.minimum &&
                 maximum == that.maximum &&
                 Objects.equals(value, that.value) &&
-                Objects.equals(binValue, that.binValue) &&
+                Arrays.equals(binData, that.binData) &&
                 Objects.equals(floatValue, that.floatValue) &&
                 Objects.equals(description, that.description);
     }
@@ -215,7 +297,72 @@ public abstract class AbstractPreference implements Serializable {
      */
     @Override
     public int hashCode() {
-        return Objects.hash(value, binValue, floatValue, description, minimum, maximum);
+        return 31 * Objects.hash(value, floatValue, description, minimum, maximum) + Arrays.hashCode(binData);
+    }
+
+    /**
+     * Check whether the preference was originally imported from a file.
+     *
+     * @return {@literal true} if imported from a file
+     */
+    public boolean isFromFile() {
+        return fromFile;
+    }
+
+    /**
+     * Mark the preference as maintained outside of the preferences file, like by an administrator or by the client. Such a preference is
+     * never overridden when the file is merged again.
+     */
+    public final void detachFromFile() {
+        this.fromFile = false;
+    }
+
+    /**
+     * Check whether the {@code other} preference carries the same values, independent of the key fields.
+     *
+     * @param other The preference to compare with
+     * @return {@literal true} if all values are equal
+     */
+    public boolean hasSameValues(AbstractPreference other) {
+        return minimum == other.minimum &&
+                maximum == other.maximum &&
+                Objects.equals(value, other.value) &&
+                Objects.equals(floatValue, other.floatValue) &&
+                Objects.equals(description, other.description) &&
+                hasSameBinValue(other);
+    }
+
+    private boolean hasSameBinValue(AbstractPreference other) {
+        if (Arrays.equals(binData, other.binData)) {
+            return true;
+        }
+        // Only canonical encodings can be compared without decoding
+        if (PreferenceValueCodec.isCanonical(binData) && PreferenceValueCodec.isCanonical(other.binData)) {
+            return false;
+        }
+        return Objects.deepEquals(getBinValue(), other.getBinValue());
+    }
+
+    private static Long toLong(String s) {
+        if (s == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(s.trim());
+        } catch (NumberFormatException nfe) {
+            return null;
+        }
+    }
+
+    private static Boolean toBoolean(String s) {
+        if (s == null) {
+            return null;
+        }
+        String trimmed = s.trim();
+        if ("true".equalsIgnoreCase(trimmed)) {
+            return Boolean.TRUE;
+        }
+        return "false".equalsIgnoreCase(trimmed) ? Boolean.FALSE : null;
     }
 
     /**
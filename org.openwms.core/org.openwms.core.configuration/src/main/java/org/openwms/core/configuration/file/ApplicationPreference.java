@@ -88,7 +88,7 @@ public class ApplicationPreference extends AbstractPreference implements Seriali
 
     private ApplicationPreference(Builder builder) {
         setValue(builder.value);
-        binValue = builder.binValue;
+        setBinValue(builder.binValue);
         floatValue = builder.floatValue;
         setDescription(builder.description);
         minimum = builder.minimum;
@@ -0,0 +1,61 @@
+/*
+ * openwms.org, the Open Warehouse Management System.
+ * Copyright (C) 2014 Heiko Scherrer
+ *
+ * This file is part of openwms.org.
+ *
+ * openwms.org is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * openwms.org is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this software. If not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.openwms.core.configuration.file;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.openwms.core.event.MergePropertiesEvent;
+
+/**
+ * A FilePreferencesChangedEvent is fired when the initial preferences file has been modified. In contrast to a plain {@link
+ * MergePropertiesEvent} it carries only the preferences that are new or have changed since the file was loaded the last time.
+ *
+ * @author <a href="mailto:scherrer@openwms.org">Heiko Scherrer</a>
+ * @version 1.0
+ * @since 1.1
+ */
+public class FilePreferencesChangedEvent extends MergePropertiesEvent {
+
+    private static final long serialVersionUID = -3180417524613327418L;
+    private final transient List<AbstractPreference> changedPreferences;
+
+    /**
+     * Create a new FilePreferencesChangedEvent.
+     *
+     * @param source The event source
+     * @param changedPreferences The new or modified preferences
+     */
+    public FilePreferencesChangedEvent(Object source, List<AbstractPreference> changedPreferences) {
+        super(source);
+        this.changedPreferences = Collections.unmodifiableList(changedPreferences);
+    }
+
+    /**
+     * Get the new or modified preferences.
+     *
+     * @return An unmodifiable list
+     */
+    public List<AbstractPreference> getChangedPreferences() {
+        return changedPreferences;
+    }
+}
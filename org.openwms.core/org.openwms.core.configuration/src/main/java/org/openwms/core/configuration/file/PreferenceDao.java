@@ -22,6 +22,9 @@
 package org.openwms.core.configuration.file;
 
 import java.util.List;
+import java.util.Optional;
+
+import org.openwms.core.configuration.PropertyScope;
 
 /**
  * A PreferenceDao offers basic functionality to find and retrieve {@link AbstractPreference}s.
@@ -38,4 +41,37 @@ public interface PreferenceDao {
      * @return List of all entities
      */
     List<AbstractPreference> findAll();
+
+    /**
+     * Find and return the preference identified by the {@link PreferenceKey}.
+     * 
+     * @param key
+     *            The unique key of the preference
+     * @return The preference, if exists
+     */
+    Optional<AbstractPreference> findByKey(PreferenceKey key);
+
+    /**
+     * Find and return the preference identified by the {@link PreferenceKey} of an expected type.
+     * 
+     * @param <T>
+     *            The type of preference
+     * @param key
+     *            The unique key of the preference
+     * @param clazz
+     *            The expected type
+     * @return The preference, if exists and is of type {@code clazz}
+     */
+    <T extends AbstractPreference> Optional<T> findByKey(PreferenceKey key, Class<T> clazz);
+
+    /**
+     * Find and return all preferences of a {@link PropertyScope} that belong to an owner.
+     * 
+     * @param scope
+     *            The scope of the preferences
+     * @param owner
+     *            The owner of the preferences, or {@literal null} to find all preferences of the {@code scope}
+     * @return An unmodifiable list, never {@literal null}
+     */
+    List<AbstractPreference> findByScope(PropertyScope scope, String owner);
 }
\ No newline at end of file
@@ -24,15 +24,21 @@ package org.openwms.core.configuration.file;
 import java.io.Serializable;
 import java.util.Arrays;
 
+import org.openwms.core.configuration.PropertyScope;
+
 /**
  * A PreferenceKey can be used as a unique key object to group preference instances. Unfortunately this class cannot be implemented as a JPA
  * embeddable, because of JPA does not support inheritance of embeddables.
+ * <p>
+ * The preference classes build their keys with the {@link PropertyScope} as first field, followed by the owner if the scope has one,
+ * followed by the key.
+ * </p>
  * 
  * @author <a href="mailto:scherrer@openwms.org">Heiko Scherrer</a>
  * @version 0.2
  * @since 0.1
  */
-class PreferenceKey implements Serializable {
+public class PreferenceKey implements Serializable {
 
     private Serializable[] fields;
 
@@ -46,6 +52,61 @@ class PreferenceKey implements Serializable {
         this.fields = fields;
     }
 
+    /**
+     * Create a {@code PreferenceKey} of a preference without owner, like an {@link ApplicationPreference}.
+     * 
+     * @param scope
+     *            The scope of the preference
+     * @param key
+     *            The key of the preference
+     * @return The PreferenceKey
+     */
+    public static PreferenceKey of(PropertyScope scope, String key) {
+        return new PreferenceKey(scope, key);
+    }
+
+    /**
+     * Create a {@code PreferenceKey} of a preference that belongs to an owner.
+     * 
+     * @param scope
+     *            The scope of the preference
+     * @param owner
+     *            The owner of the preference
+     * @param key
+     *            The key of the preference
+     * @return The PreferenceKey
+     */
+    public static PreferenceKey of(PropertyScope scope, String owner, String key) {
+        return new PreferenceKey(scope, owner, key);
+    }
+
+    /**
+     * Get the scope, the first field of the key.
+     * 
+     * @return The scope or {@literal null} if the key was not built by a preference
+     */
+    public PropertyScope getScope() {
+        return fields.length > 0 && fields[0] instanceof PropertyScope ? (PropertyScope) fields[0] : null;
+    }
+
+    /**
+     * Get the owner, the second field of a key with three fields.
+     * 
+     * @return The owner or {@literal null} if the preference has no owner
+     */
+    public String getOwner() {
+        return fields.length > 2 && fields[1] != null ? fields[1].toString() : null;
+    }
+
+    /**
+     * Get the key, the last field.
+     * 
+     * @return The key or {@literal null}
+     */
+    public String getKey() {
+        return fields.length > 0 && fields[fields.length - 1] != null ? fields[fields.length - 1].toString() : null;
+    }
+
     /**
      * {@inheritDoc}
      * 
@@ -82,4 +143,14 @@ class PreferenceKey implements Serializable {
         PreferenceKey other = (PreferenceKey) obj;
         return Arrays.equals(fields, other.fields);
     }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * Return all fields.
+     */
+    @Override
+    public String toString() {
+        return Arrays.toString(fields);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,195 @@
+/*
+ * openwms.org, the Open Warehouse Management System.
+ * Copyright (C) 2014 Heiko Scherrer
+ *
+ * This file is part of openwms.org.
+ *
+ * openwms.org is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as 
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * openwms.org is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this software. If not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.openwms.core.configuration.file;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+
+import org.openwms.core.exception.IllegalConfigurationValueException;
+
+/**
+ * A PreferenceValueCodec encodes the binary value of an {@link AbstractPreference} into a compact, length-prefixed format.
+ * <p>
+ * The first byte is a type tag followed by the payload. Strings, byte arrays and structured values are prefixed with their length,
+ * numbers and booleans are written with their fixed size. Only structured values that have no dedicated tag fall back to Java
+ * serialization. Values written by former versions are plain Java serialization streams, these are still decoded so that existing
+ * {@code COR_PREFERENCE} rows can be read and migrated.
+ * </p>
+ *
+ * @author <a href="mailto:scherrer@openwms.org">Heiko Scherrer</a>
+ * @version 1.0
+ * @since 1.1
+ */
+final class PreferenceValueCodec {
+
+    static final byte TAG_STRING = 1;
+    static final byte TAG_INTEGER = 2;
+    static final byte TAG_LONG = 3;
+    static final byte TAG_FLOAT = 4;
+    static final byte TAG_DOUBLE = 5;
+    static final byte TAG_BOOLEAN = 6;
+    static final byte TAG_BYTES = 7;
+    static final byte TAG_SERIALIZED = 8;
+    private static final byte LEGACY_MAGIC_0 = (byte) 0xAC;
+    private static final byte LEGACY_MAGIC_1 = (byte) 0xED;
+
+    private PreferenceValueCodec() {
+    }
+
+    /**
+     * Encode the {@code value}.
+     *
+     * @param value The value to encode, may be {@literal null}
+     * @return The encoded bytes or {@literal null} if {@code value} is {@literal null}
+     * @throws IllegalConfigurationValueException if the value cannot be encoded
+     */
+    static byte[] encode(Serializable value) {
+        if (value == null) {
+            return null;
+        }
+        ByteArrayOutputStream bos = new ByteArrayOutputStream(32);
+        try (DataOutputStream out = new DataOutputStream(bos)) {
+            if (value instanceof String) {
+                writeBytes(out, TAG_STRING, ((String) value).getBytes(StandardCharsets.UTF_8));
+            } else if (value instanceof Integer) {
+                out.writeByte(TAG_INTEGER);
+                out.writeInt((Integer) value);
+            } else if (value instanceof Long) {
+                out.writeByte(TAG_LONG);
+                out.writeLong((Long) value);
+            } else if (value instanceof Float) {
+                out.writeByte(TAG_FLOAT);
+                out.writeFloat((Float) value);
+            } else if (value instanceof Double) {
+                out.writeByte(TAG_DOUBLE);
+                out.writeDouble((Double) value);
+            } else if (value instanceof Boolean) {
+                out.writeByte(TAG_BOOLEAN);
+                out.writeBoolean((Boolean) value);
+            } else if (value instanceof byte[]) {
+                writeBytes(out, TAG_BYTES, (byte[]) value);
+            } else {
+                writeBytes(out, TAG_SERIALIZED, serialize(value));
+            }
+        } catch (IOException ioe) {
+            throw new IllegalConfigurationValueException("Cannot encode preference value of type " + value.getClass().getName(), ioe);
+        }
+        return bos.toByteArray();
+    }
+
+    /**
+     * Decode the {@code data}, both formats, the compact and the legacy one, are accepted.
+     *
+     * @param data The encoded bytes, may be {@literal null}
+     * @return The decoded value or {@literal null} if {@code data} is {@literal null} or empty
+     * @throws IllegalConfigurationValueException if the data cannot be decoded
+     */
+    static Serializable decode(byte[] data) {
+        if (data == null || data.length == 0) {
+            return null;
+        }
+        try {
+            if (isLegacy(data)) {
+                return deserialize(data);
+            }
+            try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+                byte tag = in.readByte();
+                switch (tag) {
+                    case TAG_STRING:
+                        return new String(readBytes(in), StandardCharsets.UTF_8);
+                    case TAG_INTEGER:
+                        return in.readInt();
+                    case TAG_LONG:
+                        return in.readLong();
+                    case TAG_FLOAT:
+                        return in.readFloat();
+                    case TAG_DOUBLE:
+                        return in.readDouble();
+                    case TAG_BOOLEAN:
+                        return in.readBoolean();
+                    case TAG_BYTES:
+                        return readBytes(in);
+                    case TAG_SERIALIZED:
+                        return deserialize(readBytes(in));
+                    default:
+                        throw new IllegalConfigurationValueException("Unknown preference value type tag: " + tag);
+                }
+            }
+        } catch (IOException | ClassNotFoundException e) {
+            throw new IllegalConfigurationValueException("Cannot decode preference value", e);
+        }
+    }
+
+    /**
+     * Check whether the {@code data} has been written in the former Java serialization format.
+     *
+     * @param data The encoded bytes
+     * @return {@literal true} if the data needs to be migrated
+     */
+    static boolean isLegacy(byte[] data) {
+        return data != null && data.length > 1 && data[0] == LEGACY_MAGIC_0 && data[1] == LEGACY_MAGIC_1;
+    }
+
+    /**
+     * Check whether the {@code data} is a canonical encoding, i.e. two equal values always result in equal bytes. This is not the case for
+     * Java serialization.
+     *
+     * @param data The encoded bytes
+     * @return {@literal true} if the bytes can be compared instead of the decoded values
+     */
+    static boolean isCanonical(byte[] data) {
+        return data == null || (data.length > 0 && !isLegacy(data) && data[0] != TAG_SERIALIZED);
+    }
+
+    private static void writeBytes(DataOutputStream out, byte tag, byte[] bytes) throws IOException {
+        out.writeByte(tag);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static byte[] readBytes(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return bytes;
+    }
+
+    private static byte[] serialize(Serializable value) throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream(128);
+        try (ObjectOutputStream out = new ObjectOutputStream(bos)) {
+            out.writeObject(value);
+        }
+        return bos.toByteArray();
+    }
+
+    private static Serializable deserialize(byte[] data) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(data))) {
+            return (Serializable) in.readObject();
+        }
+    }
+}
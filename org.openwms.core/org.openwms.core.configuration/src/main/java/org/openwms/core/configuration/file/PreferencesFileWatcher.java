@@ -0,0 +1,128 @@
+/*
+ * openwms.org, the Open Warehouse Management System.
+ * Copyright (C) 2014 Heiko Scherrer
+ *
+ * This file is part of openwms.org.
+ *
+ * openwms.org is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * openwms.org is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this software. If not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.openwms.core.configuration.file;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A PreferencesFileWatcher watches a single file with a {@link WatchService} and runs a callback on a background thread whenever the file
+ * is created or modified. Bursts of events, like editors write them while saving, are collapsed into one callback.
+ *
+ * @author <a href="mailto:scherrer@openwms.org">Heiko Scherrer</a>
+ * @version 1.0
+ * @since 1.1
+ */
+class PreferencesFileWatcher implements Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PreferencesFileWatcher.class);
+    /** Time to wait for further events of the same change, in milliseconds. */
+    static final long DEBOUNCE_MILLIS = 250;
+    private final Path file;
+    private final Runnable onChange;
+    private WatchService watchService;
+
+    /**
+     * Create a new PreferencesFileWatcher.
+     *
+     * @param file The file to watch
+     * @param onChange The callback to run after the file has changed
+     */
+    PreferencesFileWatcher(Path file, Runnable onChange) {
+        this.file = file.toAbsolutePath();
+        this.onChange = onChange;
+    }
+
+    /**
+     * Register the parent directory of the file and start the watching thread.
+     *
+     * @throws IOException in case the directory can't be watched
+     */
+    void start() throws IOException {
+        watchService = FileSystems.getDefault().newWatchService();
+        file.getParent().register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        Thread thread = new Thread(this::watch, "preferences-file-watcher");
+        thread.setDaemon(true);
+        thread.start();
+        LOGGER.debug("Watching [{}] for changes", file);
+    }
+
+    private void watch() {
+        try {
+            while (true) {
+                if (isRelevant(watchService.take())) {
+                    Thread.sleep(DEBOUNCE_MILLIS);
+                    WatchKey pending;
+                    while ((pending = watchService.poll()) != null) {
+                        isRelevant(pending);
+                    }
+                    runCallback();
+                }
+            }
+        } catch (ClosedWatchServiceException cwse) {
+            LOGGER.debug("Stopped watching [{}]", file);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean isRelevant(WatchKey key) {
+        boolean relevant = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW || file.getFileName().equals(event.context())) {
+                relevant = true;
+            }
+        }
+        key.reset();
+        return relevant;
+    }
+
+    private void runCallback() {
+        try {
+            onChange.run();
+        } catch (RuntimeException re) {
+            LOGGER.error("Could not process the modified file [" + file + "]: " + re.getMessage(), re);
+        }
+    }
+
+    /**
+     * Stop watching, the watching thread terminates.
+     *
+     * @throws IOException in case the WatchService can't be closed
+     */
+    @Override
+    public void close() throws IOException {
+        if (watchService != null) {
+            watchService.close();
+        }
+    }
+}
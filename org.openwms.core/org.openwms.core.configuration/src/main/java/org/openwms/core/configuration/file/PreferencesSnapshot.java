@@ -0,0 +1,150 @@
+/*
+ * openwms.org, the Open Warehouse Management System.
+ * Copyright (C) 2014 Heiko Scherrer
+ *
+ * This file is part of openwms.org.
+ *
+ * openwms.org is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * openwms.org is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this software. If not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.openwms.core.configuration.file;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.openwms.core.configuration.PropertyScope;
+import org.openwms.core.exception.NoUniqueResultException;
+
+/**
+ * A PreferencesSnapshot is an immutable, indexed view on a set of preferences. A snapshot is built once and never modified afterwards, so
+ * it can be read concurrently without any locking. To change the content a new snapshot is built and replaces the old one.
+ *
+ * @author <a href="mailto:scherrer@openwms.org">Heiko Scherrer</a>
+ * @version 1.0
+ * @since 1.1
+ */
+final class PreferencesSnapshot {
+
+    /** An empty snapshot. */
+    static final PreferencesSnapshot EMPTY = new PreferencesSnapshot(Collections.emptyList());
+
+    private final List<AbstractPreference> all;
+    private final Map<PreferenceKey, AbstractPreference> byKey;
+    private final Map<PropertyScope, List<AbstractPreference>> byScope;
+    private final Map<PropertyScope, Map<String, List<AbstractPreference>>> byScopeAndOwner;
+
+    /**
+     * Create a new PreferencesSnapshot and build all indexes.
+     *
+     * @param preferences The preferences to index
+     * @throws NoUniqueResultException if two preferences share the same {@link PreferenceKey}
+     */
+    PreferencesSnapshot(Collection<? extends AbstractPreference> preferences) {
+        Map<PreferenceKey, AbstractPreference> keys = new LinkedHashMap<>(preferences.size() * 2);
+        Map<PropertyScope, List<AbstractPreference>> scopes = new EnumMap<>(PropertyScope.class);
+        Map<PropertyScope, Map<String, List<AbstractPreference>>> owners = new EnumMap<>(PropertyScope.class);
+        for (AbstractPreference pref : preferences) {
+            PreferenceKey key = pref.getPrefKey();
+            if (keys.putIfAbsent(key, pref) != null) {
+                throw new NoUniqueResultException("Preference with key " + key + " already loaded.");
+            }
+            scopes.computeIfAbsent(pref.getType(), s -> new ArrayList<>()).add(pref);
+            if (key.getOwner() != null) {
+                owners.computeIfAbsent(pref.getType(), s -> new HashMap<>()).computeIfAbsent(key.getOwner(), o -> new ArrayList<>())
+                        .add(pref);
+            }
+        }
+        this.all = Collections.unmodifiableList(new ArrayList<>(keys.values()));
+        this.byKey = Collections.unmodifiableMap(keys);
+        scopes.replaceAll((s, l) -> Collections.unmodifiableList(l));
+        this.byScope = Collections.unmodifiableMap(scopes);
+        owners.values().forEach(m -> m.replaceAll((o, l) -> Collections.unmodifiableList(l)));
+        this.byScopeAndOwner = Collections.unmodifiableMap(owners);
+    }
+
+    /**
+     * Get all preferences in the order they were loaded.
+     *
+     * @return An unmodifiable list
+     */
+    List<AbstractPreference> getAll() {
+        return all;
+    }
+
+    /**
+     * Get all preferences indexed by their {@link PreferenceKey}.
+     *
+     * @return An unmodifiable map
+     */
+    Map<PreferenceKey, AbstractPreference> getByKey() {
+        return byKey;
+    }
+
+    /**
+     * Find a preference by its {@link PreferenceKey}.
+     *
+     * @param key The key
+     * @return The preference or {@literal null}
+     */
+    AbstractPreference get(PreferenceKey key) {
+        return byKey.get(key);
+    }
+
+    /**
+     * Find all preferences of a scope and optionally of an owner.
+     *
+     * @param scope The scope
+     * @param owner The owner or {@literal null} to return all preferences of the scope
+     * @return An unmodifiable list, never {@literal null}
+     */
+    List<AbstractPreference> get(PropertyScope scope, String owner) {
+        if (owner == null) {
+            return byScope.getOrDefault(scope, Collections.emptyList());
+        }
+        return byScopeAndOwner.getOrDefault(scope, Collections.emptyMap()).getOrDefault(owner, Collections.emptyList());
+    }
+
+    /**
+     * Diff this snapshot against a {@code previous} one by {@link PreferenceKey}.
+     *
+     * @param previous The snapshot to compare with
+     * @return All preferences that do not exist in {@code previous} or carry different values, in the order they were loaded
+     */
+    List<AbstractPreference> changedSince(PreferencesSnapshot previous) {
+        List<AbstractPreference> changed = new ArrayList<>();
+        for (Map.Entry<PreferenceKey, AbstractPreference> entry : byKey.entrySet()) {
+            AbstractPreference old = previous.get(entry.getKey());
+            if (old == null || !old.hasSameValues(entry.getValue())) {
+                changed.add(entry.getValue());
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Get the number of preferences.
+     *
+     * @return The size
+     */
+    int size() {
+        return all.size();
+    }
+}
@@ -97,10 +97,11 @@ public class RolePreference extends AbstractPreference implements Serializable {
     public RolePreference(String rolename, String key) {
         // Called from the client.
         super();
-        Assert.hasText(owner, "Not allowed to create a RolePreference with an empty rolename");
+        Assert.hasText(rolename, "Not allowed to create a RolePreference with an empty rolename");
         Assert.hasText(key, "Not allowed to create a RolePreference with an empty key");
         owner = rolename;
         this.key = key;
+        detachFromFile();
     }
 
     /**
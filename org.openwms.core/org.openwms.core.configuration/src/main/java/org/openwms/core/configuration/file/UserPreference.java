@@ -96,6 +96,7 @@ public class UserPreference extends AbstractPreference implements Serializable {
         Assert.hasText(key, "Not allowed to create an UserPreference with an empty key");
         this.owner = owner;
         this.key = key;
+        detachFromFile();
     }
 
     /**
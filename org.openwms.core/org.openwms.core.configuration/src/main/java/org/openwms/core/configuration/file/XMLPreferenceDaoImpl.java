@@ -22,16 +22,17 @@
 package org.openwms.core.configuration.file;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.xml.transform.stream.StreamSource;
 import java.io.IOException;
-import java.util.Collections;
+import java.io.InputStream;
+import java.nio.file.Path;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Optional;
 
 import org.ameba.exception.IntegrationLayerException;
+import org.openwms.core.configuration.PropertyScope;
 import org.openwms.core.event.ReloadFilePreferencesEvent;
-import org.openwms.core.exception.NoUniqueResultException;
 import org.openwms.core.exception.ResourceNotFoundException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -47,9 +48,12 @@ import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
- * A XMLPreferenceDaoImpl reads a XML file of preferences and keeps them internally in a Map. An initial preferences file can be configured
- * with a property <i>openwms.core.config.initial-properties</i> in the application.properties file. <p> On a {@link
- * ReloadFilePreferencesEvent} the internal Map is cleared and reloaded. </p>
+ * A XMLPreferenceDaoImpl reads a XML file of preferences and keeps them internally in an immutable {@link PreferencesSnapshot}. An initial
+ * preferences file can be configured with a property <i>openwms.core.config.initial-properties</i> in the application.properties file. <p>
+ * On a {@link ReloadFilePreferencesEvent} a new snapshot is built and replaces the current one with a single volatile write. Readers are
+ * never blocked and always see either the old or the new snapshot. </p> <p> If <i>openwms.core.config.watch-initial-properties</i> is
+ * enabled and the preferences file is located in the file system, the file is watched for modifications. A modified file is read on a
+ * background thread and only the new or changed preferences are published with a {@link FilePreferencesChangedEvent}. </p>
  *
  * @author <a href="mailto:scherrer@openwms.org">Heiko Scherrer</a>
  * @version 0.2
@@ -67,9 +71,11 @@ class XMLPreferenceDaoImpl implements PreferenceDao, ApplicationListener<ReloadF
     private Unmarshaller unmarshaller;
     @Value("${openwms.core.config.initial-properties:}")
     private String fileName;
+    @Value("${openwms.core.config.watch-initial-properties:false}")
+    private boolean watchFile;
     private volatile Resource fileResource;
-    private volatile Preferences preferences;
-    private Map<PreferenceKey, AbstractPreference> prefs = new ConcurrentHashMap<>();
+    private volatile PreferencesSnapshot snapshot = PreferencesSnapshot.EMPTY;
+    private PreferencesFileWatcher watcher;
 
     /**
      * {@inheritDoc}
@@ -78,7 +84,31 @@ class XMLPreferenceDaoImpl implements PreferenceDao, ApplicationListener<ReloadF
      */
     @Override
     public List<AbstractPreference> findAll() {
-        return preferences == null ? Collections.emptyList() : preferences.getAll();
+        return snapshot.getAll();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<AbstractPreference> findByKey(PreferenceKey key) {
+        return Optional.ofNullable(snapshot.get(key));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public <T extends AbstractPreference> Optional<T> findByKey(PreferenceKey key, Class<T> clazz) {
+        return findByKey(key).filter(clazz::isInstance).map(clazz::cast);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<AbstractPreference> findByScope(PropertyScope scope, String owner) {
+        return snapshot.get(scope, owner);
     }
 
     /**
@@ -92,28 +122,68 @@ class XMLPreferenceDaoImpl implements PreferenceDao, ApplicationListener<ReloadF
     }
 
     /**
-     * On bean initialization load all preferences into a Map.
+     * On bean initialization load all preferences into a snapshot.
      */
     @PostConstruct
     private void loadResources() {
-        if (initialPropertiesExist()) {
+        snapshot = initialPropertiesExist() ? readSnapshot() : PreferencesSnapshot.EMPTY;
+        if (watchFile && watcher == null && fileResource != null) {
+            startWatching();
+        }
+    }
+
+    private void startWatching() {
+        try {
+            Path path = fileResource.getFile().toPath();
+            watcher = new PreferencesFileWatcher(path, this::onFileChanged);
+            watcher.start();
+        } catch (IOException ioe) {
+            LOGGER.warn("Can't watch the preferences file [{}] for changes: {}", fileName, ioe.getMessage());
+            watcher = null;
+        }
+    }
+
+    /**
+     * Stop watching the preferences file.
+     */
+    @PreDestroy
+    private void stopWatching() {
+        if (watcher != null) {
             try {
-                preferences = (Preferences) unmarshaller.unmarshal(new StreamSource(fileResource.getInputStream()));
-                for (AbstractPreference pref : preferences.getAll()) {
-                    if (prefs.containsKey(pref.getPrefKey())) {
-                        throw new NoUniqueResultException("Preference with key " + pref.getPrefKey() + " already loaded.");
-                    }
-                    prefs.put(pref.getPrefKey(), pref);
-                }
-                LOGGER.debug("Loaded {} properties into cache", preferences.getAll().size());
-            } catch (XmlMappingException xme) {
-                throw new IntegrationLayerException("Exception while unmarshalling from " + fileName, xme);
+                watcher.close();
             } catch (IOException ioe) {
-                throw new ResourceNotFoundException("Exception while accessing the resource with name " + fileName, ioe);
+                LOGGER.debug("Exception while closing the file watcher: {}", ioe.getMessage());
             }
         }
     }
 
+    private void onFileChanged() {
+        if (!fileResource.exists()) {
+            return;
+        }
+        PreferencesSnapshot previous = snapshot;
+        PreferencesSnapshot current = readSnapshot();
+        List<AbstractPreference> changed = current.changedSince(previous);
+        snapshot = current;
+        LOGGER.debug("Preferences file modified, {} preferences changed", changed.size());
+        if (!changed.isEmpty()) {
+            ctx.publishEvent(new FilePreferencesChangedEvent(this, changed));
+        }
+    }
+
+    private PreferencesSnapshot readSnapshot() {
+        try (InputStream is = fileResource.getInputStream()) {
+            Preferences preferences = (Preferences) unmarshaller.unmarshal(new StreamSource(is));
+            PreferencesSnapshot result = new PreferencesSnapshot(preferences.getAll());
+            LOGGER.debug("Loaded {} properties into cache", result.size());
+            return result;
+        } catch (XmlMappingException xme) {
+            throw new IntegrationLayerException("Exception while unmarshalling from " + fileName, xme);
+        } catch (IOException ioe) {
+            throw new ResourceNotFoundException("Exception while accessing the resource with name " + fileName, ioe);
+        }
+    }
+
     private boolean initialPropertiesExist() {
         if (fileName != null && !fileName.isEmpty()) {
             fileResource = ctx.getResource(fileName);
@@ -126,8 +196,6 @@ class XMLPreferenceDaoImpl implements PreferenceDao, ApplicationListener<ReloadF
     }
 
     private void reloadResources() {
-        preferences = null;
-        prefs.clear();
         loadResources();
     }
 }
\ No newline at end of file
@@ -21,6 +21,7 @@
  */
 package org.openwms.core.module;
 
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.NamedQueries;
@@ -32,7 +33,10 @@ import java.io.Serializable;
 import java.util.Comparator;
 
 import org.ameba.integration.jpa.BaseEntity;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.openwms.core.AbstractEntity;
+import org.openwms.core.Constants;
 import org.openwms.core.DomainObject;
 import org.openwms.core.values.CoreTypeDefinitions;
 import org.springframework.util.Assert;
@@ -52,6 +56,8 @@ import org.springframework.util.Assert;
 @Table(name = "COR_MODULE")
 @NamedQueries({ @NamedQuery(name = Module.NQ_FIND_ALL, query = "select m from Module m order by m.startupOrder"),
         @NamedQuery(name = Module.NQ_FIND_BY_UNIQUE_QUERY, query = "select m from Module m where m.moduleName = ?1") })
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Constants.CACHE_REGION_MODULES)
 public class Module extends BaseEntity implements Serializable {
 
     /**
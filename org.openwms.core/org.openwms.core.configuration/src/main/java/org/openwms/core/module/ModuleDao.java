@@ -21,7 +21,11 @@
  */
 package org.openwms.core.module;
 
+import javax.persistence.QueryHint;
+import java.util.List;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
 /**
  * A ModuleDao adds particular functionality regarding {@link Module} entity classes.
@@ -32,4 +36,12 @@ import org.springframework.data.jpa.repository.JpaRepository;
  */
 interface ModuleDao extends JpaRepository<Module, Long> {
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The result is put into the query cache if the second-level cache is enabled.
+     */
+    @Override
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
+    List<Module> findAll();
 }
\ No newline at end of file
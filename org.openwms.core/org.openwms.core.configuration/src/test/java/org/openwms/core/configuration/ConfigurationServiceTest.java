@@ -22,13 +22,17 @@
 package org.openwms.core.configuration;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
@@ -41,10 +45,14 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.openwms.core.configuration.file.AbstractPreference;
 import org.openwms.core.configuration.file.ApplicationPreference;
+import org.openwms.core.configuration.file.FilePreferencesChangedEvent;
 import org.openwms.core.configuration.file.MockApplicationPreference;
 import org.openwms.core.configuration.file.ModulePreference;
 import org.openwms.core.configuration.file.PreferenceDao;
+import org.openwms.core.event.ConfigurationChangedEvent;
+import org.openwms.core.event.EventPublisher;
 import org.openwms.core.event.MergePropertiesEvent;
+import org.openwms.core.event.RootApplicationEvent;
 import org.openwms.core.test.AbstractMockitoTests;
 
 /**
@@ -65,6 +73,8 @@ public class ConfigurationServiceTest extends AbstractMockitoTests {
     private PreferenceRepository writer;
     @Mock
     private PreferenceDao reader;
+    @Mock
+    private EventPublisher<RootApplicationEvent> publisher;
     @InjectMocks
     private ConfigurationServiceImpl srv = new ConfigurationServiceImpl();
     @Rule
@@ -93,6 +103,7 @@ public class ConfigurationServiceTest extends AbstractMockitoTests {
         persistedPrefs.clear();
         reset(writer);
         reset(reader);
+        reset(publisher);
     }
 
     /**
@@ -108,11 +119,82 @@ public class ConfigurationServiceTest extends AbstractMockitoTests {
         when(writer.findAll()).thenReturn(persistedPrefs);
 
         srv.onApplicationEvent(new MergePropertiesEvent(this));
-        // new file preferences should be saved
-        verify(writer).save(new ApplicationPreference("filePref1"));
-        verify(writer).save(new ApplicationPreference("filePref2"));
+        // new file preferences should be saved in one batch
+        verify(writer).save(Arrays.asList(new ApplicationPreference("filePref1"), new ApplicationPreference("filePref2")));
+        verify(writer).flush();
         // save must not be called for an already existing preference.
         verify(writer, never()).save(new ApplicationPreference(PERSISTED_APP_PREF2));
+        verify(publisher).publish(any(ConfigurationChangedEvent.class));
+    }
+
+    /**
+     * Test method for {@link org.openwms.core.configuration.ConfigurationServiceImpl#onApplicationEvent(org.openwms.core.event.MergePropertiesEvent)}.
+     * <p>
+     * Test that no event is triggered if the file does not carry any new or changed preference.
+     */
+    @Test
+    public final void testOnApplicationEventWithoutChanges() {
+        when(reader.findAll()).thenReturn(Collections.singletonList(new ApplicationPreference(PERSISTED_APP_PREF1)));
+        when(writer.findAll()).thenReturn(persistedPrefs);
+
+        srv.onApplicationEvent(new MergePropertiesEvent(this));
+        verifyZeroInteractions(publisher);
+    }
+
+    /**
+     * Test method for {@link org.openwms.core.configuration.ConfigurationServiceImpl#onApplicationEvent(org.openwms.core.event.MergePropertiesEvent)}.
+     * <p>
+     * Test that an already persisted preference is never updated, even when the file carries a different value.
+     */
+    @Test
+    public final void testOnApplicationEventKeepsPersistedValues() {
+        persistedPrefs.get(0).setValue("persistedValue");
+        ApplicationPreference changed = new ApplicationPreference(PERSISTED_APP_PREF1);
+        changed.setValue("changedValue");
+        when(reader.findAll()).thenReturn(Collections.singletonList(changed));
+        when(writer.findAll()).thenReturn(persistedPrefs);
+
+        srv.onApplicationEvent(new MergePropertiesEvent(this));
+        assertEquals("persistedValue", persistedPrefs.get(0).getValue());
+        verify(writer, never()).save(any(Iterable.class));
+        verifyZeroInteractions(publisher);
+    }
+
+    /**
+     * Test method for {@link org.openwms.core.configuration.ConfigurationServiceImpl#onApplicationEvent(org.openwms.core.event.MergePropertiesEvent)}.
+     * <p>
+     * Test that a preference edited through the service is not reverted to the file value by a following merge.
+     */
+    @Test
+    public final void testOnApplicationEventKeepsEditedValues() {
+        ApplicationPreference edited = (ApplicationPreference) persistedPrefs.get(0);
+        edited.setValue("edited");
+        srv.save(edited);
+        assertTrue(edited.isFromFile());
+        ApplicationPreference fromFile = new ApplicationPreference(PERSISTED_APP_PREF1);
+        fromFile.setValue("fileValue");
+        when(reader.findAll()).thenReturn(Collections.singletonList(fromFile));
+        when(writer.findAll()).thenReturn(persistedPrefs);
+
+        srv.onApplicationEvent(new MergePropertiesEvent(this));
+        assertEquals("edited", edited.getValue());
+        verify(writer, never()).save(Collections.singletonList(edited));
+    }
+
+    /**
+     * Test method for {@link org.openwms.core.configuration.ConfigurationServiceImpl#onApplicationEvent(org.openwms.core.event.MergePropertiesEvent)}.
+     * <p>
+     * Test that only the changed preferences of a modified file are merged, the file provider is not asked for all preferences.
+     */
+    @Test
+    public final void testOnFilePreferencesChanged() {
+        when(writer.findAll()).thenReturn(persistedPrefs);
+
+        srv.onApplicationEvent(new FilePreferencesChangedEvent(this,
+                Arrays.asList(new ApplicationPreference("filePref3"), new ApplicationPreference(PERSISTED_APP_PREF1))));
+        verify(writer).save(Collections.singletonList(new ApplicationPreference("filePref3")));
+        verify(writer, never()).save(new ApplicationPreference(PERSISTED_APP_PREF1));
+        verifyZeroInteractions(reader);
     }
 
     /**
@@ -190,6 +272,7 @@ public class ConfigurationServiceTest extends AbstractMockitoTests {
 
         assertEquals(mock, srv.save(mock));
         verify(writer).save(mock);
+        verify(publisher).publish(any(ConfigurationChangedEvent.class));
     }
 
     /**
@@ -212,5 +295,6 @@ public class ConfigurationServiceTest extends AbstractMockitoTests {
     public final void testRemove() {
         srv.delete(new ApplicationPreference("TRANSIENT"));
         verify(writer).delete(new ApplicationPreference("TRANSIENT"));
+        verify(publisher).publish(any(ConfigurationChangedEvent.class));
     }
 }
\ No newline at end of file
@@ -0,0 +1,110 @@
+/*
+ * openwms.org, the Open Warehouse Management System.
+ * Copyright (C) 2014 Heiko Scherrer
+ *
+ * This file is part of openwms.org.
+ *
+ * openwms.org is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as 
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * openwms.org is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this software. If not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.openwms.core.configuration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.openwms.core.configuration.file.ApplicationPreference;
+import org.openwms.core.configuration.file.PreferenceKey;
+import org.openwms.core.event.ConfigurationChangedEvent;
+import org.openwms.core.exception.IllegalConfigurationValueException;
+import org.openwms.core.test.AbstractMockitoTests;
+
+/**
+ * A PreferenceAccessorTest.
+ *
+ * @author <a href="mailto:scherrer@openwms.org">Heiko Scherrer</a>
+ * @version 1.0
+ * @since 1.1
+ */
+public class PreferenceAccessorTest extends AbstractMockitoTests {
+
+    private static final PreferenceKey TIMEOUT = PreferenceKey.of(PropertyScope.APPLICATION, "timeout");
+    private static final PreferenceKey NAME = PreferenceKey.of(PropertyScope.APPLICATION, "name");
+    @Mock
+    private PreferenceRepository repository;
+    @InjectMocks
+    private PreferenceAccessorImpl accessor;
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    @Override
+    protected void doAfter() {
+        reset(repository);
+    }
+
+    private void givenPreferences() {
+        ApplicationPreference timeout = new ApplicationPreference("timeout");
+        timeout.setValue("30");
+        ApplicationPreference name = new ApplicationPreference("name");
+        name.setValue("openwms");
+        when(repository.findAll()).thenReturn(Arrays.asList(timeout, name));
+    }
+
+    /**
+     * Typed values are served from the cache, the repository is called only once.
+     */
+    @Test
+    public final void testTypedValuesFromCache() {
+        givenPreferences();
+
+        assertThat(accessor.getInt(TIMEOUT, 10)).isEqualTo(30);
+        assertThat(accessor.getFloat(TIMEOUT, 10F)).isEqualTo(30F);
+        assertThat(accessor.getString(NAME).get()).isEqualTo("openwms");
+        assertThat(accessor.getInt(PreferenceKey.of(PropertyScope.APPLICATION, "unknown"), 10)).isEqualTo(10);
+        verify(repository, times(1)).findAll();
+    }
+
+    /**
+     * A ConfigurationChangedEvent drops the cache.
+     */
+    @Test
+    public final void testInvalidation() {
+        givenPreferences();
+        accessor.getString(NAME);
+
+        accessor.onApplicationEvent(new ConfigurationChangedEvent(this));
+        accessor.getString(NAME);
+        verify(repository, times(2)).findAll();
+    }
+
+    /**
+     * Reading a non numeric value as int fails.
+     */
+    @Test
+    public final void testIllegalInt() {
+        givenPreferences();
+        thrown.expect(IllegalConfigurationValueException.class);
+        accessor.getInt(NAME, 0);
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * openwms.org, the Open Warehouse Management System.
+ * Copyright (C) 2014 Heiko Scherrer
+ *
+ * This file is part of openwms.org.
+ *
+ * openwms.org is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as 
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * openwms.org is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this software. If not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.openwms.core.configuration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import org.junit.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.openwms.core.configuration.file.AbstractPreference;
+import org.openwms.core.configuration.file.ApplicationPreference;
+import org.openwms.core.configuration.file.ModulePreference;
+import org.openwms.core.configuration.file.RolePreference;
+import org.openwms.core.configuration.file.UserPreference;
+import org.openwms.core.event.ConfigurationChangedEvent;
+import org.openwms.core.event.RoleChangedEvent;
+import org.openwms.core.event.UserChangedEvent;
+import org.openwms.core.test.AbstractMockitoTests;
+
+/**
+ * A PreferenceResolverTest.
+ *
+ * @author <a href="mailto:scherrer@openwms.org">Heiko Scherrer</a>
+ * @version 1.0
+ * @since 1.1
+ */
+public class PreferenceResolverTest extends AbstractMockitoTests {
+
+    private ApplicationPreference app = new ApplicationPreference("KEY");
+    private ApplicationPreference appOnly = new ApplicationPreference("APP_ONLY");
+    private ModulePreference module = new ModulePreference("CORE", "KEY");
+    private RolePreference admin = new RolePreference("ROLE_ADMIN", "KEY");
+    private RolePreference user = new RolePreference("ROLE_USER", "KEY");
+    private UserPreference own = new UserPreference("scherrer", "OWN");
+
+    @Mock
+    private PreferenceRepository repository;
+    @InjectMocks
+    private PreferenceResolverImpl resolver;
+
+    /**
+     * Setting up some test data.
+     */
+    @Override
+    protected void doBefore() {
+        when(repository.findByType(ApplicationPreference.class)).thenReturn(Arrays.asList(app, appOnly));
+        when(repository.findByType(ModulePreference.class, "CORE")).thenReturn(Collections.singletonList(module));
+        when(repository.findByType(RolePreference.class, "ROLE_ADMIN")).thenReturn(Collections.singletonList(admin));
+        when(repository.findByType(RolePreference.class, "ROLE_USER")).thenReturn(Collections.singletonList(user));
+        when(repository.findByType(UserPreference.class, "scherrer")).thenReturn(Collections.singletonList(own));
+    }
+
+    /**
+     * Narrower scopes override wider ones, the first role wins.
+     */
+    @Test
+    public final void testPrecedence() {
+        Map<String, AbstractPreference> view = resolver.resolve("scherrer", "CORE", Arrays.asList("ROLE_ADMIN", "ROLE_USER"));
+
+        assertThat(view).hasSize(3);
+        assertThat(view.get("KEY")).isSameAs(admin);
+        assertThat(view.get("APP_ONLY")).isSameAs(appOnly);
+        assertThat(view.get("OWN")).isSameAs(own);
+        assertThat(resolver.resolve("scherrer", "CORE", Collections.emptyList(), "KEY").get()).isSameAs(module);
+        assertThat(resolver.resolve("scherrer", null, null, "KEY").get()).isSameAs(app);
+    }
+
+    /**
+     * A resolved view is served from the cache until preferences change.
+     */
+    @Test
+    public final void testCachedAndInvalidated() {
+        resolver.resolve("scherrer", "CORE", Arrays.asList("ROLE_USER"));
+        resolver.resolve("scherrer", "CORE", Arrays.asList("ROLE_USER"));
+        assertThat(resolver.getCachedViews()).isEqualTo(1);
+        verify(repository, times(1)).findByType(UserPreference.class, "scherrer");
+
+        resolver.onApplicationEvent(new ConfigurationChangedEvent(this));
+        assertThat(resolver.getCachedViews()).isZero();
+        resolver.resolve("scherrer", "CORE", Arrays.asList("ROLE_USER"));
+        verify(repository, times(2)).findByType(UserPreference.class, "scherrer");
+    }
+
+    /**
+     * Only the views of the named users and roles are evicted.
+     */
+    @Test
+    public final void testTargetedEviction() {
+        resolver.resolve("scherrer", null, Arrays.asList("ROLE_USER"));
+        resolver.resolve("other", null, Arrays.asList("ROLE_ADMIN"));
+
+        resolver.onApplicationEvent(UserChangedEvent.of(this, "unknown"));
+        assertThat(resolver.getCachedViews()).isEqualTo(2);
+        resolver.onApplicationEvent(UserChangedEvent.of(this, "scherrer"));
+        assertThat(resolver.getCachedViews()).isEqualTo(1);
+        resolver.onApplicationEvent(RoleChangedEvent.of(this, "ROLE_ADMIN"));
+        assertThat(resolver.getCachedViews()).isZero();
+    }
+}
@@ -29,6 +29,8 @@ import org.openwms.core.configuration.file.AbstractPreference;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.AutoConfigureTestDatabase;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.junit4.SpringRunner;
 
 /**
@@ -46,12 +48,15 @@ public class ConfigurationIT {
     @Autowired
     private ConfigurationController testee;
 
+    @SuppressWarnings("unchecked")
     public
     @Test
     void testSave() throws Exception {
-        Iterable<AbstractPreference> all = testee.findAll();
-        assertThat(all)
+        ResponseEntity<?> response = testee.findAll(null);
+        assertThat(response.getHeaders().getETag()).isNotNull();
+        assertThat((Iterable<AbstractPreference>) response.getBody())
                 .isNotNull()
                 .hasSize(0);
+        assertThat(testee.findAll(response.getHeaders().getETag()).getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
     }
 }
@@ -24,6 +24,9 @@ package org.openwms.core.configuration.api;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.groups.Tuple.tuple;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.openwms.core.configuration.PropertyScope;
@@ -58,10 +61,11 @@ public class ConfigurationWithInitialPreferencesIT {
     @Autowired
     private ConfigurationController testee;
 
+    @SuppressWarnings("unchecked")
     public
     @Test
     void testSave() throws Exception {
-        Iterable<AbstractPreference> all = testee.findAll();
+        Iterable<AbstractPreference> all = (Iterable<AbstractPreference>) testee.findAll(null).getBody();
         assertThat(all)
                 .isNotNull()
                 .hasSize(1)
@@ -70,4 +74,18 @@ public class ConfigurationWithInitialPreferencesIT {
                 .extracting("key", "type", "value", "minimum", "maximum", "floatValue")
                 .contains(tuple("defaultLanguage", PropertyScope.APPLICATION, "en_US", 10, 100, 22.1F));
     }
+
+    public
+    @Test
+    void testFindAllStreamed() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        testee.findAllStreamed(PropertyScope.APPLICATION, null, "default").getBody().writeTo(out);
+        String[] lines = new String(out.toByteArray(), StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(1);
+        assertThat(lines[0]).contains("defaultLanguage");
+
+        out.reset();
+        testee.findAllStreamed(PropertyScope.USER, null, "default").getBody().writeTo(out);
+        assertThat(out.size()).isEqualTo(0);
+    }
 }
@@ -0,0 +1,74 @@
+/*
+ * openwms.org, the Open Warehouse Management System.
+ * Copyright (C) 2014 Heiko Scherrer
+ *
+ * This file is part of openwms.org.
+ *
+ * openwms.org is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * openwms.org is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this software. If not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.openwms.core.configuration.api;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.After;
+import org.junit.Test;
+import org.openwms.core.event.ConfigurationChangedEvent;
+
+/**
+ * A PreferenceChangeNotifierTest.
+ *
+ * @author <a href="mailto:scherrer@openwms.org">Heiko Scherrer</a>
+ * @version 1.0
+ * @since 1.1
+ */
+public class PreferenceChangeNotifierTest {
+
+    private final PreferenceChangeNotifier testee = new PreferenceChangeNotifier(1000, 1);
+
+    /**
+     * Stop the sender thread.
+     */
+    @After
+    public void onAfter() {
+        testee.shutdown();
+    }
+
+    /**
+     * The requested timeout is bounded by the configured maximum.
+     */
+    @Test
+    public final void testTimeoutIsClamped() {
+        assertEquals(Long.valueOf(1000), testee.subscribe(null).getTimeout());
+        assertEquals(Long.valueOf(1000), testee.subscribe(Long.MAX_VALUE).getTimeout());
+        assertEquals(Long.valueOf(1000), testee.subscribe(0L).getTimeout());
+        assertEquals(Long.valueOf(500), testee.subscribe(500L).getTimeout());
+        assertEquals(4, testee.getSubscriberCount());
+    }
+
+    /**
+     * Publishing never blocks, subscribers that can not be served in time are dropped.
+     */
+    @Test
+    public final void testPublishingDoesNotBlock() {
+        for (int i = 0; i < 10; i++) {
+            testee.subscribe(null);
+        }
+        testee.shutdown();
+
+        testee.onApplicationEvent(new ConfigurationChangedEvent(this));
+        assertEquals(0, testee.getSubscriberCount());
+    }
+}
@@ -179,4 +179,19 @@ public class ApplicationPreferenceTest {
         applicationPreferences.add(ap3);
         assertThat(applicationPreferences).hasSize(2);
     }
-}
\ No newline at end of file
+
+    /**
+     * Equal preferences with a binary value have the same hashCode, the binary value is not decoded.
+     */
+    @Test
+    public final void testHashCodeEqualsWithBinaryValue() {
+        ApplicationPreference ap1 = new ApplicationPreference.Builder().withKey(APP_PREF1).withBinValue(new byte[]{1, 2, 3}).build();
+        ApplicationPreference ap2 = new ApplicationPreference.Builder().withKey(APP_PREF1).withBinValue(new byte[]{1, 2, 3}).build();
+
+        assertThat(ap1).isEqualTo(ap2);
+        assertThat(ap1.hashCode()).isEqualTo(ap2.hashCode());
+        Set<ApplicationPreference> applicationPreferences = new HashSet<>();
+        applicationPreferences.add(ap1);
+        assertThat(applicationPreferences).contains(ap2);
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * openwms.org, the Open Warehouse Management System.
+ * Copyright (C) 2014 Heiko Scherrer
+ *
+ * This file is part of openwms.org.
+ *
+ * openwms.org is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as 
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * openwms.org is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this software. If not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.openwms.core.configuration.file;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+/**
+ * A PreferenceValueCodecTest.
+ *
+ * @author <a href="mailto:scherrer@openwms.org">Heiko Scherrer</a>
+ * @version 1.0
+ * @since 1.1
+ */
+public class PreferenceValueCodecTest {
+
+    /**
+     * All supported types survive a round trip, primitives are stored with their fixed size.
+     */
+    @Test
+    public final void testRoundTrip() {
+        ArrayList<String> list = new ArrayList<>(Arrays.asList("a", "b"));
+        for (Serializable value : Arrays.<Serializable>asList("text", 42, 42L, 1.5f, 2.5d, Boolean.TRUE, list)) {
+            assertThat(PreferenceValueCodec.decode(PreferenceValueCodec.encode(value))).isEqualTo(value);
+        }
+        assertThat((byte[]) PreferenceValueCodec.decode(PreferenceValueCodec.encode(new byte[]{1, 2, 3}))).containsExactly(new byte[]{1, 2, 3});
+        assertThat(PreferenceValueCodec.encode(42)).hasSize(5);
+        assertThat(PreferenceValueCodec.encode(null)).isNull();
+        assertThat(PreferenceValueCodec.decode(null)).isNull();
+    }
+
+    /**
+     * Values of the former Java serialization format are still readable.
+     */
+    @Test
+    public final void testDecodeLegacy() throws IOException {
+        byte[] legacy = serialize(4711);
+
+        assertThat(PreferenceValueCodec.isLegacy(legacy)).isTrue();
+        assertThat(PreferenceValueCodec.isLegacy(PreferenceValueCodec.encode(4711))).isFalse();
+        assertThat(PreferenceValueCodec.decode(legacy)).isEqualTo(4711);
+    }
+
+    /**
+     * The typed values are derived from the String value and migrating twice does not change anything.
+     */
+    @Test
+    public final void testMigrateValues() {
+        ApplicationPreference pref = new ApplicationPreference.Builder().withKey("KEY").withValue("12").withBinValue("bin").build();
+
+        assertThat(pref.getLongValue()).isEqualTo(12L);
+        assertThat(pref.getBooleanValue()).isNull();
+        assertThat(pref.getBinValue()).isEqualTo("bin");
+        assertThat(pref.migrateValues()).isFalse();
+
+        pref.setValue("TRUE");
+        assertThat(pref.getLongValue()).isNull();
+        assertThat(pref.getBooleanValue()).isTrue();
+    }
+
+    private static byte[] serialize(Serializable value) throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bos)) {
+            out.writeObject(value);
+        }
+        return bos.toByteArray();
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * openwms.org, the Open Warehouse Management System.
+ * Copyright (C) 2014 Heiko Scherrer
+ *
+ * This file is part of openwms.org.
+ *
+ * openwms.org is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * openwms.org is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this software. If not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.openwms.core.configuration.file;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+import org.openwms.core.configuration.PropertyScope;
+import org.openwms.core.exception.NoUniqueResultException;
+
+/**
+ * A PreferencesSnapshotTest.
+ *
+ * @author <a href="mailto:scherrer@openwms.org">Heiko Scherrer</a>
+ * @version 1.0
+ * @since 1.1
+ */
+public class PreferencesSnapshotTest {
+
+    /**
+     * Lookups by key, by scope and by scope and owner.
+     */
+    @Test
+    public final void testLookups() {
+        ApplicationPreference app = new ApplicationPreference("APP_PREF");
+        UserPreference u1 = new UserPreference("user1", "KEY1");
+        UserPreference u2 = new UserPreference("user2", "KEY1");
+        PreferencesSnapshot snapshot = new PreferencesSnapshot(Arrays.asList(app, u1, u2));
+
+        assertThat(snapshot.size()).isEqualTo(3);
+        assertThat(snapshot.get(PreferenceKey.of(PropertyScope.APPLICATION, "APP_PREF"))).isSameAs(app);
+        assertThat(snapshot.get(PreferenceKey.of(PropertyScope.USER, "user2", "KEY1"))).isSameAs(u2);
+        assertThat(snapshot.get(PropertyScope.USER, null)).containsExactly(u1, u2);
+        assertThat(snapshot.get(PropertyScope.USER, "user1")).containsExactly(u1);
+        assertThat(snapshot.get(PropertyScope.ROLE, null)).isEmpty();
+    }
+
+    /**
+     * The snapshot must not be modifiable.
+     */
+    @Test
+    public final void testImmutable() {
+        PreferencesSnapshot snapshot = new PreferencesSnapshot(Arrays.asList(new ApplicationPreference("APP_PREF")));
+
+        assertThatThrownBy(() -> snapshot.getAll().clear()).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    /**
+     * Two preferences with the same key are rejected.
+     */
+    @Test
+    public final void testDuplicateKey() {
+        assertThatThrownBy(() -> new PreferencesSnapshot(
+                Arrays.asList(new ApplicationPreference("APP_PREF"), new ApplicationPreference("APP_PREF"))))
+                .isInstanceOf(NoUniqueResultException.class);
+    }
+
+    /**
+     * Only new preferences and preferences with modified values are reported as changed.
+     */
+    @Test
+    public final void testChangedSince() {
+        ApplicationPreference unchanged = new ApplicationPreference("UNCHANGED");
+        ApplicationPreference modified = new ApplicationPreference("MODIFIED");
+        PreferencesSnapshot previous = new PreferencesSnapshot(Arrays.asList(unchanged, modified));
+
+        ApplicationPreference modifiedNow = new ApplicationPreference("MODIFIED");
+        modifiedNow.setValue("newValue");
+        ApplicationPreference added = new ApplicationPreference("ADDED");
+        PreferencesSnapshot current = new PreferencesSnapshot(
+                Arrays.asList(new ApplicationPreference("UNCHANGED"), modifiedNow, added));
+
+        assertThat(current.changedSince(previous)).containsExactly(modifiedNow, added);
+        assertThat(current.changedSince(current)).isEmpty();
+    }
+}
@@ -21,6 +21,7 @@
  */
 package org.openwms.core.lang;
 
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Embedded;
 import javax.persistence.Entity;
@@ -31,6 +32,9 @@ import javax.persistence.UniqueConstraint;
 import java.io.Serializable;
 
 import org.ameba.integration.jpa.BaseEntity;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.openwms.core.Constants;
 import org.springframework.util.Assert;
 
 
@@ -43,6 +47,8 @@ import org.springframework.util.Assert;
  */
 @Entity
 @Table(name = "COR_I18N", uniqueConstraints = @UniqueConstraint(columnNames = {"C_KEY", "C_MODULE_NAME"}))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Constants.CACHE_REGION_I18N)
 public class I18n extends BaseEntity implements Serializable {
 
     /** The natural key is used as references in the application (not nullable). */
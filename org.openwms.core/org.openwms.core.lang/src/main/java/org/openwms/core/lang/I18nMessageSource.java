@@ -0,0 +1,304 @@
+/*
+ * openwms.org, the Open Warehouse Management System.
+ * Copyright (C) 2014 Heiko Scherrer
+ *
+ * This file is part of openwms.org.
+ *
+ * openwms.org is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as 
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * openwms.org is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this software. If not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.openwms.core.lang;
+
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.annotation.PostConstruct;
+
+import org.openwms.core.event.I18nChangedEvent;
+import org.openwms.core.event.RootApplicationEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.support.AbstractApplicationContext;
+import org.springframework.context.support.AbstractMessageSource;
+import org.springframework.context.support.ResourceBundleMessageSource;
+import org.springframework.stereotype.Component;
+
+/**
+ * An I18nMessageSource resolves messages from the {@link I18n} translations stored in the database.
+ * <p>
+ * All translations of a module are loaded with one query on first access and kept in an immutable map, keyed by the module, the key and
+ * the language. Each translation is compiled into a {@link MessageFormat} once, so resolving a message does neither query the database
+ * nor parse the message pattern. Codes without any translation are remembered, until the translations change.
+ * </p>
+ * <p>
+ * A key is looked up in the modules in the configured order first, then in all other modules. When an {@link I18nChangedEvent} arrives,
+ * only the changed translations are reloaded.
+ * </p>
+ * <p>
+ * Codes that are not translated in the database are resolved by the parent MessageSource. Unless a parent is set, the resource bundles
+ * that served as messageSource before are used as parent.
+ * </p>
+ *
+ * @author <a href="mailto:scherrer@openwms.org">Heiko Scherrer</a>
+ * @version 1.0
+ * @since 1.1
+ */
+@Component(AbstractApplicationContext.MESSAGE_SOURCE_BEAN_NAME)
+@ConditionalOnProperty(name = "openwms.core.lang.message-source.enabled", havingValue = "true", matchIfMissing = true)
+class I18nMessageSource extends AbstractMessageSource implements ApplicationListener<RootApplicationEvent> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(I18nMessageSource.class);
+    /** Upper bound of remembered missing codes, the set is cleared when it is exceeded. */
+    private static final int MAX_MISSING = 10000;
+    @Autowired
+    private I18nRepository repository;
+    @Value("${openwms.core.lang.modules:CORE}")
+    private String[] preferredModules = {"CORE"};
+    @Value("${spring.messages.basename:i18n,messages}")
+    private String[] basenames = {"i18n", "messages"};
+    @Value("${spring.messages.encoding:UTF-8}")
+    private String encoding = "UTF-8";
+    private volatile Snapshot snapshot;
+    private final Set<String> missing = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Fall back to the resource bundles, unless a parent MessageSource is set.
+     */
+    @PostConstruct
+    void initParent() {
+        if (getParentMessageSource() == null) {
+            ResourceBundleMessageSource bundles = new ResourceBundleMessageSource();
+            bundles.setBasenames(basenames);
+            bundles.setDefaultEncoding(encoding);
+            setParentMessageSource(bundles);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected String resolveCodeWithoutArguments(String code, Locale locale) {
+        Translation translation = find(code);
+        return translation == null ? null : translation.getText(locale);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Returns the precompiled and shared {@link MessageFormat}, the caller synchronizes on it.
+     */
+    @Override
+    protected MessageFormat resolveCode(String code, Locale locale) {
+        Translation translation = find(code);
+        return translation == null ? null : translation.getFormat(locale);
+    }
+
+    private Translation find(String code) {
+        if (code == null || missing.contains(code)) {
+            return null;
+        }
+        Snapshot current = getSnapshot();
+        Translation translation = current.merged.get(code);
+        if (translation == null) {
+            if (missing.size() >= MAX_MISSING) {
+                missing.clear();
+            }
+            missing.add(code);
+            if (current != snapshot) {
+                // Reloaded meanwhile, the code may exist now
+                missing.remove(code);
+            }
+        }
+        return translation;
+    }
+
+    private Snapshot getSnapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                current = snapshot;
+                if (current == null) {
+                    current = loadAll();
+                    snapshot = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private Snapshot loadAll() {
+        Map<String, Map<String, Translation>> modules = new HashMap<>();
+        for (String moduleName : repository.findModuleNames()) {
+            modules.put(moduleName, toMap(repository.findByModuleName(moduleName)));
+        }
+        LOGGER.debug("Loaded translations of modules {}", modules.keySet());
+        return new Snapshot(modules, preferredModules);
+    }
+
+    private Map<String, Translation> toMap(Collection<I18n> rows) {
+        Map<String, Translation> result = new HashMap<>(rows.size() * 4 / 3 + 1);
+        for (I18n row : rows) {
+            result.put(row.getKey(), new Translation(row));
+        }
+        return result;
+    }
+
+    /**
+     * Reload all translations of all modules.
+     */
+    synchronized void reloadAll() {
+        snapshot = loadAll();
+        missing.clear();
+    }
+
+    /**
+     * Reload all translations of a module.
+     *
+     * @param moduleName The name of the module
+     */
+    synchronized void reload(String moduleName) {
+        if (snapshot == null) {
+            return;
+        }
+        Map<String, Map<String, Translation>> modules = new HashMap<>(snapshot.modules);
+        modules.put(moduleName, toMap(repository.findByModuleName(moduleName)));
+        snapshot = new Snapshot(modules, preferredModules);
+        missing.clear();
+    }
+
+    /**
+     * Reload some translations of a module.
+     *
+     * @param moduleName The name of the module
+     * @param keys The keys of the translations
+     */
+    synchronized void reload(String moduleName, Collection<String> keys) {
+        if (snapshot == null) {
+            return;
+        }
+        Map<String, Translation> module = new HashMap<>(snapshot.modules.getOrDefault(moduleName, Collections.emptyMap()));
+        module.keySet().removeAll(keys);
+        module.putAll(toMap(repository.findByModuleNameAndKeyIn(moduleName, keys)));
+        Map<String, Map<String, Translation>> modules = new HashMap<>(snapshot.modules);
+        modules.put(moduleName, module);
+        snapshot = new Snapshot(modules, preferredModules);
+        missing.removeAll(keys);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Reload the translations that have changed.
+     */
+    @Override
+    public void onApplicationEvent(RootApplicationEvent event) {
+        if (event instanceof I18nChangedEvent) {
+            I18nChangedEvent changed = (I18nChangedEvent) event;
+            if (changed.getModuleName() == null) {
+                reloadAll();
+            } else if (changed.isUnspecified()) {
+                reload(changed.getModuleName());
+            } else {
+                reload(changed.getModuleName(), changed.getKeys());
+            }
+        }
+    }
+
+    /**
+     * An immutable Snapshot of all translations, per module and merged in the order of lookup.
+     */
+    private static final class Snapshot {
+
+        private final Map<String, Map<String, Translation>> modules;
+        private final Map<String, Translation> merged;
+
+        private Snapshot(Map<String, Map<String, Translation>> modules, String[] preferredModules) {
+            this.modules = Collections.unmodifiableMap(modules);
+            Set<String> order = new LinkedHashSet<>(Arrays.asList(preferredModules));
+            List<String> others = new ArrayList<>(modules.keySet());
+            Collections.sort(others);
+            order.addAll(others);
+            Map<String, Translation> all = new LinkedHashMap<>();
+            for (String moduleName : order) {
+                modules.getOrDefault(moduleName, Collections.emptyMap()).forEach(all::putIfAbsent);
+            }
+            this.merged = Collections.unmodifiableMap(new HashMap<>(all));
+        }
+    }
+
+    /**
+     * The Translation of one key in all supported languages, English is the fallback.
+     */
+    private final class Translation {
+
+        private static final int EN = 0;
+        private static final int DE = 1;
+        private static final int FR = 2;
+        private final String[] texts;
+        private final MessageFormat[] formats = new MessageFormat[3];
+
+        private Translation(I18n row) {
+            I18nSet lang = row.getLang();
+            texts = lang == null ? new String[3] : new String[]{lang.getEnUs(), lang.getDeDe(), lang.getFrFr()};
+            Locale[] locales = {Locale.US, Locale.GERMANY, Locale.FRANCE};
+            for (int i = 0; i < texts.length; i++) {
+                if (texts[i] != null) {
+                    try {
+                        formats[i] = createMessageFormat(texts[i], locales[i]);
+                    } catch (IllegalArgumentException iae) {
+                        LOGGER.warn("Invalid message pattern for key [{}] in module [{}]: {}", row.getKey(), row.getModuleName(),
+                                iae.getMessage());
+                    }
+                }
+            }
+        }
+
+        private int slot(Locale locale) {
+            int slot = EN;
+            if (locale != null) {
+                if (Locale.GERMAN.getLanguage().equals(locale.getLanguage())) {
+                    slot = DE;
+                } else if (Locale.FRENCH.getLanguage().equals(locale.getLanguage())) {
+                    slot = FR;
+                }
+            }
+            return texts[slot] == null ? EN : slot;
+        }
+
+        private String getText(Locale locale) {
+            return texts[slot(locale)];
+        }
+
+        private MessageFormat getFormat(Locale locale) {
+            return formats[slot(locale)];
+        }
+    }
+}
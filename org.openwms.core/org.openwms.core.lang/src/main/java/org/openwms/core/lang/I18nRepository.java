@@ -21,7 +21,11 @@
  */
 package org.openwms.core.lang;
 
+import java.util.Collection;
+import java.util.List;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 /**
  * An I18nRepository is used to find and retrieve i18n translations.
@@ -32,4 +36,28 @@ import org.springframework.data.jpa.repository.JpaRepository;
  */
 interface I18nRepository extends JpaRepository<I18n, Long> {
 
+    /**
+     * Find all translations of a module.
+     *
+     * @param moduleName The name of the module
+     * @return All translations of the module
+     */
+    List<I18n> findByModuleName(String moduleName);
+
+    /**
+     * Find some translations of a module.
+     *
+     * @param moduleName The name of the module
+     * @param keys The keys of the translations
+     * @return The existing translations
+     */
+    List<I18n> findByModuleNameAndKeyIn(String moduleName, Collection<String> keys);
+
+    /**
+     * Find the names of all modules with translations.
+     *
+     * @return The module names
+     */
+    @Query("select distinct i.moduleName from I18n i")
+    List<String> findModuleNames();
 }
\ No newline at end of file
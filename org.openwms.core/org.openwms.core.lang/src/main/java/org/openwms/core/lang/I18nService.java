@@ -21,6 +21,9 @@
  */
 package org.openwms.core.lang;
 
+import java.util.Collection;
+import java.util.List;
+
 /**
  * An I18nService is responsible to find and save i18n translations.
  * 
@@ -29,4 +32,20 @@ package org.openwms.core.lang;
  * @since 0.1
  */
 interface I18nService {
+
+    /**
+     * Find all translations of a module.
+     *
+     * @param moduleName The name of the module
+     * @return All translations of the module, never {@literal null}
+     */
+    List<I18n> findAllOfModule(String moduleName);
+
+    /**
+     * Save a collection of translations.
+     *
+     * @param translations The translations to save
+     * @return The saved translations
+     */
+    List<I18n> save(Collection<I18n> translations);
 }
@@ -21,11 +21,28 @@
  */
 package org.openwms.core.lang;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 import org.ameba.annotation.TxService;
+import org.openwms.core.event.AfterCommitEventPublisherImpl;
+import org.openwms.core.event.EventPublisher;
+import org.openwms.core.event.I18nChangedEvent;
+import org.openwms.core.event.RootApplicationEvent;
+import org.openwms.core.exception.ExceptionCodes;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.Assert;
 
 /**
  * An I18nServiceImpl is a transactional Spring managed bean that is responsible to load and save i18n translations.
+ * <p>
+ * Saved translations are announced with an {@link I18nChangedEvent} per module after the transaction has been committed.
+ * </p>
  *
  * @author <a href="mailto:scherrer@openwms.org">Heiko Scherrer</a>
  * @version 0.2
@@ -36,4 +53,33 @@ class I18nServiceImpl implements I18nService {
 
     @Autowired
     private I18nRepository i18nRepository;
-}
\ No newline at end of file
+    @Autowired
+    @Qualifier(AfterCommitEventPublisherImpl.COMPONENT_NAME)
+    private EventPublisher<RootApplicationEvent> publisher;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<I18n> findAllOfModule(String moduleName) {
+        return i18nRepository.findByModuleName(moduleName);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Triggers an {@link I18nChangedEvent} for each affected module after completion.
+     */
+    @Override
+    public List<I18n> save(Collection<I18n> translations) {
+        Assert.notNull(translations, ExceptionCodes.I18N_SAVE_NOT_BE_NULL);
+        List<I18n> result = i18nRepository.save(translations);
+        Map<String, List<String>> keysByModule = new LinkedHashMap<>();
+        for (I18n i18n : result) {
+            keysByModule.computeIfAbsent(i18n.getModuleName(), m -> new ArrayList<>()).add(i18n.getKey());
+        }
+        keysByModule.forEach((moduleName, keys) -> publisher.publish(new I18nChangedEvent(this, moduleName, keys)));
+        return result;
+    }
+}
@@ -15,17 +15,18 @@
  */
 package org.openwms.core.lang;
 
+import org.openwms.core.event.EventPublisher;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 
 /**
- * A Starter.
+ * A Starter. Besides this package the event publishers are scanned, to announce changed translations.
  *
  * @author <a href="mailto:scherrer@openwms.org">Heiko Scherrer</a>
  * @version 1.0
  * @since 1.0
  */
-@SpringBootApplication
+@SpringBootApplication(scanBasePackageClasses = {Starter.class, EventPublisher.class})
 public class Starter {
 
     /**
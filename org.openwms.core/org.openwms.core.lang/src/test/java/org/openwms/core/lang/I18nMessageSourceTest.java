@@ -0,0 +1,144 @@
+/*
+ * openwms.org, the Open Warehouse Management System.
+ * Copyright (C) 2014 Heiko Scherrer
+ *
+ * This file is part of openwms.org.
+ *
+ * openwms.org is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as 
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * openwms.org is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this software. If not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.openwms.core.lang;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Locale;
+
+import org.junit.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.openwms.core.event.I18nChangedEvent;
+import org.openwms.core.test.AbstractMockitoTests;
+import org.springframework.context.support.ResourceBundleMessageSource;
+import org.springframework.context.support.StaticMessageSource;
+
+/**
+ * An I18nMessageSourceTest.
+ *
+ * @author <a href="mailto:scherrer@openwms.org">Heiko Scherrer</a>
+ * @version 1.0
+ * @since 1.1
+ */
+public class I18nMessageSourceTest extends AbstractMockitoTests {
+
+    @Mock
+    private I18nRepository repository;
+    @InjectMocks
+    private I18nMessageSource messageSource;
+
+    private void givenTranslations() {
+        when(repository.findModuleNames()).thenReturn(Arrays.asList("CORE", "TMS"));
+        when(repository.findByModuleName("CORE")).thenReturn(
+                Collections.singletonList(new I18n("CORE", "HELLO", new I18nSet("Hello {0}", "Hallo {0}", null))));
+        when(repository.findByModuleName("TMS")).thenReturn(Arrays.asList(new I18n("TMS", "HELLO", new I18nSet("Hi {0}", null, null)),
+                new I18n("TMS", "TMS_ONLY", new I18nSet("Transport", "Transport", "Transport"))));
+    }
+
+    private String resolve(String code, Locale locale) {
+        return messageSource.getMessage(code, new Object[]{"scherrer"}, null, locale);
+    }
+
+    /**
+     * All translations are loaded once on first access, the preferred module wins.
+     */
+    @Test
+    public final void testBulkLoad() {
+        givenTranslations();
+
+        assertThat(resolve("HELLO", Locale.US)).isEqualTo("Hello scherrer");
+        assertThat(resolve("HELLO", Locale.GERMANY)).isEqualTo("Hallo scherrer");
+        assertThat(resolve("HELLO", Locale.FRANCE)).isEqualTo("Hello scherrer");
+        assertThat(resolve("TMS_ONLY", Locale.GERMAN)).isEqualTo("Transport");
+        assertThat(resolve("UNKNOWN", Locale.US)).isNull();
+        assertThat(resolve("UNKNOWN", Locale.US)).isNull();
+
+        verify(repository, times(1)).findModuleNames();
+        verify(repository, times(1)).findByModuleName("CORE");
+        verify(repository, times(1)).findByModuleName("TMS");
+    }
+
+    /**
+     * An I18nChangedEvent with keys reloads only these keys, also formerly missing ones.
+     */
+    @Test
+    public final void testIncrementalReload() {
+        givenTranslations();
+        assertThat(resolve("HELLO", Locale.US)).isEqualTo("Hello scherrer");
+        assertThat(resolve("NEW", Locale.US)).isNull();
+        when(repository.findByModuleNameAndKeyIn("CORE", new HashSet<>(Arrays.asList("HELLO", "NEW")))).thenReturn(Arrays.asList(
+                new I18n("CORE", "HELLO", new I18nSet("Welcome {0}", null, null)), new I18n("CORE", "NEW", new I18nSet("New", null, null))));
+
+        messageSource.onApplicationEvent(I18nChangedEvent.of(this, "CORE", "HELLO", "NEW"));
+
+        assertThat(resolve("HELLO", Locale.US)).isEqualTo("Welcome scherrer");
+        assertThat(resolve("HELLO", Locale.GERMANY)).isEqualTo("Welcome scherrer");
+        assertThat(resolve("NEW", Locale.US)).isEqualTo("New");
+        assertThat(resolve("TMS_ONLY", Locale.US)).isEqualTo("Transport");
+        verify(repository, times(1)).findModuleNames();
+        verify(repository, times(1)).findByModuleName("CORE");
+        verify(repository, times(1)).findByModuleName("TMS");
+    }
+
+    /**
+     * A module wide I18nChangedEvent reloads the module, nothing is loaded before first access.
+     */
+    @Test
+    public final void testModuleReload() {
+        messageSource.onApplicationEvent(I18nChangedEvent.of(this, "CORE"));
+        verify(repository, never()).findByModuleName("CORE");
+
+        givenTranslations();
+        assertThat(resolve("HELLO", Locale.US)).isEqualTo("Hello scherrer");
+        messageSource.onApplicationEvent(I18nChangedEvent.of(this, "CORE"));
+        verify(repository, times(2)).findByModuleName("CORE");
+        verify(repository, times(1)).findByModuleName("TMS");
+    }
+
+    /**
+     * Codes not translated in the database are resolved by the parent, the resource bundles are the default parent.
+     */
+    @Test
+    public final void testParentFallback() {
+        givenTranslations();
+        messageSource.initParent();
+        assertThat(messageSource.getParentMessageSource()).isInstanceOf(ResourceBundleMessageSource.class);
+
+        StaticMessageSource parent = new StaticMessageSource();
+        parent.addMessage("PARENT_ONLY", Locale.US, "From bundle");
+        parent.addMessage("HELLO", Locale.US, "Shadowed");
+        messageSource.setParentMessageSource(parent);
+        messageSource.initParent();
+
+        assertThat(messageSource.getParentMessageSource()).isSameAs(parent);
+        assertThat(resolve("PARENT_ONLY", Locale.US)).isEqualTo("From bundle");
+        assertThat(resolve("HELLO", Locale.US)).isEqualTo("Hello scherrer");
+    }
+}
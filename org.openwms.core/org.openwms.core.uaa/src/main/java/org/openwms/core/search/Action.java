@@ -102,8 +102,9 @@ public class Action implements Serializable {
     public int rate(String... words) {
         int result = 0;
         for (String word : words) {
+            String term = ActionIndex.normalize(word);
             for (Tag tag : tags) {
-                if (tag.matches(word) > 0) {
+                if (tag.normalizedName().contains(term)) {
                     result++;
                     break;
                 }
@@ -220,6 +221,22 @@ public class Action implements Serializable {
         return --weight;
     }
 
+    /**
+     * Create a copy of this Action with a different weight, the tags are shared.
+     *
+     * @param weight The weight of the copy
+     * @return The copy
+     */
+    Action withWeight(int weight) {
+        Action result = new Action();
+        result.id = id;
+        result.url = url;
+        result.text = text;
+        result.tags = tags;
+        result.weight = weight;
+        return result;
+    }
+
     /**
      * Get the tags.
      *
@@ -0,0 +1,270 @@
+/*
+ * openwms.org, the Open Warehouse Management System.
+ * Copyright (C) 2014 Heiko Scherrer
+ *
+ * This file is part of openwms.org.
+ *
+ * openwms.org is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as 
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * openwms.org is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this software. If not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.openwms.core.search;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * An ActionHistory keeps track of how many times each {@code User} has chosen an {@link Action}.
+ * <p>
+ * The weights of an {@code User} are loaded once into a bounded cache and updated in memory. Increments are collected per {@code User}
+ * and {@link Action} and written in batches as {@link ActionUsage} records by a background thread, either periodically or when a number of
+ * distinct increments is pending. Hence choosing an {@link Action} never causes a synchronous database write.
+ * </p>
+ * <p>
+ * While a batch is written, loading the weights of an {@code User} waits, so that increments are neither missed nor counted twice.
+ * </p>
+ * <p>
+ * The records are compacted periodically, all records of an {@code User} and an {@link Action} are replaced by one record with the sum of
+ * their increments. Each pair is compacted in its own transaction, which is rolled back if not exactly the records that have been summed
+ * up are deleted, e.g. because another node compacts at the same time. So the table grows with the number of chosen {@link Action}s per
+ * {@code User} only.
+ * </p>
+ *
+ * @author <a href="mailto:scherrer@openwms.org">Heiko Scherrer</a>
+ * @version 1.0
+ * @since 1.1
+ */
+@Component
+class ActionHistory {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ActionHistory.class);
+    private final ActionUsageRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final LoadingCache<String, ConcurrentMap<String, Integer>> weights;
+    /** Increments not written yet. */
+    private final ConcurrentMap<Key, Integer> pending = new ConcurrentHashMap<>();
+    /** Increments of the batch that is currently written. */
+    private final Map<Key, Integer> inFlight = new ConcurrentHashMap<>();
+    private final ReadWriteLock flushLock = new ReentrantReadWriteLock();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory(
+            "action-history-"));
+
+    /**
+     * Create a new ActionHistory.
+     *
+     * @param repository The repository to read and append records
+     * @param transactionManager Used to write each batch in its own transaction
+     * @param flushInterval Milliseconds between two batches
+     * @param batchSize Number of pending increments that trigger a batch before the interval has elapsed
+     * @param cacheSize Maximum number of {@code User}s whose weights are cached
+     * @param compactInterval Milliseconds between two compactions of the records
+     */
+    @Autowired
+    ActionHistory(ActionUsageRepository repository, PlatformTransactionManager transactionManager,
+            @Value("${openwms.core.search.history.flush-interval:5000}") long flushInterval,
+            @Value("${openwms.core.search.history.batch-size:500}") int batchSize,
+            @Value("${openwms.core.search.history.cache-size:1000}") long cacheSize,
+            @Value("${openwms.core.search.history.compact-interval:3600000}") long compactInterval) {
+        this.repository = repository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.weights = Caffeine.newBuilder().maximumSize(cacheSize).build(this::load);
+        this.executor.scheduleWithFixedDelay(this::flush, flushInterval, flushInterval, TimeUnit.MILLISECONDS);
+        this.executor.scheduleWithFixedDelay(this::compact, compactInterval, compactInterval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Get the weights of all {@link Action}s the {@code User} has chosen so far, including increments not written yet.
+     *
+     * @param username The username of the {@code User}
+     * @return The weights by {@link Action} id, never {@literal null}
+     */
+    Map<String, Integer> getWeights(String username) {
+        return Collections.unmodifiableMap(weights.get(username));
+    }
+
+    /**
+     * Increase the weight of an {@link Action} for an {@code User}. The increment is written with the next batch.
+     *
+     * @param username The username of the {@code User}
+     * @param action The id of the {@link Action}
+     */
+    void increment(String username, String action) {
+        Key key = new Key(username, action);
+        // Runs atomically with loading the weights of the same User, so the increment is counted exactly once
+        weights.asMap().compute(username, (u, current) -> {
+            pending.merge(key, 1, Integer::sum);
+            if (current != null) {
+                current.merge(action, 1, Integer::sum);
+            }
+            return current;
+        });
+        if (pending.size() >= batchSize && flushRequested.compareAndSet(false, true)) {
+            executor.execute(this::flush);
+        }
+    }
+
+    private ConcurrentMap<String, Integer> load(String username) {
+        flushLock.readLock().lock();
+        try {
+            ConcurrentMap<String, Integer> result = new ConcurrentHashMap<>();
+            for (Object[] row : repository.findWeights(username)) {
+                result.put((String) row[0], ((Number) row[1]).intValue());
+            }
+            addTo(result, username, inFlight);
+            addTo(result, username, pending);
+            return result;
+        } finally {
+            flushLock.readLock().unlock();
+        }
+    }
+
+    private static void addTo(Map<String, Integer> result, String username, Map<Key, Integer> increments) {
+        increments.forEach((key, increment) -> {
+            if (key.username.equals(username)) {
+                result.merge(key.action, increment, Integer::sum);
+            }
+        });
+    }
+
+    /**
+     * Write all pending increments as one batch of {@link ActionUsage} records. If writing fails, the increments are kept for the next
+     * batch.
+     */
+    void flush() {
+        flushRequested.set(false);
+        if (pending.isEmpty()) {
+            return;
+        }
+        flushLock.writeLock().lock();
+        try {
+            for (Key key : new ArrayList<>(pending.keySet())) {
+                Integer increment = pending.remove(key);
+                if (increment != null) {
+                    inFlight.merge(key, increment, Integer::sum);
+                }
+            }
+            List<ActionUsage> records = new ArrayList<>(inFlight.size());
+            inFlight.forEach((key, increment) -> records.add(new ActionUsage(key.username, key.action, increment)));
+            try {
+                transactionTemplate.execute(status -> repository.save(records));
+                LOGGER.debug("Written [{}] action usage records", records.size());
+            } catch (RuntimeException e) {
+                LOGGER.warn("Could not write action usage records, will retry with the next batch: {}", e.getMessage());
+                inFlight.forEach((key, increment) -> pending.merge(key, increment, Integer::sum));
+            }
+            inFlight.clear();
+        } finally {
+            flushLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replace all records of each {@code User} and {@link Action} by one record. The sum of the increments does not change, so cached
+     * weights stay valid.
+     *
+     * @return The number of compacted pairs of {@code User} and {@link Action}
+     */
+    int compact() {
+        int compacted = 0;
+        try {
+            for (Object[] row : repository.findFragmented()) {
+                String username = (String) row[0];
+                String action = (String) row[1];
+                int increment = ((Number) row[2]).intValue();
+                Long pk = ((Number) row[3]).longValue();
+                int count = ((Number) row[4]).intValue();
+                Boolean done = transactionTemplate.execute(status -> {
+                    if (repository.deleteUpTo(username, action, pk) != count) {
+                        status.setRollbackOnly();
+                        return Boolean.FALSE;
+                    }
+                    repository.save(new ActionUsage(username, action, increment));
+                    return Boolean.TRUE;
+                });
+                if (Boolean.TRUE.equals(done)) {
+                    compacted++;
+                }
+            }
+            LOGGER.debug("Compacted the action usage records of [{}] users and actions", compacted);
+        } catch (RuntimeException e) {
+            LOGGER.warn("Could not compact action usage records, will retry with the next run: {}", e.getMessage());
+        }
+        return compacted;
+    }
+
+    /**
+     * Get the number of increments not written yet.
+     *
+     * @return the number of pending increments
+     */
+    int getPendingCount() {
+        return pending.size();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+        flush();
+    }
+
+    private static final class Key {
+
+        private final String username;
+        private final String action;
+
+        private Key(String username, String action) {
+            this.username = username;
+            this.action = action;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return username.equals(key.username) && action.equals(key.action);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(username, action);
+        }
+    }
+}
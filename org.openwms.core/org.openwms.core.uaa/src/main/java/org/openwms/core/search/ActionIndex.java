@@ -0,0 +1,225 @@
+/*
+ * openwms.org, the Open Warehouse Management System.
+ * Copyright (C) 2014 Heiko Scherrer
+ *
+ * This file is part of openwms.org.
+ *
+ * openwms.org is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as 
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * openwms.org is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this software. If not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.openwms.core.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.function.ToIntFunction;
+
+/**
+ * An ActionIndex is an immutable inverted index over the names of all {@link Tag}s of a set of {@link Action}s.
+ * <p>
+ * All suffixes of each normalized tag name are stored in a trie, each node holds the sorted ordinals of the {@link Action}s whose tags
+ * contain the path to that node. A word is therefore resolved with one walk down the trie, with the same result as
+ * {@link Action#rate(String...)}. Like there, aliases are not matched and a blank word is part of every tag name, so it matches each
+ * {@link Action} with at least one {@link Tag}. The highest ranked {@link Action}s are collected with a heap bounded to the number of
+ * requested results.
+ * </p>
+ *
+ * @author <a href="mailto:scherrer@openwms.org">Heiko Scherrer</a>
+ * @version 1.0
+ * @since 1.1
+ */
+final class ActionIndex {
+
+    private static final int[] NONE = new int[0];
+    /** An index without any {@link Action}s. */
+    static final ActionIndex EMPTY = of(Collections.emptyList());
+    private final Action[] actions;
+    private final Node root;
+    /** Ordinals of all {@link Action}s with at least one {@link Tag}, these are matched by a blank word. */
+    private final int[] tagged;
+
+    private ActionIndex(Action[] actions, Node root, int[] tagged) {
+        this.actions = actions;
+        this.root = root;
+        this.tagged = tagged;
+    }
+
+    /**
+     * Build a new index.
+     *
+     * @param actions The {@link Action}s to index
+     * @return The index
+     */
+    static ActionIndex of(Collection<Action> actions) {
+        Action[] all = actions.toArray(new Action[actions.size()]);
+        MutableNode root = new MutableNode();
+        MutableNode tagged = new MutableNode();
+        for (int ordinal = 0; ordinal < all.length; ordinal++) {
+            for (Tag tag : all[ordinal].getTags()) {
+                add(root, tag.normalizedName(), ordinal);
+                tagged.add(ordinal);
+            }
+        }
+        return new ActionIndex(all, root.freeze(), tagged.freeze().ordinals);
+    }
+
+    private static void add(MutableNode root, String term, int ordinal) {
+        for (int start = 0; start < term.length(); start++) {
+            MutableNode node = root;
+            for (int i = start; i < term.length(); i++) {
+                node = node.child(term.charAt(i));
+                node.add(ordinal);
+            }
+        }
+    }
+
+    /**
+     * Normalize a term the same way for indexing and searching.
+     *
+     * @param term The term, may be {@literal null}
+     * @return The trimmed term in lower case, never {@literal null}
+     */
+    static String normalize(String term) {
+        return term == null ? "" : term.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Find the best matching {@link Action}s. The rating of an {@link Action} is the number of {@code words} that are part of any of its
+     * tags, like in {@link Action#rate(String...)}. {@link Action}s with the same rating are ordered by weight.
+     *
+     * @param maxResults The maximum number of results
+     * @param words The words to search for
+     * @return The matching {@link Action}s, the best first
+     */
+    List<Action> search(int maxResults, String... words) {
+        return search(maxResults, Action::getWeight, words);
+    }
+
+    /**
+     * Find the best matching {@link Action}s like {@link #search(int, String...)}, with the weight of each {@link Action} resolved by the
+     * given function.
+     *
+     * @param maxResults The maximum number of results
+     * @param weight Resolves the weight of an {@link Action}
+     * @param words The words to search for
+     * @return The matching {@link Action}s, the best first
+     */
+    List<Action> search(int maxResults, ToIntFunction<Action> weight, String... words) {
+        if (maxResults <= 0 || actions.length == 0 || words == null) {
+            return Collections.emptyList();
+        }
+        int[] ratings = new int[actions.length];
+        int[] touched = new int[actions.length];
+        int count = 0;
+        for (String word : words) {
+            String term = normalize(word);
+            for (int ordinal : term.isEmpty() ? tagged : lookup(term)) {
+                if (ratings[ordinal]++ == 0) {
+                    touched[count++] = ordinal;
+                }
+            }
+        }
+        Comparator<Integer> ranking = Comparator.<Integer>comparingInt(o -> ratings[o])
+                .thenComparingInt(o -> weight.applyAsInt(actions[o]))
+                .thenComparing(Comparator.<Integer>reverseOrder());
+        PriorityQueue<Integer> heap = new PriorityQueue<>(Math.min(maxResults, count) + 1, ranking);
+        for (int i = 0; i < count; i++) {
+            heap.offer(touched[i]);
+            if (heap.size() > maxResults) {
+                heap.poll();
+            }
+        }
+        Action[] result = new Action[heap.size()];
+        for (int i = result.length - 1; i >= 0; i--) {
+            result[i] = actions[heap.poll()];
+        }
+        return Arrays.asList(result);
+    }
+
+    private int[] lookup(String term) {
+        Node node = root;
+        for (int i = 0; i < term.length() && node != null; i++) {
+            node = node.child(term.charAt(i));
+        }
+        return node == null ? NONE : node.ordinals;
+    }
+
+    /**
+     * Get the number of indexed {@link Action}s.
+     *
+     * @return the number of Actions
+     */
+    int size() {
+        return actions.length;
+    }
+
+    private static final class Node {
+
+        private final char[] keys;
+        private final Node[] children;
+        private final int[] ordinals;
+
+        private Node(char[] keys, Node[] children, int[] ordinals) {
+            this.keys = keys;
+            this.children = children;
+            this.ordinals = ordinals;
+        }
+
+        private Node child(char c) {
+            int i = Arrays.binarySearch(keys, c);
+            return i < 0 ? null : children[i];
+        }
+    }
+
+    private static final class MutableNode {
+
+        private final TreeMap<Character, MutableNode> children = new TreeMap<>();
+        private int[] ordinals = new int[1];
+        private int size;
+
+        private MutableNode child(char c) {
+            return children.computeIfAbsent(c, k -> new MutableNode());
+        }
+
+        /* Ordinals are added in ascending order, so the list stays sorted and free of duplicates. */
+        private void add(int ordinal) {
+            if (size > 0 && ordinals[size - 1] == ordinal) {
+                return;
+            }
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size * 2);
+            }
+            ordinals[size++] = ordinal;
+        }
+
+        private Node freeze() {
+            char[] keys = new char[children.size()];
+            Node[] nodes = new Node[children.size()];
+            int i = 0;
+            for (Map.Entry<Character, MutableNode> entry : children.entrySet()) {
+                keys[i] = entry.getKey();
+                nodes[i++] = entry.getValue().freeze();
+            }
+            return new Node(keys, nodes, size == 0 ? NONE : Arrays.copyOf(ordinals, size));
+        }
+    }
+}
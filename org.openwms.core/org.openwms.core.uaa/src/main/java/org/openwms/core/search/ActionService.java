@@ -22,6 +22,7 @@
 package org.openwms.core.search;
 
 import java.util.Collection;
+import java.util.List;
 
 import org.openwms.core.uaa.User;
 
@@ -66,4 +67,38 @@ public interface ActionService {
      * @return The saved Collection
      */
     Collection<Action> save(User user, Collection<Action> actions);
+
+    /**
+     * Add {@link Action}s to the set of all defined {@link Action}s.
+     *
+     * @param actions The {@link Action}s to add
+     */
+    void addActions(Collection<Action> actions);
+
+    /**
+     * Find the {@link Action}s that match best to the given {@code words}, ranked by their rating and weight.
+     *
+     * @param maxResults The maximum number of {@link Action}s to return
+     * @param words The words to search for
+     * @return The best matching {@link Action}s, never {@literal null}
+     */
+    List<Action> search(int maxResults, String... words);
+
+    /**
+     * Increase the weight of an {@link Action} because it has been chosen by an {@link User}.
+     *
+     * @param user The {@link User} who has chosen the {@link Action}
+     * @param action The chosen {@link Action}
+     */
+    void increaseWeight(User user, Action action);
+
+    /**
+     * Find the {@link Action}s that match best to the given {@code words}, ranked by their rating and the weights of the {@link User}.
+     *
+     * @param user The {@link User} who searches
+     * @param maxResults The maximum number of {@link Action}s to return
+     * @param words The words to search for
+     * @return The best matching {@link Action}s, never {@literal null}
+     */
+    List<Action> search(User user, int maxResults, String... words);
 }
\ No newline at end of file
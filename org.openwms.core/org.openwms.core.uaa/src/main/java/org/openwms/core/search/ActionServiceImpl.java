@@ -21,17 +21,28 @@
  */
 package org.openwms.core.search;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.ameba.annotation.TxService;
-import org.openwms.core.configuration.ConfigurationService;
 import org.openwms.core.uaa.User;
 import org.springframework.beans.factory.annotation.Autowired;
 
 /**
  * An ActionServiceImpl is used by the GUI to find all defined search actions.
- * 
+ * <p>
+ * Searches are answered from an immutable {@link ActionIndex} that is rebuilt whenever {@link Action}s are added. The sets of known
+ * {@link Action}s and {@link Tag}s are replaced by unmodifiable copies at the same time, so a returned set never changes. The weights
+ * of each {@link User} are kept in the {@link ActionHistory}, increasing a weight does not write to the database synchronously.
+ * </p>
+ *
  * @author <a href="mailto:scherrer@openwms.org">Heiko Scherrer</a>
  * @version 0.2
  * @since 0.2
@@ -40,9 +51,11 @@ import org.springframework.beans.factory.annotation.Autowired;
 public class ActionServiceImpl implements ActionService {
 
     @Autowired
-    private ConfigurationService confSrv;
-    private Collection<Action> actions = new HashSet<>();
-    private Collection<Tag> tags = new HashSet<>();
+    private ActionHistory history;
+    private volatile Collection<Action> actions = Collections.emptySet();
+    private volatile Collection<Tag> tags = Collections.emptySet();
+    private volatile ActionIndex index = ActionIndex.EMPTY;
+    private volatile Map<String, Action> actionsById = Collections.emptyMap();
 
     /**
      * Create a new ActionServiceImpl.
@@ -52,7 +65,7 @@ public class ActionServiceImpl implements ActionService {
     /**
      * {@inheritDoc}
      * 
-     * Returns a HashSet with all Actions.
+     * Returns an unmodifiable snapshot of all Actions.
      */
     @Override
     public Collection<Action> findAllActions() {
@@ -61,20 +74,22 @@ public class ActionServiceImpl implements ActionService {
 
     /**
      * {@inheritDoc}
+     * <p>
+     * Returns copies of all known {@link Action}s the {@link User} has chosen so far, carrying the weights of the {@link User}. The
+     * {@link Action} chosen most often comes first.
      */
     @Override
-    @SuppressWarnings("unchecked")
     public Collection<Action> findAllActions(User user) {
-        /*
-        Collection<UserPreference> userPrefs = confSrv.findByType(UserPreference.class, user.getUsername());
-        PreferenceKey pKey = new PreferenceKey(PropertyScope.USER, user.getUsername(), "lastSearchActions");
-        for (UserPreference pref : userPrefs) {
-            if (pref.getPrefKey().equals(pKey)) {
-                return (Collection<Action>) pref.getBinValue();
+        Map<String, Action> known = actionsById;
+        List<Action> result = new ArrayList<>();
+        history.getWeights(user.getUsername()).forEach((id, weight) -> {
+            Action action = known.get(id);
+            if (action != null) {
+                result.add(action.withWeight(weight));
             }
-        }
-        */
-        return new HashSet<>(0);
+        });
+        result.sort(Comparator.comparingInt(Action::getWeight).reversed());
+        return result;
     }
 
     /**
@@ -87,32 +102,61 @@ public class ActionServiceImpl implements ActionService {
 
     /**
      * {@inheritDoc}
+     * <p>
+     * Each {@link Action} is recorded as chosen once by the {@link User}.
      */
-    @SuppressWarnings("unchecked")
     @Override
     public Collection<Action> save(User user, Collection<Action> actions) {
-        /*
-        Collection<UserPreference> userPrefs = confSrv.findByType(UserPreference.class, user.getUsername());
-        PreferenceKey pKey = new PreferenceKey(PropertyScope.USER, user.getUsername(), "lastSearchActions");
-        UserPreference result = null;
-        for (UserPreference pref : userPrefs) {
-            if (pref.getPrefKey().equals(pKey)) {
-                result = pref;
-                break;
-            }
+        for (Action action : actions) {
+            history.increment(user.getUsername(), action.getId());
         }
-        if (result == null) {
-            result = new UserPreference(user.getUsername(), "lastSearchActions");
-            result.setDescription("All UI actions the User has previously chosen");
-            Set<Action> all = new HashSet<Action>();
-            all.addAll(actions);
-            result.setBinValue((Serializable) all);
-        } else {
-            result.setBinValue((Serializable) actions);
+        return findAllActions(user);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized void addActions(Collection<Action> actions) {
+        Set<Action> allActions = new HashSet<>(this.actions);
+        Set<Tag> allTags = new HashSet<>(this.tags);
+        Map<String, Action> byId = new HashMap<>(actionsById);
+        for (Action action : actions) {
+            allActions.add(action);
+            allTags.addAll(action.getTags());
+            byId.put(action.getId(), action);
         }
-        result = confSrv.save(result);
-        return (Collection<Action>) result.getBinValue();
-        */
-        return null;
+        index = ActionIndex.of(new ArrayList<>(allActions));
+        actionsById = byId;
+        this.tags = Collections.unmodifiableSet(allTags);
+        this.actions = Collections.unmodifiableSet(allActions);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Action> search(int maxResults, String... words) {
+        return index.search(maxResults, words);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The global weight of the {@link Action} is increased as well.
+     */
+    @Override
+    public void increaseWeight(User user, Action action) {
+        action.increaseWeight();
+        history.increment(user.getUsername(), action.getId());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Action> search(User user, int maxResults, String... words) {
+        Map<String, Integer> weights = history.getWeights(user.getUsername());
+        return index.search(maxResults, a -> weights.getOrDefault(a.getId(), 0), words);
     }
-}
\ No newline at end of file
+}
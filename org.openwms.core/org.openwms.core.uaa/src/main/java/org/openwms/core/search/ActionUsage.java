@@ -0,0 +1,121 @@
+/*
+ * openwms.org, the Open Warehouse Management System.
+ * Copyright (C) 2014 Heiko Scherrer
+ *
+ * This file is part of openwms.org.
+ *
+ * openwms.org is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as 
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * openwms.org is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this software. If not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.openwms.core.search;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+import java.io.Serializable;
+import java.util.Date;
+
+import org.ameba.integration.jpa.BaseEntity;
+import org.springframework.util.Assert;
+
+/**
+ * An ActionUsage records that an {@code User} has chosen an {@link Action} a number of times.
+ * <p>
+ * Records are only appended and never changed, the weight of an {@link Action} for an {@code User} is the sum of all increments.
+ * </p>
+ *
+ * @author <a href="mailto:scherrer@openwms.org">Heiko Scherrer</a>
+ * @version 1.0
+ * @since 1.1
+ */
+@Entity
+@Table(name = "COR_ACTION_USAGE", indexes = @Index(name = "IDX_ACTION_USAGE_USER", columnList = "C_USERNAME"))
+public class ActionUsage extends BaseEntity implements Serializable {
+
+    /** The username of the {@code User}. */
+    @Column(name = "C_USERNAME", nullable = false, updatable = false)
+    private String username;
+    /** The id of the {@link Action}. */
+    @Column(name = "C_ACTION", nullable = false, updatable = false)
+    private String action;
+    /** How many times the {@link Action} has been chosen. */
+    @Column(name = "C_INCREMENT", nullable = false, updatable = false)
+    private int increment;
+    /** When the record has been written. */
+    @Column(name = "C_RECORDED", nullable = false, updatable = false)
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date recorded = new Date();
+
+    /**
+     * Dear JPA...
+     */
+    protected ActionUsage() {
+        super();
+    }
+
+    /**
+     * Create a new ActionUsage.
+     *
+     * @param username The username of the {@code User}
+     * @param action The id of the {@link Action}
+     * @param increment How many times the {@link Action} has been chosen
+     */
+    public ActionUsage(String username, String action, int increment) {
+        Assert.hasText(username, "Username must not be null");
+        Assert.hasText(action, "Action must not be null");
+        this.username = username;
+        this.action = action;
+        this.increment = increment;
+    }
+
+    /**
+     * Get the username.
+     *
+     * @return the username.
+     */
+    public String getUsername() {
+        return username;
+    }
+
+    /**
+     * Get the action.
+     *
+     * @return the action.
+     */
+    public String getAction() {
+        return action;
+    }
+
+    /**
+     * Get the increment.
+     *
+     * @return the increment.
+     */
+    public int getIncrement() {
+        return increment;
+    }
+
+    /**
+     * Get the recorded.
+     *
+     * @return the recorded.
+     */
+    public Date getRecorded() {
+        return new Date(recorded.getTime());
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * openwms.org, the Open Warehouse Management System.
+ * Copyright (C) 2014 Heiko Scherrer
+ *
+ * This file is part of openwms.org.
+ *
+ * openwms.org is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as 
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * openwms.org is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this software. If not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.openwms.core.search;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+/**
+ * An ActionUsageRepository offers functionality regarding {@link ActionUsage} entity classes.
+ *
+ * @author <a href="mailto:scherrer@openwms.org">Heiko Scherrer</a>
+ * @version 1.0
+ * @see ActionUsage
+ * @since 1.1
+ */
+interface ActionUsageRepository extends JpaRepository<ActionUsage, Long> {
+
+    /**
+     * Sum up the increments of all {@link Action}s an {@code User} has chosen.
+     *
+     * @param username The username of the {@code User}
+     * @return Pairs of the {@link Action} id and the summed up weight
+     */
+    @Query("select u.action, sum(u.increment) from ActionUsage u where u.username = ?1 group by u.action")
+    List<Object[]> findWeights(String username);
+
+    /**
+     * Find all pairs of {@code User} and {@link Action} with more than one record.
+     *
+     * @return Rows of username, {@link Action} id, summed up increment, highest technical key and number of records
+     */
+    @Query("select u.username, u.action, sum(u.increment), max(u.pk), count(u) from ActionUsage u group by u.username, u.action "
+            + "having count(u) > 1")
+    List<Object[]> findFragmented();
+
+    /**
+     * Delete the records of an {@code User} and an {@link Action} up to a technical key.
+     *
+     * @param username The username of the {@code User}
+     * @param action The id of the {@link Action}
+     * @param pk The highest technical key to delete
+     * @return The number of deleted records
+     */
+    @Modifying
+    @Query("delete from ActionUsage u where u.username = ?1 and u.action = ?2 and u.pk <= ?3")
+    int deleteUpTo(String username, String action, Long pk);
+}
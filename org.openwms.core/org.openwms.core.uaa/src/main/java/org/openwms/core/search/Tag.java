@@ -52,6 +52,11 @@ public class Tag implements Serializable {
      */
     private List<String> aliases = new ArrayList<>();
 
+    /**
+     * The normalized name, computed once.
+     */
+    private transient String normalizedName;
+
     /* ----------------------------- constructors ------------------- */
 
     /**
@@ -107,15 +112,28 @@ public class Tag implements Serializable {
      */
     public void setName(String name) {
         this.name = name;
+        this.normalizedName = null;
+    }
+
+    /**
+     * Get the name in the form used for searching.
+     *
+     * @return the normalized name.
+     */
+    String normalizedName() {
+        if (normalizedName == null) {
+            normalizedName = ActionIndex.normalize(name);
+        }
+        return normalizedName;
     }
 
     /**
-     * Find the given String in the name of the Tag.
+     * Find the given String in the name of the Tag, aliases are not considered.
      *
      * @param word The String to search for
      * @return 0 if {@code name} is not part of the tag name, otherwise some positive value
      */
     public int matches(String word) {
-        return name.toLowerCase().indexOf(word.toLowerCase()) + 1;
+        return normalizedName().indexOf(ActionIndex.normalize(word)) + 1;
     }
 }
\ No newline at end of file
@@ -0,0 +1,103 @@
+/*
+ * openwms.org, the Open Warehouse Management System.
+ * Copyright (C) 2014 Heiko Scherrer
+ *
+ * This file is part of openwms.org.
+ *
+ * openwms.org is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as 
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * openwms.org is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this software. If not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.openwms.core.uaa;
+
+import java.io.Serializable;
+import java.util.Date;
+
+/**
+ * A BlobInfo describes a binary object that is kept in a {@link BlobStore}.
+ *
+ * @author <a href="mailto:scherrer@openwms.org">Heiko Scherrer</a>
+ * @version 1.0
+ * @since 1.1
+ */
+public final class BlobInfo implements Serializable {
+
+    private final String key;
+    private final String contentType;
+    private final long length;
+    private final String etag;
+    private final Date lastModified;
+
+    /**
+     * Create a new BlobInfo.
+     *
+     * @param key The key the blob is stored with
+     * @param contentType The media type of the content
+     * @param length The length in bytes
+     * @param etag The hex encoded digest of the content
+     * @param lastModified When the content was stored
+     */
+    public BlobInfo(String key, String contentType, long length, String etag, Date lastModified) {
+        this.key = key;
+        this.contentType = contentType;
+        this.length = length;
+        this.etag = etag;
+        this.lastModified = new Date(lastModified.getTime());
+    }
+
+    /**
+     * Get the key.
+     *
+     * @return the key.
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * Get the contentType.
+     *
+     * @return the contentType.
+     */
+    public String getContentType() {
+        return contentType;
+    }
+
+    /**
+     * Get the length.
+     *
+     * @return the length in bytes.
+     */
+    public long getLength() {
+        return length;
+    }
+
+    /**
+     * Get the etag. It changes whenever the content changes and is the same for equal content.
+     *
+     * @return the etag, not quoted.
+     */
+    public String getEtag() {
+        return etag;
+    }
+
+    /**
+     * Get the lastModified.
+     *
+     * @return the lastModified.
+     */
+    public Date getLastModified() {
+        return new Date(lastModified.getTime());
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * openwms.org, the Open Warehouse Management System.
+ * Copyright (C) 2014 Heiko Scherrer
+ *
+ * This file is part of openwms.org.
+ *
+ * openwms.org is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as 
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * openwms.org is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this software. If not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.openwms.core.uaa;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Optional;
+
+/**
+ * A BlobStore keeps binary objects outside of the entity model. Content is written and read as streams, so it never has to be held in
+ * memory as a whole.
+ *
+ * @author <a href="mailto:scherrer@openwms.org">Heiko Scherrer</a>
+ * @version 1.0
+ * @since 1.1
+ */
+public interface BlobStore {
+
+    /**
+     * Store the content of {@code in} under the {@code key}, existing content is replaced. The stream is read until its end but not
+     * closed.
+     *
+     * @param key The key to store the content with
+     * @param in The content
+     * @param contentType The media type of the content
+     * @return The description of the stored content
+     * @throws IOException if the content could not be stored
+     */
+    BlobInfo write(String key, InputStream in, String contentType) throws IOException;
+
+    /**
+     * Find the description of the content stored under the {@code key}.
+     *
+     * @param key The key
+     * @return The description or an empty Optional if nothing is stored
+     */
+    Optional<BlobInfo> info(String key);
+
+    /**
+     * Open the content that is described by {@code info}. The caller has to close the stream.
+     *
+     * @param info The description returned from {@link #info(String)}
+     * @return The content
+     * @throws java.nio.file.NoSuchFileException if the content has been replaced or removed meanwhile
+     * @throws IOException if the content could not be read
+     */
+    InputStream read(BlobInfo info) throws IOException;
+
+    /**
+     * Remove the content stored under the {@code key}.
+     *
+     * @param key The key
+     * @return {@literal true} if content was removed
+     */
+    boolean delete(String key);
+}
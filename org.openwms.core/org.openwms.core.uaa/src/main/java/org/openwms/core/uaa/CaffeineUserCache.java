@@ -0,0 +1,125 @@
+/*
+ * openwms.org, the Open Warehouse Management System.
+ * Copyright (C) 2014 Heiko Scherrer
+ *
+ * This file is part of openwms.org.
+ *
+ * openwms.org is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as 
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * openwms.org is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this software. If not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.openwms.core.uaa;
+
+import java.util.concurrent.TimeUnit;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.security.core.userdetails.UserCache;
+import org.springframework.security.core.userdetails.UserDetails;
+
+/**
+ * A CaffeineUserCache is a local {@link UserCache} backed by a Caffeine cache.
+ * <p>
+ * The number of cached {@code User}s is limited and entries expire after they have not been accessed for a while. Entries are refreshed
+ * asynchronously after a configurable time since they have been written: the first read after that time returns the cached value and
+ * triggers a reload in the background. Hence frequently authenticated {@code User}s are never loaded on the request thread again.
+ * </p>
+ *
+ * @author <a href="mailto:scherrer@openwms.org">Heiko Scherrer</a>
+ * @version 1.0
+ * @since 1.1
+ */
+class CaffeineUserCache implements UserCache {
+
+    private final LoadingCache<String, UserDetails> cache;
+
+    /**
+     * Create a new CaffeineUserCache.
+     *
+     * @param maximumSize The maximum number of cached {@code User}s
+     * @param expireAfterAccess Seconds after the last access an entry is removed
+     * @param refreshAfterWrite Seconds after an entry has been written it is reloaded with the next access
+     * @param loader Used to reload an entry in the background, returns {@literal null} if the {@code User} does not exist anymore
+     */
+    CaffeineUserCache(long maximumSize, long expireAfterAccess, long refreshAfterWrite, CacheLoader<String, UserDetails> loader) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterAccess(expireAfterAccess, TimeUnit.SECONDS)
+                .refreshAfterWrite(refreshAfterWrite, TimeUnit.SECONDS)
+                .recordStats()
+                .build(loader);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Never loads the {@code User}, a stale entry is returned and reloaded asynchronously.
+     */
+    @Override
+    public UserDetails getUserFromCache(String username) {
+        return cache.getIfPresent(username);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void putUserInCache(UserDetails user) {
+        cache.put(user.getUsername(), user);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void removeUserFromCache(String username) {
+        cache.invalidate(username);
+    }
+
+    /**
+     * Remove all {@code User}s from the cache.
+     */
+    void removeAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * Trigger an asynchronous reload of a {@code User}, the current entry is served until the reload has finished.
+     *
+     * @param username The name of the {@code User} to reload
+     */
+    void refresh(String username) {
+        cache.refresh(username);
+    }
+
+    /**
+     * Return the approximate number of cached {@code User}s.
+     *
+     * @return The number of entries
+     */
+    long estimatedSize() {
+        return cache.estimatedSize();
+    }
+
+    /**
+     * Return a snapshot of the cache statistics.
+     *
+     * @return The statistics
+     */
+    CacheStats stats() {
+        return cache.stats();
+    }
+}
@@ -0,0 +1,218 @@
+/*
+ * openwms.org, the Open Warehouse Management System.
+ * Copyright (C) 2014 Heiko Scherrer
+ *
+ * This file is part of openwms.org.
+ *
+ * openwms.org is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as 
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * openwms.org is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this software. If not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.openwms.core.uaa;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Date;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+
+/**
+ * A FileSystemBlobStore keeps each blob as a file in the directory {@code openwms.core.uaa.blobs.dir}.
+ * <p>
+ * The content file is named after the key and the digest of its content and a small properties file per key points to the current content
+ * file. New content is written to a temporary file first and moved into place afterwards, so readers either see the former or the new
+ * content, never a partially written file. Content files that have been replaced are removed.
+ * </p>
+ *
+ * @author <a href="mailto:scherrer@openwms.org">Heiko Scherrer</a>
+ * @version 1.0
+ * @since 1.1
+ */
+@Component
+@ConditionalOnProperty(name = "openwms.core.uaa.blobs.store", havingValue = "file", matchIfMissing = true)
+class FileSystemBlobStore implements BlobStore {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FileSystemBlobStore.class);
+    private static final Pattern VALID_KEY = Pattern.compile("[A-Za-z0-9_-][A-Za-z0-9._-]*");
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    private static final String META_SUFFIX = ".properties";
+    private static final String CONTENT_TYPE = "contentType";
+    private static final String LENGTH = "length";
+    private static final String ETAG = "etag";
+    private static final String LAST_MODIFIED = "lastModified";
+    private final Map<String, Object> locks = new ConcurrentHashMap<>();
+    private final Path root;
+
+    /**
+     * Create a new FileSystemBlobStore.
+     *
+     * @param directory The directory to store blobs in
+     */
+    FileSystemBlobStore(@Value("${openwms.core.uaa.blobs.dir:${java.io.tmpdir}/openwms/blobs}") String directory) {
+        this.root = Paths.get(directory);
+    }
+
+    @PostConstruct
+    void init() throws IOException {
+        Files.createDirectories(root);
+        LOGGER.debug("Storing blobs in [{}]", root.toAbsolutePath());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public BlobInfo write(String key, InputStream in, String contentType) throws IOException {
+        validate(key);
+        Assert.notNull(in, "Content must not be null");
+        MessageDigest digest = newDigest();
+        Path tmp = Files.createTempFile(root, key, ".tmp");
+        try {
+            long length = Files.copy(new DigestInputStream(in, digest), tmp, StandardCopyOption.REPLACE_EXISTING);
+            BlobInfo info = new BlobInfo(key, contentType, length, hex(digest.digest()), new Date());
+            synchronized (locks.computeIfAbsent(key, k -> new Object())) {
+                Optional<BlobInfo> former = info(key);
+                Files.move(tmp, contentFile(info), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                writeMeta(info);
+                if (former.isPresent() && !former.get().getEtag().equals(info.getEtag())) {
+                    deleteQuietly(contentFile(former.get()));
+                }
+            }
+            return info;
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<BlobInfo> info(String key) {
+        validate(key);
+        Properties meta = new Properties();
+        try (InputStream in = Files.newInputStream(metaFile(key))) {
+            meta.load(in);
+        } catch (NoSuchFileException nsfe) {
+            return Optional.empty();
+        } catch (IOException ioe) {
+            throw new UncheckedIOException(ioe);
+        }
+        return Optional.of(new BlobInfo(key, meta.getProperty(CONTENT_TYPE), Long.parseLong(meta.getProperty(LENGTH)), meta.getProperty(ETAG),
+                new Date(Long.parseLong(meta.getProperty(LAST_MODIFIED)))));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public InputStream read(BlobInfo info) throws IOException {
+        return Files.newInputStream(contentFile(info));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean delete(String key) {
+        validate(key);
+        synchronized (locks.computeIfAbsent(key, k -> new Object())) {
+            Optional<BlobInfo> info = info(key);
+            if (!info.isPresent()) {
+                return false;
+            }
+            deleteQuietly(metaFile(key));
+            deleteQuietly(contentFile(info.get()));
+            return true;
+        }
+    }
+
+    private void writeMeta(BlobInfo info) throws IOException {
+        Properties meta = new Properties();
+        if (info.getContentType() != null) {
+            meta.setProperty(CONTENT_TYPE, info.getContentType());
+        }
+        meta.setProperty(LENGTH, String.valueOf(info.getLength()));
+        meta.setProperty(ETAG, info.getEtag());
+        meta.setProperty(LAST_MODIFIED, String.valueOf(info.getLastModified().getTime()));
+        Path tmp = Files.createTempFile(root, info.getKey(), ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(tmp)) {
+                meta.store(out, null);
+            }
+            Files.move(tmp, metaFile(info.getKey()), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private Path metaFile(String key) {
+        return root.resolve(key + META_SUFFIX);
+    }
+
+    private Path contentFile(BlobInfo info) {
+        return root.resolve(info.getKey() + "-" + info.getEtag() + ".bin");
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ioe) {
+            // Might still be opened by a reader, it is left behind
+            LOGGER.debug("Could not delete [{}]: {}", file, ioe.getMessage());
+        }
+    }
+
+    private static void validate(String key) {
+        Assert.isTrue(key != null && VALID_KEY.matcher(key).matches(), "Invalid blob key: " + key);
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("No SHA-256 algorithm found on platform!", e);
+        }
+    }
+
+    private static String hex(byte[] bytes) {
+        char[] chars = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            chars[2 * i] = HEX[(bytes[i] >> 4) & 0x0F];
+            chars[2 * i + 1] = HEX[bytes[i] & 0x0F];
+        }
+        return new String(chars);
+    }
+}
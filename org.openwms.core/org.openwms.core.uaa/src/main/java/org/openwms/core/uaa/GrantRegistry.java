@@ -0,0 +1,190 @@
+/*
+ * openwms.org, the Open Warehouse Management System.
+ * Copyright (C) 2014 Heiko Scherrer
+ *
+ * This file is part of openwms.org.
+ *
+ * openwms.org is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as 
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * openwms.org is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this software. If not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.openwms.core.uaa;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.openwms.core.event.GrantChangedEvent;
+import org.openwms.core.event.RoleChangedEvent;
+import org.openwms.core.event.RootApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+
+/**
+ * A GrantRegistry assigns a dense integer ID to each {@link SecurityObject} by name, so that the authorities of an {@code User} can be
+ * stored as a {@link BitSet} and checked with a single bit test.
+ * <p>
+ * IDs are never reused for another name. When a {@code Grant} is removed its ID is simply not set anymore, when it is added again it gets
+ * its former ID. The bits of each {@link Role} are computed once and kept until the {@code Role} or the {@code Grant}s change, the bits of
+ * an {@code User} are the union of its {@link Role}s bits.
+ * </p>
+ *
+ * @author <a href="mailto:scherrer@openwms.org">Heiko Scherrer</a>
+ * @version 1.0
+ * @see UserWrapper
+ * @since 1.1
+ */
+@Component
+class GrantRegistry implements ApplicationListener<RootApplicationEvent> {
+
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    private final Map<String, BitSet> roleBits = new ConcurrentHashMap<>();
+    private final Object lock = new Object();
+    private volatile List<GrantedAuthority> authorities = new ArrayList<>();
+    private long generation;
+    private final boolean cacheRoleBits;
+
+    /**
+     * Create a new GrantRegistry that keeps the bits of each {@link Role} until it is changed.
+     */
+    GrantRegistry() {
+        this(true);
+    }
+
+    /**
+     * Create a new GrantRegistry.
+     *
+     * @param cacheRoleBits Whether the bits of each {@link Role} are kept, only allowed if the registry receives the change events
+     */
+    GrantRegistry(boolean cacheRoleBits) {
+        this.cacheRoleBits = cacheRoleBits;
+    }
+
+    /**
+     * Return the ID of a {@link SecurityObject}, a new ID is assigned if the name is not known yet.
+     *
+     * @param securityObject The {@link SecurityObject}
+     * @return The ID
+     */
+    int register(SecurityObject securityObject) {
+        Integer id = ids.get(securityObject.getName());
+        if (id != null) {
+            return id;
+        }
+        synchronized (lock) {
+            id = ids.get(securityObject.getName());
+            if (id == null) {
+                // Copy on write, readers never see a partially updated list
+                List<GrantedAuthority> copy = new ArrayList<>(authorities);
+                id = copy.size();
+                copy.add(new SecurityObjectAuthority(securityObject));
+                authorities = copy;
+                ids.put(securityObject.getName(), id);
+            }
+            return id;
+        }
+    }
+
+    /**
+     * Return the ID of a known name.
+     *
+     * @param name The name of the {@link SecurityObject}
+     * @return The ID or {@literal -1} if the name is not registered
+     */
+    int idOf(String name) {
+        Integer id = ids.get(name);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Return the authority with the given ID.
+     *
+     * @param id The ID
+     * @return The authority
+     */
+    GrantedAuthority authorityOf(int id) {
+        return authorities.get(id);
+    }
+
+    /**
+     * Compute the authorities of an {@link User} as union of the bits of all assigned {@link Role}s.
+     *
+     * @param user The {@link User}
+     * @return A new BitSet owned by the caller
+     */
+    BitSet authoritiesOf(User user) {
+        BitSet result = new BitSet();
+        for (Role role : user.getRoles()) {
+            result.or(bitsOf(role));
+        }
+        return result;
+    }
+
+    private BitSet bitsOf(Role role) {
+        BitSet bits = roleBits.get(role.getName());
+        if (bits != null) {
+            return bits;
+        }
+        if (!cacheRoleBits) {
+            bits = new BitSet();
+            for (SecurityObject grant : role.getGrants()) {
+                bits.set(register(grant));
+            }
+            return bits;
+        }
+        long computing;
+        synchronized (lock) {
+            computing = generation;
+        }
+        bits = new BitSet();
+        for (SecurityObject grant : role.getGrants()) {
+            bits.set(register(grant));
+        }
+        synchronized (lock) {
+            // Do not keep bits of a Role that has been changed meanwhile
+            if (generation == computing) {
+                roleBits.put(role.getName(), bits);
+            }
+        }
+        return bits;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Forget the bits of changed {@link Role}s, or of all {@link Role}s if {@code Grant}s have changed.
+     */
+    @Override
+    public void onApplicationEvent(RootApplicationEvent event) {
+        if (event instanceof GrantChangedEvent) {
+            synchronized (lock) {
+                generation++;
+                roleBits.clear();
+            }
+        } else if (event instanceof RoleChangedEvent) {
+            RoleChangedEvent rce = (RoleChangedEvent) event;
+            synchronized (lock) {
+                generation++;
+                if (rce.isUnspecified()) {
+                    roleBits.clear();
+                } else {
+                    roleBits.keySet().removeAll(rce.getRoleNames());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * openwms.org, the Open Warehouse Management System.
+ * Copyright (C) 2014 Heiko Scherrer
+ *
+ * This file is part of openwms.org.
+ *
+ * openwms.org is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as 
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * openwms.org is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this software. If not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.openwms.core.uaa;
+
+import javax.annotation.PreDestroy;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * An ImageThumbnailer creates scaled down copies of images in the background.
+ * <p>
+ * Thumbnails are created by a single worker thread with a bounded queue of pending jobs, when the queue is full the oldest job is dropped.
+ * A thumbnail is only kept if the original has not been replaced meanwhile.
+ * </p>
+ * <p>
+ * The dimensions of an image are read from its header before the image is decoded. Images with more than
+ * {@code openwms.core.uaa.images.max-pixels} pixels are not decoded at all, so a small but highly compressed image can not exhaust the
+ * memory.
+ * </p>
+ *
+ * @author <a href="mailto:scherrer@openwms.org">Heiko Scherrer</a>
+ * @version 1.0
+ * @since 1.1
+ */
+@Component
+class ImageThumbnailer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ImageThumbnailer.class);
+    /** Media type of all thumbnails. */
+    static final String THUMBNAIL_TYPE = "image/png";
+    @Autowired
+    private BlobStore blobStore;
+    @Value("${openwms.core.uaa.images.thumbnail-size:128}")
+    private int size = 128;
+    @Value("${openwms.core.uaa.images.max-pixels:25000000}")
+    private long maxPixels = 25000000;
+    private final ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(100),
+            new CustomizableThreadFactory("thumbnailer-"), new ThreadPoolExecutor.DiscardOldestPolicy());
+
+    /**
+     * Create the thumbnail of the {@code original} in the background and store it under {@code thumbnailKey}.
+     *
+     * @param original The original image
+     * @param thumbnailKey The key to store the thumbnail with
+     */
+    void submit(BlobInfo original, String thumbnailKey) {
+        executor.execute(() -> create(original, thumbnailKey));
+    }
+
+    void create(BlobInfo original, String thumbnailKey) {
+        try {
+            BufferedImage image;
+            try (InputStream in = blobStore.read(original)) {
+                image = read(in, original.getKey());
+            }
+            if (image == null) {
+                return;
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ImageIO.write(scale(image), "png", out);
+            if (isCurrent(original)) {
+                blobStore.write(thumbnailKey, new ByteArrayInputStream(out.toByteArray()), THUMBNAIL_TYPE);
+                // The original may have been replaced while writing, then the thumbnail of the replaced one is not needed anymore
+                if (!isCurrent(original)) {
+                    blobStore.delete(thumbnailKey);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Could not create thumbnail for [{}]: {}", original.getKey(), e.getMessage());
+        }
+    }
+
+    private boolean isCurrent(BlobInfo original) {
+        Optional<BlobInfo> current = blobStore.info(original.getKey());
+        return current.isPresent() && current.get().getEtag().equals(original.getEtag());
+    }
+
+    /**
+     * Decode the image if its format is supported and it does not exceed the maximum number of pixels.
+     *
+     * @return The image or {@literal null}
+     */
+    private BufferedImage read(InputStream in, String key) throws IOException {
+        try (ImageInputStream iis = ImageIO.createImageInputStream(in)) {
+            Iterator<ImageReader> readers = iis == null ? null : ImageIO.getImageReaders(iis);
+            if (readers == null || !readers.hasNext()) {
+                LOGGER.debug("No thumbnail created for [{}], not a supported image format", key);
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(iis, true, true);
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels > maxPixels) {
+                    LOGGER.warn("No thumbnail created for [{}], the image has [{}] pixels, at most [{}] are allowed", key, pixels, maxPixels);
+                    return null;
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private BufferedImage scale(BufferedImage image) {
+        double factor = Math.min(1d, (double) size / Math.max(image.getWidth(), image.getHeight()));
+        int width = Math.max(1, (int) Math.round(image.getWidth() * factor));
+        int height = Math.max(1, (int) Math.round(image.getHeight() * factor));
+        BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = scaled.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.drawImage(image, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+        return scaled;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,256 @@
+/*
+ * openwms.org, the Open Warehouse Management System.
+ * Copyright (C) 2014 Heiko Scherrer
+ *
+ * This file is part of openwms.org.
+ *
+ * openwms.org is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as 
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * openwms.org is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this software. If not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.openwms.core.uaa;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.ameba.exception.ServiceLayerException;
+import org.openwms.core.exception.ExceptionCodes;
+import org.openwms.core.exception.InvalidPasswordException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.NoOpPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.StandardPasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+
+/**
+ * A PasswordPolicy checks a new password against the current and the former passwords of an {@link User} and applies it.
+ * <p>
+ * Encoding and matching passwords is expensive by intention. All checks run on a dedicated executor with a fixed number of threads and a
+ * bounded queue, so that concurrent password changes can not occupy all request threads. When the queue is full or the checks do not
+ * complete in time, the change is rejected with a {@link ServiceLayerException}.
+ * </p>
+ * <p>
+ * If the {@link PasswordEncoder} is known to be stateless, the new password is encoded while the history entries are matched in parallel,
+ * otherwise all checks run one after another in a single task.
+ * </p>
+ *
+ * @author <a href="mailto:scherrer@openwms.org">Heiko Scherrer</a>
+ * @version 1.0
+ * @since 1.1
+ */
+@Component
+class PasswordPolicy {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PasswordPolicy.class);
+    private static final int NO_MATCH = -1;
+    private final PasswordEncoder encoder;
+    private final long timeout;
+    private final boolean parallel;
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * Create a PasswordPolicy.
+     *
+     * @param encoder The encoder to match and encode passwords with
+     * @param threads The maximum number of threads to run checks on
+     * @param queueCapacity The maximum number of pending checks
+     * @param timeout Milliseconds to wait for all checks of one password change
+     * @param parallelChecks Whether checks may run in parallel if the encoder permits
+     */
+    @Autowired
+    PasswordPolicy(PasswordEncoder encoder,
+            @Value("${openwms.core.uaa.password.threads:4}") int threads,
+            @Value("${openwms.core.uaa.password.queue-capacity:64}") int queueCapacity,
+            @Value("${openwms.core.uaa.password.timeout:30000}") long timeout,
+            @Value("${openwms.core.uaa.password.parallel-checks:true}") boolean parallelChecks) {
+        Assert.isTrue(threads > 0, "The number of threads must be greater than 0");
+        Assert.isTrue(queueCapacity > 0, "The queue capacity must be greater than 0");
+        this.encoder = encoder;
+        this.timeout = timeout;
+        this.parallel = parallelChecks && isStateless(encoder);
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("password-policy-"), new ThreadPoolExecutor.AbortPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+        if (parallelChecks && !parallel) {
+            LOGGER.info("Password checks run sequentially, the encoder [{}] is not known to be stateless", encoder.getClass().getName());
+        }
+    }
+
+    private static boolean isStateless(PasswordEncoder encoder) {
+        return encoder instanceof BCryptPasswordEncoder || encoder instanceof StandardPasswordEncoder
+                || encoder instanceof NoOpPasswordEncoder;
+    }
+
+    /**
+     * Check the {@code rawPassword} and set it as new password of the {@code user}. Nothing is changed if the {@code rawPassword} is the
+     * current password of the {@code user}.
+     *
+     * @param user The User to change the password for
+     * @param rawPassword The new password in plain text
+     * @throws InvalidPasswordException if the {@code rawPassword} is in the password history
+     * @throws ServiceLayerException if the checks are rejected or do not complete in time
+     */
+    void changePassword(User user, String rawPassword) throws InvalidPasswordException {
+        Assert.notNull(user, "The user must not be null");
+        Assert.notNull(rawPassword, "The password must not be null");
+        List<String> candidates = new ArrayList<>(User.NUMBER_STORED_PASSWORDS + 1);
+        boolean hasCurrent = user.getPersistedPassword() != null;
+        if (hasCurrent) {
+            candidates.add(user.getPersistedPassword());
+        }
+        candidates.addAll(user.getPasswordHistory());
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+        List<Future<?>> futures = new ArrayList<>(candidates.size() + 1);
+        try {
+            Future<String> encoded = null;
+            int match;
+            if (parallel) {
+                encoded = submit(futures, () -> encoder.encode(rawPassword));
+                match = findMatchParallel(rawPassword, candidates, hasCurrent, futures, deadline);
+            } else {
+                match = await(submit(futures, () -> findMatch(rawPassword, candidates)), deadline);
+            }
+            if (hasCurrent && match == 0) {
+                LOGGER.debug("Trying to set the new password equals to the current password");
+                return;
+            }
+            if (match != NO_MATCH) {
+                throw new InvalidPasswordException("Password is not confirm with defined rules");
+            }
+            if (encoded == null) {
+                encoded = submit(futures, () -> encoder.encode(rawPassword));
+            }
+            user.applyPassword(await(encoded, deadline));
+        } finally {
+            futures.forEach(f -> f.cancel(true));
+        }
+    }
+
+    private int findMatch(String rawPassword, List<String> candidates) {
+        for (int i = 0; i < candidates.size(); i++) {
+            if (encoder.matches(rawPassword, candidates.get(i))) {
+                return i;
+            }
+        }
+        return NO_MATCH;
+    }
+
+    /*
+     * Returns as soon as a match is found, a match in the history is only reported when the check against the current password is done,
+     * because that one takes precedence.
+     */
+    private int findMatchParallel(String rawPassword, List<String> candidates, boolean hasCurrent, List<Future<?>> futures, long deadline) {
+        CompletionService<Integer> completion = new ExecutorCompletionService<>(executor);
+        for (int i = 0; i < candidates.size(); i++) {
+            int index = i;
+            String candidate = candidates.get(i);
+            futures.add(guarded(() -> completion.submit(() -> encoder.matches(rawPassword, candidate) ? index : NO_MATCH)));
+        }
+        Future<?> current = hasCurrent ? futures.get(futures.size() - candidates.size()) : null;
+        int match = NO_MATCH;
+        for (int done = 0; done < candidates.size(); done++) {
+            int result = await(poll(completion, deadline), deadline);
+            if (result == 0) {
+                return 0;
+            }
+            if (result != NO_MATCH) {
+                match = result;
+            }
+            if (match != NO_MATCH && (current == null || current.isDone())) {
+                return match;
+            }
+        }
+        return match;
+    }
+
+    private <T> Future<T> submit(List<Future<?>> futures, Callable<T> task) {
+        Future<T> future = guarded(() -> executor.submit(task));
+        futures.add(future);
+        return future;
+    }
+
+    private static <T> Future<T> guarded(Callable<Future<T>> submission) {
+        try {
+            return submission.call();
+        } catch (RejectedExecutionException ree) {
+            LOGGER.warn("Password check rejected, too many pending checks");
+            throw new ServiceLayerException("Too many concurrent password changes, try again later", ExceptionCodes.TECHNICAL_RT_ERROR);
+        } catch (Exception e) {
+            throw new ServiceLayerException(e.getMessage(), ExceptionCodes.TECHNICAL_RT_ERROR);
+        }
+    }
+
+    private static <T> Future<T> poll(CompletionService<T> completion, long deadline) {
+        try {
+            Future<T> future = completion.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            if (future == null) {
+                throw timedOut();
+            }
+            return future;
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new ServiceLayerException("Interrupted while checking the password", ExceptionCodes.TECHNICAL_RT_ERROR);
+        }
+    }
+
+    private static <T> T await(Future<T> future, long deadline) {
+        try {
+            return future.get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException te) {
+            throw timedOut();
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new ServiceLayerException("Interrupted while checking the password", ExceptionCodes.TECHNICAL_RT_ERROR);
+        } catch (ExecutionException ee) {
+            throw new ServiceLayerException(ee.getCause().getMessage(), ExceptionCodes.TECHNICAL_RT_ERROR);
+        }
+    }
+
+    private static ServiceLayerException timedOut() {
+        LOGGER.warn("Password check did not complete in time");
+        return new ServiceLayerException("Password check did not complete in time, try again later", ExceptionCodes.TECHNICAL_RT_ERROR);
+    }
+
+    /**
+     * Get the number of checks currently running.
+     *
+     * @return the number of active threads
+     */
+    int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * openwms.org, the Open Warehouse Management System.
+ * Copyright (C) 2014 Heiko Scherrer
+ *
+ * This file is part of openwms.org.
+ *
+ * openwms.org is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as 
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * openwms.org is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this software. If not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.openwms.core.uaa;
+
+import java.util.Date;
+import java.util.Objects;
+
+/**
+ * A PersistedCredentials is a read-only projection of the persisted username and credentials of an {@link User}. It is selected before an
+ * {@link User} is saved, to find out whether the credentials are going to change.
+ *
+ * @author <a href="mailto:scherrer@openwms.org">Heiko Scherrer</a>
+ * @version 1.0
+ * @since 1.1
+ */
+public final class PersistedCredentials {
+
+    private final String username;
+    private final String password;
+    private final boolean enabled;
+    private final boolean locked;
+    private final Date expirationDate;
+
+    /**
+     * Create a new PersistedCredentials. Called from the JPQL constructor expression in {@link UserRepository#findPersistedCredentials}.
+     */
+    public PersistedCredentials(String username, String password, boolean enabled, boolean locked, Date expirationDate) {
+        this.username = username;
+        this.password = password;
+        this.enabled = enabled;
+        this.locked = locked;
+        this.expirationDate = expirationDate;
+    }
+
+    /**
+     * Get the persisted username.
+     *
+     * @return the username
+     */
+    public String getUsername() {
+        return username;
+    }
+
+    /**
+     * Check whether the password, the enabled or locked flag or the expiration date of the {@code user} differ from the persisted ones.
+     *
+     * @param user The {@link User} to compare with
+     * @return {@literal true} if the credentials are going to change
+     */
+    public boolean differFrom(User user) {
+        return !Objects.equals(password, user.getPersistedPassword()) || enabled != user.isEnabled() || locked != user.isLocked()
+                || !Objects.equals(timeOf(expirationDate), timeOf(user.getExpirationDate()));
+    }
+
+    private static Long timeOf(Date date) {
+        return date == null ? null : date.getTime();
+    }
+}
@@ -24,9 +24,16 @@ package org.openwms.core.uaa;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import org.ameba.annotation.TxService;
+import org.openwms.core.event.AfterCommitEventPublisherImpl;
+import org.openwms.core.event.EventPublisher;
+import org.openwms.core.event.RoleChangedEvent;
+import org.openwms.core.event.RootApplicationEvent;
+import org.openwms.core.event.UserChangedEvent;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 import org.springframework.validation.annotation.Validated;
 
@@ -45,10 +52,13 @@ import org.springframework.validation.annotation.Validated;
 class RoleServiceImpl implements RoleService {
 
     private RoleRepository repository;
+    private EventPublisher<RootApplicationEvent> publisher;
 
     @Autowired
-    RoleServiceImpl(RoleRepository repository) {
+    RoleServiceImpl(RoleRepository repository,
+            @Qualifier(AfterCommitEventPublisherImpl.COMPONENT_NAME) EventPublisher<RootApplicationEvent> publisher) {
         this.repository = repository;
+        this.publisher = publisher;
     }
 
     /**
@@ -64,9 +74,17 @@ class RoleServiceImpl implements RoleService {
 
     /**
      * {@inheritDoc}
+     * <p>
+     * Triggers a <tt>RoleChangedEvent</tt> and an <tt>UserChangedEvent</tt> for all assigned <tt>User</tt>s after completion. The latter
+     * is needed for <tt>User</tt>s that have just been assigned.
      */
     @Override
     public Role save(Role role) {
-        return repository.save(role);
+        Role saved = repository.save(role);
+        publisher.publish(RoleChangedEvent.of(this, saved.getName()));
+        if (!saved.getUsers().isEmpty()) {
+            publisher.publish(new UserChangedEvent(this, saved.getUsers().stream().map(User::getUsername).collect(Collectors.toList())));
+        }
+        return saved;
     }
 }
\ No newline at end of file
@@ -21,8 +21,18 @@
  */
 package org.openwms.core.uaa;
 
+import javax.annotation.PostConstruct;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
 import net.sf.ehcache.Ehcache;
 import org.ameba.annotation.TxService;
+import org.openwms.core.event.GrantChangedEvent;
+import org.openwms.core.event.RoleChangedEvent;
+import org.openwms.core.event.RootApplicationEvent;
 import org.openwms.core.event.UserChangedEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -34,12 +44,31 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 /**
  * A SecurityContextUserServiceImpl extends Spring {@link UserDetailsService} to
  * read <code>User</code>s and <code>Role</code>s from the persistent storage
  * and wraps them into security objects.
+ * <p>
+ * Loaded <code>User</code>s are cached. An {@link UserChangedEvent} evicts only
+ * the affected <code>User</code>s, a {@link RoleChangedEvent} evicts all cached
+ * <code>User</code>s assigned to the affected <code>Role</code>s. To find them
+ * a reverse index from role names to usernames is kept for the cached
+ * <code>User</code>s. The whole cache is only cleared if an event does not name
+ * the affected <code>User</code>s or <code>Role</code>s.
+ * </p>
+ * <p>
+ * Without a configured {@link UserCache} a {@link CaffeineUserCache} is used,
+ * configured with the properties
+ * <i>openwms.core.uaa.user-cache.maximum-size</i>,
+ * <i>openwms.core.uaa.user-cache.expire-after-access</i> and
+ * <i>openwms.core.uaa.user-cache.refresh-after-write</i> (seconds). Hits,
+ * misses and evictions are recorded by the cache itself and exposed via JMX by
+ * the {@link UserCacheStatistics}. A failed reload keeps the stale entry.
+ * </p>
  *
  * @author <a href="mailto:russelltina@users.sourceforge.net">Tina Russell</a>
  * @version 0.1
@@ -47,7 +76,7 @@ import org.springframework.transaction.annotation.Transactional;
  * @see org.springframework.security.core.userdetails.UserDetailsService
  */
 @TxService
-class SecurityContextUserServiceImpl implements UserDetailsService, ApplicationListener<UserChangedEvent> {
+class SecurityContextUserServiceImpl implements UserDetailsService, ApplicationListener<RootApplicationEvent> {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(SecurityContextUserServiceImpl.class);
 
@@ -61,20 +90,108 @@ class SecurityContextUserServiceImpl implements UserDetailsService, ApplicationL
     private Ehcache cache;
     @Autowired
     private PasswordEncoder enc;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired(required = false)
+    private GrantRegistry grantRegistry;
+    @Autowired(required = false)
+    private UserCacheStatistics statistics;
+    @Value("${openwms.core.uaa.user-cache.maximum-size:1000}")
+    private long maximumSize = 1000;
+    @Value("${openwms.core.uaa.user-cache.expire-after-access:3600}")
+    private long expireAfterAccess = 3600;
+    @Value("${openwms.core.uaa.user-cache.refresh-after-write:300}")
+    private long refreshAfterWrite = 300;
+    private final Map<String, Set<String>> usernamesByRole = new ConcurrentHashMap<>();
+    private final Object systemUserLock = new Object();
+    private volatile SystemUserWrapper systemUser;
+
+    /**
+     * Use a {@link CaffeineUserCache} if no other {@link UserCache} is configured. Entries are reloaded in a separate read-only
+     * transaction.
+     */
+    @PostConstruct
+    void initUserCache() {
+        if (userCache == null) {
+            TransactionTemplate tx = new TransactionTemplate(transactionManager);
+            tx.setReadOnly(true);
+            CaffeineUserCache caffeineUserCache = new CaffeineUserCache(maximumSize, expireAfterAccess, refreshAfterWrite,
+                    username -> tx.execute(status -> loadUser(username)));
+            if (statistics != null) {
+                statistics.bind(caffeineUserCache);
+            }
+            userCache = caffeineUserCache;
+        }
+    }
 
     /**
      * {@inheritDoc}
+     * <p>
+     * Evict the <code>User</code>s affected by an {@link UserChangedEvent} or a {@link RoleChangedEvent}. A {@link GrantChangedEvent}
+     * evicts all <code>User</code>s and the system <code>User</code>.
      */
     @Override
-    public void onApplicationEvent(UserChangedEvent event) {
+    public void onApplicationEvent(RootApplicationEvent event) {
+        if (event instanceof GrantChangedEvent) {
+            clearCache();
+            synchronized (systemUserLock) {
+                systemUser = null;
+            }
+        } else if (event instanceof UserChangedEvent) {
+            UserChangedEvent uce = (UserChangedEvent) event;
+            if (uce.isUnspecified()) {
+                clearCache();
+            } else {
+                evict(uce.getUsernames());
+            }
+        } else if (event instanceof RoleChangedEvent) {
+            RoleChangedEvent rce = (RoleChangedEvent) event;
+            if (rce.isUnspecified()) {
+                clearCache();
+            } else {
+                for (String roleName : rce.getRoleNames()) {
+                    evict(usernamesByRole.getOrDefault(roleName, Collections.emptySet()));
+                }
+            }
+        }
+    }
+
+    private void clearCache() {
+        LOGGER.debug("Users not specified -> clear cache");
         if (cache != null) {
-            LOGGER.debug("UserChangedEvent -> clear cache");
             cache.removeAll();
         }
+        if (userCache instanceof CaffeineUserCache) {
+            ((CaffeineUserCache) userCache).removeAll();
+        }
+        usernamesByRole.clear();
+    }
+
+    private void evict(Set<String> usernames) {
+        if (userCache == null || usernames.isEmpty()) {
+            return;
+        }
+        LOGGER.debug("Evict users from cache {}", usernames);
+        // Copy, the set might be the index entry that is modified below
+        String[] names = usernames.toArray(new String[usernames.size()]);
+        for (String username : names) {
+            userCache.removeUserFromCache(username);
+            usernamesByRole.values().forEach(indexed -> indexed.remove(username));
+        }
+    }
+
+    private void index(UserDetails ud) {
+        if (ud instanceof UserWrapper) {
+            for (Role role : ((UserWrapper) ud).getUser().getRoles()) {
+                usernamesByRole.computeIfAbsent(role.getName(), k -> ConcurrentHashMap.newKeySet()).add(ud.getUsername());
+            }
+        }
     }
 
     /**
      * {@inheritDoc}
+     * <p>
+     * The system <code>User</code> is built once and kept until <code>Grant</code>s change.
      * 
      * @param username
      *            User's username to search for
@@ -85,22 +202,50 @@ class SecurityContextUserServiceImpl implements UserDetailsService, ApplicationL
     @Transactional(readOnly = true)
     @Override
     public UserDetails loadUserByUsername(String username) {
+        if (systemUsername.equals(username)) {
+            return getSystemUser();
+        }
         UserDetails ud = userCache.getUserFromCache(username);
         if (null == ud) {
-            if (systemUsername.equals(username)) {
-                User user = userService.createSystemUser();
-                ud = new SystemUserWrapper(user);
-                ((SystemUserWrapper) ud).setPassword(enc.encode(user.getPassword()));
-            } else {
-                try {
-                    ud = new UserWrapper(userService.findByUsername(username).get());
-                } catch(Exception ex) {
-                    LOGGER.error(ex.getMessage(), ex);
-                    throw new UsernameNotFoundException(String.format("User with username %s not found", username));
-                }
+            ud = loadUser(username);
+            if (ud == null) {
+                throw new UsernameNotFoundException(String.format("User with username %s not found", username));
             }
             userCache.putUserInCache(ud);
         }
         return ud;
     }
-}
\ No newline at end of file
+
+    /**
+     * Load the <code>User</code>. Exceptions are not caught, so that a failed background refresh keeps the stale entry instead of evicting
+     * the <code>User</code>.
+     */
+    private UserDetails loadUser(String username) {
+        Optional<User> user = userService.findByUsername(username);
+        UserDetails ud = user == null || !user.isPresent() ? null : wrap(user.get());
+        if (ud != null) {
+            index(ud);
+        }
+        return ud;
+    }
+
+    private UserWrapper wrap(User user) {
+        return grantRegistry == null ? new UserWrapper(user) : new UserWrapper(user, grantRegistry);
+    }
+
+    private SystemUserWrapper getSystemUser() {
+        SystemUserWrapper result = systemUser;
+        if (result == null) {
+            synchronized (systemUserLock) {
+                result = systemUser;
+                if (result == null) {
+                    User user = userService.createSystemUser();
+                    result = grantRegistry == null ? new SystemUserWrapper(user) : new SystemUserWrapper(user, grantRegistry);
+                    result.setPassword(enc.encode(user.getPassword()));
+                    systemUser = result;
+                }
+            }
+        }
+        return result;
+    }
+}
@@ -21,6 +21,7 @@
  */
 package org.openwms.core.uaa;
 
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.DiscriminatorColumn;
 import javax.persistence.DiscriminatorType;
@@ -31,6 +32,9 @@ import javax.persistence.Table;
 import java.io.Serializable;
 
 import org.ameba.integration.jpa.BaseEntity;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.openwms.core.Constants;
 import org.openwms.core.values.CoreTypeDefinitions;
 import org.springframework.util.Assert;
 
@@ -48,6 +52,8 @@ import org.springframework.util.Assert;
 @Table(name = "COR_ROLE")
 @Inheritance
 @DiscriminatorColumn(name = "TYPE", discriminatorType = DiscriminatorType.STRING, length = 20)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Constants.CACHE_REGION_SECURITY_OBJECTS)
 public class SecurityObject extends BaseEntity implements Serializable {
 
     /** Unique name of the {@code SecurityObject}. */
@@ -21,10 +21,12 @@
  */
 package org.openwms.core.uaa;
 
+import javax.persistence.QueryHint;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
 /**
  * A SecurityObjectRepository is used to find, modify and delete {@link SecurityObject}s.
@@ -45,5 +47,6 @@ interface SecurityObjectRepository extends JpaRepository<SecurityObject, Long> {
     List<Grant> findAllOfModule(String moduleName);
 
     @Query("select g from Grant g")
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     List<Grant> findAllGrants();
 }
\ No newline at end of file
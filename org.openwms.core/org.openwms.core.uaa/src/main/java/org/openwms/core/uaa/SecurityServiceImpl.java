@@ -22,16 +22,23 @@
 package org.openwms.core.uaa;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.ameba.annotation.TxService;
 import org.ameba.i18n.Translator;
-import org.openwms.core.annotation.FireAfterTransaction;
-import org.openwms.core.event.UserChangedEvent;
+import org.openwms.core.event.AfterCommitEventPublisherImpl;
+import org.openwms.core.event.EventPublisher;
+import org.openwms.core.event.GrantChangedEvent;
+import org.openwms.core.event.RootApplicationEvent;
 import org.openwms.core.exception.ExceptionCodes;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.util.Assert;
 
 /**
@@ -51,29 +58,53 @@ public class SecurityServiceImpl implements SecurityService {
     private RoleRepository roleRepository;
     @Autowired
     private Translator translator;
+    @Autowired
+    @Qualifier(AfterCommitEventPublisherImpl.COMPONENT_NAME)
+    private EventPublisher<RootApplicationEvent> publisher;
 
     /**
      * {@inheritDoc}
      * <p>
-     * Triggers {@code UserChangedEvent} after completion.
+     * The persisted and the given {@link Grant}s are compared by name, new ones are inserted and missing ones are deleted, both in one
+     * batch. If a {@code Module} registers the same {@link Grant}s again, nothing is written. The persisted {@link Grant}s are returned in
+     * any case.
+     * <p>
+     * Triggers {@code GrantChangedEvent} after completion if any {@link Grant} has been inserted or deleted.
      */
     @Override
-    @FireAfterTransaction(events = {UserChangedEvent.class})
     public List<Grant> mergeGrants(String moduleName, List<Grant> grants) {
         Assert.notNull(moduleName, translator.translate(ExceptionCodes.MODULENAME_NOT_NULL));
-        if (LOGGER.isDebugEnabled()) {
-            LOGGER.debug("Merging grants of module:" + moduleName);
+        LOGGER.debug("Merging grants of module [{}]", moduleName);
+        Map<String, Grant> persisted = new HashMap<>();
+        for (Grant grant : securityObjectRepository.findAllOfModule(moduleName + "%")) {
+            persisted.put(grant.getName(), grant);
+        }
+        List<Grant> result = new ArrayList<>(grants.size());
+        List<Grant> toInsert = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        for (Grant grant : grants) {
+            if (!seen.add(grant.getName())) {
+                continue;
+            }
+            Grant existing = persisted.remove(grant.getName());
+            if (existing != null) {
+                result.add(existing);
+            } else {
+                toInsert.add(grant);
+            }
         }
-        List<Grant> persisted = securityObjectRepository.findAllOfModule(moduleName + "%");
-        List<Grant> result = new ArrayList<>(persisted);
-        grants.forEach(g -> {
-            if (persisted.contains(g)) persisted.remove(g);
-            else result.add(securityObjectRepository.save(g));
-        });
-        result.removeAll(persisted);
+        if (!toInsert.isEmpty()) {
+            result.addAll(securityObjectRepository.save(toInsert));
+        }
+        // All remaining ones are not registered by the module anymore
         if (!persisted.isEmpty()) {
-            securityObjectRepository.delete(persisted);
+            securityObjectRepository.delete(new ArrayList<>(persisted.values()));
+        }
+        if (!toInsert.isEmpty() || !persisted.isEmpty()) {
+            publisher.publish(new GrantChangedEvent(this, moduleName));
+        } else {
+            LOGGER.debug("Grants of module [{}] unchanged", moduleName);
         }
         return result;
     }
-}
\ No newline at end of file
+}
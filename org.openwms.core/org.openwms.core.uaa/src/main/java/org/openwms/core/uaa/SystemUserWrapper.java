@@ -46,6 +46,16 @@ public class SystemUserWrapper extends UserWrapper implements Serializable {
         super(user);
     }
 
+    /**
+     * Create a new SystemUserWrapper.
+     *
+     * @param user The wrapped user
+     * @param registry The GrantRegistry to resolve IDs of authorities with
+     */
+    SystemUserWrapper(User user, GrantRegistry registry) {
+        super(user, registry);
+    }
+
     /**
      * Get the password.
      *
@@ -76,6 +86,16 @@ public class SystemUserWrapper extends UserWrapper implements Serializable {
         authorities.add(new SystemUserAuthority());
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The {@link org.openwms.core.uaa.SystemUser#SYSTEM_ROLE_NAME} is always granted.
+     */
+    @Override
+    protected boolean isDefaultGrant(String authority) {
+        return SystemUser.SYSTEM_ROLE_NAME.equals(authority);
+    }
+
     /**
      * {@inheritDoc}
      * <p>
@@ -28,20 +28,25 @@ import javax.persistence.Entity;
 import javax.persistence.JoinColumn;
 import javax.persistence.JoinTable;
 import javax.persistence.ManyToMany;
+import javax.persistence.NamedAttributeNode;
+import javax.persistence.NamedEntityGraph;
+import javax.persistence.NamedSubgraph;
 import javax.persistence.OneToMany;
 import javax.persistence.OneToOne;
+import javax.persistence.OrderBy;
 import javax.persistence.PostLoad;
 import javax.persistence.Table;
 import javax.persistence.Temporal;
 import javax.persistence.TemporalType;
 import javax.persistence.Transient;
+import javax.persistence.UniqueConstraint;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Size;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Comparator;
 import java.util.Date;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 
@@ -66,12 +71,17 @@ import org.springframework.util.Assert;
  * @since 0.1
  */
 @Entity
-@Table(name = "COR_USER")
+@Table(name = "COR_USER", uniqueConstraints = @UniqueConstraint(name = "UC_USER_USERNAME", columnNames = "C_USERNAME"))
+@NamedEntityGraph(name = User.GRAPH_ROLES_GRANTS, attributeNodes = @NamedAttributeNode(value = "roles", subgraph = "grants"),
+        subgraphs = @NamedSubgraph(name = "grants", attributeNodes = @NamedAttributeNode("grants")))
 public class User extends ApplicationEntity implements Serializable {
 
+    /** Name of the entity graph that fetches the {@link Role}s together with their {@link Grant}s. */
+    public static final String GRAPH_ROLES_GRANTS = "User.rolesAndGrants";
+
     private static final Logger LOGGER = LoggerFactory.getLogger(User.class);
     /** Unique identifier of this User (not nullable). */
-    @Column(name = "C_USERNAME", unique = true, nullable = false)
+    @Column(name = "C_USERNAME", nullable = false)
     @NotNull
     @Size(min = 1)
     private String username;
@@ -115,15 +125,17 @@ public class User extends ApplicationEntity implements Serializable {
     private UserDetails userDetails = new UserDetails();
 
     /**
-     * List of {@link Role}s assigned to the User. In a JPA context eager loaded.
+     * {@link Role}s assigned to the User. Mapped as a Set, so that {@link Role}s and {@link Grant}s can be fetched together without
+     * duplicating {@link Role}s.
      *
-     * @see javax.persistence.FetchType#EAGER
+     * @see #GRAPH_ROLES_GRANTS
      */
     @ManyToMany(mappedBy = "users", cascade = {CascadeType.MERGE, CascadeType.REFRESH})
-    private List<Role> roles = new ArrayList<>();
+    private Set<Role> roles = new LinkedHashSet<>();
 
-    /** Password history of the User. */
+    /** Password history of the User, the most recent password first. */
     @OneToMany(cascade = {CascadeType.MERGE, CascadeType.REMOVE, CascadeType.REFRESH})
+    @OrderBy("passwordChanged DESC")
     @JoinTable(name = "COR_USER_PASSWORD_JOIN", joinColumns = @JoinColumn(name = "USER_ID"), inverseJoinColumns = @JoinColumn(name = "PASSWORD_ID"))
     private List<UserPassword> passwords = new ArrayList<>();
 
@@ -260,6 +272,9 @@ public class User extends ApplicationEntity implements Serializable {
 
     /**
      * Checks if the new password is a valid and change the password of this User.
+     * <p>
+     * All checks are done sequentially in the calling thread, the {@link PasswordPolicy} runs them concurrently.
+     * </p>
      *
      * @param encodedPassword The new encoded password of this User
      * @throws InvalidPasswordException in case changing the password is not allowed or the new password is not valid
@@ -270,10 +285,7 @@ public class User extends ApplicationEntity implements Serializable {
             return;
         }
         validateAgainstPasswordHistory(rawPassword, encoder);
-        storeOldPassword(this.password);
-        persistedPassword = encodedPassword;
-        this.password = encodedPassword;
-        lastPasswordChange = new Date();
+        applyPassword(encodedPassword);
     }
 
     /**
@@ -299,6 +311,44 @@ public class User extends ApplicationEntity implements Serializable {
         }
     }
 
+    /**
+     * Get the persistedPassword.
+     *
+     * @return the persistedPassword, may be {@literal null}
+     */
+    String getPersistedPassword() {
+        return persistedPassword;
+    }
+
+    /**
+     * Get the encoded passwords of the history, the most recent first.
+     *
+     * @return the encoded passwords
+     */
+    List<String> getPasswordHistory() {
+        List<String> result = new ArrayList<>(passwords.size());
+        for (UserPassword up : passwords) {
+            result.add(up.getPassword());
+        }
+        return result;
+    }
+
+    /**
+     * Set the new password without any validation, the current password is moved to the history.
+     *
+     * @param encodedPassword The new encoded password of this User
+     */
+    void applyPassword(String encodedPassword) {
+        storeOldPassword(this.password);
+        persistedPassword = encodedPassword;
+        this.password = encodedPassword;
+        lastPasswordChange = new Date();
+    }
+
+    /**
+     * The history is kept as a ring of {@value #NUMBER_STORED_PASSWORDS} entries in descending order of age: the latest password is put in
+     * front and the oldest ones fall off the end, no sorting is required.
+     */
     private void storeOldPassword(String oldPassword) {
         if (oldPassword == null || oldPassword.isEmpty()) {
             if (LOGGER.isDebugEnabled()) {
@@ -306,15 +356,13 @@ public class User extends ApplicationEntity implements Serializable {
             }
             return;
         }
-        passwords.add(new UserPassword(this, oldPassword));
-        if (passwords.size() > NUMBER_STORED_PASSWORDS) {
-            Collections.sort(passwords, new PasswordComparator());
+        passwords.add(0, new UserPassword(this, oldPassword));
+        while (passwords.size() > NUMBER_STORED_PASSWORDS) {
+            UserPassword pw = passwords.remove(passwords.size() - 1);
             if (LOGGER.isDebugEnabled()) {
-                LOGGER.debug("Remove the old password from the history: " + passwords.get(passwords.size() - 1));
+                LOGGER.debug("Remove the old password from the history: " + pw);
             }
-            UserPassword pw = passwords.get(passwords.size() - 1);
             pw.setUser(null);
-            passwords.remove(pw);
         }
     }
 
@@ -357,10 +405,10 @@ public class User extends ApplicationEntity implements Serializable {
     /**
      * Returns a list of granted {@link Role}s.
      *
-     * @return The list of granted {@link Role}s
+     * @return An unmodifiable list of granted {@link Role}s, use {@link #addRole(Role)} or {@link #setRoles(List)} to change them
      */
     public List<Role> getRoles() {
-        return roles;
+        return Collections.unmodifiableList(new ArrayList<>(roles));
     }
 
     /**
@@ -370,7 +418,7 @@ public class User extends ApplicationEntity implements Serializable {
      */
     public List<SecurityObject> getGrants() {
         List<SecurityObject> grants = new ArrayList<>();
-        for (Role role : getRoles()) {
+        for (Role role : roles) {
             grants.addAll(role.getGrants());
         }
         return Collections.unmodifiableList(grants);
@@ -392,7 +440,7 @@ public class User extends ApplicationEntity implements Serializable {
      * @param roles The new list of {@link Role}s
      */
     public void setRoles(List<Role> roles) {
-        this.roles = roles;
+        this.roles = roles == null ? new LinkedHashSet<>() : new LinkedHashSet<>(roles);
     }
 
     /**
@@ -502,24 +550,4 @@ public class User extends ApplicationEntity implements Serializable {
     public String toString() {
         return getUsername();
     }
-
-    /**
-     * A PasswordComparator sorts UserPassword by date ascending.
-     *
-     * @author <a href="mailto:scherrer@openwms.org">Heiko Scherrer</a>
-     * @version $Revision$
-     * @since 0.2
-     */
-    static class PasswordComparator implements Comparator<UserPassword>, Serializable {
-
-        /**
-         * {@inheritDoc}
-         *
-         * @see java.util.Comparator#compare(java.lang.Object, java.lang.Object)
-         */
-        @Override
-        public int compare(UserPassword o1, UserPassword o2) {
-            return o2.getPasswordChanged().compareTo(o1.getPasswordChanged());
-        }
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,88 @@
+/*
+ * openwms.org, the Open Warehouse Management System.
+ * Copyright (C) 2014 Heiko Scherrer
+ *
+ * This file is part of openwms.org.
+ *
+ * openwms.org is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as 
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * openwms.org is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this software. If not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.openwms.core.uaa;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Component;
+
+/**
+ * An UserCacheStatistics exposes the hits, misses and evictions of the cache of authenticated {@code User}s via JMX. The statistics are
+ * recorded by the {@link CaffeineUserCache} itself, all values are {@literal 0} as long as another {@code UserCache} is used.
+ *
+ * @author <a href="mailto:scherrer@openwms.org">Heiko Scherrer</a>
+ * @version 1.0
+ * @see SecurityContextUserServiceImpl
+ * @since 1.1
+ */
+@Component
+@ManagedResource(description = "Statistics of the cache of authenticated Users")
+class UserCacheStatistics {
+
+    private volatile CaffeineUserCache userCache;
+
+    /**
+     * Read the statistics from the {@code userCache}.
+     *
+     * @param userCache The cache of authenticated {@code User}s
+     */
+    void bind(CaffeineUserCache userCache) {
+        this.userCache = userCache;
+    }
+
+    private CacheStats stats() {
+        CaffeineUserCache current = userCache;
+        return current == null ? CacheStats.empty() : current.stats();
+    }
+
+    @ManagedAttribute(description = "Users served from the cache")
+    public long getHitCount() {
+        return stats().hitCount();
+    }
+
+    @ManagedAttribute(description = "Users not found in the cache")
+    public long getMissCount() {
+        return stats().missCount();
+    }
+
+    @ManagedAttribute(description = "Ratio of lookups served from the cache")
+    public double getHitRate() {
+        return stats().hitRate();
+    }
+
+    @ManagedAttribute(description = "Users evicted from the cache because of its size or expiry")
+    public long getEvictionCount() {
+        return stats().evictionCount();
+    }
+
+    @ManagedAttribute(description = "Reloads of Users that have failed")
+    public long getLoadFailureCount() {
+        return stats().loadFailureCount();
+    }
+
+    @ManagedAttribute(description = "Approximate number of cached Users")
+    public long getEstimatedSize() {
+        CaffeineUserCache current = userCache;
+        return current == null ? 0 : current.estimatedSize();
+    }
+}
@@ -21,18 +21,13 @@
  */
 package org.openwms.core.uaa;
 
-import javax.persistence.Basic;
 import javax.persistence.Column;
 import javax.persistence.Embeddable;
 import javax.persistence.EnumType;
 import javax.persistence.Enumerated;
-import javax.persistence.FetchType;
-import javax.persistence.Lob;
 import java.io.Serializable;
-import java.util.Arrays;
 
 import org.openwms.core.values.CoreTypeDefinitions;
-import org.openwms.core.values.ImageProvider;
 
 /**
  * Detailed information about an {@link User}.
@@ -43,7 +38,7 @@ import org.openwms.core.values.ImageProvider;
  * @since 0.1
  */
 @Embeddable
-public class UserDetails implements ImageProvider, Serializable {
+public class UserDetails implements Serializable {
 
     /**
      * Some descriptive text of the {@link User}.
@@ -75,13 +70,6 @@ public class UserDetails implements ImageProvider, Serializable {
      */
     @Column(name = "C_DEPARTMENT")
     private String department;
-    /**
-     * An image of the {@link User}. Lazy fetched.
-     */
-    @Lob
-    @Basic(fetch = FetchType.EAGER)
-    @Column(name = "C_IMAGE")
-    private byte[] image;
     /**
      * Sex of the {@link User}.
      */
@@ -225,25 +213,6 @@ public class UserDetails implements ImageProvider, Serializable {
         this.department = department;
     }
 
-    /**
-     * {@inheritDoc}
-     */
-    @Override
-    public byte[] getImage() {
-        if (image == null) {
-            return new byte[0];
-        }
-        return Arrays.copyOf(image, image.length);
-    }
-
-    /**
-     * {@inheritDoc}
-     */
-    @Override
-    public void setImage(byte[] img) {
-        image = img == null ? new byte[0] : Arrays.copyOf(img, img.length);
-    }
-
     /**
      * Return the {@link User}'s sex.
      *
@@ -0,0 +1,116 @@
+/*
+ * openwms.org, the Open Warehouse Management System.
+ * Copyright (C) 2014 Heiko Scherrer
+ *
+ * This file is part of openwms.org.
+ *
+ * openwms.org is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as 
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * openwms.org is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this software. If not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.openwms.core.uaa;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Component;
+
+/**
+ * An UserImageMigration moves the images that are still stored in the former column {@code COR_USER.C_IMAGE} into the {@link BlobStore}
+ * once the application is ready. Each image is streamed from the database into the store and the column is cleared afterwards, so the
+ * migration can safely be run on each startup.
+ * <p>
+ * The migration is enabled by default, otherwise images that have not been migrated yet are not found anymore. It can be disabled with
+ * the property {@code openwms.core.uaa.images.migrate} once all images have been moved. A schema without the former column is skipped.
+ * </p>
+ *
+ * @author <a href="mailto:scherrer@openwms.org">Heiko Scherrer</a>
+ * @version 1.0
+ * @since 1.1
+ */
+@Component
+@ConditionalOnProperty(name = "openwms.core.uaa.images.migrate", havingValue = "true", matchIfMissing = true)
+class UserImageMigration implements ApplicationListener<ApplicationReadyEvent> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(UserImageMigration.class);
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private UserImageService imageService;
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Migrate all images.
+     */
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        LOGGER.info("Migrated [{}] user images to the blob store", migrate());
+    }
+
+    /**
+     * Migrate all images.
+     *
+     * @return The number of migrated images
+     */
+    int migrate() {
+        List<String> usernames;
+        try {
+            usernames = jdbcTemplate.queryForList("select C_USERNAME from COR_USER where C_IMAGE is not null", String.class);
+        } catch (DataAccessException dae) {
+            LOGGER.debug("No user images to migrate, the former column does not exist: {}", dae.getMessage());
+            return 0;
+        }
+        int migrated = 0;
+        for (String username : usernames) {
+            Optional<User> user = userService.findByUsername(username);
+            if (!user.isPresent()) {
+                continue;
+            }
+            Long id = user.get().getPk();
+            Boolean stored = jdbcTemplate.query("select C_IMAGE from COR_USER where C_USERNAME = ?", (ResultSetExtractor<Boolean>) rs -> {
+                if (!rs.next()) {
+                    return Boolean.FALSE;
+                }
+                try (InputStream in = rs.getBinaryStream(1)) {
+                    if (in != null) {
+                        imageService.storeImage(id, in, null);
+                    }
+                    return Boolean.TRUE;
+                } catch (IOException ioe) {
+                    LOGGER.warn("Could not read image of [{}]: {}", username, ioe.getMessage());
+                    return Boolean.FALSE;
+                }
+            }, username);
+            if (Boolean.TRUE.equals(stored)) {
+                jdbcTemplate.update("update COR_USER set C_IMAGE = null where C_USERNAME = ?", username);
+                migrated++;
+            }
+        }
+        return migrated;
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * openwms.org, the Open Warehouse Management System.
+ * Copyright (C) 2014 Heiko Scherrer
+ *
+ * This file is part of openwms.org.
+ *
+ * openwms.org is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as 
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * openwms.org is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this software. If not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.openwms.core.uaa;
+
+import java.io.InputStream;
+import java.util.Optional;
+
+/**
+ * An UserImageService stores and provides the images of {@link User}s. Images are kept in a {@link BlobStore}, apart from the {@link User}
+ * entity, and are transferred as streams. For each image a thumbnail is created in the background.
+ *
+ * @author <a href="mailto:scherrer@openwms.org">Heiko Scherrer</a>
+ * @version 1.0
+ * @since 1.1
+ */
+public interface UserImageService {
+
+    /**
+     * Store the image of the {@link User} with the technical key {@code id}, an existing image is replaced. The stream is not closed.
+     *
+     * @param id The technical key of the {@link User}
+     * @param image The image content
+     * @param contentType The media type of the image
+     * @return The description of the stored image
+     */
+    BlobInfo storeImage(Long id, InputStream image, String contentType);
+
+    /**
+     * Find the description of the image of the {@link User} with the technical key {@code id}.
+     *
+     * @param id The technical key of the {@link User}
+     * @param thumbnail Whether the thumbnail or the original image is requested
+     * @return The description or an empty Optional if no image exists (yet)
+     */
+    Optional<BlobInfo> findImage(Long id, boolean thumbnail);
+
+    /**
+     * Open the image described by {@code info}, the caller has to close the stream.
+     *
+     * @param info The description returned from {@link #findImage(Long, boolean)}
+     * @return The image content or an empty Optional if the image has been replaced or removed since {@code info} was found
+     */
+    Optional<InputStream> openImage(BlobInfo info);
+
+    /**
+     * Remove the image and the thumbnail of the {@link User} with the technical key {@code id}.
+     *
+     * @param id The technical key of the {@link User}
+     */
+    void removeImages(Long id);
+}
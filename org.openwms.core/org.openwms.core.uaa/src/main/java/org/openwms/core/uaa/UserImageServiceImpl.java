@@ -0,0 +1,202 @@
+/*
+ * openwms.org, the Open Warehouse Management System.
+ * Copyright (C) 2014 Heiko Scherrer
+ *
+ * This file is part of openwms.org.
+ *
+ * openwms.org is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as 
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * openwms.org is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this software. If not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.openwms.core.uaa;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.NoSuchFileException;
+import java.util.Optional;
+
+import org.ameba.annotation.TxService;
+import org.ameba.exception.NotFoundException;
+import org.ameba.exception.ServiceLayerException;
+import org.ameba.i18n.Translator;
+import org.openwms.core.exception.ExceptionCodes;
+import org.openwms.core.http.HttpBusinessException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.Assert;
+
+/**
+ * An UserImageServiceImpl keeps the images of {@link User}s in the {@link BlobStore}. Storing an image does neither touch the {@link User}
+ * entity nor fire an {@code UserChangedEvent}, because no cached {@link User} data is affected.
+ * <p>
+ * A thumbnail is stored with a key that contains the etag of its original image. So a thumbnail is never served for another image than
+ * the one it has been created from, even if the image is replaced while the thumbnail is created.
+ * </p>
+ *
+ * @author <a href="mailto:scherrer@openwms.org">Heiko Scherrer</a>
+ * @version 1.0
+ * @since 1.1
+ */
+@TxService
+class UserImageServiceImpl implements UserImageService {
+
+    private static final String KEY_PREFIX = "user-";
+    private static final String THUMBNAIL_SUFFIX = "-thumbnail-";
+    @Autowired
+    private UserRepository repository;
+    @Autowired
+    private BlobStore blobStore;
+    @Autowired
+    private ImageThumbnailer thumbnailer;
+    @Autowired
+    private Translator translator;
+    @Value("${openwms.core.uaa.images.max-size:5242880}")
+    private long maxSize = 5242880;
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws NotFoundException when no User with {@code id} exists
+     * @throws HttpBusinessException with {@code 413 Payload Too Large} if the image exceeds the maximum size
+     * @throws ServiceLayerException if the image could not be stored
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BlobInfo storeImage(Long id, InputStream image, String contentType) {
+        Assert.notNull(image, "Image must not be null");
+        // Only the existence check needs the database, no connection is held while the image is uploaded
+        assertExists(id);
+        Optional<BlobInfo> former = blobStore.info(keyOf(id));
+        BlobInfo info;
+        try {
+            info = blobStore.write(keyOf(id), new BoundedInputStream(image, maxSize),
+                    contentType == null ? "application/octet-stream" : contentType);
+        } catch (SizeExceededException see) {
+            throw new HttpBusinessException(see.getMessage(), HttpStatus.PAYLOAD_TOO_LARGE);
+        } catch (IOException ioe) {
+            throw new ServiceLayerException(String.format("Could not store image of User with id [%s]: %s", id, ioe.getMessage()));
+        }
+        if (former.isPresent() && !former.get().getEtag().equals(info.getEtag())) {
+            blobStore.delete(thumbnailKeyOf(former.get()));
+        }
+        thumbnailer.submit(info, thumbnailKeyOf(info));
+        return info;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Optional<BlobInfo> findImage(Long id, boolean thumbnail) {
+        Assert.notNull(id, "Id must not be null");
+        Optional<BlobInfo> image = blobStore.info(keyOf(id));
+        return thumbnail ? image.flatMap(i -> blobStore.info(thumbnailKeyOf(i))) : image;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<InputStream> openImage(BlobInfo info) {
+        try {
+            return Optional.of(blobStore.read(info));
+        } catch (NoSuchFileException nsfe) {
+            return Optional.empty();
+        } catch (IOException ioe) {
+            throw new UncheckedIOException(ioe);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void removeImages(Long id) {
+        Assert.notNull(id, "Id must not be null");
+        Optional<BlobInfo> image = blobStore.info(keyOf(id));
+        if (image.isPresent()) {
+            blobStore.delete(thumbnailKeyOf(image.get()));
+            blobStore.delete(keyOf(id));
+        }
+    }
+
+    private void assertExists(Long id) {
+        if (id == null || !repository.exists(id)) {
+            throw new NotFoundException(translator.translate(ExceptionCodes.ENTITY_NOT_EXIST, id), ExceptionCodes.ENTITY_NOT_EXIST);
+        }
+    }
+
+    private static String keyOf(Long id) {
+        return KEY_PREFIX + id;
+    }
+
+    static String thumbnailKeyOf(BlobInfo image) {
+        return image.getKey() + THUMBNAIL_SUFFIX + image.getEtag();
+    }
+
+    /**
+     * A BoundedInputStream fails as soon as more than the allowed number of bytes have been read.
+     */
+    private static final class BoundedInputStream extends FilterInputStream {
+
+        private final long limit;
+        private long count;
+
+        BoundedInputStream(InputStream in, long limit) {
+            super(in);
+            this.limit = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                count(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count(n);
+            }
+            return n;
+        }
+
+        private void count(int n) throws IOException {
+            count += n;
+            if (count > limit) {
+                throw new SizeExceededException("Image exceeds the maximum size of " + limit + " bytes");
+            }
+        }
+    }
+
+    /**
+     * A SizeExceededException is thrown by the {@link BoundedInputStream} to distinguish an oversized image from a failure of the store.
+     */
+    private static final class SizeExceededException extends IOException {
+
+        SizeExceededException(String message) {
+            super(message);
+        }
+    }
+}
@@ -23,7 +23,14 @@ package org.openwms.core.uaa;
 
 import java.util.Optional;
 
+import javax.persistence.QueryHint;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
 /**
  * An UserRepository offers functionality regarding {@link User} entity classes.
@@ -35,8 +42,27 @@ import org.springframework.data.jpa.repository.JpaRepository;
  */
 interface UserRepository extends JpaRepository<User, Long> {
 
+    /**
+     * Find an {@link User} by his unique username. The {@link Role}s and their {@link Grant}s are fetched with the same query.
+     *
+     * @param username The username
+     * @return The {@link User}
+     */
+    @EntityGraph(User.GRAPH_ROLES_GRANTS)
     Optional<User> findByUsername(String username);
 
+    /**
+     * Find the persisted username and credentials of an {@link User}. Pending changes are not flushed before, so the values are the ones
+     * before a rename or a change of the credentials.
+     *
+     * @param pk The technical key of the User
+     * @return The persisted values or {@literal null}
+     */
+    @Query("select new org.openwms.core.uaa.PersistedCredentials(u.username, u.persistedPassword, u.enabled, u.locked, u.expirationDate) "
+            + "from User u where u.pk = ?1")
+    @QueryHints(@QueryHint(name = "org.hibernate.flushMode", value = "COMMIT"))
+    PersistedCredentials findPersistedCredentials(Long pk);
+
     /**
      * Find an {@link User} by his username and password.
      *
@@ -46,4 +72,15 @@ interface UserRepository extends JpaRepository<User, Long> {
      */
     Optional<User> findByUsernameAndPersistedPassword(String username, String persistedPassword);
 
-}
\ No newline at end of file
+    /**
+     * Find a page of {@link UserSummary} projections. Only the listed columns are selected, no entities are loaded.
+     *
+     * @param pageable Page and sort order, sort properties refer to {@link User} attributes
+     * @return The page of projections
+     */
+    @Query(value = "select new org.openwms.core.uaa.UserSummary(u.pk, u.username, u.fullname, u.extern, u.locked, u.enabled, "
+            + "u.lastPasswordChange, u.expirationDate, u.userDetails.description, u.userDetails.comment, u.userDetails.phoneNo, "
+            + "u.userDetails.skypeName, u.userDetails.office, u.userDetails.department, u.userDetails.sex) from User u",
+            countQuery = "select count(u) from User u")
+    Page<UserSummary> findAllSummaries(Pageable pageable);
+}
@@ -27,6 +27,8 @@ import java.util.Optional;
 import org.ameba.integration.FindOperations;
 import org.ameba.integration.SaveOperations;
 import org.openwms.core.configuration.UserPreference;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 
 /**
  * An UserService offers functionality according to the handling with {@link User}s.
@@ -50,7 +52,9 @@ public interface UserService extends FindOperations<User, Long>, SaveOperations<
      *
      * @param id Id of the {@link User}
      * @param image Image to be stored
+     * @deprecated Images are kept apart from the {@link User}, use {@link UserImageService#storeImage(Long, java.io.InputStream, String)}
      */
+    @Deprecated
     void uploadImageFile(Long id, byte[] image);
 
     /**
@@ -81,11 +85,20 @@ public interface UserService extends FindOperations<User, Long>, SaveOperations<
     User create(User user);
 
     /**
+     * Find an {@link User} by his unique {@code username}, the {@link Role}s and {@link Grant}s of the {@link User} are loaded as well.
      *
-     * @param username
-     * @return
+     * @param username The username
+     * @return The {@link User} or an empty Optional if not found
      */
     Optional<User> findByUsername(String username);
 
     void remove(String username);
+
+    /**
+     * Find a page of {@link UserSummary}s, intended for listings. Neither images nor passwords nor {@link Role}s are loaded.
+     *
+     * @param pageable Page and sort order
+     * @return The page of {@link UserSummary}s
+     */
+    Page<UserSummary> findAllSummaries(Pageable pageable);
 }
\ No newline at end of file
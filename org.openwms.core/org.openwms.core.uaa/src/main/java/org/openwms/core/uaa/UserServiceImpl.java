@@ -23,6 +23,8 @@ package org.openwms.core.uaa;
 
 import javax.persistence.EntityNotFoundException;
 import javax.validation.constraints.NotNull;
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
@@ -33,18 +35,23 @@ import org.ameba.annotation.TxService;
 import org.ameba.exception.NotFoundException;
 import org.ameba.exception.ServiceLayerException;
 import org.ameba.i18n.Translator;
-import org.openwms.core.annotation.FireAfterTransaction;
 import org.openwms.core.configuration.ConfigurationService;
 import org.openwms.core.configuration.UserPreference;
+import org.openwms.core.event.AfterCommitEventPublisherImpl;
+import org.openwms.core.event.EventPublisher;
+import org.openwms.core.event.RootApplicationEvent;
 import org.openwms.core.event.UserChangedEvent;
 import org.openwms.core.exception.ExceptionCodes;
 import org.openwms.core.exception.InvalidPasswordException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.Assert;
 import org.springframework.util.StringUtils;
@@ -72,9 +79,14 @@ class UserServiceImpl implements UserService {
     @Autowired
     private ConfigurationService confSrv;
     @Autowired
-    private PasswordEncoder enc;
-    @Autowired
     private Translator translator;
+    @Autowired
+    private PasswordPolicy passwordPolicy;
+    @Autowired
+    private UserImageService imageService;
+    @Autowired
+    @Qualifier(AfterCommitEventPublisherImpl.COMPONENT_NAME)
+    private EventPublisher<RootApplicationEvent> publisher;
     @Value("${system.user}")
     private String systemUsername;
     @Value("${system.password}")
@@ -82,32 +94,40 @@ class UserServiceImpl implements UserService {
 
     /**
      * {@inheritDoc}
+     * <p>
+     * Delegates to the {@link UserImageService}, without a transaction.
      *
-     * @throws EntityNotFoundException when no User with {@code id} found
+     * @throws NotFoundException when no User with {@code id} found
      */
     @Override
-    @FireAfterTransaction(events = {UserChangedEvent.class})
+    @Deprecated
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void uploadImageFile(Long id, byte[] image) {
-        User user = repository.findOne(id);
-        if (user == null) {
-            throw new NotFoundException(translator.translate(ExceptionCodes.ENTITY_NOT_EXIST, id), ExceptionCodes.ENTITY_NOT_EXIST);
-        }
-        user.getUserDetails().setImage(image);
-        repository.save(user);
+        imageService.storeImage(id, new ByteArrayInputStream(image == null ? new byte[0] : image), null);
     }
 
     /**
      * {@inheritDoc}
      * <p>
-     * Triggers <tt>UserChangedEvent</tt> after completion.
+     * Triggers <tt>UserChangedEvent</tt> after completion, on a rename for the former username as well. The event is flagged as a change
+     * of the credentials on a rename or when the password, the enabled or locked flag or the expiration date have changed.
      *
      * @throws ServiceLayerException if the <tt>entity</tt> argument is <code>null</code>
      */
     @Override
-    @FireAfterTransaction(events = {UserChangedEvent.class})
     public User save(User entity) {
         Assert.notNull(entity, ExceptionCodes.USER_SAVE_NOT_BE_NULL);
-        return repository.save(entity);
+        PersistedCredentials previous = entity.isNew() ? null : repository.findPersistedCredentials(entity.getPk());
+        boolean credentialsChanged = previous != null && previous.differFrom(entity);
+        User saved = repository.save(entity);
+        List<String> usernames = new ArrayList<>(2);
+        if (previous != null && !previous.getUsername().equals(saved.getUsername())) {
+            usernames.add(previous.getUsername());
+            credentialsChanged = true;
+        }
+        usernames.add(saved.getUsername());
+        publisher.publish(new UserChangedEvent(this, usernames, credentialsChanged));
+        return saved;
     }
 
     /**
@@ -143,17 +163,28 @@ class UserServiceImpl implements UserService {
     }
 
     /**
-     * @param username
-     * @return
+     * {@inheritDoc}
+     * <p>
+     * Marked as <code>readOnly</code> transactional method. Roles and Grants are fetched with the same query.
      */
     @Override
+    @Transactional(readOnly = true)
     public Optional<User> findByUsername(String username) {
-        return null;
+        Assert.hasText(username, "Username must not be empty");
+        return repository.findByUsername(username);
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Triggers <tt>UserChangedEvent</tt> with changed credentials after completion.
+     */
     @Override
     public void remove(String username) {
-        repository.delete(repository.findByUsername(username).orElseThrow(() -> new EntityNotFoundException(translator.translate(ExceptionCodes.USER_NOT_EXIST, username))));
+        User user = repository.findByUsername(username).orElseThrow(() -> new EntityNotFoundException(translator.translate(ExceptionCodes.USER_NOT_EXIST, username)));
+        repository.delete(user);
+        imageService.removeImages(user.getPk());
+        publisher.publish(UserChangedEvent.credentialsOf(this, username));
     }
 
     /**
@@ -164,14 +195,14 @@ class UserServiceImpl implements UserService {
      * @throws EntityNotFoundException if {@link User} not found
      */
     @Override
-    @FireAfterTransaction(events = {UserChangedEvent.class})
     public void changeUserPassword(@NotNull UserPassword userPassword) {
 
         User entity = repository.findByUsername(userPassword.getUser().getUsername()).orElseThrow(() -> new NotFoundException(translator.translate(ExceptionCodes.USER_NOT_EXIST, userPassword.getUser()
                 .getUsername()), ExceptionCodes.USER_NOT_EXIST));
         try {
-            entity.changePassword(enc.encode(userPassword.getPassword()), userPassword.getPassword(), enc);
+            passwordPolicy.changePassword(entity, userPassword.getPassword());
             repository.save(entity);
+            publisher.publish(UserChangedEvent.credentialsOf(this, entity.getUsername()));
         } catch (InvalidPasswordException ipe) {
             LOGGER.error(ipe.getMessage());
             throw new ServiceLayerException(translator.translate(ExceptionCodes.USER_PASSWORD_INVALID, userPassword.getUser()
@@ -186,7 +217,6 @@ class UserServiceImpl implements UserService {
      * match the password rules</li> </ul>
      */
     @Override
-    @FireAfterTransaction(events = {UserChangedEvent.class})
     public User saveUserProfile(User user, UserPassword userPassword, UserPreference... prefs) {
         if (null == user) {
             throw new ServiceLayerException(translator.translate(ExceptionCodes.USER_PROFILE_SAVE_NOT_BE_NULL), ExceptionCodes.USER_PROFILE_SAVE_NOT_BE_NULL);
@@ -194,7 +224,7 @@ class UserServiceImpl implements UserService {
 
         if (userPassword != null && StringUtils.hasText(userPassword.getPassword())) {
             try {
-                user.changePassword(enc.encode(userPassword.getPassword()), userPassword.getPassword(), enc);
+                passwordPolicy.changePassword(user, userPassword.getPassword());
             } catch (InvalidPasswordException ipe) {
                 LOGGER.error(ipe.getMessage());
                 throw new ServiceLayerException(translator.translate(ExceptionCodes.USER_PASSWORD_INVALID,
@@ -218,6 +248,18 @@ class UserServiceImpl implements UserService {
         return users == null ? Collections.emptyList() : users;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Marked as <code>readOnly</code> transactional method.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Page<UserSummary> findAllSummaries(Pageable pageable) {
+        Assert.notNull(pageable, "Pageable must not be null");
+        return repository.findAllSummaries(pageable);
+    }
+
     /**
      * Find an entity instance by the given technical key {@code id},
      *
@@ -0,0 +1,211 @@
+/*
+ * openwms.org, the Open Warehouse Management System.
+ * Copyright (C) 2014 Heiko Scherrer
+ *
+ * This file is part of openwms.org.
+ *
+ * openwms.org is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as 
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * openwms.org is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this software. If not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.openwms.core.uaa;
+
+import java.io.Serializable;
+import java.util.Date;
+
+/**
+ * An UserSummary is a read-only projection of an {@link User} for listings. It carries the plain attributes of the {@link User} and its
+ * {@link UserDetails} but neither the image, the password nor any {@link Role}s, so it is selected without loading entities or LOB
+ * columns.
+ *
+ * @author <a href="mailto:scherrer@openwms.org">Heiko Scherrer</a>
+ * @version 1.0
+ * @since 1.1
+ */
+public final class UserSummary implements Serializable {
+
+    private final Long pk;
+    private final String username;
+    private final String fullname;
+    private final boolean extern;
+    private final boolean locked;
+    private final boolean enabled;
+    private final Date lastPasswordChange;
+    private final Date expirationDate;
+    private final String description;
+    private final String comment;
+    private final String phoneNo;
+    private final String skypeName;
+    private final String office;
+    private final String department;
+    private final UserDetails.SEX sex;
+
+    /**
+     * Create a new UserSummary. Called from the JPQL constructor expression in {@link UserRepository#findAllSummaries}.
+     */
+    public UserSummary(Long pk, String username, String fullname, boolean extern, boolean locked, boolean enabled,
+            Date lastPasswordChange, Date expirationDate, String description, String comment, String phoneNo, String skypeName,
+            String office, String department, UserDetails.SEX sex) {
+        this.pk = pk;
+        this.username = username;
+        this.fullname = fullname;
+        this.extern = extern;
+        this.locked = locked;
+        this.enabled = enabled;
+        this.lastPasswordChange = lastPasswordChange;
+        this.expirationDate = expirationDate;
+        this.description = description;
+        this.comment = comment;
+        this.phoneNo = phoneNo;
+        this.skypeName = skypeName;
+        this.office = office;
+        this.department = department;
+        this.sex = sex;
+    }
+
+    /**
+     * Get the pk.
+     *
+     * @return the pk.
+     */
+    public Long getPk() {
+        return pk;
+    }
+
+    /**
+     * Get the username.
+     *
+     * @return the username.
+     */
+    public String getUsername() {
+        return username;
+    }
+
+    /**
+     * Get the fullname.
+     *
+     * @return the fullname.
+     */
+    public String getFullname() {
+        return fullname;
+    }
+
+    /**
+     * Get the extern.
+     *
+     * @return the extern.
+     */
+    public boolean isExtern() {
+        return extern;
+    }
+
+    /**
+     * Get the locked.
+     *
+     * @return the locked.
+     */
+    public boolean isLocked() {
+        return locked;
+    }
+
+    /**
+     * Get the enabled.
+     *
+     * @return the enabled.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Get the lastPasswordChange.
+     *
+     * @return the lastPasswordChange.
+     */
+    public Date getLastPasswordChange() {
+        return lastPasswordChange;
+    }
+
+    /**
+     * Get the expirationDate.
+     *
+     * @return the expirationDate.
+     */
+    public Date getExpirationDate() {
+        return expirationDate;
+    }
+
+    /**
+     * Get the description.
+     *
+     * @return the description.
+     */
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * Get the comment.
+     *
+     * @return the comment.
+     */
+    public String getComment() {
+        return comment;
+    }
+
+    /**
+     * Get the phoneNo.
+     *
+     * @return the phoneNo.
+     */
+    public String getPhoneNo() {
+        return phoneNo;
+    }
+
+    /**
+     * Get the skypeName.
+     *
+     * @return the skypeName.
+     */
+    public String getSkypeName() {
+        return skypeName;
+    }
+
+    /**
+     * Get the office.
+     *
+     * @return the office.
+     */
+    public String getOffice() {
+        return office;
+    }
+
+    /**
+     * Get the department.
+     *
+     * @return the department.
+     */
+    public String getDepartment() {
+        return department;
+    }
+
+    /**
+     * Get the sex.
+     *
+     * @return the sex.
+     */
+    public UserDetails.SEX getSex() {
+        return sex;
+    }
+}
@@ -21,9 +21,9 @@
  */
 package org.openwms.core.uaa;
 
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.HashSet;
-import java.util.stream.Collectors;
 
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -31,6 +31,10 @@ import org.springframework.util.Assert;
 
 /**
  * An UserWrapper is used as an adapter between {@link Role}s, {@link SecurityObject}s and Spring's {@link GrantedAuthority} objects.
+ * <p>
+ * The authorities are computed once when the wrapper is created and stored as a {@link BitSet} of the IDs assigned by a
+ * {@link GrantRegistry}, hence {@link #hasAuthority(String)} is a single bit test.
+ * </p>
  *
  * @author <a href="mailto:russelltina@users.sourceforge.net">Tina Russell</a>
  * @version 0.2
@@ -42,18 +46,69 @@ import org.springframework.util.Assert;
  */
 public class UserWrapper implements UserDetails, UserHolder {
 
+    /** Used without an injected registry. It does not receive change events, hence it does not keep any bits of {@link Role}s. */
+    private static final GrantRegistry FALLBACK_REGISTRY = new GrantRegistry(false);
     private User user;
     private Collection<GrantedAuthority> authorities = null;
+    private transient GrantRegistry registry;
+    private BitSet grantBits;
 
     /**
-     * Create a new UserWrapper.
+     * Create a new UserWrapper with a {@link GrantRegistry} shared by all wrappers that are created without one.
      *
      * @param user The User to wrap
      */
     public UserWrapper(User user) {
+        this(user, FALLBACK_REGISTRY);
+    }
+
+    /**
+     * Create a new UserWrapper.
+     *
+     * @param user The User to wrap
+     * @param registry The GrantRegistry to resolve IDs of authorities with
+     */
+    UserWrapper(User user, GrantRegistry registry) {
         Assert.notNull(user, "Not allowed to create an UserWrapper with null argument");
+        Assert.notNull(registry, "Not allowed to create an UserWrapper without a GrantRegistry");
         this.user = user;
-        this.user.getRoles().size();
+        this.registry = registry;
+        this.grantBits = registry.authoritiesOf(user);
+    }
+
+    /**
+     * Check whether the User has been granted a particular authority.
+     *
+     * @param authority The name of the authority
+     * @return {@literal true} if granted
+     */
+    public boolean hasAuthority(String authority) {
+        if (registry == null) {
+            // Deserialized, no registry at hand
+            return getAuthorities().stream().anyMatch(a -> a.getAuthority().equals(authority));
+        }
+        int id = registry.idOf(authority);
+        return (id >= 0 && grantBits.get(id)) || isDefaultGrant(authority);
+    }
+
+    /**
+     * Check whether the User has been granted the authority with the ID.
+     *
+     * @param grantId The ID assigned by the {@link GrantRegistry}
+     * @return {@literal true} if granted
+     */
+    boolean hasAuthority(int grantId) {
+        return grantBits.get(grantId);
+    }
+
+    /**
+     * Subclasses can define grants that are always available, see {@link #addDefaultGrants(Collection)}.
+     *
+     * @param authority The name of the authority
+     * @return {@literal true} if the authority is one of the default grants
+     */
+    protected boolean isDefaultGrant(String authority) {
+        return false;
     }
 
     /**
@@ -80,9 +135,16 @@ public class UserWrapper implements UserDetails, UserHolder {
     @Override
     public Collection<GrantedAuthority> getAuthorities() {
         if (null == authorities) {
-            authorities = new HashSet<>();
-            authorities.addAll(user.getGrants().stream().map(SecurityObjectAuthority::new).collect(Collectors.toList()));
-            addDefaultGrants(authorities);
+            Collection<GrantedAuthority> result = new HashSet<>(grantBits.cardinality() + 1);
+            if (registry == null) {
+                user.getGrants().forEach(g -> result.add(new SecurityObjectAuthority(g)));
+            } else {
+                for (int id = grantBits.nextSetBit(0); id >= 0; id = grantBits.nextSetBit(id + 1)) {
+                    result.add(registry.authorityOf(id));
+                }
+            }
+            addDefaultGrants(result);
+            authorities = result;
         }
         return authorities;
     }
@@ -33,7 +33,9 @@ import org.ameba.http.Response;
 import org.ameba.mapping.BeanMapper;
 import org.openwms.core.exception.ExceptionCodes;
 import org.openwms.core.http.AbstractWebController;
+import org.openwms.core.http.ConditionalResponses;
 import org.openwms.core.http.HttpBusinessException;
+import org.openwms.core.http.ResourceVersions;
 import org.openwms.core.uaa.Role;
 import org.openwms.core.uaa.RoleService;
 import org.openwms.core.uaa.UAAConstants;
@@ -47,6 +49,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.ResponseStatus;
@@ -67,18 +70,24 @@ public class RolesController extends AbstractWebController {
     private RoleService service;
     @Autowired
     private BeanMapper m;
+    @Autowired
+    private ConditionalResponses responses;
 
     /**
      * Documented here: https://openwms.atlassian.net/wiki/x/EYAWAQ
      *
-     * @return JSON response
+     * @param ifNoneMatch The ETag of the representation the client has, optional
+     * @return JSON response or {@code 304 Not Modified} if no <tt>Role</tt> has been changed since
      * @status Reviewed [scherrer]
      */
     @GetMapping
     @ResponseBody
-    public ResponseEntity<Response<RoleVO>> findAllRoles() {
-        List<RoleVO> roles = m.map(new ArrayList<>(service.findAll()), RoleVO.class);
-        return buildResponse(HttpStatus.OK, translate(Messages.SERVER_OK), Messages.SERVER_OK, roles.toArray(new RoleVO[roles.size()]));
+    public ResponseEntity<?> findAllRoles(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return responses.respond(ResourceVersions.ROLES, null, ifNoneMatch, () -> {
+            List<RoleVO> roles = m.map(new ArrayList<>(service.findAll()), RoleVO.class);
+            return buildResponse(HttpStatus.OK, translate(Messages.SERVER_OK), Messages.SERVER_OK, roles.toArray(new RoleVO[roles.size()]))
+                    .getBody();
+        });
     }
 
     /**
@@ -0,0 +1,69 @@
+/*
+ * openwms.org, the Open Warehouse Management System.
+ * Copyright (C) 2014 Heiko Scherrer
+ *
+ * This file is part of openwms.org.
+ *
+ * openwms.org is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as 
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * openwms.org is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this software. If not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.openwms.core.uaa.api;
+
+import org.openwms.core.uaa.UserSummary;
+
+/**
+ * An UserVOMapper maps {@link UserSummary} projections into {@link UserVO}s. The mapping is written by hand, no reflection is involved
+ * for each mapped instance.
+ *
+ * @author <a href="mailto:scherrer@openwms.org">Heiko Scherrer</a>
+ * @version 1.0
+ * @since 1.1
+ */
+final class UserVOMapper {
+
+    private UserVOMapper() {
+    }
+
+    /**
+     * Map an {@link UserSummary} into a new {@link UserVO}. The password is not set and the image is left empty.
+     *
+     * @param summary The projection to map
+     * @return The new instance
+     */
+    static UserVO map(UserSummary summary) {
+        UserVO vo = new UserVO();
+        vo.setId(summary.getPk());
+        vo.setUsername(summary.getUsername());
+        vo.setFullname(summary.getFullname() == null ? "" : summary.getFullname());
+        vo.setExtern(summary.isExtern());
+        vo.setLocked(summary.isLocked());
+        vo.setEnabled(summary.isEnabled());
+        vo.setLastPasswordChange(summary.getLastPasswordChange());
+        vo.setExpirationDate(summary.getExpirationDate());
+        UserDetailsVO details = vo.getUserDetails();
+        details.setDescription(nonNull(summary.getDescription()));
+        details.setComment(nonNull(summary.getComment()));
+        details.setPhoneNo(nonNull(summary.getPhoneNo()));
+        details.setSkypeName(nonNull(summary.getSkypeName()));
+        details.setOffice(nonNull(summary.getOffice()));
+        details.setDepartment(nonNull(summary.getDepartment()));
+        details.setSex(summary.getSex() == null ? null : summary.getSex().name());
+        return vo;
+    }
+
+    private static String nonNull(String s) {
+        return s == null ? "" : s;
+    }
+}
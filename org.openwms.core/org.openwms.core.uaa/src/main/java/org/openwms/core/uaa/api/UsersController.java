@@ -25,22 +25,36 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.List;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
 
 import org.ameba.Messages;
 import org.ameba.http.Response;
 import org.ameba.mapping.BeanMapper;
 import org.openwms.core.http.AbstractWebController;
+import org.openwms.core.http.ConditionalResponses;
+import org.openwms.core.http.ResourceVersions;
+import org.openwms.core.uaa.BlobInfo;
 import org.openwms.core.uaa.UAAConstants;
 import org.openwms.core.uaa.User;
+import org.openwms.core.uaa.UserImageService;
 import org.openwms.core.uaa.UserPassword;
 import org.openwms.core.uaa.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
@@ -48,8 +62,10 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
 
 /**
  * An UsersController represents a RESTful access to <tt>User</tt>s. It is transactional by the means it is the outer application service
@@ -65,19 +81,54 @@ public class UsersController extends AbstractWebController {
     private UserService service;
     @Autowired
     private BeanMapper m;
+    @Autowired
+    private UserImageService imageService;
+    @Autowired
+    private ConditionalResponses responses;
+    /** Maximum number of {@code User}s per page. */
+    static final int MAX_PAGE_SIZE = 500;
+    /** Properties the {@code User} listing can be sorted by. */
+    static final Set<String> SORTABLE = new HashSet<>(Arrays.asList("username", "fullname", "enabled", "locked", "extern",
+            "expirationDate", "lastPasswordChange"));
+    /** Media types accepted as image of an {@code User}, scriptable types like SVG are not. */
+    static final Set<String> IMAGE_TYPES = new HashSet<>(Arrays.asList(MediaType.IMAGE_PNG_VALUE, MediaType.IMAGE_JPEG_VALUE,
+            MediaType.IMAGE_GIF_VALUE, "image/bmp", "image/webp"));
 
     /**
-     * This method returns all existing <tt>User</tt>s. <p> <p> <table> <tr> <td>URI</td> <td>/users</td> </tr> <tr> <td>Verb</td>
-     * <td>GET</td> </tr> <tr> <td>Auth</td> <td>YES</td> </tr> <tr> <td>Header</td> <td></td> </tr> </table> </p> <p> The response stores
-     * <tt>User</tt> instances JSON encoded. It contains a collection of <tt>User</tt> objects. </p>
+     * This method returns a page of existing <tt>User</tt>s. <p> <p> <table> <tr> <td>URI</td> <td>/users?page=0&amp;size=50&amp;
+     * sort=username,asc</td> </tr> <tr> <td>Verb</td> <td>GET</td> </tr> <tr> <td>Auth</td> <td>YES</td> </tr> <tr> <td>Header</td>
+     * <td></td> </tr> </table> </p> <p> The response stores a page of <tt>User</tt> instances JSON encoded, together with the total
+     * number of elements and pages. Images and passwords are not part of the response. At most {@value #MAX_PAGE_SIZE} <tt>User</tt>s are
+     * returned per page, sort properties that are not listed in {@link #SORTABLE} are ignored. Without any of them the page is sorted by
+     * username, the technical key is always appended so that the order is stable across pages. </p>
+     *
+     * <p> The response carries an ETag per page. If the client sends it back with {@code If-None-Match} and no <tt>User</tt> has been
+     * changed in the meantime, {@code 304 Not Modified} is returned without reading the <tt>User</tt>s. </p>
      *
+     * @param pageable Page and sort order, defaults to the first 50 <tt>User</tt>s sorted by username
+     * @param ifNoneMatch The ETag of the page the client has, optional
      * @return JSON response
      */
     @GetMapping
     @ResponseBody
-    public ResponseEntity<Response<UserVO>> findAllUsers() {
-        List<UserVO> users = m.map(new ArrayList<>(service.findAll()), UserVO.class);
-        return buildOKResponse(users.toArray(new UserVO[users.size()]));
+    public ResponseEntity<?> findAllUsers(@PageableDefault(size = 50, sort = "username") Pageable pageable,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        Pageable page = restrict(pageable);
+        return responses.respond(ResourceVersions.USERS, page, ifNoneMatch,
+                () -> service.findAllSummaries(page).map(UserVOMapper::map));
+    }
+
+    static Pageable restrict(Pageable pageable) {
+        Sort sort = null;
+        if (pageable.getSort() != null) {
+            for (Sort.Order order : pageable.getSort()) {
+                if (SORTABLE.contains(order.getProperty())) {
+                    sort = sort == null ? new Sort(order) : sort.and(new Sort(order));
+                }
+            }
+        }
+        sort = (sort == null ? new Sort("username") : sort).and(new Sort("pk"));
+        return new PageRequest(pageable.getPageNumber(), Math.min(pageable.getPageSize(), MAX_PAGE_SIZE), sort);
     }
 
     /**
@@ -133,19 +184,110 @@ public class UsersController extends AbstractWebController {
     }
 
     /**
-     * FIXME [scherrer] Comment this
+     * Store the image of an <tt>User</tt>. The request body is streamed into the image store, it is not buffered in memory. A thumbnail is
+     * created in the background. Only the media types listed in {@link #IMAGE_TYPES} are accepted, others are answered with {@code 415
+     * Unsupported Media Type}. An image that exceeds the maximum size is answered with {@code 413 Payload Too Large}.
      *
-     * @param image The image to save
      * @param id The users persisted id
+     * @param request The request carrying the image as body
      * @return An responseVO
+     * @throws IOException if the request body cannot be read
      */
     @PatchMapping(value = "/{id}")
     @ResponseBody
-    public ResponseEntity<Response<UserVO>> saveImage(@RequestBody @NotNull byte[] image, @PathVariable("id") @NotNull Long id) {
-        service.uploadImageFile(id, image);
+    public ResponseEntity<Response<UserVO>> saveImage(@PathVariable("id") @NotNull Long id, HttpServletRequest request) throws IOException {
+        String contentType = imageType(request.getContentType());
+        if (contentType == null) {
+            return new ResponseEntity<>(HttpStatus.UNSUPPORTED_MEDIA_TYPE);
+        }
+        imageService.storeImage(id, request.getInputStream(), contentType);
         return buildResponse(HttpStatus.OK, translate(Messages.SERVER_OK), Messages.SERVER_OK);
     }
 
+    /**
+     * Resolve the media type without parameters if it is an accepted image type.
+     *
+     * @param contentType The media type sent by the client
+     * @return The media type or {@literal null} if not accepted
+     */
+    static String imageType(String contentType) {
+        if (contentType == null) {
+            return null;
+        }
+        try {
+            MediaType mediaType = MediaType.parseMediaType(contentType);
+            String type = (mediaType.getType() + "/" + mediaType.getSubtype()).toLowerCase();
+            return IMAGE_TYPES.contains(type) ? type : null;
+        } catch (InvalidMediaTypeException imte) {
+            return null;
+        }
+    }
+
+    /**
+     * Stream the image of an <tt>User</tt>. The image is returned with an {@code ETag}, a request with a matching {@code If-None-Match}
+     * header is answered with {@code 304 Not Modified} and without body. Content sniffing is disabled, an image stored without an accepted
+     * media type is sent as {@code application/octet-stream}. If the image is replaced while it is read, the current one is sent.
+     *
+     * @param id The users persisted id
+     * @param request The request
+     * @param response The response to write the image to
+     * @throws IOException if the image cannot be written
+     */
+    @GetMapping(value = "/{id}/image")
+    public void getImage(@PathVariable("id") @NotNull Long id, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        writeImage(id, false, request, response);
+    }
+
+    /**
+     * Stream the thumbnail of the image of an <tt>User</tt>, with the same conditional handling as the image itself. As long as the
+     * thumbnail has not been created yet, {@code 404 Not Found} is returned.
+     *
+     * @param id The users persisted id
+     * @param request The request
+     * @param response The response to write the thumbnail to
+     * @throws IOException if the thumbnail cannot be written
+     */
+    @GetMapping(value = "/{id}/image/thumbnail")
+    public void getThumbnail(@PathVariable("id") @NotNull Long id, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        writeImage(id, true, request, response);
+    }
+
+    private void writeImage(Long id, boolean thumbnail, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Optional<BlobInfo> info = imageService.findImage(id, thumbnail);
+        if (!info.isPresent()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        response.setHeader("X-Content-Type-Options", "nosniff");
+        if (new ServletWebRequest(request, response).checkNotModified(etagOf(info.get()))) {
+            return;
+        }
+        Optional<InputStream> content = imageService.openImage(info.get());
+        if (!content.isPresent()) {
+            // Replaced meanwhile and the former content has just been removed, retry once with the current image
+            info = imageService.findImage(id, thumbnail);
+            content = info.flatMap(imageService::openImage);
+            if (!content.isPresent()) {
+                response.sendError(HttpServletResponse.SC_NOT_FOUND);
+                return;
+            }
+            response.setHeader(HttpHeaders.ETAG, etagOf(info.get()));
+        }
+        String contentType = imageType(info.get().getContentType());
+        response.setContentType(contentType == null ? MediaType.APPLICATION_OCTET_STREAM_VALUE : contentType);
+        response.setContentLengthLong(info.get().getLength());
+        try (InputStream in = content.get()) {
+            StreamUtils.copy(in, response.getOutputStream());
+        }
+    }
+
+    private static String etagOf(BlobInfo info) {
+        return "\"" + info.getEtag() + "\"";
+    }
+
     /**
      * FIXME [scherrer] Comment this
      *
@@ -181,13 +323,7 @@ public class UsersController extends AbstractWebController {
     }
 
     private User findByUsername(String pUsername) {
-        Collection<User> users = service.findAll();
-        for (User user : users) {
-            if (user.getUsername().equals(pUsername)) {
-                return user;
-            }
-        }
-        return null;
+        return service.findByUsername(pUsername).orElse(null);
     }
 
     // @RequestMapping(method = RequestMethod.PUT, produces =
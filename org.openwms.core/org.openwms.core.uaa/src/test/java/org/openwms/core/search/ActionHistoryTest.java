@@ -0,0 +1,154 @@
+/*
+ * openwms.org, the Open Warehouse Management System.
+ * Copyright (C) 2014 Heiko Scherrer
+ *
+ * This file is part of openwms.org.
+ *
+ * openwms.org is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as 
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * openwms.org is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this software. If not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.openwms.core.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.openwms.core.test.AbstractMockitoTests;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+
+/**
+ * An ActionHistoryTest.
+ *
+ * @author <a href="mailto:scherrer@openwms.org">Heiko Scherrer</a>
+ * @version 1.0
+ * @since 1.1
+ */
+public class ActionHistoryTest extends AbstractMockitoTests {
+
+    private static final String USER = "user";
+    @Mock
+    private ActionUsageRepository repository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    private ActionHistory history;
+
+    @Before
+    public void setUp() {
+        history = new ActionHistory(repository, transactionManager, 60000, 100, 10, 60000);
+    }
+
+    @After
+    public void onAfter() {
+        history.shutdown();
+    }
+
+    /**
+     * Weights are loaded once and increments are counted in memory before they are written.
+     */
+    @Test
+    public final void testIncrementWithoutWrite() {
+        when(repository.findWeights(USER)).thenReturn(Collections.singletonList(new Object[]{"users", 3L}));
+
+        assertThat(history.getWeights(USER)).containsEntry("users", 3);
+        history.increment(USER, "users");
+        history.increment(USER, "roles");
+
+        assertThat(history.getWeights(USER)).containsEntry("users", 4).containsEntry("roles", 1);
+        verify(repository, times(1)).findWeights(USER);
+        verify(repository, never()).save(anyListOf(ActionUsage.class));
+    }
+
+    /**
+     * Increments of the same Action are written as one record.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public final void testFlush() {
+        history.increment(USER, "users");
+        history.increment(USER, "users");
+
+        history.flush();
+
+        ArgumentCaptor<List> captor = ArgumentCaptor.forClass(List.class);
+        verify(repository).save(captor.capture());
+        List<ActionUsage> records = captor.getValue();
+        assertThat(records).hasSize(1);
+        assertThat(records.get(0).getAction()).isEqualTo("users");
+        assertThat(records.get(0).getIncrement()).isEqualTo(2);
+        assertThat(history.getPendingCount()).isEqualTo(0);
+    }
+
+    /**
+     * Increments that could not be written are kept for the next batch.
+     */
+    @Test
+    public final void testFlushFails() {
+        when(repository.save(anyListOf(ActionUsage.class))).thenThrow(new IllegalStateException("Database down"));
+        history.increment(USER, "users");
+
+        history.flush();
+
+        assertThat(history.getPendingCount()).isEqualTo(1);
+        assertThat(history.getWeights(USER)).containsEntry("users", 1);
+    }
+
+    /**
+     * All records of an User and an Action are replaced by one, unless other records have been deleted meanwhile.
+     */
+    @Test
+    public final void testCompact() {
+        TransactionStatus status = mock(TransactionStatus.class);
+        when(transactionManager.getTransaction(any(TransactionDefinition.class))).thenReturn(status);
+        when(repository.findFragmented()).thenReturn(Arrays.asList(new Object[]{USER, "users", 7L, 42L, 3L},
+                new Object[]{USER, "roles", 2L, 40L, 2L}));
+        when(repository.deleteUpTo(USER, "users", 42L)).thenReturn(3);
+        when(repository.deleteUpTo(USER, "roles", 40L)).thenReturn(0);
+
+        assertThat(history.compact()).isEqualTo(1);
+
+        ArgumentCaptor<ActionUsage> captor = ArgumentCaptor.forClass(ActionUsage.class);
+        verify(repository, times(1)).save(captor.capture());
+        assertThat(captor.getValue().getAction()).isEqualTo("users");
+        assertThat(captor.getValue().getIncrement()).isEqualTo(7);
+        verify(status, times(1)).setRollbackOnly();
+    }
+
+    /**
+     * A failing compaction is not propagated.
+     */
+    @Test
+    public final void testCompactFails() {
+        when(repository.findFragmented()).thenThrow(new IllegalStateException("Database down"));
+
+        assertThat(history.compact()).isEqualTo(0);
+        verify(repository, never()).save(any(ActionUsage.class));
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * openwms.org, the Open Warehouse Management System.
+ * Copyright (C) 2014 Heiko Scherrer
+ *
+ * This file is part of openwms.org.
+ *
+ * openwms.org is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as 
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * openwms.org is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this software. If not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.openwms.core.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * An ActionIndexTest.
+ *
+ * @author <a href="mailto:scherrer@openwms.org">Heiko Scherrer</a>
+ * @version 1.0
+ * @since 1.1
+ */
+public class ActionIndexTest {
+
+    private static Action action(String name, int weight, String... tags) {
+        Action.Builder builder = new Action.Builder(name);
+        for (String tag : tags) {
+            builder.withTag(new NounTag(tag));
+        }
+        Action result = builder.build();
+        result.setWeight(weight);
+        return result;
+    }
+
+    /**
+     * Words are found anywhere in the tag names, independent of the case.
+     */
+    @Test
+    public final void testSubstringMatch() {
+        Action users = action("users", 0, "User", "Management");
+        Action roles = action("roles", 0, "Role");
+        ActionIndex index = ActionIndex.of(Arrays.asList(users, roles));
+
+        assertThat(index.search(10, "SER")).containsExactly(users);
+        assertThat(index.search(10, "ole")).containsExactly(roles);
+        assertThat(index.search(10, "xyz")).isEmpty();
+    }
+
+    /**
+     * Like in {@link Action#rate(String...)} aliases are not matched and a blank word matches every Action with tags.
+     */
+    @Test
+    public final void testAliasAndBlankWords() {
+        Action users = action("users", 0);
+        Tag tag = new NounTag("User");
+        tag.getAliases().add("Benutzer");
+        users.getTags().add(tag);
+        Action untagged = action("untagged", 0);
+        ActionIndex index = ActionIndex.of(Arrays.asList(users, untagged));
+
+        assertThat(index.search(10, "benutz")).isEmpty();
+        assertThat(index.search(10, " ")).containsExactly(users);
+        assertThat(index.search(10, "", null)).containsExactly(users);
+    }
+
+    /**
+     * Actions matching more words come first, then the ones with the higher weight.
+     */
+    @Test
+    public final void testRanking() {
+        Action a = action("a", 1, "user", "list");
+        Action b = action("b", 5, "user");
+        Action c = action("c", 9, "user");
+        Action d = action("d", 0, "role");
+        ActionIndex index = ActionIndex.of(Arrays.asList(a, b, c, d));
+
+        assertThat(index.search(10, "user", "list")).containsExactly(a, c, b);
+        assertThat(index.search(2, "user", "list")).containsExactly(a, c);
+        assertThat(index.search(0, "user")).isEmpty();
+    }
+
+    /**
+     * The index returns the same rating as {@link Action#rate(String...)}.
+     */
+    @Test
+    public final void testSameAsRate() {
+        List<Action> actions = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            actions.add(action("action" + i, i % 7, "tag" + i, "group" + (i % 10)));
+        }
+        ActionIndex index = ActionIndex.of(actions);
+
+        List<Action> result = index.search(actions.size(), "group3", "tag13");
+        long expected = actions.stream().filter(a -> a.rate("group3", "tag13") > 0).count();
+        assertThat(result).hasSize((int) expected);
+        assertThat(result.get(0).rate("group3", "tag13")).isEqualTo(2);
+        for (int i = 1; i < result.size(); i++) {
+            assertThat(result.get(i - 1).rate("group3", "tag13")).isGreaterThanOrEqualTo(result.get(i).rate("group3", "tag13"));
+        }
+    }
+
+    /**
+     * The index finds exactly the Actions that {@link Action#rate(String...)} rates, in the order of their rating, also with aliases,
+     * blank words and Actions without tags.
+     */
+    @Test
+    public final void testEquivalentToRate() {
+        List<Action> actions = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            Action action = action("action" + i, i % 5);
+            if (i % 9 != 0) {
+                Tag tag = new NounTag(i % 11 == 0 ? " " : "Tag" + i);
+                tag.getAliases().add("alias" + (i % 4));
+                action.getTags().add(tag);
+            }
+            if (i % 4 == 0) {
+                action.getTags().add(new NounTag("Group" + (i % 6)));
+            }
+            actions.add(action);
+        }
+        ActionIndex index = ActionIndex.of(actions);
+        String[][] queries = { { "tag1" }, { "alias1" }, { "group", "TAG2" }, { "", "tag17" }, { " ", "group3", "alias" },
+                { null, "ag1", "roup0" } };
+
+        for (String[] words : queries) {
+            List<Action> result = index.search(actions.size(), words);
+            assertThat(result).hasSize((int) actions.stream().filter(a -> a.rate(words) > 0).count());
+            assertThat(result.stream().filter(a -> a.rate(words) == 0).count()).isZero();
+            for (int i = 1; i < result.size(); i++) {
+                assertThat(result.get(i - 1).rate(words)).isGreaterThanOrEqualTo(result.get(i).rate(words));
+            }
+        }
+    }
+}
@@ -21,18 +21,17 @@
  */
 package org.openwms.core.search;
 
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 
 import org.junit.Assert;
-import org.junit.Ignore;
 import org.junit.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
-import org.openwms.core.configuration.ConfigurationService;
-import org.openwms.core.configuration.UserPreference;
 import org.openwms.core.test.AbstractMockitoTests;
 import org.openwms.core.uaa.SystemUser;
 import org.openwms.core.uaa.User;
@@ -47,7 +46,7 @@ import org.openwms.core.uaa.User;
 public class ActionServiceTest extends AbstractMockitoTests {
 
     @Mock
-    private ConfigurationService confSrv;
+    private ActionHistory history;
     @InjectMocks
     private ActionServiceImpl srv = new ActionServiceImpl();
 
@@ -72,6 +71,20 @@ public class ActionServiceTest extends AbstractMockitoTests {
         Assert.assertNotNull(result);
     }
 
+    /**
+     * Test that a collection returned from {@link ActionServiceImpl#findAllActions()} is not changed when Actions are added.
+     */
+    @Test
+    public final void testFindAllActionsIsSnapshot() {
+        srv.addActions(Collections.singletonList(new Action.Builder("users").build()));
+        Collection<Action> result = srv.findAllActions();
+
+        srv.addActions(Collections.singletonList(new Action.Builder("roles").build()));
+
+        Assert.assertEquals(1, result.size());
+        Assert.assertEquals(2, srv.findAllActions().size());
+    }
+
     /**
      * Test method for
      * {@link org.openwms.core.service.spring.search.ActionServiceImpl#findAllActions(org.openwms.core.system.usermanagement.User)}
@@ -101,21 +114,17 @@ public class ActionServiceTest extends AbstractMockitoTests {
      * {@link org.openwms.core.service.spring.search.ActionServiceImpl#save(org.openwms.core.system.usermanagement.User, java.util.Collection)}
      * .
      */
-    @Ignore
     @Test
     public final void testSave() {
         Collection<Action> actions = new ArrayList<Action>();
-        actions.add(new Action());
-
-        UserPreference uPref = new UserPreference(SystemUser.SYSTEM_USERNAME, "lastSearchActions", "");
-        Collection<UserPreference> userPrefs = new ArrayList<UserPreference>();
+        actions.add(new Action.Builder("users").build());
+        actions.add(new Action.Builder("roles").build());
 
         User user = new SystemUser(SystemUser.SYSTEM_USERNAME, SystemUser.SYSTEM_USERNAME);
-        userPrefs.add(uPref);
-        //when(confSrv.findByType(UserPreference.class, user.getUsername())).thenReturn(userPrefs);
-        when(confSrv.save(uPref)).thenReturn(uPref);
 
         Collection<Action> result = srv.save(user, actions);
         Assert.assertNotNull(result);
+        verify(history, times(1)).increment(SystemUser.SYSTEM_USERNAME, "users");
+        verify(history, times(1)).increment(SystemUser.SYSTEM_USERNAME, "roles");
     }
 }
\ No newline at end of file
@@ -0,0 +1,111 @@
+/*
+ * openwms.org, the Open Warehouse Management System.
+ * Copyright (C) 2014 Heiko Scherrer
+ *
+ * This file is part of openwms.org.
+ *
+ * openwms.org is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as 
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * openwms.org is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this software. If not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.openwms.core.uaa;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.util.StreamUtils;
+
+/**
+ * A FileSystemBlobStoreTest.
+ *
+ * @author <a href="mailto:scherrer@openwms.org">Heiko Scherrer</a>
+ * @version 1.0
+ * @since 1.1
+ */
+public class FileSystemBlobStoreTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+    private FileSystemBlobStore store;
+
+    @Before
+    public void onBefore() throws IOException {
+        store = new FileSystemBlobStore(folder.getRoot().getAbsolutePath());
+        store.init();
+    }
+
+    /**
+     * Stored content can be read back with its description.
+     */
+    @Test
+    public final void testWriteAndRead() throws IOException {
+        BlobInfo written = store.write("user-1", stream("image"), "image/png");
+
+        BlobInfo info = store.info("user-1").get();
+        assertThat(info.getEtag()).isEqualTo(written.getEtag());
+        assertThat(info.getLength()).isEqualTo(5);
+        assertThat(info.getContentType()).isEqualTo("image/png");
+        try (InputStream in = store.read(info)) {
+            assertThat(StreamUtils.copyToString(in, StandardCharsets.UTF_8)).isEqualTo("image");
+        }
+    }
+
+    /**
+     * The etag depends on the content only and replaced content is removed.
+     */
+    @Test
+    public final void testReplace() throws IOException {
+        BlobInfo first = store.write("user-1", stream("first"), "image/png");
+        assertThat(store.write("user-2", stream("first"), "image/png").getEtag()).isEqualTo(first.getEtag());
+
+        BlobInfo second = store.write("user-1", stream("second"), "image/png");
+
+        assertThat(second.getEtag()).isNotEqualTo(first.getEtag());
+        assertThat(store.info("user-1").get().getEtag()).isEqualTo(second.getEtag());
+        assertThat(new File(folder.getRoot(), "user-1-" + first.getEtag() + ".bin")).doesNotExist();
+    }
+
+    /**
+     * Deleted content is not found anymore.
+     */
+    @Test
+    public final void testDelete() throws IOException {
+        store.write("user-1", stream("image"), null);
+
+        assertThat(store.delete("user-1")).isTrue();
+        assertThat(store.info("user-1").isPresent()).isFalse();
+        assertThat(store.delete("user-1")).isFalse();
+    }
+
+    /**
+     * Keys must not address files outside of the store.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public final void testInvalidKey() {
+        store.info("../user-1");
+    }
+
+    private static InputStream stream(String s) {
+        return new ByteArrayInputStream(s.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * openwms.org, the Open Warehouse Management System.
+ * Copyright (C) 2014 Heiko Scherrer
+ *
+ * This file is part of openwms.org.
+ *
+ * openwms.org is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as 
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * openwms.org is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this software. If not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.openwms.core.uaa;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * An ImageThumbnailerTest.
+ *
+ * @author <a href="mailto:scherrer@openwms.org">Heiko Scherrer</a>
+ * @version 1.0
+ * @since 1.1
+ */
+public class ImageThumbnailerTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+    private FileSystemBlobStore store;
+    private ImageThumbnailer thumbnailer;
+
+    @Before
+    public void onBefore() throws IOException {
+        store = new FileSystemBlobStore(folder.getRoot().getAbsolutePath());
+        store.init();
+        thumbnailer = new ImageThumbnailer();
+        ReflectionTestUtils.setField(thumbnailer, "blobStore", store);
+    }
+
+    @After
+    public void onAfter() {
+        thumbnailer.shutdown();
+    }
+
+    private static InputStream png(int width, int height) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "png", out);
+        return new ByteArrayInputStream(out.toByteArray());
+    }
+
+    /**
+     * The thumbnail is scaled down to the configured size.
+     */
+    @Test
+    public final void testCreate() throws IOException {
+        BlobInfo original = store.write("user-1", png(512, 256), "image/png");
+
+        thumbnailer.create(original, "user-1-thumbnail");
+
+        BlobInfo thumbnail = store.info("user-1-thumbnail").get();
+        assertThat(thumbnail.getContentType()).isEqualTo(ImageThumbnailer.THUMBNAIL_TYPE);
+        try (InputStream in = store.read(thumbnail)) {
+            BufferedImage image = ImageIO.read(in);
+            assertThat(image.getWidth()).isEqualTo(128);
+            assertThat(image.getHeight()).isEqualTo(64);
+        }
+    }
+
+    /**
+     * Images exceeding the maximum number of pixels are not decoded.
+     */
+    @Test
+    public final void testCreateTooLarge() throws IOException {
+        ReflectionTestUtils.setField(thumbnailer, "maxPixels", 100L * 100L);
+        BlobInfo original = store.write("user-1", png(101, 100), "image/png");
+
+        thumbnailer.create(original, "user-1-thumbnail");
+
+        assertThat(store.info("user-1-thumbnail").isPresent()).isFalse();
+    }
+
+    /**
+     * Content that is no image is ignored.
+     */
+    @Test
+    public final void testCreateNoImage() throws IOException {
+        BlobInfo original = store.write("user-1", new ByteArrayInputStream("<html/>".getBytes("UTF-8")), "text/html");
+
+        thumbnailer.create(original, "user-1-thumbnail");
+
+        assertThat(store.info("user-1-thumbnail").isPresent()).isFalse();
+    }
+
+    /**
+     * No thumbnail is kept for an original that has been replaced meanwhile.
+     */
+    @Test
+    public final void testCreateReplaced() throws IOException {
+        BlobInfo original = store.write("user-1", png(64, 64), "image/png");
+        store.write("user-1", png(32, 32), "image/png");
+
+        thumbnailer.create(original, "user-1-thumbnail");
+
+        assertThat(store.info("user-1-thumbnail").isPresent()).isFalse();
+    }
+}
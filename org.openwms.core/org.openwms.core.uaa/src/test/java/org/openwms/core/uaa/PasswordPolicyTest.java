@@ -0,0 +1,168 @@
+/*
+ * openwms.org, the Open Warehouse Management System.
+ * Copyright (C) 2014 Heiko Scherrer
+ *
+ * This file is part of openwms.org.
+ *
+ * openwms.org is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as 
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * openwms.org is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this software. If not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.openwms.core.uaa;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+
+import org.ameba.exception.ServiceLayerException;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.openwms.core.exception.InvalidPasswordException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * A PasswordPolicyTest.
+ *
+ * @author <a href="mailto:scherrer@openwms.org">Heiko Scherrer</a>
+ * @version 1.0
+ * @since 1.1
+ */
+public class PasswordPolicyTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PasswordPolicyTest.class);
+    private static final String TEST_USER = "Test username";
+    private final BCryptPasswordEncoder enc = new BCryptPasswordEncoder(8);
+    private PasswordPolicy policy = new PasswordPolicy(enc, 4, 64, 30000, true);
+
+    public @Rule ExpectedException thrown = ExpectedException.none();
+
+    @After
+    public void onAfter() {
+        policy.shutdown();
+    }
+
+    /**
+     * The history is kept as a ring, the latest password first.
+     */
+    public
+    @Test
+    final void testHistoryRing() throws Exception {
+        User user = new User(TEST_USER);
+        for (int i = 0; i <= User.NUMBER_STORED_PASSWORDS + 1; i++) {
+            policy.changePassword(user, String.valueOf(i));
+        }
+        assertThat(user.getPasswords()).hasSize(User.NUMBER_STORED_PASSWORDS);
+        assertThat(enc.matches("4", user.getPersistedPassword())).isTrue();
+        assertThat(enc.matches("3", user.getPasswordHistory().get(0))).isTrue();
+        assertThat(enc.matches("1", user.getPasswordHistory().get(User.NUMBER_STORED_PASSWORDS - 1))).isTrue();
+    }
+
+    /**
+     * Setting the current password again changes nothing.
+     */
+    public
+    @Test
+    final void testCurrentPassword() throws Exception {
+        User user = new User(TEST_USER);
+        policy.changePassword(user, "0");
+        String current = user.getPersistedPassword();
+
+        policy.changePassword(user, "0");
+
+        assertThat(user.getPersistedPassword()).isEqualTo(current);
+        assertThat(user.getPasswords()).isEmpty();
+    }
+
+    /**
+     * A password of the history must not be used again.
+     */
+    public
+    @Test
+    final void testPasswordInHistory() throws Exception {
+        User user = new User(TEST_USER);
+        policy.changePassword(user, "0");
+        policy.changePassword(user, "1");
+        policy.changePassword(user, "2");
+
+        thrown.expect(InvalidPasswordException.class);
+        policy.changePassword(user, "0");
+    }
+
+    /**
+     * Checks that do not complete in time are rejected.
+     */
+    public
+    @Test
+    final void testTimeout() throws Exception {
+        policy.shutdown();
+        policy = new PasswordPolicy(new BCryptPasswordEncoder(14), 1, 64, 1, true);
+
+        thrown.expect(ServiceLayerException.class);
+        policy.changePassword(new User(TEST_USER), "0");
+    }
+
+    /**
+     * Checks are rejected when the queue is full, the first task keeps the only thread busy while the others are submitted.
+     */
+    public
+    @Test
+    final void testRejectedWhenBusy() throws Exception {
+        policy.shutdown();
+        policy = new PasswordPolicy(new BCryptPasswordEncoder(12), 1, 1, 30000, true);
+        User user = new User(TEST_USER);
+        user.applyPassword(enc.encode("0"));
+        user.applyPassword(enc.encode("1"));
+
+        thrown.expect(ServiceLayerException.class);
+        policy.changePassword(user, "2");
+    }
+
+    /**
+     * Compare the time of a full password change with a full history, checked in parallel and sequentially. Only the results are asserted,
+     * the timings are logged.
+     */
+    public
+    @Test
+    final void benchmarkChangePassword() throws Exception {
+        long parallel = measure(policy, enc);
+        PasswordPolicy sequential = new PasswordPolicy(enc, 4, 64, 30000, false);
+        try {
+            long serial = measure(sequential, enc);
+            LOGGER.info("Password change with full history: parallel [{}]ms, sequential [{}]ms", parallel, serial);
+        } finally {
+            sequential.shutdown();
+        }
+    }
+
+    private static long measure(PasswordPolicy policy, PasswordEncoder enc) throws InvalidPasswordException {
+        int rounds = 5;
+        User user = new User(TEST_USER);
+        for (int i = 0; i <= User.NUMBER_STORED_PASSWORDS; i++) {
+            policy.changePassword(user, "warmup" + i);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            policy.changePassword(user, "round" + i);
+        }
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) / rounds;
+        assertThat(enc.matches("round" + (rounds - 1), user.getPersistedPassword())).isTrue();
+        assertThat(user.getPasswords()).hasSize(User.NUMBER_STORED_PASSWORDS);
+        return elapsed;
+    }
+}
@@ -24,7 +24,9 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -34,6 +36,8 @@ import net.sf.ehcache.Ehcache;
 import org.junit.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.openwms.core.event.GrantChangedEvent;
+import org.openwms.core.event.RoleChangedEvent;
 import org.openwms.core.event.UserChangedEvent;
 import org.openwms.core.test.AbstractMockitoTests;
 import org.springframework.security.authentication.dao.SaltSource;
@@ -75,6 +79,34 @@ public class SecurityContextUserServiceImplTest extends AbstractMockitoTests {
         verify(cache).removeAll();
     }
 
+    /**
+     * An event that names the changed Users must only evict these.
+     */
+    @Test
+    public final void testOnApplicationEventEvictsNamedUsers() {
+        srv.onApplicationEvent(UserChangedEvent.of(this, TEST_USER));
+        verify(userCache).removeUserFromCache(TEST_USER);
+        verify(cache, never()).removeAll();
+    }
+
+    /**
+     * A changed Role evicts all cached Users assigned to that Role.
+     */
+    @Test
+    public final void testOnRoleChangedEventEvictsAssignedUsers() {
+        User user = new User("OPERATOR");
+        user.addRole(new Role("ROLE_OPS"));
+        when(userCache.getUserFromCache("OPERATOR")).thenReturn(null);
+        when(userService.findByUsername("OPERATOR")).thenReturn(Optional.of(user));
+        srv.loadUserByUsername("OPERATOR");
+
+        srv.onApplicationEvent(RoleChangedEvent.of(this, "ROLE_OTHER"));
+        verify(userCache, never()).removeUserFromCache("OPERATOR");
+        srv.onApplicationEvent(RoleChangedEvent.of(this, "ROLE_OPS"));
+        verify(userCache).removeUserFromCache("OPERATOR");
+        verify(cache, never()).removeAll();
+    }
+
     /**
      * Test method for {@link org.openwms.core.uaa.SecurityContextUserServiceImpl#loadUserByUsername(java.lang.String)} .
      * <p>
@@ -94,25 +126,31 @@ public class SecurityContextUserServiceImplTest extends AbstractMockitoTests {
     /**
      * Test method for {@link org.openwms.core.uaa.SecurityContextUserServiceImpl#loadUserByUsername(java.lang.String)} .
      * <p>
-     * Test for the SystemUser credentials, that user can be cached but not fetched from the dao. In this test the cache is not tested. We
-     * expect that the cache is empty.
+     * Test for the SystemUser credentials, that user is built once and kept apart from the cache of Users until Grants change.
      */
     @Test
     public final void testLoadUserByUsernameSystemUser() {
         SystemUser su = new SystemUser(SystemUser.SYSTEM_USERNAME, SystemUser.SYSTEM_USERNAME);
         SystemUserWrapper suw = new SystemUserWrapper(su);
 
-        when(userCache.getUserFromCache(SystemUser.SYSTEM_USERNAME)).thenReturn(null);
         when(userService.createSystemUser()).thenReturn(su);
         when(saltSource.getSalt(suw)).thenReturn(SystemUser.SYSTEM_USERNAME);
         when(encoder.encode(SystemUser.SYSTEM_USERNAME)).thenReturn(SystemUser.SYSTEM_USERNAME);
         UserDetails cachedUser = srv.loadUserByUsername(SystemUser.SYSTEM_USERNAME);
 
-        verify(userService).createSystemUser();
-
         assertTrue(cachedUser instanceof UserWrapper);
-        verify(userCache).putUserInCache(((UserWrapper) cachedUser));
         assertTrue(((UserWrapper) cachedUser).getUser() instanceof SystemUser);
+        assertTrue(cachedUser == srv.loadUserByUsername(SystemUser.SYSTEM_USERNAME));
+        verify(userService, times(1)).createSystemUser();
+        verify(userCache, never()).putUserInCache(any(UserDetails.class));
+
+        srv.onApplicationEvent(new UserChangedEvent(this));
+        srv.loadUserByUsername(SystemUser.SYSTEM_USERNAME);
+        verify(userService, times(1)).createSystemUser();
+
+        srv.onApplicationEvent(new GrantChangedEvent(this, "CORE"));
+        srv.loadUserByUsername(SystemUser.SYSTEM_USERNAME);
+        verify(userService, times(2)).createSystemUser();
     }
 
     /**
@@ -158,4 +196,23 @@ public class SecurityContextUserServiceImplTest extends AbstractMockitoTests {
         verify(userService).findByUsername("UNKNOWN_USER");
         verify(userCache, never()).putUserInCache(((UserWrapper) cachedUser));
     }
-}
\ No newline at end of file
+
+    /**
+     * Test method for {@link org.openwms.core.uaa.SecurityContextUserServiceImpl#loadUserByUsername(java.lang.String)} .
+     * <p>
+     * Test that a technical failure is not hidden behind an UsernameNotFoundException and nothing is put into cache.
+     */
+    @Test
+    public final void testLoadUserByUsernameWithFailure() {
+        when(userCache.getUserFromCache(TEST_USER)).thenReturn(null);
+        when(userService.findByUsername(TEST_USER)).thenThrow(new IllegalStateException("Database not available"));
+
+        try {
+            srv.loadUserByUsername(TEST_USER);
+            fail("Must propagate the technical failure");
+        } catch (IllegalStateException ise) {
+            logger.debug("OK: Technical failure is propagated.");
+        }
+        verify(userCache, never()).putUserInCache(any(UserDetails.class));
+    }
+}
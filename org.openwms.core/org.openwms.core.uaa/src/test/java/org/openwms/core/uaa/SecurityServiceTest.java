@@ -27,6 +27,7 @@ import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyObject;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -43,6 +44,9 @@ import org.junit.Test;
 import org.junit.rules.ExpectedException;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.openwms.core.event.EventPublisher;
+import org.openwms.core.event.GrantChangedEvent;
+import org.openwms.core.event.RootApplicationEvent;
 import org.openwms.core.test.AbstractMockitoTests;
 import org.springframework.context.MessageSource;
 
@@ -63,6 +67,8 @@ public class SecurityServiceTest extends AbstractMockitoTests {
     private MessageSource messageSource;
     @Mock
     private Translator translator;
+    @Mock
+    private EventPublisher<RootApplicationEvent> publisher;
     @InjectMocks
     private SecurityServiceImpl srv;
 
@@ -147,6 +153,36 @@ public class SecurityServiceTest extends AbstractMockitoTests {
         assertTrue(result.contains(testGrant));
     }
 
+    /**
+     * Test method for {@link org.openwms.core.uaa.SecurityServiceImpl#mergeGrants(java.lang.String, java.util.List)} .
+     * <p>
+     * New Grants are inserted and missing ones deleted at once, an unchanged list is not written again but the persisted Grants are
+     * returned.
+     */
+    @Test
+    public final void testMergeGrantsBatchedAndSkippedWhenUnchanged() {
+        when(dao.findAllOfModule("TMS%")).thenReturn(createGrants("TMS_KEEP", "TMS_OLD"));
+        when(dao.save(createGrants("TMS_NEW"))).thenReturn(createGrants("TMS_NEW"));
+        when(translator.translate(any())).thenReturn("");
+
+        List<Grant> result = srv.mergeGrants("TMS", createGrants("TMS_NEW", "TMS_KEEP", "TMS_NEW"));
+
+        assertEquals(2, result.size());
+        verify(dao, times(1)).save(createGrants("TMS_NEW"));
+        verify(dao, times(1)).delete(createGrants("TMS_OLD"));
+        verify(publisher, times(1)).publish(any(GrantChangedEvent.class));
+
+        List<Grant> persisted = createGrants("TMS_KEEP", "TMS_NEW");
+        when(dao.findAllOfModule("TMS%")).thenReturn(persisted);
+        result = srv.mergeGrants("TMS", createGrants("TMS_NEW", "TMS_KEEP"));
+
+        assertEquals(2, result.size());
+        assertTrue(result.stream().allMatch(g -> persisted.stream().anyMatch(p -> p == g)));
+        verify(dao, times(1)).save(createGrants("TMS_NEW"));
+        verify(dao, times(1)).delete(createGrants("TMS_OLD"));
+        verify(publisher, times(1)).publish(any(GrantChangedEvent.class));
+    }
+
     private List<Grant> createGrants(String... names) {
         List<Grant> result = new ArrayList<>(names.length);
         for (String name : names) {
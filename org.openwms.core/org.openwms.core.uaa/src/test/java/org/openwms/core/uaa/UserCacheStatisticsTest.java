@@ -0,0 +1,70 @@
+/*
+ * openwms.org, the Open Warehouse Management System.
+ * Copyright (C) 2014 Heiko Scherrer
+ *
+ * This file is part of openwms.org.
+ *
+ * openwms.org is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as 
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * openwms.org is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this software. If not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.openwms.core.uaa;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Collections;
+
+import org.junit.Test;
+import org.springframework.security.core.userdetails.User;
+
+/**
+ * An UserCacheStatisticsTest.
+ *
+ * @author <a href="mailto:scherrer@openwms.org">Heiko Scherrer</a>
+ * @version 1.0
+ * @since 1.1
+ */
+public class UserCacheStatisticsTest {
+
+    private final UserCacheStatistics statistics = new UserCacheStatistics();
+
+    /**
+     * Without a bound cache all values are zero.
+     */
+    @Test
+    public final void testUnbound() {
+        assertEquals(0, statistics.getHitCount());
+        assertEquals(0, statistics.getMissCount());
+        assertEquals(0, statistics.getEstimatedSize());
+    }
+
+    /**
+     * Hits and misses of the bound cache are exposed.
+     */
+    @Test
+    public final void testBound() {
+        CaffeineUserCache cache = new CaffeineUserCache(10, 3600, 300, username -> null);
+        statistics.bind(cache);
+        cache.putUserInCache(new User("scherrer", "secret", Collections.emptyList()));
+
+        cache.getUserFromCache("scherrer");
+        cache.getUserFromCache("scherrer");
+        cache.getUserFromCache("unknown");
+
+        assertEquals(2, statistics.getHitCount());
+        assertEquals(1, statistics.getMissCount());
+        assertEquals(1, statistics.getEstimatedSize());
+        assertEquals(0, statistics.getEvictionCount());
+    }
+}
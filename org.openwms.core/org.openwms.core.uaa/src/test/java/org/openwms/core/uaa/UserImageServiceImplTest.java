@@ -0,0 +1,174 @@
+/*
+ * openwms.org, the Open Warehouse Management System.
+ * Copyright (C) 2014 Heiko Scherrer
+ *
+ * This file is part of openwms.org.
+ *
+ * openwms.org is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as 
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * openwms.org is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this software. If not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.openwms.core.uaa;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.NoSuchFileException;
+import java.util.Date;
+import java.util.Optional;
+
+import org.ameba.exception.NotFoundException;
+import org.ameba.i18n.Translator;
+import org.junit.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.openwms.core.http.HttpBusinessException;
+import org.openwms.core.test.AbstractMockitoTests;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * An UserImageServiceImplTest.
+ *
+ * @author <a href="mailto:scherrer@openwms.org">Heiko Scherrer</a>
+ * @version 1.0
+ * @since 1.1
+ */
+public class UserImageServiceImplTest extends AbstractMockitoTests {
+
+    @Mock
+    private UserRepository repository;
+    @Mock
+    private BlobStore blobStore;
+    @Mock
+    private ImageThumbnailer thumbnailer;
+    @Mock
+    private Translator translator;
+    @InjectMocks
+    private UserImageServiceImpl srv;
+
+    private static BlobInfo info(String key, String etag) {
+        return new BlobInfo(key, "image/png", 5, etag, new Date());
+    }
+
+    private static InputStream stream() {
+        return new ByteArrayInputStream(new byte[5]);
+    }
+
+    /**
+     * Storing the image of an unknown User fails without touching the store.
+     */
+    @Test(expected = NotFoundException.class)
+    public final void testStoreImageUnknownUser() throws IOException {
+        when(repository.exists(1L)).thenReturn(false);
+        try {
+            srv.storeImage(1L, stream(), "image/png");
+        } finally {
+            verify(blobStore, never()).write(anyString(), any(InputStream.class), anyString());
+        }
+    }
+
+    /**
+     * Replacing an image removes the thumbnail of the former one and a thumbnail for the new one is requested.
+     */
+    @Test
+    public final void testStoreImageReplaces() throws IOException {
+        BlobInfo former = info("user-1", "aaa");
+        BlobInfo stored = info("user-1", "bbb");
+        when(repository.exists(1L)).thenReturn(true);
+        when(blobStore.info("user-1")).thenReturn(Optional.of(former));
+        when(blobStore.write(eq("user-1"), any(InputStream.class), eq("image/png"))).thenReturn(stored);
+
+        assertThat(srv.storeImage(1L, stream(), "image/png")).isSameAs(stored);
+
+        verify(blobStore).delete("user-1-thumbnail-aaa");
+        verify(thumbnailer).submit(stored, "user-1-thumbnail-bbb");
+    }
+
+    /**
+     * Storing the same image again keeps its thumbnail.
+     */
+    @Test
+    public final void testStoreImageUnchanged() throws IOException {
+        BlobInfo stored = info("user-1", "aaa");
+        when(repository.exists(1L)).thenReturn(true);
+        when(blobStore.info("user-1")).thenReturn(Optional.of(stored));
+        when(blobStore.write(eq("user-1"), any(InputStream.class), eq("image/png"))).thenReturn(stored);
+
+        srv.storeImage(1L, stream(), "image/png");
+
+        verify(blobStore, never()).delete(anyString());
+    }
+
+    /**
+     * An image that exceeds the maximum size is rejected with 413 and no thumbnail is requested.
+     */
+    @Test
+    public final void testStoreImageTooLarge() throws IOException {
+        ReflectionTestUtils.setField(srv, "maxSize", 4L);
+        when(repository.exists(1L)).thenReturn(true);
+        when(blobStore.info("user-1")).thenReturn(Optional.empty());
+        when(blobStore.write(eq("user-1"), any(InputStream.class), eq("image/png"))).thenAnswer(invocation -> {
+            InputStream in = (InputStream) invocation.getArguments()[1];
+            while (in.read(new byte[2], 0, 2) != -1) {
+                // consume like the store does
+            }
+            return info("user-1", "aaa");
+        });
+
+        try {
+            srv.storeImage(1L, stream(), "image/png");
+            fail("Expected an HttpBusinessException");
+        } catch (HttpBusinessException hbe) {
+            assertThat(hbe.getHttpStatus()).isEqualTo(HttpStatus.PAYLOAD_TOO_LARGE);
+        }
+        verify(thumbnailer, never()).submit(any(BlobInfo.class), anyString());
+    }
+
+    /**
+     * An image that has been removed since it was found cannot be opened.
+     */
+    @Test
+    public final void testOpenImageRemovedMeanwhile() throws IOException {
+        BlobInfo image = info("user-1", "aaa");
+        when(blobStore.read(image)).thenThrow(new NoSuchFileException("user-1-aaa.bin"));
+
+        assertThat(srv.openImage(image).isPresent()).isFalse();
+    }
+
+    /**
+     * A thumbnail is only found for the current image.
+     */
+    @Test
+    public final void testFindThumbnail() {
+        BlobInfo image = info("user-1", "bbb");
+        BlobInfo thumbnail = info("user-1-thumbnail-bbb", "ccc");
+        when(blobStore.info("user-1")).thenReturn(Optional.of(image));
+        when(blobStore.info("user-1-thumbnail-bbb")).thenReturn(Optional.of(thumbnail));
+        when(blobStore.info("user-2")).thenReturn(Optional.empty());
+
+        assertThat(srv.findImage(1L, true).get()).isSameAs(thumbnail);
+        assertThat(srv.findImage(1L, false).get()).isSameAs(image);
+        assertThat(srv.findImage(2L, true).isPresent()).isFalse();
+    }
+}
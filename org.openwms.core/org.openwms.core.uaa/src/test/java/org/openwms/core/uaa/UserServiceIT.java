@@ -48,6 +48,9 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.context.MessageSource;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.test.annotation.Rollback;
 import org.springframework.test.context.junit4.SpringRunner;
 
@@ -72,6 +75,8 @@ public class UserServiceIT {
     @Autowired
     private MessageSource messageSource;
     @Autowired
+    private UserImageService imageService;
+    @Autowired
     private TestEntityManager entityManager;
 
     public @Rule ExpectedException thrown = ExpectedException.none();
@@ -102,9 +107,9 @@ public class UserServiceIT {
     public
     @Test
     final void testUploadImage() {
-        srv.uploadImageFile(findUser(KNOWN_USER).getPk(), new byte[222]);
-        User user = findUser(KNOWN_USER);
-        assertThat(user.getUserDetails().getImage()).hasSize(222);
+        Long pk = findUser(KNOWN_USER).getPk();
+        srv.uploadImageFile(pk, new byte[222]);
+        assertThat(imageService.findImage(pk, false).get().getLength()).isEqualTo(222);
     }
 
     /**
@@ -264,6 +269,38 @@ public class UserServiceIT {
         fail("We expect to run into some kind of RuntimeException when search for an User with a technical key greater than that previously assigned one, because that User should not exist");
     }
 
+    /**
+     * Test to find an User by username.
+     */
+    @Test
+    public final void testFindByUsername() {
+        User user = srv.findByUsername(KNOWN_USER).orElseThrow(() -> new AssertionError("User must be found"));
+        assertEquals("Expected the User with the same username", KNOWN_USER, user.getUsername());
+    }
+
+    /**
+     * Test to find an User by an unknown username.
+     */
+    @Test
+    public final void testFindByUsernameUnknown() {
+        assertFalse("No User expected", srv.findByUsername(UNKNOWN_USER).isPresent());
+    }
+
+    /**
+     * Test to find a page of UserSummaries sorted by username.
+     */
+    @Test
+    public final void testFindAllSummaries() {
+        entityManager.getEntityManager().persist(new User(TEST_USER));
+        entityManager.flush();
+
+        Page<UserSummary> page = srv.findAllSummaries(new PageRequest(0, 1, new Sort("username")));
+
+        assertEquals("Expected two Users in total", 2, page.getTotalElements());
+        assertEquals("Expected one User on the page", 1, page.getNumberOfElements());
+        assertEquals("Expected the first User by username", KNOWN_USER, page.getContent().get(0).getUsername());
+    }
+
     /**
      * Test method for {@link UserServiceImpl#getTemplate(String)} .
      */
@@ -189,4 +189,23 @@ public class UserTest {
         users.add(user3);
         assertThat(users).hasSize(2);
     }
-}
\ No newline at end of file
+
+    /**
+     * Test that only a change of the password, the flags or the expiration date is a change of the credentials.
+     */
+    public
+    @Test
+    final void testPersistedCredentialsDifferFrom() {
+        User user = new User(TEST_USER1);
+        user.applyPassword("encoded");
+        PersistedCredentials persisted = new PersistedCredentials(TEST_USER1, "encoded", true, false, null);
+        user.setFullname("Fullname");
+        assertThat(persisted.differFrom(user)).isFalse();
+
+        user.setLocked(true);
+        assertThat(persisted.differFrom(user)).isTrue();
+        user.setLocked(false);
+        user.applyPassword("changed");
+        assertThat(persisted.differFrom(user)).isTrue();
+    }
+}
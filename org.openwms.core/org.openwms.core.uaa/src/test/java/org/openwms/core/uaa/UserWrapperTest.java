@@ -28,6 +28,7 @@ import java.util.Set;
 import org.junit.Assert;
 import org.junit.Ignore;
 import org.junit.Test;
+import org.openwms.core.event.RoleChangedEvent;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
@@ -90,6 +91,63 @@ public class UserWrapperTest {
         Assert.assertEquals(auths.iterator().next().getAuthority(), "TEST_GRANT");
     }
 
+    /**
+     * Test method for
+     * {@link UserWrapper#hasAuthority(String)}.
+     */
+    @Test
+    public final void testHasAuthority() {
+        GrantRegistry registry = new GrantRegistry();
+        Role r = new Role("TEST_ROLE");
+        r.addGrant(new Grant("TEST_GRANT"));
+        User u = new User(TEST_USER);
+        u.addRole(r);
+
+        UserWrapper uw = new UserWrapper(u, registry);
+        Assert.assertTrue(uw.hasAuthority("TEST_GRANT"));
+        Assert.assertTrue(uw.hasAuthority(registry.idOf("TEST_GRANT")));
+        Assert.assertFalse(uw.hasAuthority("OTHER_GRANT"));
+        Assert.assertFalse(uw.hasAuthority(SystemUser.SYSTEM_ROLE_NAME));
+    }
+
+    /**
+     * The bits of a Role are kept until the Role has changed.
+     */
+    @Test
+    public final void testRoleBitsRebuiltOnRoleChange() {
+        GrantRegistry registry = new GrantRegistry();
+        Role r = new Role("TEST_ROLE");
+        r.addGrant(new Grant("TEST_GRANT"));
+        User u = new User(TEST_USER);
+        u.addRole(r);
+        new UserWrapper(u, registry);
+
+        r.addGrant(new Grant("NEW_GRANT"));
+        Assert.assertFalse(new UserWrapper(u, registry).hasAuthority("NEW_GRANT"));
+
+        registry.onApplicationEvent(RoleChangedEvent.of(this, "TEST_ROLE"));
+        Assert.assertTrue(new UserWrapper(u, registry).hasAuthority("NEW_GRANT"));
+        Assert.assertEquals(0, registry.idOf("TEST_GRANT"));
+        Assert.assertEquals(1, registry.idOf("NEW_GRANT"));
+    }
+
+    /**
+     * Wrappers without an injected registry share one, which never keeps the bits of a Role.
+     */
+    @Test
+    public final void testWrappersWithoutRegistryShareFallback() {
+        Role r = new Role("FALLBACK_ROLE");
+        r.addGrant(new Grant("FALLBACK_GRANT"));
+        User u = new User(TEST_USER);
+        u.addRole(r);
+        Assert.assertTrue(new UserWrapper(u).hasAuthority("FALLBACK_GRANT"));
+
+        r.addGrant(new Grant("LATER_GRANT"));
+        UserWrapper uw = new UserWrapper(u);
+        Assert.assertTrue(uw.hasAuthority("FALLBACK_GRANT"));
+        Assert.assertTrue(uw.hasAuthority("LATER_GRANT"));
+    }
+
     /**
      * Test method for
      * {@link UserWrapper#getPassword()}.
@@ -0,0 +1,190 @@
+/*
+ * openwms.org, the Open Warehouse Management System.
+ * Copyright (C) 2014 Heiko Scherrer
+ *
+ * This file is part of openwms.org.
+ *
+ * openwms.org is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as 
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * openwms.org is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this software. If not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.openwms.core.uaa.api;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Date;
+import java.util.Optional;
+
+import org.junit.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.openwms.core.test.AbstractMockitoTests;
+import org.openwms.core.uaa.BlobInfo;
+import org.openwms.core.uaa.UserImageService;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+/**
+ * An UsersControllerTest.
+ *
+ * @author <a href="mailto:scherrer@openwms.org">Heiko Scherrer</a>
+ * @version 1.0
+ * @since 1.1
+ */
+public class UsersControllerTest extends AbstractMockitoTests {
+
+    @Mock
+    private UserImageService imageService;
+    @InjectMocks
+    private UsersController controller;
+
+    private void stored(String contentType) {
+        BlobInfo info = new BlobInfo("user-1", contentType, 5, "abc", new Date());
+        when(imageService.findImage(1L, false)).thenReturn(Optional.of(info));
+        when(imageService.openImage(info)).thenReturn(Optional.of(new ByteArrayInputStream("image".getBytes())));
+    }
+
+    /**
+     * The image is sent with its ETag and content sniffing disabled.
+     */
+    @Test
+    public final void testGetImage() throws IOException {
+        stored("image/png");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        controller.getImage(1L, new MockHttpServletRequest("GET", "/users/1/image"), response);
+
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.OK.value());
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo("\"abc\"");
+        assertThat(response.getHeader("X-Content-Type-Options")).isEqualTo("nosniff");
+        assertThat(response.getContentType()).isEqualTo("image/png");
+        assertThat(response.getContentAsString()).isEqualTo("image");
+    }
+
+    /**
+     * A matching If-None-Match header is answered with 304 and the image is not read.
+     */
+    @Test
+    public final void testGetImageNotModified() throws IOException {
+        stored("image/png");
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/users/1/image");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"abc\"");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        controller.getImage(1L, request, response);
+
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.NOT_MODIFIED.value());
+        assertThat(response.getContentAsByteArray()).isEmpty();
+        verify(imageService, never()).openImage(any(BlobInfo.class));
+    }
+
+    /**
+     * An image that is replaced while it is read is sent in its current version.
+     */
+    @Test
+    public final void testGetImageReplacedMeanwhile() throws IOException {
+        BlobInfo former = new BlobInfo("user-1", "image/png", 5, "abc", new Date());
+        BlobInfo current = new BlobInfo("user-1", "image/png", 3, "def", new Date());
+        when(imageService.findImage(1L, false)).thenReturn(Optional.of(former), Optional.of(current));
+        when(imageService.openImage(former)).thenReturn(Optional.empty());
+        when(imageService.openImage(current)).thenReturn(Optional.of(new ByteArrayInputStream("new".getBytes())));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        controller.getImage(1L, new MockHttpServletRequest("GET", "/users/1/image"), response);
+
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.OK.value());
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo("\"def\"");
+        assertThat(response.getContentAsString()).isEqualTo("new");
+    }
+
+    /**
+     * An image that is removed while it is read is answered with 404.
+     */
+    @Test
+    public final void testGetImageRemovedMeanwhile() throws IOException {
+        BlobInfo former = new BlobInfo("user-1", "image/png", 5, "abc", new Date());
+        when(imageService.findImage(1L, false)).thenReturn(Optional.of(former), Optional.empty());
+        when(imageService.openImage(former)).thenReturn(Optional.empty());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        controller.getImage(1L, new MockHttpServletRequest("GET", "/users/1/image"), response);
+
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.NOT_FOUND.value());
+    }
+
+    /**
+     * Content stored with another than an image type is never sent with that type.
+     */
+    @Test
+    public final void testGetImageWithStoredScriptableType() throws IOException {
+        stored("text/html");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        controller.getImage(1L, new MockHttpServletRequest("GET", "/users/1/image"), response);
+
+        assertThat(response.getContentType()).isEqualTo("application/octet-stream");
+    }
+
+    /**
+     * Only image types are accepted for upload.
+     */
+    @Test
+    public final void testSaveImageWithUnsupportedType() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("PATCH", "/users/1");
+        request.setContentType("text/html");
+        request.setContent("<script/>".getBytes());
+
+        assertThat(controller.saveImage(1L, request).getStatusCode()).isEqualTo(HttpStatus.UNSUPPORTED_MEDIA_TYPE);
+        verify(imageService, never()).storeImage(anyLong(), any(InputStream.class), anyString());
+    }
+
+    /**
+     * The page size is bounded, unknown sort properties are dropped and the technical key is always the last sort property.
+     */
+    @Test
+    public final void testRestrict() {
+        Pageable page = UsersController.restrict(new PageRequest(1, 1000, new Sort("persistedPassword")));
+        assertThat(page.getPageNumber()).isEqualTo(1);
+        assertThat(page.getPageSize()).isEqualTo(UsersController.MAX_PAGE_SIZE);
+        assertThat(page.getSort()).isEqualTo(new Sort("username", "pk"));
+
+        page = UsersController.restrict(new PageRequest(0, 10, new Sort(Sort.Direction.DESC, "fullname")));
+        assertThat(page.getSort()).isEqualTo(new Sort(Sort.Direction.DESC, "fullname").and(new Sort("pk")));
+    }
+
+    /**
+     * Media type parameters are dropped and types are compared case insensitive.
+     */
+    @Test
+    public final void testImageType() {
+        assertThat(UsersController.imageType("IMAGE/PNG; q=1")).isEqualTo("image/png");
+        assertThat(UsersController.imageType("image/svg+xml")).isNull();
+        assertThat(UsersController.imageType("not a type")).isNull();
+        assertThat(UsersController.imageType(null)).isNull();
+    }
+}
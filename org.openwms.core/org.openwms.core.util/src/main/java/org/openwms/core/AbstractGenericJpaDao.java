@@ -24,7 +24,13 @@ package org.openwms.core;
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
 import javax.persistence.Query;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Root;
+import javax.persistence.metamodel.EntityType;
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -45,6 +51,10 @@ import org.springframework.transaction.annotation.Transactional;
  * <p>
  * Furthermore an {@link AbstractGenericJpaDao} has transactional behavior expressed with Springs {@link Transactional} annotation.
  * </p>
+ * <p>
+ * Subclasses may load the results of a <code>NamedQuery</code> read-only or with a JDBC fetch size, see {@link #isReadOnlyQuery(String)}
+ * and {@link #getFetchSize(String)}.
+ * </p>
  * 
  * @param <T>
  *            Any serializable type, mostly an Entity class type.
@@ -64,6 +74,10 @@ public abstract class AbstractGenericJpaDao<T extends AbstractEntity<ID>, ID ext
     private EntityManager em;
     @Autowired
     private MessageSource messageSource;
+    /** Hibernate hint to load entities in read-only mode, no snapshots are kept for dirty checking. */
+    static final String HINT_READ_ONLY = "org.hibernate.readOnly";
+    /** Hibernate hint to set the JDBC fetch size. */
+    static final String HINT_FETCH_SIZE = "org.hibernate.fetchSize";
 
     /**
      * Create a new AbstractGenericJpaDao.
@@ -88,6 +102,30 @@ public abstract class AbstractGenericJpaDao<T extends AbstractEntity<ID>, ID ext
         return em.find(getPersistentClass(), id);
     }
 
+    /**
+     * {@inheritDoc}
+     * 
+     * The keys are bound to <code>IN</code> queries of at most {@link #DEFAULT_CHUNK_SIZE} keys.
+     */
+    @Override
+    public List<T> findByIds(Collection<ID> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        EntityType<T> entityType = em.getMetamodel().entity(getPersistentClass());
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        List<ID> keys = new ArrayList<>(ids);
+        List<T> result = new ArrayList<>(keys.size());
+        for (int i = 0; i < keys.size(); i += DEFAULT_CHUNK_SIZE) {
+            List<ID> chunk = keys.subList(i, Math.min(i + DEFAULT_CHUNK_SIZE, keys.size()));
+            CriteriaQuery<T> query = cb.createQuery(getPersistentClass());
+            Root<T> root = query.from(getPersistentClass());
+            query.select(root).where(root.get(entityType.getId(entityType.getIdType().getJavaType())).in(chunk));
+            result.addAll(em.createQuery(query).getResultList());
+        }
+        return result;
+    }
+
     /**
      * {@inheritDoc}
      * 
@@ -96,7 +134,7 @@ public abstract class AbstractGenericJpaDao<T extends AbstractEntity<ID>, ID ext
     @SuppressWarnings("unchecked")
     @Override
     public List<T> findAll() {
-        List<T> all = em.createNamedQuery(getFindAllQuery()).getResultList();
+        List<T> all = createNamedQuery(getFindAllQuery()).getResultList();
         return all == null ? Collections.<T> emptyList() : all;
     }
 
@@ -106,7 +144,7 @@ public abstract class AbstractGenericJpaDao<T extends AbstractEntity<ID>, ID ext
     @Override
     @SuppressWarnings("unchecked")
     public List<T> findByNamedParameters(String queryName, Map<String, ?> params) {
-        Query queryObject = em.createNamedQuery(queryName);
+        Query queryObject = createNamedQuery(queryName);
         if (params != null) {
             for (Map.Entry<String, ?> entry : params.entrySet()) {
                 queryObject.setParameter(entry.getKey(), entry.getValue());
@@ -121,7 +159,7 @@ public abstract class AbstractGenericJpaDao<T extends AbstractEntity<ID>, ID ext
     @Override
     @SuppressWarnings("unchecked")
     public List<T> findByPositionalParameters(String queryName, Object... values) {
-        Query queryObject = em.createNamedQuery(queryName);
+        Query queryObject = createNamedQuery(queryName);
         if (values != null) {
             for (int i = 0; i < values.length; i++) {
                 queryObject.setParameter(i + 1, values[i]);
@@ -142,12 +180,16 @@ public abstract class AbstractGenericJpaDao<T extends AbstractEntity<ID>, ID ext
     @Override
     @SuppressWarnings("unchecked")
     public T findByUniqueId(Serializable id) {
-        List<T> result = em.createNamedQuery(getFindByUniqueIdQuery()).setParameter(1, id).getResultList();
+        List<T> result = createNamedQuery(getFindByUniqueIdQuery()).setParameter(1, id).setMaxResults(2).getResultList();
         if (result.size() > 1) {
-            throw new NoUniqueResultException(messageSource.getMessage(ExceptionCodes.MULIPLE_ENTITIES_FOUND,
-                    new Serializable[] { id }, null));
+            throw noUniqueResult(id);
         }
-        return result.size() == 0 ? null : result.get(0);
+        return result.isEmpty() ? null : result.get(0);
+    }
+
+    private NoUniqueResultException noUniqueResult(Serializable id) {
+        return new NoUniqueResultException(messageSource.getMessage(ExceptionCodes.MULIPLE_ENTITIES_FOUND, new Serializable[] { id },
+                null));
     }
 
     /**
@@ -190,6 +232,42 @@ public abstract class AbstractGenericJpaDao<T extends AbstractEntity<ID>, ID ext
      */
     protected abstract String getFindByUniqueIdQuery();
 
+    /**
+     * Whether Entities returned by the <code>NamedQuery</code> <code>queryName</code> are loaded read-only. Read-only Entities are not
+     * snapshotted for dirty checking, so they can't be modified and flushed. Subclasses may override, the default is {@literal false}.
+     *
+     * @param queryName
+     *            Name of the query
+     * @return {@literal true} if the query shall be executed read-only
+     */
+    protected boolean isReadOnlyQuery(String queryName) {
+        return false;
+    }
+
+    /**
+     * Return the JDBC fetch size for the <code>NamedQuery</code> <code>queryName</code>. Subclasses may override, the default is 0 which
+     * means the driver default is used.
+     *
+     * @param queryName
+     *            Name of the query
+     * @return The fetch size
+     */
+    protected int getFetchSize(String queryName) {
+        return 0;
+    }
+
+    private Query createNamedQuery(String queryName) {
+        Query query = em.createNamedQuery(queryName);
+        if (isReadOnlyQuery(queryName)) {
+            query.setHint(HINT_READ_ONLY, Boolean.TRUE);
+        }
+        int fetchSize = getFetchSize(queryName);
+        if (fetchSize > 0) {
+            query.setHint(HINT_FETCH_SIZE, fetchSize);
+        }
+        return query;
+    }
+
     /**
      * This method is considered as a hook to do something before an update is performed.
      * 
@@ -40,4 +40,16 @@ public final class Constants {
      */
     public static final String APPLICATION_INITIAL_PROPERTIES = "#{ appProps['application.initial.properties'] }";
 
+    /** Name of the second-level cache region for {@code Module}s. Value is {@value}. */
+    public static final String CACHE_REGION_MODULES = "openwms.core.modules";
+
+    /** Name of the second-level cache region for {@code Role}s and {@code Grant}s. Value is {@value}. */
+    public static final String CACHE_REGION_SECURITY_OBJECTS = "openwms.core.securityObjects";
+
+    /** Name of the second-level cache region for {@code I18n} translations. Value is {@value}. */
+    public static final String CACHE_REGION_I18N = "openwms.core.i18n";
+
+    /** Name of the second-level cache region for {@code Product}s. Value is {@value}. */
+    public static final String CACHE_REGION_PRODUCTS = "openwms.wms.products";
+
 }
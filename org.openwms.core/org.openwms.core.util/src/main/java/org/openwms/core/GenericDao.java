@@ -22,6 +22,7 @@
 package org.openwms.core;
 
 import java.io.Serializable;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
@@ -42,6 +43,9 @@ import java.util.Map;
  */
 public interface GenericDao<T extends AbstractEntity<ID>, ID extends Serializable> {
 
+    /** Maximum number of keys resolved with a single round-trip, like an <code>IN</code> clause of {@link #findByIds(Collection)}. */
+    int DEFAULT_CHUNK_SIZE = 500;
+
     /**
      * Suffix for the FIND_ALL named query.
      */
@@ -63,6 +67,17 @@ public interface GenericDao<T extends AbstractEntity<ID>, ID extends Serializabl
      */
     T findById(ID id);
 
+    /**
+     * Find and return all entities identified by the given technical keys. The entities are loaded in chunks of at most {@link
+     * #DEFAULT_CHUNK_SIZE} keys.
+     * The order of the returned list is not defined and keys without a matching entity are ignored.
+     * 
+     * @param ids
+     *            - Unique technical keys of the entities
+     * @return List of found entities, never <code>null</code>
+     */
+    List<T> findByIds(Collection<ID> ids);
+
     /**
      * Find all entities and return them as a {@link java.util.List}.
      * 
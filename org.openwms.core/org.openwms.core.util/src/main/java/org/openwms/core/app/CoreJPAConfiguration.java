@@ -21,10 +21,25 @@
  */
 package org.openwms.core.app;
 
+import javax.persistence.EntityManagerFactory;
+import java.util.Map;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.orm.jpa.AbstractEntityManagerFactoryBean;
 
 /**
  * A CoreJPAConfiguration.
+ * <p>
+ * The Hibernate second-level and query cache is opt-in and activated with the property {@value #CACHE_ENABLED}. Only Entities annotated
+ * with {@code @Cacheable} are cached, each in its own region. The region settings are read from the EhCache configuration resource
+ * {@value #CACHE_CONFIG}, the default is {@value #DEFAULT_CACHE_CONFIG}. The second-level cache uses a CacheManager of its own, it is not
+ * shared with the singleton CacheManager that other caches of the application may use.
+ * </p>
  *
  * @author <a href="mailto:heiko.scherrer@abraxas.ch">Heiko Scherrer</a>
  * @version 1.0
@@ -33,4 +48,79 @@ import org.springframework.context.annotation.Configuration;
 @Configuration
 class CoreJPAConfiguration {
 
+    /** Property to enable the second-level cache. */
+    static final String CACHE_ENABLED = "openwms.core.jpa.cache.enabled";
+    /** Property to set the EhCache configuration resource. */
+    static final String CACHE_CONFIG = "openwms.core.jpa.cache.config";
+    /** Default EhCache configuration resource. */
+    static final String DEFAULT_CACHE_CONFIG = "/openwms-core-ehcache.xml";
+
+    /**
+     * A SecondLevelCacheConfiguration.
+     *
+     * @author <a href="mailto:scherrer@openwms.org">Heiko Scherrer</a>
+     * @version 1.0
+     * @since 1.1
+     */
+    @Configuration
+    @ConditionalOnProperty(name = CACHE_ENABLED, havingValue = "true")
+    static class SecondLevelCacheConfiguration {
+
+        @Bean
+        static BeanPostProcessor secondLevelCacheConfigurer(Environment env) {
+            return new SecondLevelCacheConfigurer(env.getProperty(CACHE_CONFIG, DEFAULT_CACHE_CONFIG));
+        }
+
+        @Bean
+        SecondLevelCacheInvalidator secondLevelCacheInvalidator(EntityManagerFactory emf) {
+            return new SecondLevelCacheInvalidator(emf);
+        }
+
+        @Bean
+        SecondLevelCacheStatistics secondLevelCacheStatistics(EntityManagerFactory emf) {
+            return new SecondLevelCacheStatistics(emf);
+        }
+    }
+
+    /**
+     * A SecondLevelCacheConfigurer adds the cache settings to the JPA properties before the EntityManagerFactory is built. Explicitly
+     * configured properties are not overridden.
+     *
+     * @author <a href="mailto:scherrer@openwms.org">Heiko Scherrer</a>
+     * @version 1.0
+     * @since 1.1
+     */
+    static class SecondLevelCacheConfigurer implements BeanPostProcessor {
+
+        private final String cacheConfig;
+
+        SecondLevelCacheConfigurer(String cacheConfig) {
+            this.cacheConfig = cacheConfig;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public Object postProcessBeforeInitialization(Object bean, String beanName) throws BeansException {
+            if (bean instanceof AbstractEntityManagerFactoryBean) {
+                Map<String, Object> props = ((AbstractEntityManagerFactoryBean) bean).getJpaPropertyMap();
+                props.putIfAbsent("javax.persistence.sharedCache.mode", "ENABLE_SELECTIVE");
+                props.putIfAbsent("hibernate.cache.use_second_level_cache", "true");
+                props.putIfAbsent("hibernate.cache.use_query_cache", "true");
+                props.putIfAbsent("hibernate.cache.region.factory_class", "org.hibernate.cache.ehcache.EhCacheRegionFactory");
+                props.putIfAbsent("net.sf.ehcache.configurationResourceName", cacheConfig);
+                props.putIfAbsent("hibernate.generate_statistics", "true");
+            }
+            return bean;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+            return bean;
+        }
+    }
 }
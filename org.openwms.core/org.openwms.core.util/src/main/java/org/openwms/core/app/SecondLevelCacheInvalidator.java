@@ -0,0 +1,125 @@
+/*
+ * openwms.org, the Open Warehouse Management System.
+ * Copyright (C) 2014 Heiko Scherrer
+ *
+ * This file is part of openwms.org.
+ *
+ * openwms.org is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * openwms.org is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this software. If not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.openwms.core.app;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.hibernate.Cache;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.openwms.core.Constants;
+import org.openwms.core.event.ConfigurationChangedEvent;
+import org.openwms.core.event.GrantChangedEvent;
+import org.openwms.core.event.ProductChangedEvent;
+import org.openwms.core.event.RoleChangedEvent;
+import org.openwms.core.event.RootApplicationEvent;
+import org.openwms.core.event.UserChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationListener;
+
+/**
+ * A SecondLevelCacheInvalidator evicts the affected second-level cache regions and all query cache regions whenever reference data has
+ * changed. {@link RoleChangedEvent}s, {@link UserChangedEvent}s and {@link GrantChangedEvent}s evict the {@code Role} and {@code Grant}
+ * region, {@link ConfigurationChangedEvent}s evict the {@code Module} and {@code I18n} regions and {@link ProductChangedEvent}s the
+ * {@code Product} region.
+ * <p>
+ * Hibernate evicts entity regions by entity name only, so the names of all Entities cached in a region are resolved from the mapping
+ * metadata once. The events are published after commit, hence a failed eviction is logged and never propagated to the caller.
+ * </p>
+ *
+ * @author <a href="mailto:scherrer@openwms.org">Heiko Scherrer</a>
+ * @version 1.0
+ * @since 1.1
+ */
+class SecondLevelCacheInvalidator implements ApplicationListener<RootApplicationEvent> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SecondLevelCacheInvalidator.class);
+    private final EntityManagerFactory emf;
+    private final Map<String, List<String>> entityNamesByRegion = new ConcurrentHashMap<>();
+
+    /**
+     * Create a new SecondLevelCacheInvalidator.
+     *
+     * @param emf The EntityManagerFactory that owns the second-level cache
+     */
+    SecondLevelCacheInvalidator(EntityManagerFactory emf) {
+        this.emf = emf;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Evict the cache regions that hold Entities of the changed type.
+     */
+    @Override
+    public void onApplicationEvent(RootApplicationEvent event) {
+        if (event instanceof RoleChangedEvent || event instanceof UserChangedEvent || event instanceof GrantChangedEvent) {
+            evict(Constants.CACHE_REGION_SECURITY_OBJECTS);
+        } else if (event instanceof ConfigurationChangedEvent) {
+            evict(Constants.CACHE_REGION_MODULES, Constants.CACHE_REGION_I18N);
+        } else if (event instanceof ProductChangedEvent) {
+            evict(Constants.CACHE_REGION_PRODUCTS);
+        }
+    }
+
+    private void evict(String... regions) {
+        try {
+            SessionFactoryImplementor sf = emf.unwrap(SessionFactoryImplementor.class);
+            Cache cache = sf.getCache();
+            for (String region : regions) {
+                for (String entityName : entityNamesByRegion.computeIfAbsent(region, r -> resolveEntityNames(sf, r))) {
+                    cache.evictEntityRegion(entityName);
+                }
+            }
+            cache.evictQueryRegions();
+            cache.evictDefaultQueryRegion();
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug("Evicted second-level cache regions {} and all query regions", (Object) regions);
+            }
+        } catch (RuntimeException re) {
+            LOGGER.warn("Not able to evict second-level cache regions {}: {}", regions, re.getMessage());
+        }
+    }
+
+    /**
+     * Find the names of all Entities that are cached in the {@code region}. A configured region prefix is respected.
+     */
+    private static List<String> resolveEntityNames(SessionFactoryImplementor sf, String region) {
+        List<String> result = new ArrayList<>();
+        for (String entityName : sf.getAllClassMetadata().keySet()) {
+            EntityPersister persister = sf.getEntityPersister(entityName);
+            if (persister.hasCache()) {
+                String name = persister.getCacheAccessStrategy().getRegion().getName();
+                if (name.equals(region) || name.endsWith("." + region)) {
+                    result.add(entityName);
+                }
+            }
+        }
+        return Collections.unmodifiableList(result);
+    }
+}
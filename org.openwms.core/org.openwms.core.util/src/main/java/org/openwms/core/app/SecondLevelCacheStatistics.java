@@ -0,0 +1,97 @@
+/*
+ * openwms.org, the Open Warehouse Management System.
+ * Copyright (C) 2014 Heiko Scherrer
+ *
+ * This file is part of openwms.org.
+ *
+ * openwms.org is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * openwms.org is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this software. If not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.openwms.core.app;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+
+/**
+ * A SecondLevelCacheStatistics exposes the Hibernate second-level and query cache statistics via JMX.
+ *
+ * @author <a href="mailto:scherrer@openwms.org">Heiko Scherrer</a>
+ * @version 1.0
+ * @since 1.1
+ */
+@ManagedResource(description = "Hibernate second-level and query cache statistics")
+class SecondLevelCacheStatistics {
+
+    private final EntityManagerFactory emf;
+
+    /**
+     * Create a new SecondLevelCacheStatistics.
+     *
+     * @param emf The EntityManagerFactory that owns the second-level cache
+     */
+    SecondLevelCacheStatistics(EntityManagerFactory emf) {
+        this.emf = emf;
+    }
+
+    private Statistics statistics() {
+        return emf.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @ManagedAttribute(description = "Entities served from the second-level cache")
+    public long getSecondLevelCacheHitCount() {
+        return statistics().getSecondLevelCacheHitCount();
+    }
+
+    @ManagedAttribute(description = "Entities not found in the second-level cache")
+    public long getSecondLevelCacheMissCount() {
+        return statistics().getSecondLevelCacheMissCount();
+    }
+
+    @ManagedAttribute(description = "Entities put into the second-level cache")
+    public long getSecondLevelCachePutCount() {
+        return statistics().getSecondLevelCachePutCount();
+    }
+
+    @ManagedAttribute(description = "Queries served from the query cache")
+    public long getQueryCacheHitCount() {
+        return statistics().getQueryCacheHitCount();
+    }
+
+    @ManagedAttribute(description = "Queries not found in the query cache")
+    public long getQueryCacheMissCount() {
+        return statistics().getQueryCacheMissCount();
+    }
+
+    @ManagedAttribute(description = "Names of all second-level cache regions")
+    public String[] getSecondLevelCacheRegionNames() {
+        return statistics().getSecondLevelCacheRegionNames();
+    }
+
+    @ManagedOperation(description = "Number of Entities held in memory by the given region")
+    public long getElementCountInMemory(String region) {
+        org.hibernate.stat.SecondLevelCacheStatistics stats = statistics().getSecondLevelCacheStatistics(region);
+        return stats == null ? 0 : stats.getElementCountInMemory();
+    }
+
+    @ManagedOperation(description = "Reset all statistics")
+    public void clear() {
+        statistics().clear();
+    }
+}
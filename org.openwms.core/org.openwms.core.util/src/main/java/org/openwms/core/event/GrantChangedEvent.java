@@ -0,0 +1,67 @@
+/*
+ * openwms.org, the Open Warehouse Management System.
+ * Copyright (C) 2014 Heiko Scherrer
+ *
+ * This file is part of openwms.org.
+ *
+ * openwms.org is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as 
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * openwms.org is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this software. If not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.openwms.core.event;
+
+/**
+ * A GrantChangedEvent is fired to notify listeners that the <code>Grant</code>s of a <code>Module</code> have been added or removed. A
+ * listener has to assume that the authorities of all <code>User</code>s and <code>Role</code>s may have changed.
+ * 
+ * @author <a href="mailto:scherrer@openwms.org">Heiko Scherrer</a>
+ * @version 1.0
+ * @since 1.1
+ */
+public class GrantChangedEvent extends RootApplicationEvent {
+
+    private final String moduleName;
+
+    /**
+     * Create a new GrantChangedEvent.
+     * 
+     * @param source
+     *            The publisher of the event
+     */
+    public GrantChangedEvent(Object source) {
+        this(source, null);
+    }
+
+    /**
+     * Create a new GrantChangedEvent.
+     * 
+     * @param source
+     *            The publisher of the event
+     * @param moduleName
+     *            The name of the <code>Module</code> whose <code>Grant</code>s have changed or <code>null</code>
+     */
+    public GrantChangedEvent(Object source, String moduleName) {
+        super(source);
+        this.moduleName = moduleName;
+    }
+
+    /**
+     * Get the moduleName.
+     * 
+     * @return The name of the <code>Module</code> or <code>null</code> if not known
+     */
+    public String getModuleName() {
+        return moduleName;
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * openwms.org, the Open Warehouse Management System.
+ * Copyright (C) 2014 Heiko Scherrer
+ *
+ * This file is part of openwms.org.
+ *
+ * openwms.org is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as 
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * openwms.org is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this software. If not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.openwms.core.event;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * An I18nChangedEvent is fired to notify listeners about changed translations of a module. A listener could probably reload the changed
+ * translations.
+ * 
+ * @author <a href="mailto:scherrer@openwms.org">Heiko Scherrer</a>
+ * @version $Revision: $
+ * @since 1.1
+ */
+public class I18nChangedEvent extends RootApplicationEvent {
+
+    private static final long serialVersionUID = -2947153207553019871L;
+
+    private final String moduleName;
+    private final Set<String> keys;
+
+    /**
+     * Create a new I18nChangedEvent for a set of changed translations of a module.
+     * 
+     * @param source
+     *            The publisher of the event
+     * @param moduleName
+     *            The name of the module or <code>null</code> if all modules have changed
+     * @param keys
+     *            The keys of all changed translations
+     */
+    public I18nChangedEvent(Object source, String moduleName, Collection<String> keys) {
+        super(source);
+        this.moduleName = moduleName;
+        this.keys = keys == null ? Collections.<String>emptySet() : Collections.unmodifiableSet(new LinkedHashSet<>(keys));
+    }
+
+    /**
+     * Create a new I18nChangedEvent for some changed translations of a module.
+     * 
+     * @param source
+     *            The publisher of the event
+     * @param moduleName
+     *            The name of the module or <code>null</code> if all modules have changed
+     * @param keys
+     *            The keys of all changed translations
+     * @return The event instance
+     */
+    public static I18nChangedEvent of(Object source, String moduleName, String... keys) {
+        return new I18nChangedEvent(source, moduleName, Arrays.asList(keys));
+    }
+
+    /**
+     * Get the name of the module.
+     * 
+     * @return The name of the module, <code>null</code> if all modules have changed
+     */
+    public String getModuleName() {
+        return moduleName;
+    }
+
+    /**
+     * Get the keys of all changed translations.
+     * 
+     * @return The keys, an empty set if the changed translations are not known
+     */
+    public Set<String> getKeys() {
+        return keys;
+    }
+
+    /**
+     * Check whether the changed translations are not known, so that listeners have to assume all translations of the module have
+     * changed.
+     * 
+     * @return {@literal true} if no keys are given
+     */
+    public boolean isUnspecified() {
+        return keys.isEmpty();
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * openwms.org, the Open Warehouse Management System.
+ * Copyright (C) 2014 Heiko Scherrer
+ *
+ * This file is part of openwms.org.
+ *
+ * openwms.org is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as 
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * openwms.org is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this software. If not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.openwms.core.event;
+
+/**
+ * A ProductChangedEvent is published when {@code Product}s have been changed outside of the JPA layer, like by a bulk import.
+ * 
+ * @author <a href="mailto:scherrer@openwms.org">Heiko Scherrer</a>
+ * @version 1.0
+ * @since 1.1
+ */
+public class ProductChangedEvent extends RootApplicationEvent {
+
+    private static final long serialVersionUID = 2883214075519463410L;
+
+    /**
+     * Create a new ProductChangedEvent.
+     * 
+     * @param source
+     *            The changed <code>Product</code>, a Collection of those or the publisher of the event
+     */
+    public ProductChangedEvent(Object source) {
+        super(source);
+    }
+}
@@ -21,6 +21,12 @@
  */
 package org.openwms.core.event;
 
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
 /**
  * A RoleChangedEvent is fired to notify listeners about changes on an <code>Role</code> instance. A listener could probably evict a cache
  * of Roles.
@@ -33,6 +39,8 @@ public class RoleChangedEvent extends RootApplicationEvent {
 
     private static final long serialVersionUID = 5841462185501374901L;
 
+    private final Set<String> roleNames;
+
     /**
      * Create a new RoleChangedEvent.
      * 
@@ -40,6 +48,50 @@ public class RoleChangedEvent extends RootApplicationEvent {
      *            The <code>Role</code> that has changed or <code>null</code>
      */
     public RoleChangedEvent(Object source) {
+        this(source, Collections.<String>emptySet());
+    }
+
+    /**
+     * Create a new RoleChangedEvent for a set of affected <code>Role</code>s.
+     * 
+     * @param source
+     *            The publisher of the event
+     * @param roleNames
+     *            The names of all affected <code>Role</code>s
+     */
+    public RoleChangedEvent(Object source, Collection<String> roleNames) {
         super(source);
+        this.roleNames = roleNames == null ? Collections.<String>emptySet() : Collections.unmodifiableSet(new LinkedHashSet<>(roleNames));
+    }
+
+    /**
+     * Create a new RoleChangedEvent for some affected <code>Role</code>s.
+     * 
+     * @param source
+     *            The publisher of the event
+     * @param roleNames
+     *            The names of all affected <code>Role</code>s
+     * @return The event instance
+     */
+    public static RoleChangedEvent of(Object source, String... roleNames) {
+        return new RoleChangedEvent(source, Arrays.asList(roleNames));
+    }
+
+    /**
+     * Get the names of all affected <code>Role</code>s.
+     * 
+     * @return The names, an empty set if the affected <code>Role</code>s are not known
+     */
+    public Set<String> getRoleNames() {
+        return roleNames;
+    }
+
+    /**
+     * Check whether the affected <code>Role</code>s are not known, so that listeners have to assume all of them have changed.
+     * 
+     * @return {@literal true} if no names are given
+     */
+    public boolean isUnspecified() {
+        return roleNames.isEmpty();
     }
 }
\ No newline at end of file
@@ -21,9 +21,16 @@
  */
 package org.openwms.core.event;
 
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
 /**
  * An UserChangedEvent is fired to notify listeners about changes on an <code>User</code> instance. A listener could probably evict a cache
- * of Users.
+ * of Users. Whether the password, the enabled or locked flag or the expiration date have changed is flagged, so that sessions or tokens of
+ * the affected <code>User</code>s are only invalidated when necessary.
  * 
  * @author <a href="mailto:scherrer@openwms.org">Heiko Scherrer</a>
  * @version $Revision$
@@ -31,13 +38,98 @@ package org.openwms.core.event;
  */
 public class UserChangedEvent extends RootApplicationEvent {
 
+    private final Set<String> usernames;
+    private final boolean credentialsChanged;
+
     /**
-     * Create a new UserChangedEvent.
+     * Create a new UserChangedEvent. Nothing is known about the change, so the credentials of all <code>User</code>s are assumed to have
+     * changed.
      * 
      * @param source
      *            The <code>User</code> that has changed or <code>null</code>
      */
     public UserChangedEvent(Object source) {
+        this(source, Collections.<String>emptySet(), true);
+    }
+
+    /**
+     * Create a new UserChangedEvent for a set of affected <code>User</code>s.
+     * 
+     * @param source
+     *            The publisher of the event
+     * @param usernames
+     *            The usernames of all affected <code>User</code>s
+     */
+    public UserChangedEvent(Object source, Collection<String> usernames) {
+        this(source, usernames, false);
+    }
+
+    /**
+     * Create a new UserChangedEvent for a set of affected <code>User</code>s.
+     * 
+     * @param source
+     *            The publisher of the event
+     * @param usernames
+     *            The usernames of all affected <code>User</code>s
+     * @param credentialsChanged
+     *            Whether the password, the enabled or locked flag or the expiration date have changed
+     */
+    public UserChangedEvent(Object source, Collection<String> usernames, boolean credentialsChanged) {
         super(source);
+        this.usernames = usernames == null ? Collections.<String>emptySet() : Collections.unmodifiableSet(new LinkedHashSet<>(usernames));
+        this.credentialsChanged = credentialsChanged;
+    }
+
+    /**
+     * Create a new UserChangedEvent for some affected <code>User</code>s.
+     * 
+     * @param source
+     *            The publisher of the event
+     * @param usernames
+     *            The usernames of all affected <code>User</code>s
+     * @return The event instance
+     */
+    public static UserChangedEvent of(Object source, String... usernames) {
+        return new UserChangedEvent(source, Arrays.asList(usernames));
+    }
+
+    /**
+     * Create a new UserChangedEvent for some affected <code>User</code>s whose credentials have changed.
+     * 
+     * @param source
+     *            The publisher of the event
+     * @param usernames
+     *            The usernames of all affected <code>User</code>s
+     * @return The event instance
+     */
+    public static UserChangedEvent credentialsOf(Object source, String... usernames) {
+        return new UserChangedEvent(source, Arrays.asList(usernames), true);
+    }
+
+    /**
+     * Get the usernames of all affected <code>User</code>s.
+     * 
+     * @return The usernames, an empty set if the affected <code>User</code>s are not known
+     */
+    public Set<String> getUsernames() {
+        return usernames;
+    }
+
+    /**
+     * Check whether the affected <code>User</code>s are not known, so that listeners have to assume all of them have changed.
+     * 
+     * @return {@literal true} if no usernames are given
+     */
+    public boolean isUnspecified() {
+        return usernames.isEmpty();
+    }
+
+    /**
+     * Check whether the password, the enabled or locked flag or the expiration date of the affected <code>User</code>s have changed.
+     * 
+     * @return {@literal true} if the credentials have changed
+     */
+    public boolean isCredentialsChanged() {
+        return credentialsChanged;
     }
 }
\ No newline at end of file
@@ -29,7 +29,6 @@ import java.io.Serializable;
 import org.ameba.LoggingCategories;
 import org.ameba.exception.BehaviorAwareException;
 import org.ameba.exception.BusinessRuntimeException;
-import org.ameba.exception.TechnicalRuntimeException;
 import org.ameba.http.AbstractBase;
 import org.ameba.http.Response;
 import org.openwms.core.exception.ExceptionCodes;
@@ -61,36 +60,29 @@ public abstract class AbstractWebController {
     /**
      * All general exceptions thrown by services are caught here and translated into http conform responses with a status code {@code 500
      * Internal Server Error}.
+     * <p>
+     * How an exception is translated and logged is resolved once per exception class, see {@link ExceptionMapping}. Expected exceptions
+     * are logged without stack trace and rate-limited.
+     * </p>
      *
      * @param ex The exception occurred
      * @return A response object wraps the server result
      */
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Response<Serializable>> handleException(Exception ex) {
-        EXC_LOGGER.error("[P] Presentation Layer Exception: " + ex.getLocalizedMessage(), ex);
-        if (ex instanceof BehaviorAwareException) {
-            BehaviorAwareException bae = (BehaviorAwareException) ex;
-            return bae.toResponse(bae.getData());
+        ExceptionMapping mapping = ExceptionMapping.of(ex.getClass());
+        mapping.log(EXC_LOGGER, ex);
+        switch (mapping.getKind()) {
+            case BEHAVIOR_AWARE:
+                BehaviorAwareException bae = (BehaviorAwareException) ex;
+                return bae.toResponse(bae.getData());
+            case BUSINESS:
+                return mapping.getTemplate().create(ex.getMessage(), ((BusinessRuntimeException) ex).getMsgKey());
+            case HTTP_BUSINESS:
+                return ResponseTemplate.of(((HttpBusinessException) ex).getHttpStatus()).create(ex.getMessage());
+            default:
+                return mapping.getTemplate().create(ex.getMessage());
         }
-        if (ex instanceof BusinessRuntimeException) {
-            BusinessRuntimeException bre = (BusinessRuntimeException) ex;
-            return new ResponseEntity<>(new Response<>(ex.getMessage(), bre.getMsgKey(), HttpStatus.INTERNAL_SERVER_ERROR.toString(), new String[]{bre.getMsgKey()}), HttpStatus.INTERNAL_SERVER_ERROR);
-        }
-        if (ex instanceof HttpBusinessException) {
-            HttpBusinessException e = (HttpBusinessException) ex;
-            return new ResponseEntity<>(new Response<>(ex.getMessage(), e.getHttpStatus().toString()), e.getHttpStatus());
-        }
-        if (ex instanceof ValidationException) {
-            return new ResponseEntity<>(new Response<>(ex.getMessage(), HttpStatus.BAD_REQUEST.toString()),
-                    HttpStatus.BAD_REQUEST);
-        }
-        if (ex instanceof TechnicalRuntimeException) {
-            TechnicalRuntimeException be = (TechnicalRuntimeException) ex;
-            return new ResponseEntity<>(new Response<>(ex.getMessage(), HttpStatus.BAD_GATEWAY.toString()),
-                    HttpStatus.BAD_GATEWAY);
-        }
-        return new ResponseEntity<>(new Response<>(ex.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR.toString()),
-                HttpStatus.INTERNAL_SERVER_ERROR);
     }
 
     /**
@@ -102,7 +94,7 @@ public abstract class AbstractWebController {
     @ExceptionHandler({MethodArgumentNotValidException.class, ValidationException.class})
     public ResponseEntity<Response> handleValidationException() {
         return new ResponseEntity<>(new Response(translate(ExceptionCodes.VALIDATION_ERROR),
-                HttpStatus.INTERNAL_SERVER_ERROR.toString()), HttpStatus.INTERNAL_SERVER_ERROR);
+                ResponseTemplate.INTERNAL_SERVER_ERROR.getCode()), HttpStatus.INTERNAL_SERVER_ERROR);
     }
 
     /**
@@ -127,7 +119,7 @@ public abstract class AbstractWebController {
      * @return A ResponseEntity with status {@code code}
      */
     protected <T extends AbstractBase> ResponseEntity<Response<T>> buildResponse(HttpStatus code, String msg, String msgKey, T... params) {
-        Response result = new Response(msg, msgKey, code.toString(), params);
+        Response result = new Response(msg, msgKey, ResponseTemplate.of(code).getCode(), params);
         //result.add(linkTo(this.getClass()).withSelfRel());
         return new ResponseEntity<>(result, code);
     }
@@ -144,7 +136,7 @@ public abstract class AbstractWebController {
      * @return A ResponseEntity with status {@code code}
      */
     protected <T extends AbstractBase> ResponseEntity<Response<T>> buildResponse(HttpStatus code, String msg, String msgKey, MultiValueMap<String, String> headers, T... params) {
-        Response result = new Response(msg, msgKey, code.toString(), params);
+        Response result = new Response(msg, msgKey, ResponseTemplate.of(code).getCode(), params);
         return new ResponseEntity<>(result, headers, code);
     }
 
@@ -0,0 +1,179 @@
+/*
+ * openwms.org, the Open Warehouse Management System.
+ * Copyright (C) 2014 Heiko Scherrer
+ *
+ * This file is part of openwms.org.
+ *
+ * openwms.org is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as 
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * openwms.org is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this software. If not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.openwms.core.http;
+
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+/**
+ * A ConditionalResponses answers GET requests on read-mostly resources with a strong ETag and honours the {@code If-None-Match} header. The
+ * version is taken from the {@link ResourceVersions} before the body is built, so an unchanged resource is answered with {@code 304 Not
+ * Modified} without loading any data.
+ * <p>
+ * Optionally the serialized JSON of each representation is kept in a bounded cache and served as it is, as long as the version of the
+ * resource and the period of the entity tag have not changed, so a cached response is never older than the lifetime of an entity tag,
+ * see {@link ResourceVersions}. The cache is enabled with the property {@value #CACHE_ENABLED} and holds at most {@code
+ * openwms.core.http.response-cache.size} representations.
+ * </p>
+ *
+ * @author <a href="mailto:scherrer@openwms.org">Heiko Scherrer</a>
+ * @version 1.0
+ * @since 1.1
+ */
+@Component
+public class ConditionalResponses {
+
+    /** Property to enable the serialized-response cache. */
+    static final String CACHE_ENABLED = "openwms.core.http.response-cache.enabled";
+    private static final CacheControl CACHE_CONTROL = CacheControl.noCache().cachePrivate();
+
+    private final ResourceVersions versions;
+    private final ObjectMapper mapper;
+    private final Map<String, CachedResponse> cache;
+
+    /**
+     * Create a new ConditionalResponses.
+     *
+     * @param versions The versions of all resources
+     * @param mapper Used to serialize cached responses
+     * @param cacheEnabled Whether serialized responses are cached
+     * @param cacheSize The maximum number of cached responses
+     */
+    @Autowired
+    public ConditionalResponses(ResourceVersions versions, ObjectMapper mapper,
+            @Value("${" + CACHE_ENABLED + ":false}") boolean cacheEnabled,
+            @Value("${openwms.core.http.response-cache.size:100}") int cacheSize) {
+        this.versions = versions;
+        this.mapper = mapper;
+        this.cache = cacheEnabled ? new LinkedHashMap<String, CachedResponse>(16, 0.75f, true) {
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+                return size() > cacheSize;
+            }
+        } : null;
+    }
+
+    /**
+     * Answer a GET request on a resource.
+     *
+     * @param resource The name of the resource, see {@link ResourceVersions}
+     * @param variant Identifies the representation, like the requested page, may be {@literal null}
+     * @param ifNoneMatch The value of the {@code If-None-Match} request header, may be {@literal null}
+     * @param body Builds the body, only called if the client does not have the current representation yet
+     * @return Either {@code 304 Not Modified} or {@code 200 OK} with the body
+     */
+    public ResponseEntity<?> respond(String resource, Object variant, String ifNoneMatch, Supplier<?> body) {
+        long version = versions.current(resource);
+        String etag = versions.etag(resource, version, variant);
+        if (matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(CACHE_CONTROL).build();
+        }
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok().eTag(etag).cacheControl(CACHE_CONTROL);
+        if (cache == null) {
+            return builder.body(body.get());
+        }
+        return builder.contentType(MediaType.APPLICATION_JSON_UTF8).body(serialized(etag, resource, variant, body));
+    }
+
+    private byte[] serialized(String etag, String resource, Object variant, Supplier<?> body) {
+        String key = variant == null ? resource : resource + '\u0000' + variant;
+        CachedResponse cached;
+        synchronized (cache) {
+            cached = cache.get(key);
+        }
+        if (cached != null && cached.etag.equals(etag)) {
+            return cached.json;
+        }
+        byte[] json;
+        try {
+            json = mapper.writeValueAsBytes(body.get());
+        } catch (JsonProcessingException jpe) {
+            throw new UncheckedIOException("Not able to serialize the response of " + etag, jpe);
+        }
+        synchronized (cache) {
+            cache.put(key, new CachedResponse(etag, json));
+        }
+        return json;
+    }
+
+    /**
+     * Check whether the {@code If-None-Match} header matches the {@code etag}. Weak tags sent by the client are compared by their opaque
+     * part, as defined for {@code If-None-Match}.
+     *
+     * @param ifNoneMatch The header value, may be {@literal null}
+     * @param etag The current entity tag
+     * @return {@literal true} if the client has the current representation
+     */
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isEmpty()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if ("*".equals(tag) || etag.equals(tag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Get the number of cached responses.
+     *
+     * @return The number of cached responses, {@literal 0} if the cache is disabled
+     */
+    int getCachedResponses() {
+        if (cache == null) {
+            return 0;
+        }
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    private static final class CachedResponse {
+
+        private final String etag;
+        private final byte[] json;
+
+        private CachedResponse(String etag, byte[] json) {
+            this.etag = etag;
+            this.json = json;
+        }
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * openwms.org, the Open Warehouse Management System.
+ * Copyright (C) 2014 Heiko Scherrer
+ *
+ * This file is part of openwms.org.
+ *
+ * openwms.org is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as 
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * openwms.org is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this software. If not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.openwms.core.http;
+
+import javax.validation.ValidationException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.ameba.exception.BehaviorAwareException;
+import org.ameba.exception.BusinessRuntimeException;
+import org.ameba.exception.TechnicalRuntimeException;
+import org.slf4j.Logger;
+
+/**
+ * An ExceptionMapping describes how exceptions of a particular class are translated into responses and logged. The mapping is resolved
+ * once per exception class and kept in a {@link ClassValue}.
+ * <p>
+ * Expected exceptions, like business and validation exceptions, are logged without a stack trace. Per exception class only
+ * {@value #PERMITS_PER_SECOND} of them are logged each second, afterwards only every {@value #SAMPLE_RATE}th one together with the number
+ * of suppressed ones. All other exceptions are logged with stack trace.
+ * </p>
+ *
+ * @author <a href="mailto:scherrer@openwms.org">Heiko Scherrer</a>
+ * @since 1.1
+ */
+final class ExceptionMapping {
+
+    /** Number of expected exceptions per class that are logged each second. */
+    static final int PERMITS_PER_SECOND = 10;
+    /** When the permits are exhausted, every n-th expected exception is logged. */
+    static final int SAMPLE_RATE = 100;
+    private static final long WINDOW = TimeUnit.SECONDS.toNanos(1);
+
+    private static final ClassValue<ExceptionMapping> MAPPINGS = new ClassValue<ExceptionMapping>() {
+        @Override
+        protected ExceptionMapping computeValue(Class<?> type) {
+            if (BehaviorAwareException.class.isAssignableFrom(type)) {
+                return new ExceptionMapping(Kind.BEHAVIOR_AWARE, null);
+            }
+            if (BusinessRuntimeException.class.isAssignableFrom(type)) {
+                return new ExceptionMapping(Kind.BUSINESS, ResponseTemplate.INTERNAL_SERVER_ERROR);
+            }
+            if (HttpBusinessException.class.isAssignableFrom(type)) {
+                return new ExceptionMapping(Kind.HTTP_BUSINESS, null);
+            }
+            if (ValidationException.class.isAssignableFrom(type)) {
+                return new ExceptionMapping(Kind.VALIDATION, ResponseTemplate.BAD_REQUEST);
+            }
+            if (TechnicalRuntimeException.class.isAssignableFrom(type)) {
+                return new ExceptionMapping(Kind.TECHNICAL, ResponseTemplate.BAD_GATEWAY);
+            }
+            return new ExceptionMapping(Kind.UNEXPECTED, ResponseTemplate.INTERNAL_SERVER_ERROR);
+        }
+    };
+
+    /**
+     * The Kind of exceptions, in the order of precedence.
+     */
+    enum Kind {
+        /** Exceptions that build their own response. */
+        BEHAVIOR_AWARE(true),
+        /** Business exceptions with a message key. */
+        BUSINESS(true),
+        /** Exceptions that carry their own status. */
+        HTTP_BUSINESS(true),
+        /** Validation errors. */
+        VALIDATION(true),
+        /** Technical errors of a backend. */
+        TECHNICAL(false),
+        /** Any other exception. */
+        UNEXPECTED(false);
+
+        private final boolean expected;
+
+        Kind(boolean expected) {
+            this.expected = expected;
+        }
+    }
+
+    private final Kind kind;
+    private final ResponseTemplate template;
+    private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+    private final AtomicInteger logged = new AtomicInteger();
+    private final AtomicLong overflow = new AtomicLong();
+    private final AtomicLong suppressed = new AtomicLong();
+
+    private ExceptionMapping(Kind kind, ResponseTemplate template) {
+        this.kind = kind;
+        this.template = template;
+    }
+
+    /**
+     * Get the mapping of an exception class.
+     *
+     * @param type The exception class
+     * @return The mapping, never {@literal null}
+     */
+    static ExceptionMapping of(Class<?> type) {
+        return MAPPINGS.get(type);
+    }
+
+    /**
+     * Log the exception according to its kind.
+     *
+     * @param logger The logger to use
+     * @param ex The exception
+     */
+    void log(Logger logger, Exception ex) {
+        if (!kind.expected) {
+            logger.error("[P] Presentation Layer Exception: " + ex.getLocalizedMessage(), ex);
+            return;
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug("[P] Presentation Layer Exception: " + ex.getLocalizedMessage(), ex);
+            return;
+        }
+        if (tryAcquire()) {
+            long skipped = suppressed.getAndSet(0);
+            if (skipped > 0) {
+                logger.warn("[P] Presentation Layer Exception: {} [{} similar suppressed]", ex.getLocalizedMessage(), skipped);
+            } else {
+                logger.warn("[P] Presentation Layer Exception: {}", ex.getLocalizedMessage());
+            }
+        }
+    }
+
+    /**
+     * Check whether the next expected exception may be logged.
+     *
+     * @return {@literal true} if permitted or sampled
+     */
+    boolean tryAcquire() {
+        long now = System.nanoTime();
+        long start = windowStart.get();
+        if (now - start >= WINDOW && windowStart.compareAndSet(start, now)) {
+            logged.set(0);
+        }
+        if (logged.incrementAndGet() <= PERMITS_PER_SECOND) {
+            return true;
+        }
+        if (overflow.incrementAndGet() % SAMPLE_RATE == 0) {
+            return true;
+        }
+        suppressed.incrementAndGet();
+        return false;
+    }
+
+    /**
+     * Get the kind.
+     *
+     * @return the kind.
+     */
+    Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * Get the template.
+     *
+     * @return the template, {@literal null} if the status depends on the exception instance
+     */
+    ResponseTemplate getTemplate() {
+        return template;
+    }
+}
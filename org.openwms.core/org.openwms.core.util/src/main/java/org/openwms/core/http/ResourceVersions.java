@@ -0,0 +1,165 @@
+/*
+ * openwms.org, the Open Warehouse Management System.
+ * Copyright (C) 2014 Heiko Scherrer
+ *
+ * This file is part of openwms.org.
+ *
+ * openwms.org is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as 
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * openwms.org is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this software. If not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.openwms.core.http;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import org.openwms.core.event.ConfigurationChangedEvent;
+import org.openwms.core.event.GrantChangedEvent;
+import org.openwms.core.event.RoleChangedEvent;
+import org.openwms.core.event.RootApplicationEvent;
+import org.openwms.core.event.UserChangedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * A ResourceVersions keeps a change counter for each read-mostly REST resource. The counter is increased whenever one of the existing
+ * change events arrives, so the version of a resource is known without loading any data.
+ * <p>
+ * The entity versions can not be used for collection resources: deleted entities leave no trace and summing up the versions of all
+ * entities needs a full read anyway. The counters start with an epoch that is unique per instance, hence a version is never reused after a
+ * restart.
+ * </p>
+ * <p>
+ * The counters are kept in memory and only see the change events of this instance. When several instances serve the same database, a
+ * change made on another instance is not noticed here. Therefore each entity tag is only valid for a limited lifetime, set with the
+ * property {@code openwms.core.http.etag.lifetime} in seconds (default {@literal 60}). A {@code 304} hides a change of another instance
+ * for this long at most. A lifetime of {@literal 0} keeps the tags valid until the next change, which is only correct if one single
+ * instance serves the resources.
+ * </p>
+ *
+ * @author <a href="mailto:scherrer@openwms.org">Heiko Scherrer</a>
+ * @version 1.0
+ * @since 1.1
+ */
+@Component
+public class ResourceVersions implements ApplicationListener<RootApplicationEvent> {
+
+    /** Resource name of the collection of <code>User</code>s. */
+    public static final String USERS = "users";
+    /** Resource name of the collection of <code>Role</code>s. */
+    public static final String ROLES = "roles";
+    /** Resource name of the collection of preferences. */
+    public static final String PREFERENCES = "preferences";
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+    private final ConcurrentMap<String, AtomicLong> counters = new ConcurrentHashMap<>();
+    private final long lifetime;
+    private final LongSupplier clock;
+
+    /**
+     * Create a new ResourceVersions with entity tags valid for 60 seconds.
+     */
+    public ResourceVersions() {
+        this(60);
+    }
+
+    /**
+     * Create a new ResourceVersions.
+     *
+     * @param lifetime The lifetime of an entity tag in seconds, {@literal 0} for single instance setups
+     */
+    @Autowired
+    public ResourceVersions(@Value("${openwms.core.http.etag.lifetime:60}") long lifetime) {
+        this(lifetime, System::currentTimeMillis);
+    }
+
+    /**
+     * Create a new ResourceVersions with an own clock.
+     *
+     * @param lifetime The lifetime of an entity tag in seconds
+     * @param clock Supplies the current time in milliseconds
+     */
+    ResourceVersions(long lifetime, LongSupplier clock) {
+        this.lifetime = TimeUnit.SECONDS.toMillis(Math.max(0, lifetime));
+        this.clock = clock;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * An {@link UserChangedEvent} changes the <code>User</code>s and the <code>Role</code>s, because these list their assigned
+     * <code>User</code>s. A {@link RoleChangedEvent} or a {@link GrantChangedEvent} changes the <code>Role</code>s and a {@link
+     * ConfigurationChangedEvent} the preferences. All events are published after commit, so the new
+     * version is never combined with the former state.
+     */
+    @Override
+    public void onApplicationEvent(RootApplicationEvent event) {
+        if (event instanceof UserChangedEvent) {
+            increment(USERS);
+            increment(ROLES);
+        } else if (event instanceof RoleChangedEvent || event instanceof GrantChangedEvent) {
+            increment(ROLES);
+        } else if (event instanceof ConfigurationChangedEvent) {
+            increment(PREFERENCES);
+        }
+    }
+
+    /**
+     * Get the current version of a resource.
+     *
+     * @param resource The name of the resource
+     * @return The version, {@literal 0} as long as the resource has not been changed
+     */
+    public long current(String resource) {
+        AtomicLong counter = counters.get(resource);
+        return counter == null ? 0 : counter.get();
+    }
+
+    /**
+     * Increase the version of a resource.
+     *
+     * @param resource The name of the resource
+     * @return The new version
+     */
+    public long increment(String resource) {
+        return counters.computeIfAbsent(resource, r -> new AtomicLong()).incrementAndGet();
+    }
+
+    /**
+     * Build a strong entity tag. Different representations of the same resource, like pages or filtered views, are distinguished by the
+     * {@code variant}. Unless the lifetime is {@literal 0}, the tag also contains the current lifetime period, so it changes at the end of
+     * each period at the latest.
+     *
+     * @param resource The name of the resource
+     * @param version The version of the resource
+     * @param variant Identifies the representation, may be {@literal null}
+     * @return The quoted entity tag
+     */
+    public String etag(String resource, long version, Object variant) {
+        StringBuilder sb = new StringBuilder(resource.length() + 32).append('"').append(resource).append('-').append(epoch).append('-')
+                .append(Long.toString(version, Character.MAX_RADIX));
+        if (lifetime > 0) {
+            sb.append('-').append(Long.toString(clock.getAsLong() / lifetime, Character.MAX_RADIX));
+        }
+        if (variant != null) {
+            sb.append('-').append(Integer.toHexString(variant.toString().hashCode()));
+        }
+        return sb.append('"').toString();
+    }
+}
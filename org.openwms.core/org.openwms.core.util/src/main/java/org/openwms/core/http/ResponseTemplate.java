@@ -0,0 +1,114 @@
+/*
+ * openwms.org, the Open Warehouse Management System.
+ * Copyright (C) 2014 Heiko Scherrer
+ *
+ * This file is part of openwms.org.
+ *
+ * openwms.org is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as 
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * openwms.org is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this software. If not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.openwms.core.http;
+
+import java.io.Serializable;
+
+import org.ameba.http.Response;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * A ResponseTemplate is an immutable template of error responses with a particular {@link HttpStatus}. Templates for all status codes are
+ * precomputed, so that the status code String is not built again for each response.
+ *
+ * @author <a href="mailto:scherrer@openwms.org">Heiko Scherrer</a>
+ * @since 1.1
+ */
+final class ResponseTemplate {
+
+    private static final ResponseTemplate[] TEMPLATES;
+    /** Template for {@code 400 Bad Request}. */
+    static final ResponseTemplate BAD_REQUEST;
+    /** Template for {@code 500 Internal Server Error}. */
+    static final ResponseTemplate INTERNAL_SERVER_ERROR;
+    /** Template for {@code 502 Bad Gateway}. */
+    static final ResponseTemplate BAD_GATEWAY;
+
+    static {
+        HttpStatus[] all = HttpStatus.values();
+        TEMPLATES = new ResponseTemplate[all.length];
+        for (HttpStatus status : all) {
+            TEMPLATES[status.ordinal()] = new ResponseTemplate(status);
+        }
+        BAD_REQUEST = of(HttpStatus.BAD_REQUEST);
+        INTERNAL_SERVER_ERROR = of(HttpStatus.INTERNAL_SERVER_ERROR);
+        BAD_GATEWAY = of(HttpStatus.BAD_GATEWAY);
+    }
+
+    private final HttpStatus status;
+    private final String code;
+
+    private ResponseTemplate(HttpStatus status) {
+        this.status = status;
+        this.code = status.toString();
+    }
+
+    /**
+     * Get the template of a status.
+     *
+     * @param status The status, {@literal null} is treated as {@code 500 Internal Server Error}
+     * @return The template
+     */
+    static ResponseTemplate of(HttpStatus status) {
+        return status == null ? INTERNAL_SERVER_ERROR : TEMPLATES[status.ordinal()];
+    }
+
+    /**
+     * Create a response with a message.
+     *
+     * @param message The message text
+     * @return The response
+     */
+    ResponseEntity<Response<Serializable>> create(String message) {
+        return new ResponseEntity<>(new Response<>(message, code), status);
+    }
+
+    /**
+     * Create a response with a message and the key of the message.
+     *
+     * @param message The message text
+     * @param messageKey The key of the message
+     * @return The response
+     */
+    ResponseEntity<Response<Serializable>> create(String message, String messageKey) {
+        return new ResponseEntity<>(new Response<>(message, messageKey, code, new String[]{messageKey}), status);
+    }
+
+    /**
+     * Get the status.
+     *
+     * @return the status.
+     */
+    HttpStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * Get the code.
+     *
+     * @return the status code as String.
+     */
+    String getCode() {
+        return code;
+    }
+}
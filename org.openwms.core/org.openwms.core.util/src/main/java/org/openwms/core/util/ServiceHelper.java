@@ -25,7 +25,11 @@ import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import org.openwms.core.AbstractEntity;
 import org.openwms.core.GenericDao;
@@ -47,8 +51,9 @@ public final class ServiceHelper {
 
     /**
      * Returns a list of managed entities from a collection of detached
-     * entities. Each entity in <code>detachedEntities</code> is reloaded with
-     * the <code>dao</code>.
+     * entities. All entities in <code>detachedEntities</code> are reloaded
+     * with one bulk lookup of the <code>dao</code>. The order of the input is
+     * kept, entities that do not exist anymore are skipped.
      * 
      * @param <T>
      *            The type of entity
@@ -65,13 +70,87 @@ public final class ServiceHelper {
         if (detachedEntities == null || detachedEntities.isEmpty()) {
             return Collections.emptyList();
         }
-        List<T> managed = new ArrayList<T>(detachedEntities.size());
-        for (T detachedEntity : detachedEntities) {
-            T managedTu = dao.findById(detachedEntity.getId());
+        return resolve(new ArrayList<>(detachedEntities), dao);
+    }
+
+    /**
+     * Returns a lazy stream of managed entities from a collection of detached
+     * entities. The entities are reloaded chunk by chunk with
+     * {@value GenericDao#DEFAULT_CHUNK_SIZE} entities each, when the stream is consumed.
+     * The order of the input is kept, entities that do not exist anymore are
+     * skipped. The stream must be consumed within the transaction.
+     * 
+     * @param <T>
+     *            The type of entity
+     * @param <ID>
+     *            The type of entity's primary key
+     * @param detachedEntities
+     *            A collection of detached entities
+     * @param dao
+     *            An instance of a DAO, used for reloading
+     * @return The stream of managed entities, never <code>null</code>
+     */
+    public static <T extends AbstractEntity<ID>, ID extends Serializable> Stream<T> managedEntityStream(
+            Collection<T> detachedEntities, GenericDao<T, ID> dao) {
+        return managedEntityStream(detachedEntities, dao, GenericDao.DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Returns a lazy stream of managed entities from a collection of detached
+     * entities. The entities are reloaded chunk by chunk with
+     * <code>chunkSize</code> entities each, when the stream is consumed.
+     * The order of the input is kept, entities that do not exist anymore are
+     * skipped. The stream must be consumed within the transaction.
+     * 
+     * @param <T>
+     *            The type of entity
+     * @param <ID>
+     *            The type of entity's primary key
+     * @param detachedEntities
+     *            A collection of detached entities
+     * @param dao
+     *            An instance of a DAO, used for reloading
+     * @param chunkSize
+     *            The number of entities reloaded at once
+     * @return The stream of managed entities, never <code>null</code>
+     * @throws IllegalArgumentException
+     *             if <code>chunkSize</code> is less than 1
+     */
+    public static <T extends AbstractEntity<ID>, ID extends Serializable> Stream<T> managedEntityStream(
+            Collection<T> detachedEntities, GenericDao<T, ID> dao, int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("The chunk size must be positive but was " + chunkSize);
+        }
+        if (detachedEntities == null || detachedEntities.isEmpty()) {
+            return Stream.empty();
+        }
+        List<T> detached = new ArrayList<>(detachedEntities);
+        int size = chunkSize;
+        int chunks = (detached.size() + size - 1) / size;
+        return IntStream.range(0, chunks)
+                .mapToObj(i -> detached.subList(i * size, Math.min((i + 1) * size, detached.size())))
+                .flatMap(chunk -> resolve(chunk, dao).stream());
+    }
+
+    private static <T extends AbstractEntity<ID>, ID extends Serializable> List<T> resolve(List<T> detached,
+            GenericDao<T, ID> dao) {
+        List<ID> ids = new ArrayList<>(detached.size());
+        for (T detachedEntity : detached) {
+            if (detachedEntity.getId() != null) {
+                ids.add(detachedEntity.getId());
+            }
+        }
+        Map<ID, T> byId = new HashMap<>(ids.size() * 2);
+        for (T managed : dao.findByIds(ids)) {
+            byId.put(managed.getId(), managed);
+        }
+        List<T> managed = new ArrayList<>(ids.size());
+        for (ID id : ids) {
+            T managedTu = byId.get(id);
             if (managedTu != null) {
                 managed.add(managedTu);
             }
         }
         return managed;
     }
-}
\ No newline at end of file
+}
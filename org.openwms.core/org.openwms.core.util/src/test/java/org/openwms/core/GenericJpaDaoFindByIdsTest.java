@@ -0,0 +1,142 @@
+/*
+ * openwms.org, the Open Warehouse Management System.
+ * Copyright (C) 2014 Heiko Scherrer
+ *
+ * This file is part of openwms.org.
+ *
+ * openwms.org is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * openwms.org is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this software. If not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.openwms.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.metamodel.EntityType;
+import javax.persistence.metamodel.Metamodel;
+import javax.persistence.metamodel.SingularAttribute;
+import javax.persistence.metamodel.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Matchers;
+import org.mockito.Mock;
+import org.openwms.core.test.AbstractMockitoTests;
+
+/**
+ * A GenericJpaDaoFindByIdsTest.
+ *
+ * @author <a href="mailto:scherrer@openwms.org">Heiko Scherrer</a>
+ * @version $Revision: $
+ * @since 1.1
+ */
+@SuppressWarnings({"unchecked", "rawtypes"})
+public class GenericJpaDaoFindByIdsTest extends AbstractMockitoTests {
+
+    @Mock
+    private EntityManager em;
+    @Mock
+    private Metamodel metamodel;
+    @Mock
+    private EntityType entityType;
+    @Mock
+    private Type idType;
+    @Mock
+    private SingularAttribute idAttribute;
+    @Mock
+    private CriteriaBuilder cb;
+    @Mock
+    private CriteriaQuery query;
+    @Mock
+    private Root root;
+    @Mock
+    private Path path;
+    @Mock
+    private Predicate predicate;
+    @Mock
+    private TypedQuery typedQuery;
+    @InjectMocks
+    private GenericJpaDaoQueryHintsTest.TestDao dao;
+
+    private void givenCriteria() {
+        when(em.getMetamodel()).thenReturn(metamodel);
+        when(metamodel.entity(TestEntity.class)).thenReturn(entityType);
+        when(entityType.getIdType()).thenReturn(idType);
+        when(idType.getJavaType()).thenReturn(Long.class);
+        when(entityType.getId(Long.class)).thenReturn(idAttribute);
+        when(em.getCriteriaBuilder()).thenReturn(cb);
+        when(cb.createQuery(TestEntity.class)).thenReturn(query);
+        when(query.from(TestEntity.class)).thenReturn(root);
+        doReturn(path).when(root).get(idAttribute);
+        when(path.in(Matchers.anyCollection())).thenReturn(predicate);
+        when(em.createQuery(query)).thenReturn(typedQuery);
+    }
+
+    private static List<TestEntity> entities(long from, long to) {
+        return LongStream.rangeClosed(from, to).mapToObj(TestEntity::new).collect(Collectors.toList());
+    }
+
+    /**
+     * More keys than {@link GenericDao#DEFAULT_CHUNK_SIZE} are split into several <code>IN</code> queries and the results are merged.
+     */
+    @Test
+    public final void testChunkedInQueries() {
+        givenCriteria();
+        int chunkSize = GenericDao.DEFAULT_CHUNK_SIZE;
+        List<Long> ids = LongStream.rangeClosed(1, 2 * chunkSize + 1).boxed().collect(Collectors.toList());
+        List<TestEntity> first = entities(1, chunkSize);
+        List<TestEntity> second = entities(chunkSize + 1, 2 * chunkSize - 1);
+        when(typedQuery.getResultList()).thenReturn(first, second, Collections.emptyList());
+
+        List<TestEntity> result = dao.findByIds(ids);
+
+        List<TestEntity> expected = new ArrayList<>(first);
+        expected.addAll(second);
+        assertEquals(expected, result);
+        ArgumentCaptor<Collection> chunks = ArgumentCaptor.forClass(Collection.class);
+        verify(path, times(3)).in(chunks.capture());
+        assertEquals(ids.subList(0, chunkSize), new ArrayList<>(chunks.getAllValues().get(0)));
+        assertEquals(ids.subList(chunkSize, 2 * chunkSize), new ArrayList<>(chunks.getAllValues().get(1)));
+        assertEquals(Collections.singletonList(2L * chunkSize + 1), new ArrayList<>(chunks.getAllValues().get(2)));
+    }
+
+    /**
+     * No query is executed without keys.
+     */
+    @Test
+    public final void testNoKeys() {
+        assertTrue(dao.findByIds(Collections.<Long> emptyList()).isEmpty());
+        verify(em, never()).getCriteriaBuilder();
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * openwms.org, the Open Warehouse Management System.
+ * Copyright (C) 2014 Heiko Scherrer
+ *
+ * This file is part of openwms.org.
+ *
+ * openwms.org is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * openwms.org is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this software. If not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.openwms.core;
+
+import static org.junit.Assert.assertNull;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import java.util.Collections;
+
+import org.junit.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.openwms.core.test.AbstractMockitoTests;
+import org.springframework.context.MessageSource;
+
+/**
+ * A GenericJpaDaoQueryHintsTest.
+ *
+ * @author <a href="mailto:scherrer@openwms.org">Heiko Scherrer</a>
+ * @version $Revision: $
+ * @since 1.1
+ */
+public class GenericJpaDaoQueryHintsTest extends AbstractMockitoTests {
+
+    private static final String FIND_ALL = "TestEntity.findAll";
+    private static final String FIND_BY_ID = "TestEntity.findById";
+    @Mock
+    private EntityManager em;
+    @Mock
+    private MessageSource messageSource;
+    @Mock
+    private Query query;
+    @InjectMocks
+    private TestDao dao;
+
+    /**
+     * The hints of the subclass are applied to each query instance.
+     */
+    @Test
+    public final void testHintsApplied() {
+        when(em.createNamedQuery(FIND_ALL)).thenReturn(query);
+        when(query.getResultList()).thenReturn(Collections.emptyList());
+
+        dao.findAll();
+        dao.findAll();
+
+        verify(em, times(2)).createNamedQuery(FIND_ALL);
+        verify(query, times(2)).setHint(AbstractGenericJpaDao.HINT_READ_ONLY, Boolean.TRUE);
+        verify(query, times(2)).setHint(AbstractGenericJpaDao.HINT_FETCH_SIZE, 50);
+    }
+
+    /**
+     * No message is resolved as long as a unique result is found.
+     */
+    @Test
+    public final void testFindByUniqueIdWithoutMessageLookup() {
+        when(em.createNamedQuery(FIND_BY_ID)).thenReturn(query);
+        when(query.setParameter(1, "4711")).thenReturn(query);
+        when(query.setMaxResults(anyInt())).thenReturn(query);
+        when(query.getResultList()).thenReturn(Collections.emptyList());
+
+        assertNull(dao.findByUniqueId("4711"));
+        verify(messageSource, never()).getMessage(anyString(), any(), any());
+    }
+
+    static class TestDao extends AbstractGenericJpaDao<TestEntity, Long> {
+
+        @Override
+        protected Class<TestEntity> getPersistentClass() {
+            return TestEntity.class;
+        }
+
+        @Override
+        protected String getFindAllQuery() {
+            return FIND_ALL;
+        }
+
+        @Override
+        protected String getFindByUniqueIdQuery() {
+            return FIND_BY_ID;
+        }
+
+        @Override
+        protected boolean isReadOnlyQuery(String queryName) {
+            return true;
+        }
+
+        @Override
+        protected int getFetchSize(String queryName) {
+            return 50;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * openwms.org, the Open Warehouse Management System.
+ * Copyright (C) 2014 Heiko Scherrer
+ *
+ * This file is part of openwms.org.
+ *
+ * openwms.org is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * openwms.org is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this software. If not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.openwms.core.app;
+
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.hibernate.Cache;
+import org.hibernate.HibernateException;
+import org.hibernate.cache.spi.EntityRegion;
+import org.hibernate.cache.spi.access.EntityRegionAccessStrategy;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.metadata.ClassMetadata;
+import org.hibernate.persister.entity.EntityPersister;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.openwms.core.Constants;
+import org.openwms.core.event.ConfigurationChangedEvent;
+import org.openwms.core.event.GrantChangedEvent;
+import org.openwms.core.event.ProductChangedEvent;
+import org.openwms.core.event.RoleChangedEvent;
+import org.openwms.core.event.UserChangedEvent;
+import org.openwms.core.test.AbstractMockitoTests;
+
+/**
+ * A SecondLevelCacheInvalidatorTest.
+ *
+ * @author <a href="mailto:scherrer@openwms.org">Heiko Scherrer</a>
+ * @version $Revision: $
+ * @since 1.1
+ */
+public class SecondLevelCacheInvalidatorTest extends AbstractMockitoTests {
+
+    private static final String ROLE = "org.openwms.core.uaa.Role";
+    private static final String GRANT = "org.openwms.core.uaa.Grant";
+    private static final String MODULE = "org.openwms.core.module.Module";
+    private static final String I18N = "org.openwms.core.lang.I18n";
+    private static final String PRODUCT = "org.openwms.wms.inventory.Product";
+    private static final String UNCACHED = "org.openwms.core.uaa.User";
+    @Mock
+    private EntityManagerFactory emf;
+    @Mock
+    private SessionFactoryImplementor sf;
+    @Mock
+    private Cache cache;
+
+    private SecondLevelCacheInvalidator testee() {
+        when(emf.unwrap(SessionFactoryImplementor.class)).thenReturn(sf);
+        when(sf.getCache()).thenReturn(cache);
+        Map<String, ClassMetadata> metadata = new HashMap<>();
+        for (String entityName : new String[]{ROLE, GRANT, MODULE, I18N, PRODUCT, UNCACHED}) {
+            metadata.put(entityName, mock(ClassMetadata.class));
+        }
+        when(sf.getAllClassMetadata()).thenReturn(metadata);
+        persister(ROLE, Constants.CACHE_REGION_SECURITY_OBJECTS);
+        persister(GRANT, Constants.CACHE_REGION_SECURITY_OBJECTS);
+        persister(MODULE, Constants.CACHE_REGION_MODULES);
+        persister(I18N, "prefix." + Constants.CACHE_REGION_I18N);
+        persister(PRODUCT, Constants.CACHE_REGION_PRODUCTS);
+        persister(UNCACHED, null);
+        return new SecondLevelCacheInvalidator(emf);
+    }
+
+    private void persister(String entityName, String region) {
+        EntityPersister persister = mock(EntityPersister.class);
+        when(persister.hasCache()).thenReturn(region != null);
+        if (region != null) {
+            EntityRegionAccessStrategy strategy = mock(EntityRegionAccessStrategy.class);
+            EntityRegion entityRegion = mock(EntityRegion.class);
+            when(entityRegion.getName()).thenReturn(region);
+            when(strategy.getRegion()).thenReturn(entityRegion);
+            when(persister.getCacheAccessStrategy()).thenReturn(strategy);
+        }
+        when(sf.getEntityPersister(entityName)).thenReturn(persister);
+    }
+
+    /**
+     * Each security event evicts the Entities cached in the security region by their entity name, never by the region name.
+     */
+    @Test
+    public final void testSecurityEvents() {
+        SecondLevelCacheInvalidator testee = testee();
+        testee.onApplicationEvent(new RoleChangedEvent(this));
+        testee.onApplicationEvent(new UserChangedEvent(this));
+        testee.onApplicationEvent(new GrantChangedEvent(this, "CORE"));
+
+        verify(cache, times(3)).evictEntityRegion(ROLE);
+        verify(cache, times(3)).evictEntityRegion(GRANT);
+        verify(cache, never()).evictEntityRegion(Constants.CACHE_REGION_SECURITY_OBJECTS);
+        verify(cache, never()).evictEntityRegion(MODULE);
+        verify(cache, times(3)).evictQueryRegions();
+    }
+
+    /**
+     * A ConfigurationChangedEvent evicts Modules and I18n, a region prefix is respected.
+     */
+    @Test
+    public final void testConfigurationEvent() {
+        testee().onApplicationEvent(new ConfigurationChangedEvent(this));
+
+        verify(cache).evictEntityRegion(MODULE);
+        verify(cache).evictEntityRegion(I18N);
+        verify(cache, never()).evictEntityRegion(ROLE);
+        verify(cache, never()).evictEntityRegion(UNCACHED);
+        verify(cache).evictDefaultQueryRegion();
+    }
+
+    /**
+     * A ProductChangedEvent evicts the Products only.
+     */
+    @Test
+    public final void testProductEvent() {
+        testee().onApplicationEvent(new ProductChangedEvent(this));
+
+        verify(cache).evictEntityRegion(PRODUCT);
+        verify(cache, never()).evictEntityRegion(MODULE);
+        verify(cache, never()).evictEntityRegion(ROLE);
+        verify(cache).evictQueryRegions();
+    }
+
+    /**
+     * The events are published after commit, a failing eviction must not be propagated.
+     */
+    @Test
+    public final void testFailingEvictionIsNotPropagated() {
+        SecondLevelCacheInvalidator testee = testee();
+        doThrow(new HibernateException("Unknown entity")).when(cache).evictEntityRegion(MODULE);
+
+        testee.onApplicationEvent(new ConfigurationChangedEvent(this));
+    }
+}
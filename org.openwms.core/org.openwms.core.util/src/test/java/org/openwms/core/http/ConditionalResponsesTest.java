@@ -0,0 +1,150 @@
+/*
+ * openwms.org, the Open Warehouse Management System.
+ * Copyright (C) 2014 Heiko Scherrer
+ *
+ * This file is part of openwms.org.
+ *
+ * openwms.org is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * openwms.org is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this software. If not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.openwms.core.http;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+import org.openwms.core.event.ConfigurationChangedEvent;
+import org.openwms.core.event.UserChangedEvent;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * A ConditionalResponsesTest.
+ *
+ * @author <a href="mailto:scherrer@openwms.org">Heiko Scherrer</a>
+ * @version $Revision: $
+ * @since 1.1
+ */
+public class ConditionalResponsesTest {
+
+    private final AtomicLong now = new AtomicLong(1_200_000L);
+    private final ResourceVersions versions = new ResourceVersions(60, now::get);
+    private final AtomicInteger calls = new AtomicInteger();
+    private final Supplier<List<String>> body = () -> {
+        calls.incrementAndGet();
+        return Arrays.asList("a", "b");
+    };
+
+    /**
+     * The body is not built as long as the client sends the current ETag.
+     */
+    @Test
+    public final void testNotModified() {
+        ConditionalResponses testee = new ConditionalResponses(versions, new ObjectMapper(), false, 10);
+        ResponseEntity<?> first = testee.respond(ResourceVersions.USERS, null, null, body);
+        String etag = first.getHeaders().getETag();
+        assertEquals(HttpStatus.OK, first.getStatusCode());
+        assertEquals(Arrays.asList("a", "b"), first.getBody());
+
+        ResponseEntity<?> second = testee.respond(ResourceVersions.USERS, null, etag, body);
+        assertEquals(HttpStatus.NOT_MODIFIED, second.getStatusCode());
+        assertEquals(etag, second.getHeaders().getETag());
+        assertNull(second.getBody());
+        assertEquals(1, calls.get());
+    }
+
+    /**
+     * A change event invalidates the ETag of the affected resources only.
+     */
+    @Test
+    public final void testChangeEvent() {
+        String users = versions.etag(ResourceVersions.USERS, versions.current(ResourceVersions.USERS), null);
+        String preferences = versions.etag(ResourceVersions.PREFERENCES, versions.current(ResourceVersions.PREFERENCES), null);
+
+        versions.onApplicationEvent(new UserChangedEvent(this));
+        assertNotEquals(users, versions.etag(ResourceVersions.USERS, versions.current(ResourceVersions.USERS), null));
+        assertEquals(1, versions.current(ResourceVersions.ROLES));
+        assertEquals(preferences, versions.etag(ResourceVersions.PREFERENCES, versions.current(ResourceVersions.PREFERENCES), null));
+
+        versions.onApplicationEvent(new ConfigurationChangedEvent(this));
+        assertEquals(1, versions.current(ResourceVersions.PREFERENCES));
+        assertNotEquals(versions.etag(ResourceVersions.USERS, 1, "page 0"), versions.etag(ResourceVersions.USERS, 1, "page 1"));
+    }
+
+    /**
+     * Serialized responses are served from the cache until the resource has been changed.
+     */
+    @Test
+    public final void testResponseCache() {
+        ConditionalResponses testee = new ConditionalResponses(versions, new ObjectMapper(), true, 1);
+        byte[] first = (byte[]) testee.respond(ResourceVersions.PREFERENCES, null, null, body).getBody();
+        byte[] second = (byte[]) testee.respond(ResourceVersions.PREFERENCES, null, null, body).getBody();
+        assertArrayEquals("[\"a\",\"b\"]".getBytes(), first);
+        assertArrayEquals(first, second);
+        assertEquals(1, calls.get());
+
+        versions.onApplicationEvent(new ConfigurationChangedEvent(this));
+        testee.respond(ResourceVersions.PREFERENCES, null, null, body);
+        assertEquals(2, calls.get());
+
+        testee.respond(ResourceVersions.USERS, null, null, body);
+        assertEquals(1, testee.getCachedResponses());
+    }
+
+    /**
+     * An ETag and a cached response expire after the lifetime, so changes made on other instances are seen at the latest then.
+     */
+    @Test
+    public final void testLifetime() {
+        ConditionalResponses testee = new ConditionalResponses(versions, new ObjectMapper(), true, 10);
+        String etag = testee.respond(ResourceVersions.USERS, null, null, body).getHeaders().getETag();
+        now.addAndGet(59_000L);
+        assertEquals(HttpStatus.NOT_MODIFIED, testee.respond(ResourceVersions.USERS, null, etag, body).getStatusCode());
+
+        now.addAndGet(1_000L);
+        ResponseEntity<?> expired = testee.respond(ResourceVersions.USERS, null, etag, body);
+        assertEquals(HttpStatus.OK, expired.getStatusCode());
+        assertNotEquals(etag, expired.getHeaders().getETag());
+        assertEquals(2, calls.get());
+
+        ResourceVersions unlimited = new ResourceVersions(0, now::get);
+        String tag = unlimited.etag(ResourceVersions.USERS, 0, null);
+        now.addAndGet(3_600_000L);
+        assertEquals(tag, unlimited.etag(ResourceVersions.USERS, 0, null));
+    }
+
+    /**
+     * Lists of tags, weak tags and the wildcard are accepted.
+     */
+    @Test
+    public final void testMatches() {
+        assertTrue(ConditionalResponses.matches("\"x\", \"y\"", "\"y\""));
+        assertTrue(ConditionalResponses.matches("W/\"y\"", "\"y\""));
+        assertTrue(ConditionalResponses.matches("*", "\"y\""));
+        assertFalse(ConditionalResponses.matches("\"x\"", "\"y\""));
+        assertFalse(ConditionalResponses.matches(null, "\"y\""));
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * openwms.org, the Open Warehouse Management System.
+ * Copyright (C) 2014 Heiko Scherrer
+ *
+ * This file is part of openwms.org.
+ *
+ * openwms.org is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * openwms.org is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this software. If not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.openwms.core.http;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import javax.validation.ValidationException;
+
+import org.junit.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * An ExceptionMappingTest.
+ *
+ * @author <a href="mailto:scherrer@openwms.org">Heiko Scherrer</a>
+ * @version $Revision: $
+ * @since 1.1
+ */
+public class ExceptionMappingTest {
+
+    /**
+     * Subclasses are mapped like their superclass, the mapping is resolved once per class.
+     */
+    @Test
+    public final void testMappingPerClass() {
+        assertEquals(ExceptionMapping.Kind.VALIDATION, ExceptionMapping.of(ValidationException.class).getKind());
+        assertEquals(ExceptionMapping.Kind.VALIDATION, ExceptionMapping.of(TestValidationException.class).getKind());
+        assertEquals(ExceptionMapping.Kind.HTTP_BUSINESS, ExceptionMapping.of(HttpBusinessException.class).getKind());
+        assertEquals(ExceptionMapping.Kind.UNEXPECTED, ExceptionMapping.of(IllegalStateException.class).getKind());
+        assertSame(ExceptionMapping.of(IllegalStateException.class), ExceptionMapping.of(IllegalStateException.class));
+        assertSame(ResponseTemplate.BAD_REQUEST, ExceptionMapping.of(ValidationException.class).getTemplate());
+    }
+
+    /**
+     * Only a limited number of expected exceptions is logged, afterwards they are sampled.
+     */
+    @Test
+    public final void testRateLimit() {
+        ExceptionMapping mapping = ExceptionMapping.of(RateLimitedException.class);
+        int logged = 0;
+        int total = ExceptionMapping.PERMITS_PER_SECOND + 2 * ExceptionMapping.SAMPLE_RATE;
+        for (int i = 0; i < total; i++) {
+            if (mapping.tryAcquire()) {
+                logged++;
+            }
+        }
+        assertTrue(logged >= ExceptionMapping.PERMITS_PER_SECOND);
+        assertTrue(logged < total / 2);
+    }
+
+    /**
+     * Responses carry the precomputed status code.
+     */
+    @Test
+    public final void testResponseTemplate() {
+        ResponseEntity<?> response = ResponseTemplate.of(HttpStatus.NOT_FOUND).create("Not found");
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertEquals("404", ResponseTemplate.of(HttpStatus.NOT_FOUND).getCode());
+        assertSame(ResponseTemplate.INTERNAL_SERVER_ERROR, ResponseTemplate.of(null));
+        assertFalse(ResponseTemplate.BAD_GATEWAY == ResponseTemplate.BAD_REQUEST);
+    }
+
+    private static class TestValidationException extends ValidationException {
+    }
+
+    private static class RateLimitedException extends ValidationException {
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * openwms.org, the Open Warehouse Management System.
+ * Copyright (C) 2014 Heiko Scherrer
+ *
+ * This file is part of openwms.org.
+ *
+ * openwms.org is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * openwms.org is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this software. If not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.openwms.core.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+import org.mockito.Matchers;
+import org.mockito.Mock;
+import org.openwms.core.GenericDao;
+import org.openwms.core.TestEntity;
+import org.openwms.core.test.AbstractMockitoTests;
+
+/**
+ * A ServiceHelperTest.
+ *
+ * @author <a href="mailto:scherrer@openwms.org">Heiko Scherrer</a>
+ * @version $Revision: $
+ * @since 1.1
+ */
+public class ServiceHelperTest extends AbstractMockitoTests {
+
+    @Mock
+    private GenericDao<TestEntity, Long> dao;
+
+    /**
+     * The managed entities are returned in the order of the input, missing ones are skipped.
+     */
+    @Test
+    public final void testManagedEntitiesKeepOrder() {
+        when(dao.findByIds(Arrays.asList(3L, 1L, 2L))).thenReturn(Arrays.asList(new TestEntity(1L), new TestEntity(3L)));
+
+        List<TestEntity> result = ServiceHelper.managedEntities(
+                Arrays.asList(new TestEntity(3L), new TestEntity(1L), new TestEntity(2L)), dao);
+
+        assertEquals(Arrays.asList(3L, 1L), result.stream().map(TestEntity::getId).collect(Collectors.toList()));
+    }
+
+    /**
+     * Test with an empty input, the dao must not be called.
+     */
+    @Test
+    public final void testManagedEntitiesEmpty() {
+        assertTrue(ServiceHelper.managedEntities(Collections.<TestEntity> emptyList(), dao).isEmpty());
+        assertEquals(0, ServiceHelper.managedEntityStream(null, dao).count());
+        verify(dao, never()).findByIds(Matchers.anyCollectionOf(Long.class));
+    }
+
+    /**
+     * The stream resolves the entities in chunks and keeps the order.
+     */
+    @Test
+    public final void testManagedEntityStream() {
+        List<TestEntity> detached = Arrays.asList(new TestEntity(2L), new TestEntity(1L));
+        when(dao.findByIds(Arrays.asList(2L, 1L))).thenReturn(Arrays.asList(new TestEntity(1L), new TestEntity(2L)));
+
+        List<Long> ids = ServiceHelper.managedEntityStream(detached, dao).map(TestEntity::getId).collect(Collectors.toList());
+
+        assertEquals(Arrays.asList(2L, 1L), ids);
+    }
+
+    /**
+     * More entities than fit into one chunk are resolved chunk by chunk, the order is kept across chunks and a missing entity is skipped.
+     */
+    @Test
+    public final void testManagedEntityStreamWithChunks() {
+        List<TestEntity> detached = Arrays.asList(new TestEntity(5L), new TestEntity(4L), new TestEntity(3L), new TestEntity(2L),
+                new TestEntity(1L));
+        when(dao.findByIds(Arrays.asList(5L, 4L))).thenReturn(Arrays.asList(new TestEntity(4L), new TestEntity(5L)));
+        when(dao.findByIds(Arrays.asList(3L, 2L))).thenReturn(Collections.singletonList(new TestEntity(2L)));
+        when(dao.findByIds(Collections.singletonList(1L))).thenReturn(Collections.singletonList(new TestEntity(1L)));
+
+        List<Long> ids = ServiceHelper.managedEntityStream(detached, dao, 2).map(TestEntity::getId).collect(Collectors.toList());
+
+        assertEquals(Arrays.asList(5L, 4L, 2L, 1L), ids);
+        verify(dao, times(3)).findByIds(Matchers.anyCollectionOf(Long.class));
+    }
+
+    /**
+     * Only the chunks that are consumed are resolved.
+     */
+    @Test
+    public final void testManagedEntityStreamIsLazy() {
+        List<TestEntity> detached = Arrays.asList(new TestEntity(1L), new TestEntity(2L), new TestEntity(3L));
+        when(dao.findByIds(Arrays.asList(1L, 2L))).thenReturn(Arrays.asList(new TestEntity(1L), new TestEntity(2L)));
+
+        assertEquals(Long.valueOf(1L), ServiceHelper.managedEntityStream(detached, dao, 2).findFirst().get().getId());
+        verify(dao, never()).findByIds(Collections.singletonList(3L));
+    }
+}
@@ -21,6 +21,7 @@
  */
 package org.openwms.wms.inventory;
 
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.EnumType;
@@ -29,6 +30,9 @@ import javax.persistence.Table;
 import java.io.Serializable;
 
 import org.ameba.integration.jpa.BaseEntity;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.openwms.core.Constants;
 import org.openwms.core.values.CoreTypeDefinitions;
 
 /**
@@ -40,6 +44,8 @@ import org.openwms.core.values.CoreTypeDefinitions;
  */
 @Entity
 @Table(name = "WMS_PRODUCT")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Constants.CACHE_REGION_PRODUCTS)
 public class Product extends BaseEntity implements Comparable<Product>, Serializable {
 
     /** The product id is the unique business key. */